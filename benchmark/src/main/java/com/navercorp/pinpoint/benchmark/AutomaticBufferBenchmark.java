@@ -0,0 +1,96 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.benchmark;
+
+import com.navercorp.pinpoint.common.buffer.AutomaticBuffer;
+import com.navercorp.pinpoint.common.buffer.Buffer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AutomaticBuffer with the put mix of a span event row(prefixed strings, var ints, longs, bytes).
+ * <pre>
+ * initialSize 16  : grows several times per row. the default of most call sites that don't know the row size
+ * initialSize 512 : no growth
+ * </pre>
+ * run main() or the jmh runner with -prof gc to see the allocation rate per row.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class AutomaticBufferBenchmark {
+
+    @Param({"16", "512"})
+    public int initialSize;
+
+    private final byte[] transactionId = new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23, 24};
+
+    @Benchmark
+    public byte[] spanEventRow() {
+        final Buffer buffer = new AutomaticBuffer(initialSize);
+        buffer.put((byte) 0);
+        buffer.putPrefixedString(SpanFixture.AGENT_ID);
+        buffer.putPrefixedString(SpanFixture.APPLICATION_NAME);
+        buffer.putVar(SpanFixture.AGENT_START_TIME);
+        buffer.putVar(12);
+        buffer.putVar(3);
+        buffer.put((short) 2101);
+        buffer.putPrefixedString("order-db01.example.com:3306");
+        buffer.putPrefixedString("order_db");
+        buffer.putSVar(107);
+        buffer.putSVar(3);
+        buffer.put(-5725190431394937347L);
+        buffer.putPrefixedBytes(transactionId);
+        // annotations. key + type + value
+        buffer.putSVar(20);
+        buffer.put((byte) 10);
+        buffer.putSVar(-1083374524);
+        buffer.putPrefixedString("3,20");
+        buffer.putPrefixedString("482113, 'ORDERED'");
+        buffer.putSVar(-1);
+        buffer.put((byte) 0);
+        buffer.putPrefixedString("OrderSearchCondition{memberNo=482113}");
+        return buffer.getBuffer();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(AutomaticBufferBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.benchmark;
+
+import com.navercorp.pinpoint.common.AnnotationKey;
+import com.navercorp.pinpoint.common.ServiceType;
+import com.navercorp.pinpoint.profiler.context.DefaultTrace;
+import com.navercorp.pinpoint.profiler.context.DefaultTraceContext;
+import com.navercorp.pinpoint.profiler.context.storage.Storage;
+import com.navercorp.pinpoint.profiler.interceptor.DefaultMethodDescriptor;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DefaultTrace.traceBlockBegin()/traceBlockEnd() of a whole transaction. the score is per transaction.
+ * each call is a controller block wrapping a dao block(depth 2) that records what the jdbc/http interceptors record.
+ * <pre>
+ * callCount 5  : typical request
+ * callCount 50 : request with many sql calls
+ * </pre>
+ * run main() or the jmh runner with -prof gc to see the allocation rate per transaction.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class DefaultTraceBenchmark {
+
+    @Param({"5", "50"})
+    public int callCount;
+
+    private DefaultTraceContext traceContext;
+    private Storage storage;
+    private DefaultMethodDescriptor controllerApi;
+    private DefaultMethodDescriptor daoApi;
+    private long transactionId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        traceContext = TraceContextFixture.createTraceContext();
+        storage = new TraceContextFixture.DiscardStorageFactory().createStorage();
+
+        controllerApi = new DefaultMethodDescriptor("com.example.order.OrderController", "list", new String[]{"com.example.order.OrderSearchCondition"}, new String[]{"condition"});
+        traceContext.cacheApi(controllerApi);
+        daoApi = new DefaultMethodDescriptor("com.mysql.jdbc.StatementImpl", "executeQuery", new String[]{"java.lang.String"}, new String[]{"sql"});
+        traceContext.cacheApi(daoApi);
+    }
+
+    @Benchmark
+    public DefaultTrace transaction() {
+        final DefaultTrace trace = new DefaultTrace(traceContext, transactionId++);
+        trace.setStorage(storage);
+        trace.setSampling(true);
+
+        trace.markBeforeTime();
+        trace.recordServiceType(ServiceType.STAND_ALONE);
+        trace.recordRpcName("/api/v1/orders/list.nhn");
+        trace.recordEndPoint("order-web01.example.com:8080");
+        trace.recordRemoteAddress("10.113.24.55");
+
+        for (int i = 0; i < callCount; i++) {
+            trace.traceBlockBegin();
+            trace.markBeforeTime();
+            trace.recordServiceType(ServiceType.SPRING_MVC);
+            trace.recordApi(controllerApi);
+
+            trace.traceBlockBegin();
+            trace.markBeforeTime();
+            trace.recordServiceType(ServiceType.MYSQL_EXECUTE_QUERY);
+            trace.recordEndPoint("order-db01.example.com:3306");
+            trace.recordDestinationId("order_db");
+            trace.recordApi(daoApi);
+            trace.recordAttribute(AnnotationKey.SQL_ID, i);
+            trace.markAfterTime();
+            trace.traceBlockEnd();
+
+            trace.markAfterTime();
+            trace.traceBlockEnd();
+        }
+
+        trace.markAfterTime();
+        trace.traceRootBlockEnd();
+        return trace;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(DefaultTraceBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.benchmark;
+
+import com.navercorp.pinpoint.bootstrap.context.RecordableTrace;
+import com.navercorp.pinpoint.bootstrap.context.Trace;
+import com.navercorp.pinpoint.bootstrap.interceptor.SpanEventSimpleAroundInterceptor;
+import com.navercorp.pinpoint.common.ServiceType;
+import com.navercorp.pinpoint.profiler.context.DefaultTraceContext;
+import com.navercorp.pinpoint.profiler.interceptor.DefaultMethodDescriptor;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SpanEventSimpleAroundInterceptor.before()/after() as injected into the target method. the score is per transaction.
+ * <pre>
+ * sampled    : a trace is bound to the thread. callCount x (before + after) + root block
+ * notSampled : no trace bound to the thread. the fast path of the unsampled requests
+ * </pre>
+ * the interceptor records what the jdbc statement interceptors record(service type, end point, api, sql, exception).
+ * run main() or the jmh runner with -prof gc to see the allocation rate per transaction.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class InterceptorBenchmark {
+
+    @Param({"5", "50"})
+    public int callCount;
+
+    private DefaultTraceContext traceContext;
+    private StatementInterceptor interceptor;
+
+    private final Object target = new Object();
+    private Object[][] argsList;
+    private final Object result = new Object();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        traceContext = TraceContextFixture.createTraceContext();
+
+        interceptor = new StatementInterceptor();
+        interceptor.setTraceContext(traceContext);
+        interceptor.setMethodDescriptor(new DefaultMethodDescriptor("com.mysql.jdbc.StatementImpl", "executeQuery", new String[]{"java.lang.String"}, new String[]{"sql"}));
+
+        argsList = new Object[SqlCorpus.SQL_LIST.length][];
+        for (int i = 0; i < argsList.length; i++) {
+            argsList[i] = new Object[]{SqlCorpus.SQL_LIST[i]};
+        }
+    }
+
+    @Benchmark
+    public Trace sampled() {
+        final Trace trace = traceContext.newTraceObject();
+        trace.markBeforeTime();
+        trace.recordServiceType(ServiceType.STAND_ALONE);
+        trace.recordRpcName("/api/v1/orders/list.nhn");
+
+        invoke();
+
+        trace.markAfterTime();
+        trace.traceRootBlockEnd();
+        traceContext.detachTraceObject();
+        return trace;
+    }
+
+    @Benchmark
+    public void notSampled() {
+        invoke();
+    }
+
+    private void invoke() {
+        final Object[][] argsList = this.argsList;
+        for (int i = 0; i < callCount; i++) {
+            final Object[] args = argsList[i % argsList.length];
+            interceptor.before(target, args);
+            interceptor.after(target, args, result, null);
+        }
+    }
+
+    public static class StatementInterceptor extends SpanEventSimpleAroundInterceptor {
+
+        public StatementInterceptor() {
+            super(StatementInterceptor.class);
+        }
+
+        @Override
+        protected void doInBeforeTrace(RecordableTrace trace, Object target, Object[] args) {
+            trace.markBeforeTime();
+            trace.recordServiceType(ServiceType.MYSQL_EXECUTE_QUERY);
+            trace.recordEndPoint("order-db01.example.com:3306");
+            trace.recordDestinationId("order_db");
+        }
+
+        @Override
+        protected void doInAfterTrace(RecordableTrace trace, Object target, Object[] args, Object result, Throwable throwable) {
+            trace.recordApi(getMethodDescriptor());
+            trace.recordSqlInfo((String) args[0]);
+            trace.recordException(throwable);
+            trace.markAfterTime();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(InterceptorBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.benchmark;
+
+import com.navercorp.pinpoint.common.bo.AnnotationBo;
+import com.navercorp.pinpoint.common.bo.AnnotationBoList;
+import com.navercorp.pinpoint.common.bo.SpanBo;
+import com.navercorp.pinpoint.common.bo.SpanEncoder;
+import com.navercorp.pinpoint.common.bo.SpanEventBo;
+import com.navercorp.pinpoint.common.buffer.AutomaticBuffer;
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.thrift.dto.TAnnotation;
+import com.navercorp.pinpoint.thrift.dto.TSpan;
+import com.navercorp.pinpoint.thrift.dto.TSpanEvent;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Storage encoding of a whole {@link SpanFixture} span as done by the collector's HbaseTraceDao. the score is per span.
+ * <pre>
+ * bo      : TSpan -> SpanBo/AnnotationBo/SpanEventBo -> writeValue() into a new AutomaticBuffer per value
+ * encoder : TSpan -> SpanEncoder. no bo objects, one reused scratch buffer and a right-sized copy per value
+ * </pre>
+ * run main() or the jmh runner with -prof gc and compare gc.alloc.rate.norm of the two.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class SpanEncoderBenchmark {
+
+    @Param({"10", "100"})
+    public int eventCount;
+
+    private TSpan span;
+    private SpanEncoder encoder;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        span = SpanFixture.createSpan(eventCount);
+        encoder = new SpanEncoder();
+    }
+
+    @Benchmark
+    public void bo(Blackhole blackhole) {
+        final SpanBo spanBo = new SpanBo(span);
+        blackhole.consume(spanBo.writeValue());
+
+        final List<TAnnotation> annotations = span.getAnnotations();
+        final List<AnnotationBo> annotationBoList = new ArrayList<AnnotationBo>(annotations.size());
+        for (TAnnotation annotation : annotations) {
+            annotationBoList.add(new AnnotationBo(annotation));
+        }
+        final Buffer buffer = new AutomaticBuffer(64);
+        new AnnotationBoList(annotationBoList).writeValue(buffer);
+        blackhole.consume(buffer.getBuffer());
+
+        for (TSpanEvent spanEvent : span.getSpanEventList()) {
+            final SpanEventBo spanEventBo = new SpanEventBo(span, spanEvent);
+            blackhole.consume(spanEventBo.writeValue());
+        }
+    }
+
+    @Benchmark
+    public void encoder(Blackhole blackhole) {
+        blackhole.consume(encoder.encodeSpan(span));
+        blackhole.consume(encoder.encodeAnnotationList(span.getAnnotations()));
+        for (TSpanEvent spanEvent : span.getSpanEventList()) {
+            blackhole.consume(encoder.encodeSpanEvent(span, spanEvent));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(SpanEncoderBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.benchmark;
+
+import com.navercorp.pinpoint.common.bo.SpanEventBo;
+import com.navercorp.pinpoint.thrift.dto.TSpan;
+import com.navercorp.pinpoint.thrift.dto.TSpanEvent;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collector side encoding of the span events of a {@link SpanFixture} span. the score is per span.
+ * <pre>
+ * writeValue        : SpanEventBo.writeValue() only
+ * convertWriteValue : TSpanEvent -> SpanEventBo -> writeValue(). the whole path of the span handler
+ * </pre>
+ * run main() or the jmh runner with -prof gc to see the allocation rate per span.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class SpanEventBoBenchmark {
+
+    @Param({"10", "100"})
+    public int eventCount;
+
+    private TSpan span;
+    private List<SpanEventBo> spanEventBoList;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        span = SpanFixture.createSpan(eventCount);
+        spanEventBoList = new ArrayList<SpanEventBo>(eventCount);
+        for (TSpanEvent spanEvent : span.getSpanEventList()) {
+            spanEventBoList.add(new SpanEventBo(span, spanEvent));
+        }
+    }
+
+    @Benchmark
+    public void writeValue(Blackhole blackhole) {
+        for (SpanEventBo spanEventBo : spanEventBoList) {
+            blackhole.consume(spanEventBo.writeValue());
+        }
+    }
+
+    @Benchmark
+    public void convertWriteValue(Blackhole blackhole) {
+        for (TSpanEvent spanEvent : span.getSpanEventList()) {
+            final SpanEventBo spanEventBo = new SpanEventBo(span, spanEvent);
+            blackhole.consume(spanEventBo.writeValue());
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(SpanEventBoBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
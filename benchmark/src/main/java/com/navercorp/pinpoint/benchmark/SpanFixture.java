@@ -0,0 +1,164 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.benchmark;
+
+import com.navercorp.pinpoint.common.AnnotationKey;
+import com.navercorp.pinpoint.common.ServiceType;
+import com.navercorp.pinpoint.common.util.TransactionIdUtils;
+import com.navercorp.pinpoint.thrift.dto.TAnnotation;
+import com.navercorp.pinpoint.thrift.dto.TAnnotationValue;
+import com.navercorp.pinpoint.thrift.dto.TIntStringStringValue;
+import com.navercorp.pinpoint.thrift.dto.TIntStringValue;
+import com.navercorp.pinpoint.thrift.dto.TSpan;
+import com.navercorp.pinpoint.thrift.dto.TSpanEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Span fixture shaped like a typical web transaction.
+ * controller -> service -> (dao -> sql | redis | http client) repeated, with the annotation mix the agent actually records.
+ * <pre>
+ * internal method : api id + args[0]
+ * sql             : SQL-ID(int, output, bind value) + SQL-BindValue
+ * redis           : destination id + end point
+ * http client     : http.url + http.status.code + next span id
+ * </pre>
+ * the fixture is deterministic. the same eventCount always builds the same span.
+ */
+public final class SpanFixture {
+
+    public static final String AGENT_ID = "benchmark-agent";
+    public static final String APPLICATION_NAME = "benchmark-application";
+    public static final long AGENT_START_TIME = 1420070400000L;
+
+    private static final int CALL_KINDS = 4;
+
+    private SpanFixture() {
+    }
+
+    public static TSpan createSpan(int eventCount) {
+        if (eventCount < 0) {
+            throw new IllegalArgumentException("negative eventCount:" + eventCount);
+        }
+        final Random random = new Random(eventCount);
+
+        final TSpan span = new TSpan();
+        span.setAgentId(AGENT_ID);
+        span.setApplicationName(APPLICATION_NAME);
+        span.setAgentStartTime(AGENT_START_TIME);
+        span.setTransactionId(TransactionIdUtils.formatBytes(AGENT_ID, AGENT_START_TIME, 12345));
+        span.setSpanId(random.nextLong());
+        span.setParentSpanId(-1);
+        span.setStartTime(AGENT_START_TIME + 1000);
+        span.setElapsed(eventCount * 3 + 5);
+        span.setRpc("/api/v1/orders/list.nhn");
+        span.setServiceType(ServiceType.STAND_ALONE.getCode());
+        span.setEndPoint("order-web01.example.com:8080");
+        span.setRemoteAddr("10.113.24.55");
+        span.setApiId(1);
+        span.setFlag((short) 0);
+
+        final List<TAnnotation> spanAnnotations = new ArrayList<TAnnotation>();
+        spanAnnotations.add(annotation(AnnotationKey.HTTP_PARAM, TAnnotationValue.stringValue("page=3&size=20&sort=createdAt")));
+        span.setAnnotations(spanAnnotations);
+
+        final List<TSpanEvent> spanEventList = new ArrayList<TSpanEvent>(eventCount);
+        int elapsed = 1;
+        for (int sequence = 0; sequence < eventCount; sequence++) {
+            final TSpanEvent event;
+            switch (sequence % CALL_KINDS) {
+                case 0:
+                    event = createMethodEvent(sequence, random);
+                    break;
+                case 1:
+                    event = createSqlEvent(sequence, random);
+                    break;
+                case 2:
+                    event = createRedisEvent(sequence);
+                    break;
+                default:
+                    event = createHttpClientEvent(sequence, random);
+                    break;
+            }
+            event.setStartElapsed(elapsed);
+            event.setEndElapsed(1 + random.nextInt(30));
+            elapsed += 2;
+            spanEventList.add(event);
+        }
+        span.setSpanEventList(spanEventList);
+        return span;
+    }
+
+    private static TSpanEvent createEvent(int sequence, ServiceType serviceType, int depth) {
+        final TSpanEvent event = new TSpanEvent();
+        event.setSequence((short) sequence);
+        event.setServiceType(serviceType.getCode());
+        event.setDepth(depth);
+        event.setApiId(100 + (sequence % 16));
+        return event;
+    }
+
+    private static TSpanEvent createMethodEvent(int sequence, Random random) {
+        final TSpanEvent event = createEvent(sequence, ServiceType.SPRING_MVC, 1);
+        event.addToAnnotations(annotation(AnnotationKey.ARGS0, TAnnotationValue.stringValue("OrderSearchCondition{memberNo=" + random.nextInt(1000000) + "}")));
+        return event;
+    }
+
+    private static TSpanEvent createSqlEvent(int sequence, Random random) {
+        final TSpanEvent event = createEvent(sequence, ServiceType.MYSQL_EXECUTE_QUERY, 3);
+        event.setDestinationId("order_db");
+        event.setEndPoint("order-db01.example.com:3306");
+
+        final TIntStringStringValue sql = new TIntStringStringValue(SqlCorpus.SQL_LIST[sequence % SqlCorpus.SQL_LIST.length].hashCode());
+        sql.setStringValue1("3,20");
+        sql.setStringValue2(random.nextInt(1000000) + ", 'ORDERED'");
+        final TAnnotationValue sqlValue = new TAnnotationValue();
+        sqlValue.setIntStringStringValue(sql);
+        event.addToAnnotations(annotation(AnnotationKey.SQL_ID, sqlValue));
+        return event;
+    }
+
+    private static TSpanEvent createRedisEvent(int sequence) {
+        final TSpanEvent event = createEvent(sequence, ServiceType.REDIS, 3);
+        event.setDestinationId("REDIS");
+        event.setEndPoint("session-redis01.example.com:6379");
+        return event;
+    }
+
+    private static TSpanEvent createHttpClientEvent(int sequence, Random random) {
+        final TSpanEvent event = createEvent(sequence, ServiceType.HTTP_CLIENT, 2);
+        event.setDestinationId("member-api.example.com");
+        event.setEndPoint("member-api.example.com:80");
+        event.setNextSpanId(random.nextLong());
+        event.addToAnnotations(annotation(AnnotationKey.HTTP_URL, TAnnotationValue.stringValue("http://member-api.example.com/members/" + random.nextInt(1000000))));
+        event.addToAnnotations(annotation(AnnotationKey.HTTP_STATUS_CODE, TAnnotationValue.intValue(200)));
+        if (sequence % 10 == 3) {
+            final TIntStringValue exceptionInfo = new TIntStringValue(7);
+            exceptionInfo.setStringValue("Read timed out");
+            event.setExceptionInfo(exceptionInfo);
+        }
+        return event;
+    }
+
+    private static TAnnotation annotation(AnnotationKey key, TAnnotationValue value) {
+        final TAnnotation annotation = new TAnnotation(key.getCode());
+        annotation.setValue(value);
+        return annotation;
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.benchmark;
+
+/**
+ * Sql corpus for the parser benchmark. the mix of statement types and literal shapes seen from jdbc/ibatis applications.
+ * literals are inlined on purpose. statements executed through Statement(not PreparedStatement) reach the parser with their literals.
+ */
+public final class SqlCorpus {
+
+    public static final String[] SQL_LIST = {
+            // prepared statements. nothing to normalize
+            "SELECT order_no, member_no, status, created_at FROM orders WHERE member_no = ? AND status = ? ORDER BY created_at DESC LIMIT ?, ?",
+            "UPDATE orders SET status = ?, updated_at = now() WHERE order_no = ?",
+            "INSERT INTO order_item (order_no, item_no, quantity, price) VALUES (?, ?, ?, ?)",
+            // inlined numbers and strings
+            "SELECT * FROM member WHERE member_no = 1234567 AND grade = 'GOLD'",
+            "SELECT m.member_no, m.name, o.order_no FROM member m INNER JOIN orders o ON m.member_no = o.member_no WHERE o.created_at > '2015-01-01 00:00:00' AND o.amount >= 15000.50",
+            "UPDATE item SET stock = stock - 3, price = 12900 WHERE item_no = 884512 AND stock >= 3",
+            "INSERT INTO access_log (member_no, uri, user_agent, created_at) VALUES (1234567, '/api/v1/orders/list.nhn', 'Mozilla/5.0 (Windows NT 6.1; WOW64) AppleWebKit/537.36', '2015-03-02 12:31:45')",
+            "DELETE FROM cart WHERE member_no = 1234567 AND item_no IN (10, 20, 30, 40, 50, 60, 70, 80, 90, 100)",
+            // quotes, escapes and comments
+            "SELECT * FROM board WHERE title LIKE '%it''s a test%' AND writer <> 'admin' /* board.search */",
+            "SELECT count(*) FROM orders -- daily count\n WHERE created_at BETWEEN '2015-03-01' AND '2015-03-02'",
+            // negative numbers, hex and long in lists
+            "SELECT * FROM point_history WHERE amount < -500 AND flag = 0x1F AND member_no IN (1001, 1002, 1003, 1004, 1005, 1006, 1007, 1008, 1009, 1010, 1011, 1012, 1013, 1014, 1015, 1016)",
+            // batch style multi row insert
+            "INSERT INTO stat_daily (stat_date, app_id, cnt) VALUES ('2015-03-01', 1, 10), ('2015-03-01', 2, 20), ('2015-03-01', 3, 30), ('2015-03-01', 4, 40), ('2015-03-01', 5, 50)",
+            // procedure call and ddl-ish maintenance statements
+            "{call sp_settle_order(1234567, 'DAILY')}",
+            "SET autocommit=0",
+            "COMMIT",
+            // long reporting query
+            "SELECT DATE_FORMAT(o.created_at, '%Y-%m-%d') AS day, c.name, SUM(oi.quantity * oi.price) AS sales, COUNT(DISTINCT o.member_no) AS buyers "
+                    + "FROM orders o JOIN order_item oi ON o.order_no = oi.order_no JOIN item i ON oi.item_no = i.item_no JOIN category c ON i.category_no = c.category_no "
+                    + "WHERE o.created_at >= '2015-02-01' AND o.created_at < '2015-03-01' AND o.status IN ('PAID', 'SHIPPED', 'DELIVERED') AND c.depth = 2 "
+                    + "GROUP BY day, c.name HAVING sales > 1000000 ORDER BY day, sales DESC"
+    };
+
+    private SqlCorpus() {
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.benchmark;
+
+import com.navercorp.pinpoint.common.ServiceType;
+import com.navercorp.pinpoint.common.Version;
+import com.navercorp.pinpoint.profiler.AgentInformation;
+import com.navercorp.pinpoint.profiler.context.DefaultServerMetaDataHolder;
+import com.navercorp.pinpoint.profiler.context.DefaultTraceContext;
+import com.navercorp.pinpoint.profiler.context.Span;
+import com.navercorp.pinpoint.profiler.context.SpanEvent;
+import com.navercorp.pinpoint.profiler.context.storage.Storage;
+import com.navercorp.pinpoint.profiler.context.storage.StorageFactory;
+import com.navercorp.pinpoint.profiler.metadata.LRUCache;
+import com.navercorp.pinpoint.profiler.sampler.TrueSampler;
+import com.navercorp.pinpoint.profiler.sender.LoggingDataSender;
+
+import java.util.Collections;
+
+/**
+ * TraceContext for the agent side benchmarks. samples every transaction and discards the finished span/spanEvent,
+ * so the measurement covers the trace bookkeeping only, not the logging or sending of the data.
+ */
+public final class TraceContextFixture {
+
+    private TraceContextFixture() {
+    }
+
+    public static DefaultTraceContext createTraceContext() {
+        final DefaultTraceContext traceContext = new DefaultTraceContext(LRUCache.DEFAULT_CACHE_SIZE, ServiceType.STAND_ALONE, new DiscardStorageFactory(),
+                new TrueSampler(), new DefaultServerMetaDataHolder(Collections.<String>emptyList()));
+        traceContext.setAgentInformation(new AgentInformation(SpanFixture.AGENT_ID, SpanFixture.APPLICATION_NAME, SpanFixture.AGENT_START_TIME, 10,
+                "benchmark", "127.0.0.1", ServiceType.STAND_ALONE, Version.VERSION));
+        // metadata(api, sql, string) is sent once per new value. only the first invocation reaches the sender.
+        traceContext.setPriorityDataSender(new LoggingDataSender());
+        return traceContext;
+    }
+
+    public static class DiscardStorageFactory implements StorageFactory {
+
+        private static final Storage DISCARD_STORAGE = new DiscardStorage();
+
+        @Override
+        public Storage createStorage() {
+            return DISCARD_STORAGE;
+        }
+    }
+
+    public static class DiscardStorage implements Storage {
+        @Override
+        public void store(SpanEvent spanEvent) {
+        }
+
+        @Override
+        public void store(Span span) {
+        }
+    }
+}
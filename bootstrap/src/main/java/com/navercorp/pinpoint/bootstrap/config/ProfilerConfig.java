@@ -101,7 +101,15 @@ public class ProfilerConfig {
 
     private boolean tcpDataSenderCommandAcceptEnable = false;
 
+    // queue of the udp data sender : LINKED, RING_BUFFER
+    private String dataSenderQueueType = "LINKED";
+    private int dataSenderDrainSize = 10;
+    // idle strategy of the RING_BUFFER consumer : PARK, SPIN, YIELD
+    private String dataSenderWaitStrategy = "PARK";
+    private boolean dataSenderNioEnable = false;
+
     private int jdbcSqlCacheSize = 1024;
+    private int jdbcSqlParsingCacheSize = 1024;
     private int jdbcMaxSqlBindValueSize = 1024;
     private boolean jdbcProfile = true;
 
@@ -197,6 +205,13 @@ public class ProfilerConfig {
     // Sampling
     private boolean samplingEnable = true;
     private int samplingRate = 1;
+    // traces per second. 0 means samplingRate is used instead
+    private int samplingThroughput = 0;
+    private int samplingEntryPointThroughput = 1;
+    private int samplingEntryPointMaxSize = 1024;
+
+    // response histogram
+    private boolean responseHistogramSendEnable = false;
 
     // span buffering
     private boolean ioBufferingEnable;
@@ -271,6 +286,22 @@ public class ProfilerConfig {
         return tcpDataSenderCommandAcceptEnable;
     }
 
+    public String getDataSenderQueueType() {
+        return dataSenderQueueType;
+    }
+
+    public int getDataSenderDrainSize() {
+        return dataSenderDrainSize;
+    }
+
+    public String getDataSenderWaitStrategy() {
+        return dataSenderWaitStrategy;
+    }
+
+    public boolean isDataSenderNioEnable() {
+        return dataSenderNioEnable;
+    }
+
     public int getSpanDataSenderSocketTimeout() {
         return spanDataSenderSocketTimeout;
     }
@@ -295,6 +326,10 @@ public class ProfilerConfig {
         return jdbcSqlCacheSize;
     }
 
+    public int getJdbcSqlParsingCacheSize() {
+        return jdbcSqlParsingCacheSize;
+    }
+
     public int getJdbcMaxSqlBindValueSize() {
         return jdbcMaxSqlBindValueSize;
     }
@@ -378,6 +413,22 @@ public class ProfilerConfig {
         return samplingRate;
     }
 
+    public int getSamplingThroughput() {
+        return samplingThroughput;
+    }
+
+    public int getSamplingEntryPointThroughput() {
+        return samplingEntryPointThroughput;
+    }
+
+    public int getSamplingEntryPointMaxSize() {
+        return samplingEntryPointMaxSize;
+    }
+
+    public boolean isResponseHistogramSendEnable() {
+        return responseHistogramSendEnable;
+    }
+
     public boolean isIoBufferingEnable() {
         return ioBufferingEnable;
     }
@@ -625,10 +676,16 @@ public class ProfilerConfig {
 
         this.tcpDataSenderCommandAcceptEnable = readBoolean("profiler.tcpdatasender.command.accept.enable", false);
 
+        this.dataSenderQueueType = readString("profiler.datasender.queue.type", "LINKED");
+        this.dataSenderDrainSize = readInt("profiler.datasender.drain.size", 10);
+        this.dataSenderWaitStrategy = readString("profiler.datasender.wait.strategy", "PARK");
+        this.dataSenderNioEnable = readBoolean("profiler.datasender.nio.enable", false);
+
         // JDBC
         this.jdbcProfile = readBoolean("profiler.jdbc", true);
 
         this.jdbcSqlCacheSize = readInt("profiler.jdbc.sqlcachesize", 1024);
+        this.jdbcSqlParsingCacheSize = readInt("profiler.jdbc.sqlparsingcachesize", 1024);
         this.jdbcMaxSqlBindValueSize = readInt("profiler.jdbc.maxsqlbindvaluesize", 1024);
 
         this.jdbcProfileMySql = readBoolean("profiler.jdbc.mysql", true);
@@ -734,6 +791,11 @@ public class ProfilerConfig {
 
         this.samplingEnable = readBoolean("profiler.sampling.enable", true);
         this.samplingRate = readInt("profiler.sampling.rate", 1);
+        this.samplingThroughput = readInt("profiler.sampling.throughput", 0);
+        this.samplingEntryPointThroughput = readInt("profiler.sampling.throughput.entrypoint", 1);
+        this.samplingEntryPointMaxSize = readInt("profiler.sampling.throughput.entrypoint.maxsize", 1024);
+
+        this.responseHistogramSendEnable = readBoolean("profiler.histogram.send.enable", false);
 
         // configuration for sampling and IO buffer 
         this.ioBufferingEnable = readBoolean("profiler.io.buffering.enable", true);
@@ -865,7 +927,12 @@ public class ProfilerConfig {
         sb.append(", statDataSenderSocketTimeout=").append(statDataSenderSocketTimeout);
         sb.append(", statDataSenderChunkSize=").append(statDataSenderChunkSize);
         sb.append(", tcpDataSenderCommandAcceptEnable=").append(tcpDataSenderCommandAcceptEnable);
+        sb.append(", dataSenderQueueType='").append(dataSenderQueueType).append('\'');
+        sb.append(", dataSenderDrainSize=").append(dataSenderDrainSize);
+        sb.append(", dataSenderWaitStrategy='").append(dataSenderWaitStrategy).append('\'');
+        sb.append(", dataSenderNioEnable=").append(dataSenderNioEnable);
         sb.append(", jdbcSqlCacheSize=").append(jdbcSqlCacheSize);
+        sb.append(", jdbcSqlParsingCacheSize=").append(jdbcSqlParsingCacheSize);
         sb.append(", jdbcMaxSqlBindValueSize=").append(jdbcMaxSqlBindValueSize);
         sb.append(", jdbcProfile=").append(jdbcProfile);
         sb.append(", jdbcProfileMySql=").append(jdbcProfileMySql);
@@ -923,6 +990,10 @@ public class ProfilerConfig {
         sb.append(", springBeansAnnotations='").append(springBeansAnnotations).append('\'');
         sb.append(", samplingEnable=").append(samplingEnable);
         sb.append(", samplingRate=").append(samplingRate);
+        sb.append(", samplingThroughput=").append(samplingThroughput);
+        sb.append(", samplingEntryPointThroughput=").append(samplingEntryPointThroughput);
+        sb.append(", samplingEntryPointMaxSize=").append(samplingEntryPointMaxSize);
+        sb.append(", responseHistogramSendEnable=").append(responseHistogramSendEnable);
         sb.append(", ioBufferingEnable=").append(ioBufferingEnable);
         sb.append(", ioBufferingBufferSize=").append(ioBufferingBufferSize);
         sb.append(", profileJvmCollectInterval=").append(profileJvmCollectInterval);
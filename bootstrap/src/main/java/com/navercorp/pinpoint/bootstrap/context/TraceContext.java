@@ -39,6 +39,11 @@ public interface TraceContext {
 
     Trace newTraceObject();
 
+    /**
+     * @param entryPoint url or rpc name of the transaction. used by an {@link com.navercorp.pinpoint.bootstrap.sampler.EntryPointSampler}
+     */
+    Trace newTraceObject(String entryPoint);
+
     void detachTraceObject();
 
 //    ActiveThreadCounter getActiveThreadCounter();
@@ -76,11 +76,14 @@ public abstract class SpanSimpleAroundInterceptor implements SimpleAroundInterce
         if (trace == null) {
             return;
         }
-        traceContext.detachTraceObject();
         // TODO STATDISABLE this logic was added to disable statstics tracing
         if (!trace.canSampled()) {
+            // the unsampled trace records its response time when detached. mark the error first.
+            trace.recordException(throwable);
+            traceContext.detachTraceObject();
             return;
         }
+        traceContext.detachTraceObject();
         //------------------------------------------------------
         try {
             doInAfterTrace(trace, target, args, result, throwable);
@@ -59,6 +59,8 @@ public class CollectorConfiguration implements InitializingBean {
     private int udpStatWorkerThread;
     private int udpStatWorkerQueueSize;
     private int udpStatSocketReceiveBufferSize;
+    private boolean udpStatReceiveChannelEnable;
+    private int udpStatReceiveChannelSize;
 
 
     private String udpSpanListenIp = DEFAULT_LISTEN_IP;
@@ -67,6 +69,23 @@ public class CollectorConfiguration implements InitializingBean {
     private int udpSpanWorkerThread;
     private int udpSpanWorkerQueueSize;
     private int udpSpanSocketReceiveBufferSize;
+    private boolean udpSpanReceiveChannelEnable;
+    private int udpSpanReceiveChannelSize;
+
+    private boolean traceBulkEnable;
+    private int traceBulkBatchSize;
+    private int traceBulkQueueSize;
+    private long traceBulkMaxPendingBytes;
+
+    private int hostApplicationMapCacheSize;
+
+    private boolean mapStatisticsRollupEnable;
+
+    private int statisticsCounterMaxSize;
+
+    private boolean agentStatBatchFormatEnable;
+
+    private boolean agentStatRollupEnable;
 
     private boolean clusterEnable;
     private String clusterAddress;
@@ -102,6 +121,14 @@ public class CollectorConfiguration implements InitializingBean {
         return udpStatSocketReceiveBufferSize;
     }
 
+    public boolean isUdpStatReceiveChannelEnable() {
+        return udpStatReceiveChannelEnable;
+    }
+
+    public int getUdpStatReceiveChannelSize() {
+        return udpStatReceiveChannelSize;
+    }
+
     public String getUdpSpanListenIp() {
         return udpSpanListenIp;
     }
@@ -135,6 +162,94 @@ public class CollectorConfiguration implements InitializingBean {
         this.udpSpanSocketReceiveBufferSize = udpSpanSocketReceiveBufferSize;
     }
 
+    public boolean isUdpSpanReceiveChannelEnable() {
+        return udpSpanReceiveChannelEnable;
+    }
+
+    public void setUdpSpanReceiveChannelEnable(boolean udpSpanReceiveChannelEnable) {
+        this.udpSpanReceiveChannelEnable = udpSpanReceiveChannelEnable;
+    }
+
+    public int getUdpSpanReceiveChannelSize() {
+        return udpSpanReceiveChannelSize;
+    }
+
+    public void setUdpSpanReceiveChannelSize(int udpSpanReceiveChannelSize) {
+        this.udpSpanReceiveChannelSize = udpSpanReceiveChannelSize;
+    }
+
+    public boolean isTraceBulkEnable() {
+        return traceBulkEnable;
+    }
+
+    public void setTraceBulkEnable(boolean traceBulkEnable) {
+        this.traceBulkEnable = traceBulkEnable;
+    }
+
+    public int getTraceBulkBatchSize() {
+        return traceBulkBatchSize;
+    }
+
+    public void setTraceBulkBatchSize(int traceBulkBatchSize) {
+        this.traceBulkBatchSize = traceBulkBatchSize;
+    }
+
+    public int getTraceBulkQueueSize() {
+        return traceBulkQueueSize;
+    }
+
+    public void setTraceBulkQueueSize(int traceBulkQueueSize) {
+        this.traceBulkQueueSize = traceBulkQueueSize;
+    }
+
+    public long getTraceBulkMaxPendingBytes() {
+        return traceBulkMaxPendingBytes;
+    }
+
+    public void setTraceBulkMaxPendingBytes(long traceBulkMaxPendingBytes) {
+        this.traceBulkMaxPendingBytes = traceBulkMaxPendingBytes;
+    }
+
+    public int getHostApplicationMapCacheSize() {
+        return hostApplicationMapCacheSize;
+    }
+
+    public void setHostApplicationMapCacheSize(int hostApplicationMapCacheSize) {
+        this.hostApplicationMapCacheSize = hostApplicationMapCacheSize;
+    }
+
+    public boolean isMapStatisticsRollupEnable() {
+        return mapStatisticsRollupEnable;
+    }
+
+    public void setMapStatisticsRollupEnable(boolean mapStatisticsRollupEnable) {
+        this.mapStatisticsRollupEnable = mapStatisticsRollupEnable;
+    }
+
+    public int getStatisticsCounterMaxSize() {
+        return statisticsCounterMaxSize;
+    }
+
+    public void setStatisticsCounterMaxSize(int statisticsCounterMaxSize) {
+        this.statisticsCounterMaxSize = statisticsCounterMaxSize;
+    }
+
+    public boolean isAgentStatBatchFormatEnable() {
+        return agentStatBatchFormatEnable;
+    }
+
+    public void setAgentStatBatchFormatEnable(boolean agentStatBatchFormatEnable) {
+        this.agentStatBatchFormatEnable = agentStatBatchFormatEnable;
+    }
+
+    public boolean isAgentStatRollupEnable() {
+        return agentStatRollupEnable;
+    }
+
+    public void setAgentStatRollupEnable(boolean agentStatRollupEnable) {
+        this.agentStatRollupEnable = agentStatRollupEnable;
+    }
+
     public boolean isClusterEnable() {
         return clusterEnable;
     }
@@ -197,6 +312,8 @@ public class CollectorConfiguration implements InitializingBean {
         this.udpStatWorkerThread = readInt(properties, "collector.udpStatWorkerThread", 128);
         this.udpStatWorkerQueueSize = readInt(properties, "collector.udpStatWorkerQueueSize", 1024);
         this.udpStatSocketReceiveBufferSize = readInt(properties, "collector.udpStatSocketReceiveBufferSize", 1024 * 4096);
+        this.udpStatReceiveChannelEnable = readBoolen(properties, "collector.udpStatReceiveChannelEnable");
+        this.udpStatReceiveChannelSize = readInt(properties, "collector.udpStatReceiveChannelSize", 0);
 
 
         this.udpSpanListenIp = readString(properties, "collector.udpSpanListenIp", DEFAULT_LISTEN_IP);
@@ -205,7 +322,24 @@ public class CollectorConfiguration implements InitializingBean {
         this.udpSpanWorkerThread = readInt(properties, "collector.udpSpanWorkerThread", 256);
         this.udpSpanWorkerQueueSize = readInt(properties, "collector.udpSpanWorkerQueueSize", 1024 * 5);
         this.udpSpanSocketReceiveBufferSize = readInt(properties, "collector.udpSpanSocketReceiveBufferSize", 1024 * 4096);
-        
+        this.udpSpanReceiveChannelEnable = readBoolen(properties, "collector.udpSpanReceiveChannelEnable");
+        this.udpSpanReceiveChannelSize = readInt(properties, "collector.udpSpanReceiveChannelSize", 0);
+
+        this.traceBulkEnable = readBoolen(properties, "collector.traceBulk.enable");
+        this.traceBulkBatchSize = readInt(properties, "collector.traceBulk.batchSize", 100);
+        this.traceBulkQueueSize = readInt(properties, "collector.traceBulk.queueSize", 1024 * 10);
+        this.traceBulkMaxPendingBytes = readLong(properties, "collector.traceBulk.maxPendingBytes", 1024 * 1024 * 64);
+
+        this.hostApplicationMapCacheSize = readInt(properties, "collector.hostApplicationMap.cacheSize", 100000);
+
+        this.mapStatisticsRollupEnable = readBoolen(properties, "collector.mapStatistics.rollup.enable");
+
+        this.statisticsCounterMaxSize = readInt(properties, "collector.statistics.counter.maxSize", 100000);
+
+        this.agentStatBatchFormatEnable = readBoolen(properties, "collector.agentStat.batchFormat.enable");
+
+        this.agentStatRollupEnable = readBoolen(properties, "collector.agentStat.rollup.enable");
+
         this.clusterEnable = readBoolen(properties, "cluster.enable");
         this.clusterAddress = readString(properties, "cluster.zookeeper.address", "");
         this.clusterSessionTimeout = readInt(properties, "cluster.zookeeper.sessiontimeout", -1);
@@ -229,6 +363,15 @@ public class CollectorConfiguration implements InitializingBean {
         return result;
     }
     
+    private long readLong(Properties properties, String propertyName, long defaultValue) {
+        final String value = properties.getProperty(propertyName);
+        long result = NumberUtils.toLong(value, defaultValue);
+        if (logger.isInfoEnabled()) {
+            logger.info("{}={}", propertyName, result);
+        }
+        return result;
+    }
+
     private boolean readBoolen(Properties properties, String propertyName) {
         final String value = properties.getProperty(propertyName);
         
@@ -252,11 +395,24 @@ public class CollectorConfiguration implements InitializingBean {
         sb.append(", udpStatWorkerThread=").append(udpStatWorkerThread);
         sb.append(", udpStatWorkerQueueSize=").append(udpStatWorkerQueueSize);
         sb.append(", udpStatSocketReceiveBufferSize=").append(udpStatSocketReceiveBufferSize);
+        sb.append(", udpStatReceiveChannelEnable=").append(udpStatReceiveChannelEnable);
+        sb.append(", udpStatReceiveChannelSize=").append(udpStatReceiveChannelSize);
         sb.append(", udpSpanListenIp='").append(udpSpanListenIp).append('\'');
         sb.append(", udpSpanListenPort=").append(udpSpanListenPort);
         sb.append(", udpSpanWorkerThread=").append(udpSpanWorkerThread);
         sb.append(", udpSpanWorkerQueueSize=").append(udpSpanWorkerQueueSize);
         sb.append(", udpSpanSocketReceiveBufferSize=").append(udpSpanSocketReceiveBufferSize);
+        sb.append(", udpSpanReceiveChannelEnable=").append(udpSpanReceiveChannelEnable);
+        sb.append(", udpSpanReceiveChannelSize=").append(udpSpanReceiveChannelSize);
+        sb.append(", traceBulkEnable=").append(traceBulkEnable);
+        sb.append(", traceBulkBatchSize=").append(traceBulkBatchSize);
+        sb.append(", traceBulkQueueSize=").append(traceBulkQueueSize);
+        sb.append(", traceBulkMaxPendingBytes=").append(traceBulkMaxPendingBytes);
+        sb.append(", hostApplicationMapCacheSize=").append(hostApplicationMapCacheSize);
+        sb.append(", mapStatisticsRollupEnable=").append(mapStatisticsRollupEnable);
+        sb.append(", statisticsCounterMaxSize=").append(statisticsCounterMaxSize);
+        sb.append(", agentStatBatchFormatEnable=").append(agentStatBatchFormatEnable);
+        sb.append(", agentStatRollupEnable=").append(agentStatRollupEnable);
         sb.append(", clusterEnable=").append(clusterEnable);
         sb.append(", clusterAddress=").append(clusterAddress);
         sb.append(", clusterSessionTimeout=").append(clusterSessionTimeout);
@@ -17,6 +17,7 @@
 package com.navercorp.pinpoint.collector.dao;
 
 import com.navercorp.pinpoint.thrift.dto.TAgentStat;
+import com.navercorp.pinpoint.thrift.dto.TAgentStatBatch;
 
 /**
  * @author emeroad
@@ -24,4 +25,9 @@ import com.navercorp.pinpoint.thrift.dto.TAgentStat;
  */
 public interface AgentStatDao {
     void insert(TAgentStat agentStat);
+
+    /**
+     * stores the whole batch in a single cell. see {@link com.navercorp.pinpoint.common.bo.AgentStatBatchBo}
+     */
+    void insert(TAgentStatBatch agentStatBatch);
 }
@@ -0,0 +1,201 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.dao.hbase;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.navercorp.pinpoint.collector.dao.CachedStatisticsDao;
+import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
+
+import org.apache.hadoop.hbase.client.Put;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind buffer which gathers {@link Put}s of a table and sends them as a multi-put.
+ * <p/>
+ * A batch is flushed when batchSize puts are queued, or when {@link #flushAll()} is called by the {@link com.navercorp.pinpoint.collector.dao.AutoFlusher}.
+ * The pending heap size is bounded by maxPendingBytes. when the queue or the memory budget is full,
+ * the calling thread flushes the queue itself before queueing (backpressure to the receiver worker).
+ */
+public class BulkPutWriter implements CachedStatisticsDao {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final String tableName;
+    private final HbaseOperations2 hbaseTemplate;
+
+    private final boolean enable;
+    private final int batchSize;
+    private final long maxPendingBytes;
+
+    private final BlockingQueue<Put> queue;
+    private final AtomicLong pendingBytes = new AtomicLong();
+
+    private final Histogram batchSizeHistogram;
+    private final Timer flushTimer;
+    private final Counter flushFailCounter;
+    private final Counter backpressureCounter;
+
+    public BulkPutWriter(String tableName, HbaseOperations2 hbaseTemplate, MetricRegistry metricRegistry, boolean enable, int batchSize, int maxQueueSize, long maxPendingBytes) {
+        if (tableName == null) {
+            throw new NullPointerException("tableName must not be null");
+        }
+        if (hbaseTemplate == null) {
+            throw new NullPointerException("hbaseTemplate must not be null");
+        }
+        if (metricRegistry == null) {
+            throw new NullPointerException("metricRegistry must not be null");
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be greater than 0. batchSize:" + batchSize);
+        }
+        if (maxQueueSize < batchSize) {
+            throw new IllegalArgumentException("maxQueueSize must be greater than or equal to batchSize. maxQueueSize:" + maxQueueSize);
+        }
+        if (maxPendingBytes <= 0) {
+            throw new IllegalArgumentException("maxPendingBytes must be greater than 0. maxPendingBytes:" + maxPendingBytes);
+        }
+        this.tableName = tableName;
+        this.hbaseTemplate = hbaseTemplate;
+        this.enable = enable;
+        this.batchSize = batchSize;
+        this.maxPendingBytes = maxPendingBytes;
+        this.queue = new ArrayBlockingQueue<Put>(maxQueueSize);
+
+        final String prefix = MetricRegistry.name(BulkPutWriter.class, tableName);
+        this.batchSizeHistogram = metricRegistry.histogram(MetricRegistry.name(prefix, "batchSize"));
+        this.flushTimer = metricRegistry.timer(MetricRegistry.name(prefix, "flushLatency"));
+        this.flushFailCounter = metricRegistry.counter(MetricRegistry.name(prefix, "flushFail"));
+        this.backpressureCounter = metricRegistry.counter(MetricRegistry.name(prefix, "backpressure"));
+        metricRegistry.register(MetricRegistry.name(prefix, "queueDepth"), new Gauge<Integer>() {
+            @Override
+            public Integer getValue() {
+                return queue.size();
+            }
+        });
+        metricRegistry.register(MetricRegistry.name(prefix, "pendingBytes"), new Gauge<Long>() {
+            @Override
+            public Long getValue() {
+                return pendingBytes.get();
+            }
+        });
+    }
+
+    public void write(Put put) {
+        if (put == null) {
+            throw new NullPointerException("put must not be null");
+        }
+        if (!enable) {
+            hbaseTemplate.put(tableName, put);
+            return;
+        }
+
+        final long heapSize = put.heapSize();
+        while (true) {
+            if (pendingBytes.get() + heapSize <= maxPendingBytes && queue.offer(put)) {
+                pendingBytes.addAndGet(heapSize);
+                break;
+            }
+            // queue or memory budget is full. flush on the calling thread.
+            backpressureCounter.inc();
+            if (!flush() && queue.isEmpty()) {
+                // a single put is bigger than the memory budget.
+                hbaseTemplate.put(tableName, put);
+                return;
+            }
+        }
+
+        if (queue.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    @Override
+    public void flushAll() {
+        // bounded by the current depth so that producers can not keep the flusher busy forever.
+        int remain = queue.size();
+        while (remain > 0 && flush()) {
+            remain -= batchSize;
+        }
+    }
+
+    /**
+     * @return true if some puts were sent
+     */
+    private boolean flush() {
+        final List<Put> batch = new ArrayList<Put>(batchSize);
+        queue.drainTo(batch, batchSize);
+        if (batch.isEmpty()) {
+            return false;
+        }
+
+        long batchBytes = 0;
+        for (Put put : batch) {
+            batchBytes += put.heapSize();
+        }
+
+        final Timer.Context time = flushTimer.time();
+        try {
+            put(batch);
+        } finally {
+            time.stop();
+            pendingBytes.addAndGet(-batchBytes);
+        }
+        batchSizeHistogram.update(batch.size());
+        if (logger.isDebugEnabled()) {
+            logger.debug("flush {} Put:{}", tableName, batch.size());
+        }
+        return true;
+    }
+
+    private void put(List<Put> batch) {
+        try {
+            hbaseTemplate.put(tableName, batch);
+        } catch (Exception e) {
+            // puts are idempotent. retry once
+            logger.warn("{} bulk put error. retry one. size:{} Caused:{}", tableName, batch.size(), e.getMessage(), e);
+            try {
+                hbaseTemplate.put(tableName, batch);
+            } catch (Exception retryException) {
+                flushFailCounter.inc(batch.size());
+                logger.warn("{} bulk put error. size:{} Caused:{}", tableName, batch.size(), retryException.getMessage(), retryException);
+            }
+        }
+    }
+
+    public boolean isEnable() {
+        return enable;
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    public long getPendingBytes() {
+        return pendingBytes.get();
+    }
+}
@@ -18,13 +18,18 @@ package com.navercorp.pinpoint.collector.dao.hbase;
 
 import static com.navercorp.pinpoint.common.hbase.HBaseTables.*;
 
+import java.util.List;
+
 import org.apache.hadoop.hbase.client.Put;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Repository;
 
+import com.navercorp.pinpoint.collector.config.CollectorConfiguration;
 import com.navercorp.pinpoint.collector.dao.AgentStatDao;
+import com.navercorp.pinpoint.collector.dao.AgentStatRollupDao;
 import com.navercorp.pinpoint.collector.mapper.thrift.ThriftBoMapper;
+import com.navercorp.pinpoint.common.bo.AgentStatBatchBo;
 import com.navercorp.pinpoint.common.bo.AgentStatCpuLoadBo;
 import com.navercorp.pinpoint.common.bo.AgentStatMemoryGcBo;
 import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
@@ -32,6 +37,7 @@ import com.navercorp.pinpoint.common.util.BytesUtils;
 import com.navercorp.pinpoint.common.util.RowKeyUtils;
 import com.navercorp.pinpoint.common.util.TimeUtils;
 import com.navercorp.pinpoint.thrift.dto.TAgentStat;
+import com.navercorp.pinpoint.thrift.dto.TAgentStatBatch;
 import com.sematext.hbase.wd.AbstractRowKeyDistributor;
 
 /**
@@ -58,6 +64,12 @@ public class HbaseAgentStatDao implements AgentStatDao {
     @Qualifier("agentStatRowKeyDistributor")
     private AbstractRowKeyDistributor rowKeyDistributor;
 
+    @Autowired
+    private AgentStatRollupDao agentStatRollupDao;
+
+    @Autowired
+    private CollectorConfiguration collectorConfiguration;
+
     public void insert(final TAgentStat agentStat) {
         if (agentStat == null) {
             throw new NullPointerException("agentStat must not be null");
@@ -74,6 +86,60 @@ public class HbaseAgentStatDao implements AgentStatDao {
         put.add(AGENT_STAT_CF_STATISTICS, AGENT_STAT_CF_STATISTICS_CPU_LOAD, timestamp, agentStatCpuLoadBo.writeValue());
 
         hbaseTemplate.put(AGENT_STAT, put);
+
+        if (collectorConfiguration.isAgentStatRollupEnable()) {
+            agentStatRollupDao.insert(agentStatMemoryGcBo, agentStatCpuLoadBo);
+        }
+    }
+
+    @Override
+    public void insert(final TAgentStatBatch agentStatBatch) {
+        if (agentStatBatch == null) {
+            throw new NullPointerException("agentStatBatch must not be null");
+        }
+        final List<TAgentStat> agentStats = agentStatBatch.getAgentStats();
+        if (agentStats == null || agentStats.isEmpty()) {
+            return;
+        }
+        final String agentId = agentStatBatch.getAgentId();
+        final long startTimestamp = agentStatBatch.getStartTimestamp();
+
+        AgentStatBatchBo.Builder builder = null;
+        long rowTimestamp = 0;
+        for (TAgentStat agentStat : agentStats) {
+            agentStat.setAgentId(agentId);
+            agentStat.setStartTimestamp(startTimestamp);
+            // a row covers at most MAX_TIME_SPAN. the web widens its scans by MAX_TIME_SPAN to find the rows starting before the range.
+            if (builder == null || agentStat.getTimestamp() - rowTimestamp > AgentStatBatchBo.MAX_TIME_SPAN) {
+                if (builder != null) {
+                    insertBatch(agentId, rowTimestamp, builder.build());
+                }
+                builder = new AgentStatBatchBo.Builder(agentId, startTimestamp);
+                rowTimestamp = agentStat.getTimestamp();
+            }
+            builder.addAgentStat(this.agentStatMemoryGcBoMapper.map(agentStat), this.agentStatCpuLoadBoMapper.map(agentStat));
+        }
+        insertBatch(agentId, rowTimestamp, builder.build());
+    }
+
+    /**
+     * @param timestamp the first sample of the batch. the row is keyed by it.
+     */
+    private void insertBatch(String agentId, long timestamp, AgentStatBatchBo agentStatBatchBo) {
+        final byte[] key = rowKeyDistributor.getDistributedKey(getRowKey(agentId, timestamp));
+
+        final Put put = new Put(key);
+        put.add(AGENT_STAT_CF_STATISTICS, AGENT_STAT_CF_STATISTICS_BATCH, timestamp, agentStatBatchBo.writeValue());
+
+        hbaseTemplate.put(AGENT_STAT, put);
+
+        if (collectorConfiguration.isAgentStatRollupEnable()) {
+            final List<AgentStatMemoryGcBo> memoryGcBoList = agentStatBatchBo.getMemoryGcBoList();
+            final List<AgentStatCpuLoadBo> cpuLoadBoList = agentStatBatchBo.getCpuLoadBoList();
+            for (int i = 0; i < agentStatBatchBo.size(); i++) {
+                agentStatRollupDao.insert(memoryGcBoList.get(i), cpuLoadBoList.get(i));
+            }
+        }
     }
 
     /**
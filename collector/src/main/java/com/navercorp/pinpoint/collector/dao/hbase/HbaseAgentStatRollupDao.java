@@ -0,0 +1,296 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.dao.hbase;
+
+import static com.navercorp.pinpoint.common.hbase.HBaseTables.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.hadoop.hbase.client.Increment;
+import org.apache.hadoop.hbase.client.Put;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Repository;
+
+import com.navercorp.pinpoint.collector.dao.AgentStatRollupDao;
+import com.navercorp.pinpoint.collector.dao.CachedStatisticsDao;
+import com.navercorp.pinpoint.collector.util.CollectorUtils;
+import com.navercorp.pinpoint.common.bo.AgentStatCpuLoadBo;
+import com.navercorp.pinpoint.common.bo.AgentStatMemoryGcBo;
+import com.navercorp.pinpoint.common.bo.AgentStatRollupBo;
+import com.navercorp.pinpoint.common.hbase.AgentStatRollup;
+import com.navercorp.pinpoint.common.hbase.BulkIncrementResult;
+import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
+import com.navercorp.pinpoint.common.util.BytesUtils;
+import com.navercorp.pinpoint.common.util.RowKeyUtils;
+import com.navercorp.pinpoint.common.util.TimeUtils;
+import com.sematext.hbase.wd.AbstractRowKeyDistributor;
+
+/**
+ * Aggregates the agent statistics of every open rollup slot in memory and writes the updated slots on flushAll.
+ * count and sums are written as increments of what was added since the last flush. min/max are written as a whole
+ * to a column of their own aggregate, and the columns of a slot are merged on read.
+ * so a collector restart in the middle of a slot or a second collector receiving the same agent adds to the stored rollup
+ * instead of replacing it.
+ * A slot is closed once the delay after its end has passed. closed slots are evicted and late statistics for them are dropped.
+ */
+@Repository
+public class HbaseAgentStatRollupDao implements AgentStatRollupDao, CachedStatisticsDao {
+
+    private static final long DEFAULT_CLOSE_DELAY = TimeUnit.MINUTES.toMillis(5);
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    @Autowired
+    private HbaseOperations2 hbaseTemplate;
+
+    @Autowired
+    @Qualifier("agentStatRowKeyDistributor")
+    private AbstractRowKeyDistributor rowKeyDistributor;
+
+    private final long closeDelay;
+
+    private final ConcurrentMap<SlotKey, SlotAggregate> slots = new ConcurrentHashMap<SlotKey, SlotAggregate>();
+
+    // serverIdentifier^startTime. unique per collector process, as the transaction ids are per agent
+    private final String aggregateIdPrefix = CollectorUtils.getServerIdentifier() + "^" + System.currentTimeMillis() + "^";
+    private final AtomicLong aggregateSequence = new AtomicLong();
+
+    public HbaseAgentStatRollupDao() {
+        this(DEFAULT_CLOSE_DELAY);
+    }
+
+    public HbaseAgentStatRollupDao(long closeDelay) {
+        if (closeDelay < 0) {
+            throw new IllegalArgumentException("negative closeDelay:" + closeDelay);
+        }
+        this.closeDelay = closeDelay;
+    }
+
+    @Override
+    public void insert(AgentStatMemoryGcBo memoryGcBo, AgentStatCpuLoadBo cpuLoadBo) {
+        if (memoryGcBo == null) {
+            throw new NullPointerException("memoryGcBo must not be null");
+        }
+        if (cpuLoadBo == null) {
+            throw new NullPointerException("cpuLoadBo must not be null");
+        }
+        final String agentId = memoryGcBo.getAgentId();
+        final long timestamp = memoryGcBo.getTimestamp();
+        for (AgentStatRollup rollup : AgentStatRollup.values()) {
+            if (!rollup.isRollup()) {
+                continue;
+            }
+            final long timeSlot = rollup.getTimeSlot().getTimeSlot(timestamp);
+            final SlotKey slotKey = new SlotKey(agentId, rollup, timeSlot);
+            while (true) {
+                SlotAggregate aggregate = slots.get(slotKey);
+                if (aggregate == null) {
+                    if (isClosed(rollup, timeSlot, System.currentTimeMillis())) {
+                        if (logger.isDebugEnabled()) {
+                            logger.debug("drop late agent stat. agentId:{} timestamp:{} rollup:{}", agentId, timestamp, rollup);
+                        }
+                        break;
+                    }
+                    final SlotAggregate newAggregate = new SlotAggregate(nextAggregateId(), new AgentStatRollupBo.Builder(agentId, timeSlot));
+                    aggregate = slots.putIfAbsent(slotKey, newAggregate);
+                    if (aggregate == null) {
+                        aggregate = newAggregate;
+                    }
+                }
+                if (aggregate.add(memoryGcBo, cpuLoadBo)) {
+                    break;
+                }
+                // closed by flushAll. it may not be removed yet
+                slots.remove(slotKey, aggregate);
+            }
+        }
+    }
+
+    private String nextAggregateId() {
+        return aggregateIdPrefix + aggregateSequence.getAndIncrement();
+    }
+
+    private boolean isClosed(AgentStatRollup rollup, long timeSlot, long currentTime) {
+        return timeSlot + rollup.getResolution() + closeDelay < currentTime;
+    }
+
+    @Override
+    public void flushAll() {
+        final long currentTime = System.currentTimeMillis();
+        final Map<AgentStatRollup, List<Put>> putMap = new HashMap<AgentStatRollup, List<Put>>();
+        final Map<AgentStatRollup, List<Increment>> incrementMap = new HashMap<AgentStatRollup, List<Increment>>();
+        int evictCount = 0;
+
+        for (Map.Entry<SlotKey, SlotAggregate> entry : slots.entrySet()) {
+            final SlotKey slotKey = entry.getKey();
+            final SlotAggregate aggregate = entry.getValue();
+            final boolean closed = isClosed(slotKey.rollup, slotKey.timeSlot, currentTime);
+            // inserts into a closed aggregate fail, so nothing is added after its last flush below
+            final AgentStatRollupBo rollupBo = aggregate.takeUpdated(closed);
+            if (closed) {
+                slots.remove(slotKey, aggregate);
+                evictCount++;
+            }
+            if (rollupBo == null) {
+                continue;
+            }
+            final byte[] rowKey = createRowKey(rollupBo);
+            getList(putMap, slotKey.rollup).add(createPut(rowKey, aggregate.id, rollupBo));
+            getList(incrementMap, slotKey.rollup).add(createIncrement(rowKey, rollupBo));
+        }
+
+        for (Map.Entry<AgentStatRollup, List<Put>> entry : putMap.entrySet()) {
+            final String tableName = entry.getKey().getTableName();
+            final List<Put> putList = entry.getValue();
+            if (logger.isDebugEnabled()) {
+                logger.debug("flush {} {} Put:{}", this.getClass().getSimpleName(), tableName, putList.size());
+            }
+            // min/max first. a row with a count always has min/max
+            hbaseTemplate.put(tableName, putList);
+
+            final List<Increment> incrementList = incrementMap.get(entry.getKey());
+            final BulkIncrementResult result = hbaseTemplate.bulkIncrement(tableName, incrementList);
+            if (result.hasFail()) {
+                logger.warn("flush {} {} fail. {} Caused:{}", this.getClass().getSimpleName(), tableName, result, result.getLastException());
+            } else if (logger.isDebugEnabled()) {
+                logger.debug("flush {} {}", this.getClass().getSimpleName(), result);
+            }
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("evict agent stat rollup slots. evict:{} size:{}", evictCount, slots.size());
+        }
+    }
+
+    private static <T> List<T> getList(Map<AgentStatRollup, List<T>> map, AgentStatRollup rollup) {
+        List<T> list = map.get(rollup);
+        if (list == null) {
+            list = new ArrayList<T>();
+            map.put(rollup, list);
+        }
+        return list;
+    }
+
+    private byte[] createRowKey(AgentStatRollupBo rollupBo) {
+        final byte[] bAgentId = BytesUtils.toBytes(rollupBo.getAgentId());
+        final byte[] rowKey = RowKeyUtils.concatFixedByteAndLong(bAgentId, AGENT_NAME_MAX_LEN, TimeUtils.reverseTimeMillis(rollupBo.getTimestamp()));
+        return rowKeyDistributor.getDistributedKey(rowKey);
+    }
+
+    private Put createPut(byte[] rowKey, String aggregateId, AgentStatRollupBo rollupBo) {
+        final Put put = new Put(rowKey);
+        // overwrites only the previous min/max of the same aggregate
+        put.add(AGENT_STAT_CF_STATISTICS, AgentStatRollup.getMinMaxQualifier(aggregateId), rollupBo.writeMinMaxValue());
+        return put;
+    }
+
+    private Increment createIncrement(byte[] rowKey, AgentStatRollupBo rollupBo) {
+        final Increment increment = new Increment(rowKey);
+        increment.addColumn(AGENT_STAT_CF_STATISTICS, AGENT_STAT_CF_STATISTICS_ROLLUP_COUNT, rollupBo.getCount());
+        for (int i = 0; i < AgentStatRollupBo.SUMMARY_SIZE; i++) {
+            increment.addColumn(AGENT_STAT_CF_STATISTICS, AgentStatRollup.getSumQualifier(i), rollupBo.getSum(i));
+        }
+        return increment;
+    }
+
+    private static final class SlotAggregate {
+        private final String id;
+        private final AgentStatRollupBo.Builder builder;
+        private boolean updated;
+        private boolean closed;
+
+        private SlotAggregate(String id, AgentStatRollupBo.Builder builder) {
+            this.id = id;
+            this.builder = builder;
+        }
+
+        /**
+         * @return false if closed. the statistics must go to a new aggregate
+         */
+        private synchronized boolean add(AgentStatMemoryGcBo memoryGcBo, AgentStatCpuLoadBo cpuLoadBo) {
+            if (closed) {
+                return false;
+            }
+            builder.addAgentStat(memoryGcBo, cpuLoadBo);
+            updated = true;
+            return true;
+        }
+
+        /**
+         * @param close no statistics are added after this call
+         * @return count and sums added since the last call with the min/max of all. null if nothing is added since the last call
+         */
+        private synchronized AgentStatRollupBo takeUpdated(boolean close) {
+            if (close) {
+                closed = true;
+            }
+            if (!updated) {
+                return null;
+            }
+            updated = false;
+            final AgentStatRollupBo rollupBo = builder.build();
+            builder.clearCountAndSums();
+            return rollupBo;
+        }
+    }
+
+    private static final class SlotKey {
+        private final String agentId;
+        private final AgentStatRollup rollup;
+        private final long timeSlot;
+
+        private SlotKey(String agentId, AgentStatRollup rollup, long timeSlot) {
+            if (agentId == null) {
+                throw new NullPointerException("agentId must not be null");
+            }
+            this.agentId = agentId;
+            this.rollup = rollup;
+            this.timeSlot = timeSlot;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            SlotKey slotKey = (SlotKey) o;
+
+            if (timeSlot != slotKey.timeSlot) return false;
+            if (rollup != slotKey.rollup) return false;
+            if (!agentId.equals(slotKey.agentId)) return false;
+
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = agentId.hashCode();
+            result = 31 * result + rollup.hashCode();
+            result = 31 * result + (int) (timeSlot ^ (timeSlot >>> 32));
+            return result;
+        }
+    }
+}
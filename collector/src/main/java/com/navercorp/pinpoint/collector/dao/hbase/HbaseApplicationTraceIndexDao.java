@@ -22,7 +22,6 @@ import com.navercorp.pinpoint.collector.dao.ApplicationTraceIndexDao;
 import com.navercorp.pinpoint.collector.util.AcceptedTimeService;
 import com.navercorp.pinpoint.common.buffer.AutomaticBuffer;
 import com.navercorp.pinpoint.common.buffer.Buffer;
-import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
 import com.navercorp.pinpoint.common.util.SpanUtils;
 import com.navercorp.pinpoint.thrift.dto.TSpan;
 import com.sematext.hbase.wd.AbstractRowKeyDistributor;
@@ -42,7 +41,8 @@ import org.springframework.stereotype.Repository;
 public class HbaseApplicationTraceIndexDao implements ApplicationTraceIndexDao {
 
     @Autowired
-    private HbaseOperations2 hbaseTemplate;
+    @Qualifier("applicationTraceIndexBulkWriter")
+    private BulkPutWriter applicationTraceIndexBulkWriter;
 
     @Autowired
     private AcceptedTimeService acceptedTimeService;
@@ -69,7 +69,8 @@ public class HbaseApplicationTraceIndexDao implements ApplicationTraceIndexDao {
 
         put.add(APPLICATION_TRACE_INDEX_CF_TRACE, makeQualifier(span) , acceptedTime, value);
 
-        hbaseTemplate.put(APPLICATION_TRACE_INDEX, put);
+        // flushed as a multi-put with the other spans
+        applicationTraceIndexBulkWriter.write(put);
     }
 
     private byte[] makeQualifier(final TSpan span) {
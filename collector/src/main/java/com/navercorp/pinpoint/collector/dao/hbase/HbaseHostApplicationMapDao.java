@@ -16,35 +16,46 @@
 
 package com.navercorp.pinpoint.collector.dao.hbase;
 
+import com.navercorp.pinpoint.collector.config.CollectorConfiguration;
+import com.navercorp.pinpoint.collector.dao.CachedStatisticsDao;
 import com.navercorp.pinpoint.collector.dao.HostApplicationMapDao;
 import com.navercorp.pinpoint.collector.util.AcceptedTimeService;
 import com.navercorp.pinpoint.collector.util.AtomicLongUpdateMap;
 import com.navercorp.pinpoint.common.buffer.AutomaticBuffer;
 import com.navercorp.pinpoint.common.buffer.Buffer;
 import com.navercorp.pinpoint.common.hbase.HBaseTables;
-import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
 import com.navercorp.pinpoint.common.util.TimeSlot;
 import com.navercorp.pinpoint.common.util.TimeUtils;
 import com.sematext.hbase.wd.AbstractRowKeyDistributor;
 
+import org.apache.hadoop.hbase.client.Put;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Repository;
 
+import javax.annotation.PostConstruct;
+
 /**
- * 
+ * A host-application mapping is written once per time slot.
+ * The written keys are remembered until their slot expires(flushAll) and the number of keys is bounded.
+ * Puts are sent as multi-puts by the hostApplicationMapBulkWriter.
+ *
  * @author netspider
  * @author emeroad
  */
 @Repository
-public class HbaseHostApplicationMapDao implements HostApplicationMapDao {
+public class HbaseHostApplicationMapDao implements HostApplicationMapDao, CachedStatisticsDao {
 
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
     @Autowired
-    private HbaseOperations2 hbaseTemplate;
+    @Qualifier("hostApplicationMapBulkWriter")
+    private BulkPutWriter hostApplicationMapBulkWriter;
+
+    @Autowired
+    private CollectorConfiguration collectorConfiguration;
 
     @Autowired
     private AcceptedTimeService acceptedTimeService;
@@ -56,9 +67,12 @@ public class HbaseHostApplicationMapDao implements HostApplicationMapDao {
     @Qualifier("acceptApplicationRowKeyDistributor")
     private AbstractRowKeyDistributor rowKeyDistributor;
 
-    // FIXME should modify to save a cachekey at each 30~50 seconds instead of saving at each time
-    private final AtomicLongUpdateMap<CacheKey> updater = new AtomicLongUpdateMap<CacheKey>();
+    private AtomicLongUpdateMap<CacheKey> updater;
 
+    @PostConstruct
+    public void initialize() {
+        this.updater = new AtomicLongUpdateMap<CacheKey>(collectorConfiguration.getHostApplicationMapCacheSize());
+    }
 
     @Override
     public void insert(String host, String bindApplicationName, short bindServiceType, String parentApplicationName, short parentServiceType) {
@@ -84,6 +98,18 @@ public class HbaseHostApplicationMapDao implements HostApplicationMapDao {
         return timeSlot.getTimeSlot(acceptedTime);
     }
 
+    /**
+     * keys of the past slots are not needed any more. the accepted time of the collector never goes back.
+     */
+    @Override
+    public void flushAll() {
+        final long currentSlot = timeSlot.getTimeSlot(System.currentTimeMillis());
+        final int evictCount = updater.evictBefore(currentSlot);
+        if (logger.isDebugEnabled()) {
+            logger.debug("evict host-application map cache. evict:{} size:{}", evictCount, updater.size());
+        }
+    }
+
 
 
     private void insertHostVer2(String host, String bindApplicationName, short bindServiceType, long statisticsRowSlot, String parentApplicationName, short parentServiceType) {
@@ -99,12 +125,10 @@ public class HbaseHostApplicationMapDao implements HostApplicationMapDao {
 
         byte[] columnName = createColumnName(host, bindApplicationName, bindServiceType);
 
-        try {
-            hbaseTemplate.put(HBaseTables.HOST_APPLICATION_MAP_VER2, rowKey, HBaseTables.HOST_APPLICATION_MAP_VER2_CF_MAP, columnName, null);
-        } catch (Exception ex) {
-            logger.warn("retry one. Caused:{}", ex.getCause(), ex);
-            hbaseTemplate.put(HBaseTables.HOST_APPLICATION_MAP_VER2, rowKey, HBaseTables.HOST_APPLICATION_MAP_VER2_CF_MAP, columnName, null);
-        }
+        final Put put = new Put(rowKey);
+        put.add(HBaseTables.HOST_APPLICATION_MAP_VER2_CF_MAP, columnName, null);
+        // the bulk writer retries a failed multi-put once
+        hostApplicationMapBulkWriter.write(put);
     }
 
     private byte[] createColumnName(String host, String bindApplicationName, short bindServiceType) {
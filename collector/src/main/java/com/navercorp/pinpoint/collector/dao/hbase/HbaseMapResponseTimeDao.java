@@ -16,12 +16,15 @@
 
 package com.navercorp.pinpoint.collector.dao.hbase;
 
+import com.navercorp.pinpoint.collector.config.CollectorConfiguration;
 import com.navercorp.pinpoint.collector.dao.MapResponseTimeDao;
 import com.navercorp.pinpoint.collector.dao.hbase.statistics.*;
 import com.navercorp.pinpoint.collector.util.AcceptedTimeService;
 import com.navercorp.pinpoint.collector.util.ConcurrentCounterMap;
 import com.navercorp.pinpoint.common.ServiceType;
+import com.navercorp.pinpoint.common.hbase.BulkIncrementResult;
 import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
+import com.navercorp.pinpoint.common.hbase.MapStatisticsRollup;
 import com.navercorp.pinpoint.common.util.ApplicationMapStatisticsUtils;
 import com.navercorp.pinpoint.common.util.TimeSlot;
 
@@ -32,6 +35,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Repository;
 
+import javax.annotation.PostConstruct;
 import java.util.List;
 import java.util.Map;
 
@@ -57,13 +61,18 @@ public class HbaseMapResponseTimeDao implements MapResponseTimeDao {
     @Autowired
     private TimeSlot timeSlot;
 
+    @Autowired
+    private CollectorConfiguration collectorConfiguration;
+
     @Autowired
     @Qualifier("selfMerge")
     private RowKeyMerge rowKeyMerge;
 
     private final boolean useBulk;
 
-    private final ConcurrentCounterMap<RowInfo> counter = new ConcurrentCounterMap<RowInfo>();
+    private StripedCounterMap counter;
+
+    private final Object earlyFlushLock = new Object();
 
     public HbaseMapResponseTimeDao() {
         this(true);
@@ -73,8 +82,23 @@ public class HbaseMapResponseTimeDao implements MapResponseTimeDao {
         this.useBulk = useBulk;
     }
 
+    @PostConstruct
+    public void initialize() {
+        this.counter = new StripedCounterMap(new StripedCounterMap.ColumnNameFactory() {
+            @Override
+            public ColumnName newColumnName(String agentId, short serviceType, String applicationName, String host, short slotNumber) {
+                return new ResponseColumnName(agentId, slotNumber);
+            }
+        }, collectorConfiguration.getStatisticsCounterMaxSize());
+    }
+
     @Override
     public void received(String applicationName, short applicationServiceType, String agentId, int elapsed, boolean isError) {
+        received(applicationName, applicationServiceType, agentId, elapsed, isError, 1L);
+    }
+
+    @Override
+    public void received(String applicationName, short applicationServiceType, String agentId, int elapsed, boolean isError, long count) {
         if (applicationName == null) {
             throw new NullPointerException("applicationName must not be null");
         }
@@ -91,29 +115,39 @@ public class HbaseMapResponseTimeDao implements MapResponseTimeDao {
         // make row key. rowkey is me
         final long acceptedTime = acceptedTimeService.getAcceptedTime();
         final long rowTimeSlot = timeSlot.getTimeSlot(acceptedTime);
-        final RowKey selfRowKey = new CallRowKey(applicationName, applicationServiceType, rowTimeSlot);
-
         final short slotNumber = ApplicationMapStatisticsUtils.getSlotNumber(applicationServiceType, elapsed, isError);
-        final ColumnName selfColumnName = new ResponseColumnName(agentId, slotNumber);
         if (useBulk) {
-            RowInfo rowInfo = new DefaultRowInfo(selfRowKey, selfColumnName);
-            this.counter.increment(rowInfo, 1L);
+            // the row key and column name are created at flush time
+            final boolean full = this.counter.increment(applicationName, applicationServiceType, rowTimeSlot,
+                    agentId, (short) 0, null, null, slotNumber, count);
+            if (full) {
+                earlyFlush();
+            }
         } else {
-            final byte[] rowKey = selfRowKey.getRowKey();
+            final RowKey selfRowKey = new CallRowKey(applicationName, applicationServiceType, rowTimeSlot);
+            final ColumnName selfColumnName = new ResponseColumnName(agentId, slotNumber);
             // column name is the name of caller app.
             byte[] columnName = selfColumnName.getColumnName();
-            increment(rowKey, columnName, 1L);
+            increment(selfRowKey, columnName, count);
         }
     }
 
-    private void increment(byte[] rowKey, byte[] columnName, long increment) {
+    private void increment(RowKey rowKey, byte[] columnName, long increment) {
         if (rowKey == null) {
             throw new NullPointerException("rowKey must not be null");
         }
         if (columnName == null) {
             throw new NullPointerException("columnName must not be null");
         }
-        hbaseTemplate.incrementColumnValue(MAP_STATISTICS_SELF, rowKey, MAP_STATISTICS_SELF_CF_COUNTER, columnName, increment);
+        hbaseTemplate.incrementColumnValue(MAP_STATISTICS_SELF, rowKey.getRowKey(), MAP_STATISTICS_SELF_CF_COUNTER, columnName, increment);
+        if (collectorConfiguration.isMapStatisticsRollupEnable()) {
+            for (MapStatisticsRollup rollup : MapStatisticsRollup.values()) {
+                if (rollup.isRollup()) {
+                    final byte[] rollupRowKey = rowKey.rollup(rollup.getTimeSlot()).getRowKey();
+                    hbaseTemplate.incrementColumnValue(rollup.getSelfTableName(), rollupRowKey, MAP_STATISTICS_SELF_CF_COUNTER, columnName, increment);
+                }
+            }
+        }
     }
 
 
@@ -125,13 +159,44 @@ public class HbaseMapResponseTimeDao implements MapResponseTimeDao {
 
         // update statistics by rowkey and column for now. need to update it by rowkey later.
         Map<RowInfo,ConcurrentCounterMap.LongAdder> remove = this.counter.remove();
-        List<Increment> merge = rowKeyMerge.createBulkIncrement(remove);
+        flush(MAP_STATISTICS_SELF, remove);
+
+        if (collectorConfiguration.isMapStatisticsRollupEnable()) {
+            for (MapStatisticsRollup rollup : MapStatisticsRollup.values()) {
+                if (rollup.isRollup()) {
+                    flush(rollup.getSelfTableName(), rowKeyMerge.rollup(remove, rollup.getTimeSlot()));
+                }
+            }
+        }
+    }
+
+    /**
+     * flushes in the caller thread when the counter is full.
+     * the threads counting into a full stripe wait for the running flush, so the counter does not grow beyond its size while flushing.
+     */
+    private void earlyFlush() {
+        synchronized (earlyFlushLock) {
+            if (!this.counter.isFull()) {
+                // flushed by another thread
+                return;
+            }
+            logger.info("{} counter is full. flush early. size:{}", this.getClass().getSimpleName(), this.counter.size());
+            flushAll();
+        }
+    }
+
+    private void flush(String tableName, Map<RowInfo, ConcurrentCounterMap.LongAdder> data) {
+        List<Increment> merge = rowKeyMerge.createBulkIncrement(data);
         if (!merge.isEmpty()) {
             if (logger.isDebugEnabled()) {
-                logger.debug("flush {} Increment:{}", this.getClass().getSimpleName(), merge.size());
+                logger.debug("flush {} {} Increment:{}", this.getClass().getSimpleName(), tableName, merge.size());
+            }
+            final BulkIncrementResult result = hbaseTemplate.bulkIncrement(tableName, merge);
+            if (result.hasFail()) {
+                logger.warn("flush {} {} fail. {} Caused:{}", this.getClass().getSimpleName(), tableName, result, result.getLastException());
+            } else if (logger.isDebugEnabled()) {
+                logger.debug("flush {} {}", this.getClass().getSimpleName(), result);
             }
-            hbaseTemplate.increment(MAP_STATISTICS_SELF, merge);
         }
-
     }
 }
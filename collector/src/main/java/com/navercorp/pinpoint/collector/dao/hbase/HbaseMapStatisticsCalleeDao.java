@@ -18,12 +18,15 @@ package com.navercorp.pinpoint.collector.dao.hbase;
 
 import static com.navercorp.pinpoint.common.hbase.HBaseTables.*;
 
+import com.navercorp.pinpoint.collector.config.CollectorConfiguration;
 import com.navercorp.pinpoint.collector.dao.MapStatisticsCalleeDao;
 import com.navercorp.pinpoint.collector.dao.hbase.statistics.*;
 import com.navercorp.pinpoint.collector.util.AcceptedTimeService;
 import com.navercorp.pinpoint.collector.util.ConcurrentCounterMap;
 import com.navercorp.pinpoint.common.ServiceType;
+import com.navercorp.pinpoint.common.hbase.BulkIncrementResult;
 import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
+import com.navercorp.pinpoint.common.hbase.MapStatisticsRollup;
 import com.navercorp.pinpoint.common.util.ApplicationMapStatisticsUtils;
 import com.navercorp.pinpoint.common.util.TimeSlot;
 
@@ -35,6 +38,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Repository;
 
+import javax.annotation.PostConstruct;
 import java.util.List;
 import java.util.Map;
 
@@ -58,13 +62,18 @@ public class HbaseMapStatisticsCalleeDao implements MapStatisticsCalleeDao {
     @Autowired
     private TimeSlot timeSlot;
 
+    @Autowired
+    private CollectorConfiguration collectorConfiguration;
+
     @Autowired
     @Qualifier("calleeMerge")
     private RowKeyMerge rowKeyMerge;
 
     private final boolean useBulk;
 
-    private final ConcurrentCounterMap<RowInfo> counter = new ConcurrentCounterMap<RowInfo>();
+    private StripedCounterMap counter;
+
+    private final Object earlyFlushLock = new Object();
 
     public HbaseMapStatisticsCalleeDao() {
         this(true);
@@ -74,9 +83,24 @@ public class HbaseMapStatisticsCalleeDao implements MapStatisticsCalleeDao {
         this.useBulk = useBulk;
     }
 
+    @PostConstruct
+    public void initialize() {
+        this.counter = new StripedCounterMap(new StripedCounterMap.ColumnNameFactory() {
+            @Override
+            public ColumnName newColumnName(String agentId, short serviceType, String applicationName, String host, short slotNumber) {
+                return new CallerColumnName(serviceType, applicationName, host, slotNumber);
+            }
+        }, collectorConfiguration.getStatisticsCounterMaxSize());
+    }
+
 
     @Override
     public void update(String calleeApplicationName, short calleeServiceType, String callerApplicationName, short callerServiceType, String callerHost, int elapsed, boolean isError) {
+        update(calleeApplicationName, calleeServiceType, callerApplicationName, callerServiceType, callerHost, elapsed, isError, 1L);
+    }
+
+    @Override
+    public void update(String calleeApplicationName, short calleeServiceType, String callerApplicationName, short callerServiceType, String callerHost, int elapsed, boolean isError, long count) {
         if (callerApplicationName == null) {
             throw new NullPointerException("callerApplicationName must not be null");
         }
@@ -97,33 +121,42 @@ public class HbaseMapStatisticsCalleeDao implements MapStatisticsCalleeDao {
         // make row key. rowkey is me
         final long acceptedTime = acceptedTimeService.getAcceptedTime();
         final long rowTimeSlot = timeSlot.getTimeSlot(acceptedTime);
-        final RowKey calleeRowKey = new CallRowKey(calleeApplicationName, calleeServiceType, rowTimeSlot);
-
         final short callerSlotNumber = ApplicationMapStatisticsUtils.getSlotNumber(callerServiceType, elapsed, isError);
-        final ColumnName callerColumnName = new CallerColumnName(callerServiceType, callerApplicationName, callerHost, callerSlotNumber);
 
         if (useBulk) {
-            RowInfo rowInfo = new DefaultRowInfo(calleeRowKey, callerColumnName);
-            counter.increment(rowInfo, 1L);
+            // the row key and column name are created at flush time
+            final boolean full = this.counter.increment(calleeApplicationName, calleeServiceType, rowTimeSlot,
+                    null, callerServiceType, callerApplicationName, callerHost, callerSlotNumber, count);
+            if (full) {
+                earlyFlush();
+            }
         } else {
-            final byte[] rowKey = calleeRowKey.getRowKey();
-
+            final RowKey calleeRowKey = new CallRowKey(calleeApplicationName, calleeServiceType, rowTimeSlot);
+            final ColumnName callerColumnName = new CallerColumnName(callerServiceType, callerApplicationName, callerHost, callerSlotNumber);
             // column name is the name of caller app.
             byte[] columnName = callerColumnName.getColumnName();
-            increment(rowKey, columnName, 1L);
+            increment(calleeRowKey, columnName, count);
         }
     }
 
 
 
-    private void increment(byte[] rowKey, byte[] columnName, long increment) {
+    private void increment(RowKey rowKey, byte[] columnName, long increment) {
         if (rowKey == null) {
             throw new NullPointerException("rowKey must not be null");
         }
         if (columnName == null) {
             throw new NullPointerException("columnName must not be null");
         }
-        hbaseTemplate.incrementColumnValue(MAP_STATISTICS_CALLER, rowKey, MAP_STATISTICS_CALLER_CF_COUNTER, columnName, increment);
+        hbaseTemplate.incrementColumnValue(MAP_STATISTICS_CALLER, rowKey.getRowKey(), MAP_STATISTICS_CALLER_CF_COUNTER, columnName, increment);
+        if (collectorConfiguration.isMapStatisticsRollupEnable()) {
+            for (MapStatisticsRollup rollup : MapStatisticsRollup.values()) {
+                if (rollup.isRollup()) {
+                    final byte[] rollupRowKey = rowKey.rollup(rollup.getTimeSlot()).getRowKey();
+                    hbaseTemplate.incrementColumnValue(rollup.getCallerTableName(), rollupRowKey, MAP_STATISTICS_CALLER_CF_COUNTER, columnName, increment);
+                }
+            }
+        }
     }
 
     @Override
@@ -133,13 +166,44 @@ public class HbaseMapStatisticsCalleeDao implements MapStatisticsCalleeDao {
         }
 
         Map<RowInfo, ConcurrentCounterMap.LongAdder> remove = this.counter.remove();
-        List<Increment> merge = rowKeyMerge.createBulkIncrement(remove);
+        flush(MAP_STATISTICS_CALLER, remove);
+
+        if (collectorConfiguration.isMapStatisticsRollupEnable()) {
+            for (MapStatisticsRollup rollup : MapStatisticsRollup.values()) {
+                if (rollup.isRollup()) {
+                    flush(rollup.getCallerTableName(), rowKeyMerge.rollup(remove, rollup.getTimeSlot()));
+                }
+            }
+        }
+    }
+
+    /**
+     * flushes in the caller thread when the counter is full.
+     * the threads counting into a full stripe wait for the running flush, so the counter does not grow beyond its size while flushing.
+     */
+    private void earlyFlush() {
+        synchronized (earlyFlushLock) {
+            if (!this.counter.isFull()) {
+                // flushed by another thread
+                return;
+            }
+            logger.info("{} counter is full. flush early. size:{}", this.getClass().getSimpleName(), this.counter.size());
+            flushAll();
+        }
+    }
+
+    private void flush(String tableName, Map<RowInfo, ConcurrentCounterMap.LongAdder> data) {
+        List<Increment> merge = rowKeyMerge.createBulkIncrement(data);
         if (!merge.isEmpty()) {
             if (logger.isDebugEnabled()) {
-                logger.debug("flush {} Increment:{}", this.getClass().getSimpleName(), merge.size());
+                logger.debug("flush {} {} Increment:{}", this.getClass().getSimpleName(), tableName, merge.size());
+            }
+            final BulkIncrementResult result = hbaseTemplate.bulkIncrement(tableName, merge);
+            if (result.hasFail()) {
+                logger.warn("flush {} {} fail. {} Caused:{}", this.getClass().getSimpleName(), tableName, result, result.getLastException());
+            } else if (logger.isDebugEnabled()) {
+                logger.debug("flush {} {}", this.getClass().getSimpleName(), result);
             }
-            hbaseTemplate.increment(MAP_STATISTICS_CALLER, merge);
         }
-
     }
 }
@@ -18,12 +18,15 @@ package com.navercorp.pinpoint.collector.dao.hbase;
 
 import static com.navercorp.pinpoint.common.hbase.HBaseTables.*;
 
+import com.navercorp.pinpoint.collector.config.CollectorConfiguration;
 import com.navercorp.pinpoint.collector.dao.MapStatisticsCallerDao;
 import com.navercorp.pinpoint.collector.dao.hbase.statistics.*;
 import com.navercorp.pinpoint.collector.util.AcceptedTimeService;
 import com.navercorp.pinpoint.collector.util.ConcurrentCounterMap;
 import com.navercorp.pinpoint.common.ServiceType;
+import com.navercorp.pinpoint.common.hbase.BulkIncrementResult;
 import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
+import com.navercorp.pinpoint.common.hbase.MapStatisticsRollup;
 import com.navercorp.pinpoint.common.util.ApplicationMapStatisticsUtils;
 import com.navercorp.pinpoint.common.util.TimeSlot;
 
@@ -35,6 +38,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Repository;
 
+import javax.annotation.PostConstruct;
 import java.util.List;
 import java.util.Map;
 
@@ -62,9 +66,14 @@ public class HbaseMapStatisticsCallerDao implements MapStatisticsCallerDao {
     @Autowired
     private TimeSlot timeSlot;
 
+    @Autowired
+    private CollectorConfiguration collectorConfiguration;
+
     private final boolean useBulk;
 
-    private final ConcurrentCounterMap<RowInfo> counter = new ConcurrentCounterMap<RowInfo>();
+    private StripedCounterMap counter;
+
+    private final Object earlyFlushLock = new Object();
 
     public HbaseMapStatisticsCallerDao() {
         this(true);
@@ -74,14 +83,32 @@ public class HbaseMapStatisticsCallerDao implements MapStatisticsCallerDao {
         this.useBulk = useBulk;
     }
 
+    @PostConstruct
+    public void initialize() {
+        this.counter = new StripedCounterMap(new StripedCounterMap.ColumnNameFactory() {
+            @Override
+            public ColumnName newColumnName(String agentId, short serviceType, String applicationName, String host, short slotNumber) {
+                return new CalleeColumnName(agentId, serviceType, applicationName, host, slotNumber);
+            }
+        }, collectorConfiguration.getStatisticsCounterMaxSize());
+    }
+
     @Override
     public void update(String callerApplicationName, short callerServiceType, String callerAgentid, String calleeApplicationName, short calleeServiceType, String calleeHost, int elapsed, boolean isError) {
+        update(callerApplicationName, callerServiceType, callerAgentid, calleeApplicationName, calleeServiceType, calleeHost, elapsed, isError, 1L);
+    }
+
+    @Override
+    public void update(String callerApplicationName, short callerServiceType, String callerAgentid, String calleeApplicationName, short calleeServiceType, String calleeHost, int elapsed, boolean isError, long count) {
         if (callerApplicationName == null) {
             throw new NullPointerException("callerApplicationName must not be null");
         }
         if (calleeApplicationName == null) {
             throw new NullPointerException("calleeApplicationName must not be null");
         }
+        if (callerAgentid == null) {
+            throw new NullPointerException("callerAgentid must not be null");
+        }
 
         if (logger.isDebugEnabled()) {
             logger.debug("[Caller] {} ({}) {} -> {} ({})[{}]",
@@ -95,29 +122,39 @@ public class HbaseMapStatisticsCallerDao implements MapStatisticsCallerDao {
         // make row key. rowkey is me
         final long acceptedTime = acceptedTimeService.getAcceptedTime();
         final long rowTimeSlot = timeSlot.getTimeSlot(acceptedTime);
-        final RowKey callerRowKey = new CallRowKey(callerApplicationName, callerServiceType, rowTimeSlot);
-
         final short calleeSlotNumber = ApplicationMapStatisticsUtils.getSlotNumber(calleeServiceType, elapsed, isError);
-        final ColumnName calleeColumnName = new CalleeColumnName(callerAgentid, calleeServiceType, calleeApplicationName, calleeHost, calleeSlotNumber);
         if (useBulk) {
-            RowInfo rowInfo = new DefaultRowInfo(callerRowKey, calleeColumnName);
-            this.counter.increment(rowInfo, 1L);
+            // the row key and column name are created at flush time
+            final boolean full = this.counter.increment(callerApplicationName, callerServiceType, rowTimeSlot,
+                    callerAgentid, calleeServiceType, calleeApplicationName, calleeHost, calleeSlotNumber, count);
+            if (full) {
+                earlyFlush();
+            }
         } else {
-            final byte[] rowKey = callerRowKey.getRowKey();
+            final RowKey callerRowKey = new CallRowKey(callerApplicationName, callerServiceType, rowTimeSlot);
+            final ColumnName calleeColumnName = new CalleeColumnName(callerAgentid, calleeServiceType, calleeApplicationName, calleeHost, calleeSlotNumber);
             // column name is the name of caller app.
             byte[] columnName = calleeColumnName.getColumnName();
-            increment(rowKey, columnName, 1L);
+            increment(callerRowKey, columnName, count);
         }
     }
 
-    private void increment(byte[] rowKey, byte[] columnName, long increment) {
+    private void increment(RowKey rowKey, byte[] columnName, long increment) {
         if (rowKey == null) {
             throw new NullPointerException("rowKey must not be null");
         }
         if (columnName == null) {
             throw new NullPointerException("columnName must not be null");
         }
-        hbaseTemplate.incrementColumnValue(MAP_STATISTICS_CALLEE, rowKey, MAP_STATISTICS_CALLEE_CF_VER2_COUNTER, columnName, increment);
+        hbaseTemplate.incrementColumnValue(MAP_STATISTICS_CALLEE, rowKey.getRowKey(), MAP_STATISTICS_CALLEE_CF_VER2_COUNTER, columnName, increment);
+        if (collectorConfiguration.isMapStatisticsRollupEnable()) {
+            for (MapStatisticsRollup rollup : MapStatisticsRollup.values()) {
+                if (rollup.isRollup()) {
+                    final byte[] rollupRowKey = rowKey.rollup(rollup.getTimeSlot()).getRowKey();
+                    hbaseTemplate.incrementColumnValue(rollup.getCalleeTableName(), rollupRowKey, MAP_STATISTICS_CALLEE_CF_VER2_COUNTER, columnName, increment);
+                }
+            }
+        }
     }
 
 
@@ -128,13 +165,44 @@ public class HbaseMapStatisticsCallerDao implements MapStatisticsCallerDao {
         }
         // update statistics by rowkey and column for now. need to update it by rowkey later.
         Map<RowInfo,ConcurrentCounterMap.LongAdder> remove = this.counter.remove();
-        List<Increment> merge = rowKeyMerge.createBulkIncrement(remove);
+        flush(MAP_STATISTICS_CALLEE, remove);
+
+        if (collectorConfiguration.isMapStatisticsRollupEnable()) {
+            for (MapStatisticsRollup rollup : MapStatisticsRollup.values()) {
+                if (rollup.isRollup()) {
+                    flush(rollup.getCalleeTableName(), rowKeyMerge.rollup(remove, rollup.getTimeSlot()));
+                }
+            }
+        }
+    }
+
+    /**
+     * flushes in the caller thread when the counter is full.
+     * the threads counting into a full stripe wait for the running flush, so the counter does not grow beyond its size while flushing.
+     */
+    private void earlyFlush() {
+        synchronized (earlyFlushLock) {
+            if (!this.counter.isFull()) {
+                // flushed by another thread
+                return;
+            }
+            logger.info("{} counter is full. flush early. size:{}", this.getClass().getSimpleName(), this.counter.size());
+            flushAll();
+        }
+    }
+
+    private void flush(String tableName, Map<RowInfo, ConcurrentCounterMap.LongAdder> data) {
+        List<Increment> merge = rowKeyMerge.createBulkIncrement(data);
         if (!merge.isEmpty()) {
             if (logger.isDebugEnabled()) {
-                logger.debug("flush {} Increment:{}", this.getClass().getSimpleName(), merge.size());
+                logger.debug("flush {} {} Increment:{}", this.getClass().getSimpleName(), tableName, merge.size());
+            }
+            final BulkIncrementResult result = hbaseTemplate.bulkIncrement(tableName, merge);
+            if (result.hasFail()) {
+                logger.warn("flush {} {} fail. {} Caused:{}", this.getClass().getSimpleName(), tableName, result, result.getLastException());
+            } else if (logger.isDebugEnabled()) {
+                logger.debug("flush {} {}", this.getClass().getSimpleName(), result);
             }
-            hbaseTemplate.increment(MAP_STATISTICS_CALLEE, merge);
         }
-
     }
 }
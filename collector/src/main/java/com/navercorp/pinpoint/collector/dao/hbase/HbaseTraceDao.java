@@ -18,13 +18,7 @@ package com.navercorp.pinpoint.collector.dao.hbase;
 
 import com.navercorp.pinpoint.collector.dao.TracesDao;
 import com.navercorp.pinpoint.collector.util.AcceptedTimeService;
-import com.navercorp.pinpoint.common.bo.AnnotationBo;
-import com.navercorp.pinpoint.common.bo.AnnotationBoList;
-import com.navercorp.pinpoint.common.bo.SpanBo;
-import com.navercorp.pinpoint.common.bo.SpanEventBo;
-import com.navercorp.pinpoint.common.buffer.AutomaticBuffer;
-import com.navercorp.pinpoint.common.buffer.Buffer;
-import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
+import com.navercorp.pinpoint.common.bo.SpanEncoder;
 import com.navercorp.pinpoint.common.util.BytesUtils;
 import com.navercorp.pinpoint.common.util.SpanUtils;
 import com.navercorp.pinpoint.thrift.dto.TAnnotation;
@@ -40,9 +34,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.NamedThreadLocal;
 import org.springframework.stereotype.Repository;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import static com.navercorp.pinpoint.common.hbase.HBaseTables.*;
@@ -55,9 +49,6 @@ public class HbaseTraceDao implements TracesDao {
 
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
-    @Autowired
-    private HbaseOperations2 hbaseTemplate;
-
     @Autowired
     private AcceptedTimeService acceptedTimeService;
 
@@ -65,34 +56,46 @@ public class HbaseTraceDao implements TracesDao {
     @Qualifier("traceDistributor")
     private AbstractRowKeyDistributor rowKeyDistributor;
 
+    @Autowired
+    @Qualifier("traceBulkWriter")
+    private BulkPutWriter traceBulkWriter;
+
+    // encodes the thrift objects without materializing SpanBo/SpanEventBo. the encoder's scratch buffer is reused by each handler thread
+    private final ThreadLocal<SpanEncoder> spanEncoder = new NamedThreadLocal<SpanEncoder>("SpanEncoder") {
+        @Override
+        protected SpanEncoder initialValue() {
+            return new SpanEncoder();
+        }
+    };
+
     @Override
     public void insert(final TSpan span) {
         if (span == null) {
             throw new NullPointerException("span must not be null");
         }
 
-        SpanBo spanBo = new SpanBo(span);
+        final SpanEncoder encoder = spanEncoder.get();
         final byte[] rowKey = getDistributeRowKey(SpanUtils.getTransactionId(span));
         Put put = new Put(rowKey);
 
-        byte[] spanValue = spanBo.writeValue();
+        byte[] spanValue = encoder.encodeSpan(span);
 
         // TODO  if we can identify whether the columName is duplicate or not,
         // we can also know whether the span id is duplicated or not.
-        byte[] spanId = Bytes.toBytes(spanBo.getSpanId());
+        byte[] spanId = Bytes.toBytes(span.getSpanId());
 
         long acceptedTime = acceptedTimeService.getAcceptedTime();
         put.add(TRACES_CF_SPAN, spanId, acceptedTime, spanValue);
 
         List<TAnnotation> annotations = span.getAnnotations();
         if (CollectionUtils.isNotEmpty(annotations)) {
-            byte[] bytes = writeAnnotation(annotations);
+            byte[] bytes = encoder.encodeAnnotationList(annotations);
             put.add(TRACES_CF_ANNOTATION, spanId, bytes);
         }
 
-        addNestedSpanEvent(put, span);
+        addNestedSpanEvent(put, span, encoder);
 
-        hbaseTemplate.put(TRACES, put);
+        traceBulkWriter.write(put);
 
     }
 
@@ -100,7 +103,7 @@ public class HbaseTraceDao implements TracesDao {
         return rowKeyDistributor.getDistributedKey(transactionId);
     }
 
-    private void addNestedSpanEvent(Put put, TSpan span) {
+    private void addNestedSpanEvent(Put put, TSpan span, SpanEncoder encoder) {
         List<TSpanEvent> spanEventBoList = span.getSpanEventList();
         if (CollectionUtils.isEmpty(spanEventBoList)) {
             return;
@@ -108,9 +111,8 @@ public class HbaseTraceDao implements TracesDao {
 
         long acceptedTime0 = acceptedTimeService.getAcceptedTime();
         for (TSpanEvent spanEvent : spanEventBoList) {
-            SpanEventBo spanEventBo = new SpanEventBo(span, spanEvent);
-            byte[] rowId = BytesUtils.add(spanEventBo.getSpanId(), spanEventBo.getSequence());
-            byte[] value = spanEventBo.writeValue();
+            byte[] rowId = BytesUtils.add(span.getSpanId(), spanEvent.getSequence());
+            byte[] value = encoder.encodeSpanEvent(span, spanEvent);
             put.add(TRACES_CF_TERMINALSPAN, rowId, acceptedTime0, value);
         }
     }
@@ -122,30 +124,16 @@ public class HbaseTraceDao implements TracesDao {
         byte[] rowKey = getDistributeRowKey(SpanUtils.getTransactionId(spanChunk));
         Put put = new Put(rowKey);
 
+        final SpanEncoder encoder = spanEncoder.get();
         long acceptedTime = acceptedTimeService.getAcceptedTime();
         List<TSpanEvent> spanEventBoList = spanChunk.getSpanEventList();
         for (TSpanEvent spanEvent : spanEventBoList) {
-            SpanEventBo spanEventBo = new SpanEventBo(spanChunk, spanEvent);
-
-            byte[] value = spanEventBo.writeValue();
-            byte[] rowId = BytesUtils.add(spanEventBo.getSpanId(), spanEventBo.getSequence());
+            byte[] value = encoder.encodeSpanEvent(spanChunk, spanEvent);
+            byte[] rowId = BytesUtils.add(spanChunk.getSpanId(), spanEvent.getSequence());
 
             put.add(TRACES_CF_TERMINALSPAN, rowId, acceptedTime, value);
         }
-        hbaseTemplate.put(TRACES, put);
-
-    }
-
-    private byte[] writeAnnotation(List<TAnnotation> annotations) {
-        List<AnnotationBo> boList = new ArrayList<AnnotationBo>(annotations.size());
-        for (TAnnotation ano : annotations) {
-            AnnotationBo annotationBo = new AnnotationBo(ano);
-            boList.add(annotationBo);
-        }
+        traceBulkWriter.write(put);
 
-        Buffer buffer = new AutomaticBuffer(64);
-        AnnotationBoList annotationBoList = new AnnotationBoList(boList);
-        annotationBoList.writeValue(buffer);
-        return buffer.getBuffer();
     }
 }
@@ -17,6 +17,7 @@
 package com.navercorp.pinpoint.collector.dao.hbase.statistics;
 
 import com.navercorp.pinpoint.common.util.ApplicationMapStatisticsUtils;
+import com.navercorp.pinpoint.common.util.TimeSlot;
 
 /**
  * @author emeroad
@@ -41,6 +42,14 @@ public class CallRowKey implements RowKey {
         return ApplicationMapStatisticsUtils.makeRowKey(callApplicationName, callServiceType, rowTimeSlot);
     }
 
+    @Override
+    public RowKey rollup(TimeSlot rollupTimeSlot) {
+        if (rollupTimeSlot == null) {
+            throw new NullPointerException("rollupTimeSlot must not be null");
+        }
+        return new CallRowKey(callApplicationName, callServiceType, rollupTimeSlot.getTimeSlot(rowTimeSlot));
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
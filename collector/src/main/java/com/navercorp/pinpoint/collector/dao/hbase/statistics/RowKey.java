@@ -16,9 +16,16 @@
 
 package com.navercorp.pinpoint.collector.dao.hbase.statistics;
 
+import com.navercorp.pinpoint.common.util.TimeSlot;
+
 /**
  * @author emeroad
  */
 public interface RowKey {
     byte[] getRowKey();
+
+    /**
+     * @return the same row in the coarser time slot
+     */
+    RowKey rollup(TimeSlot rollupTimeSlot);
 }
@@ -17,6 +17,7 @@
 package com.navercorp.pinpoint.collector.dao.hbase.statistics;
 
 import com.navercorp.pinpoint.collector.util.ConcurrentCounterMap;
+import com.navercorp.pinpoint.common.util.TimeSlot;
 
 import org.apache.hadoop.hbase.client.Increment;
 import org.slf4j.Logger;
@@ -53,6 +54,31 @@ public class RowKeyMerge {
         return incrementList;
     }
 
+    /**
+     * merges the counts of the rows into the rows of the coarser time slot.
+     * the counts of the given data are not changed.
+     */
+    public Map<RowInfo, ConcurrentCounterMap.LongAdder> rollup(Map<RowInfo, ConcurrentCounterMap.LongAdder> data, TimeSlot rollupTimeSlot) {
+        if (rollupTimeSlot == null) {
+            throw new NullPointerException("rollupTimeSlot must not be null");
+        }
+        final Map<RowInfo, ConcurrentCounterMap.LongAdder> rollup = new HashMap<RowInfo, ConcurrentCounterMap.LongAdder>();
+        for (Map.Entry<RowInfo, ConcurrentCounterMap.LongAdder> entry : data.entrySet()) {
+            final RowInfo rowInfo = entry.getKey();
+            final RowKey rollupRowKey = rowInfo.getRowKey().rollup(rollupTimeSlot);
+            final RowInfo rollupRowInfo = new DefaultRowInfo(rollupRowKey, rowInfo.getColumnName());
+
+            final long callCount = entry.getValue().get();
+            final ConcurrentCounterMap.LongAdder counter = rollup.get(rollupRowInfo);
+            if (counter == null) {
+                rollup.put(rollupRowInfo, new ConcurrentCounterMap.LongAdder(callCount));
+            } else {
+                counter.increment(callCount);
+            }
+        }
+        return rollup;
+    }
+
     private Increment createIncrement(Map.Entry<RowKey, List<ColumnName>> rowKeyEntry) {
         RowKey rowKey = rowKeyEntry.getKey();
         final Increment increment = new Increment(rowKey.getRowKey());
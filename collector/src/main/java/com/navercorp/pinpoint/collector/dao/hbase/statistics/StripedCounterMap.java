@@ -0,0 +1,311 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.dao.hbase.statistics;
+
+import com.navercorp.pinpoint.collector.util.ConcurrentCounterMap;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Counts the statistics of the map statistics daos until they are flushed.
+ * <p>
+ * Each thread always updates the same stripe(thread id based), so the worker threads do not contend with each other
+ * and there is no shared selector counter as in {@link ConcurrentCounterMap}.
+ * A stripe is an open addressing table of the fields of the row key and the column name and a primitive long count.
+ * No key, map entry or counter object is allocated per update.
+ * {@link RowKey} and {@link ColumnName} are created when the counts are removed. see {@link ColumnNameFactory}
+ * <p>
+ * The number of entries is bounded by maxSize. {@link #increment} tells the caller to flush early
+ * once the stripe of the current thread has reached its share of maxSize.
+ */
+public class StripedCounterMap {
+
+    private static final int INITIAL_STRIPE_CAPACITY = 64;
+
+    private final ColumnNameFactory columnNameFactory;
+    private final Stripe[] stripes;
+    private final int stripeMask;
+    private final int stripeMaxSize;
+
+    public StripedCounterMap(ColumnNameFactory columnNameFactory, int maxSize) {
+        this(columnNameFactory, 16, maxSize);
+    }
+
+    public StripedCounterMap(ColumnNameFactory columnNameFactory, int concurrencyLevel, int maxSize) {
+        if (columnNameFactory == null) {
+            throw new NullPointerException("columnNameFactory must not be null");
+        }
+        if (concurrencyLevel <= 0) {
+            throw new IllegalArgumentException("concurrencyLevel must be positive. concurrencyLevel:" + concurrencyLevel);
+        }
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive. maxSize:" + maxSize);
+        }
+        this.columnNameFactory = columnNameFactory;
+        final int stripeSize = powerOfTwo(concurrencyLevel);
+        this.stripes = new Stripe[stripeSize];
+        for (int i = 0; i < stripeSize; i++) {
+            this.stripes[i] = new Stripe();
+        }
+        this.stripeMask = stripeSize - 1;
+        this.stripeMaxSize = Math.max(1, maxSize / stripeSize);
+    }
+
+    private static int powerOfTwo(int value) {
+        int powerOfTwo = 1;
+        while (powerOfTwo < value) {
+            powerOfTwo <<= 1;
+        }
+        return powerOfTwo;
+    }
+
+    /**
+     * the row is a {@link CallRowKey}. the column fields not used by the {@link ColumnNameFactory} may be null or 0.
+     *
+     * @return true if the stripe of the current thread is full and the map should be flushed
+     */
+    public boolean increment(String rowApplicationName, short rowServiceType, long rowTimeSlot,
+                             String columnAgentId, short columnServiceType, String columnApplicationName, String columnHost, short columnSlotNumber,
+                             long increment) {
+        if (rowApplicationName == null) {
+            throw new NullPointerException("rowApplicationName must not be null");
+        }
+        final int size = currentStripe().increment(rowApplicationName, rowServiceType, rowTimeSlot,
+                columnAgentId, columnServiceType, columnApplicationName, columnHost, columnSlotNumber, increment);
+        return size >= stripeMaxSize;
+    }
+
+    /**
+     * @return true if the stripe of the current thread is full
+     */
+    public boolean isFull() {
+        return currentStripe().size() >= stripeMaxSize;
+    }
+
+    private Stripe currentStripe() {
+        return stripes[(int) Thread.currentThread().getId() & stripeMask];
+    }
+
+    /**
+     * removes all counts. the counts of the same row and column from different stripes are merged.
+     */
+    public Map<RowInfo, ConcurrentCounterMap.LongAdder> remove() {
+        final Map<RowInfo, ConcurrentCounterMap.LongAdder> mergeMap = new HashMap<RowInfo, ConcurrentCounterMap.LongAdder>();
+        for (Stripe stripe : stripes) {
+            final Table table = stripe.remove();
+            if (table == null) {
+                continue;
+            }
+            for (int i = 0; i < table.capacity(); i++) {
+                if (table.rowApplicationNames[i] == null) {
+                    continue;
+                }
+                final RowKey rowKey = new CallRowKey(table.rowApplicationNames[i], table.rowServiceTypes[i], table.rowTimeSlots[i]);
+                final ColumnName columnName = columnNameFactory.newColumnName(table.columnAgentIds[i], table.columnServiceTypes[i],
+                        table.columnApplicationNames[i], table.columnHosts[i], table.columnSlotNumbers[i]);
+                final RowInfo rowInfo = new DefaultRowInfo(rowKey, columnName);
+                final long count = table.counts[i];
+                final ConcurrentCounterMap.LongAdder longAdder = mergeMap.get(rowInfo);
+                if (longAdder == null) {
+                    mergeMap.put(rowInfo, new ConcurrentCounterMap.LongAdder(count));
+                } else {
+                    longAdder.increment(count);
+                }
+            }
+        }
+        return mergeMap;
+    }
+
+    /**
+     * @return the number of entries. not exact while the map is updated
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    /**
+     * creates the column name of the counted fields at flush time.
+     */
+    public interface ColumnNameFactory {
+        ColumnName newColumnName(String agentId, short serviceType, String applicationName, String host, short slotNumber);
+    }
+
+    private static final class Stripe {
+        private Table table = new Table(INITIAL_STRIPE_CAPACITY);
+
+        private synchronized int increment(String rowApplicationName, short rowServiceType, long rowTimeSlot,
+                                           String columnAgentId, short columnServiceType, String columnApplicationName, String columnHost, short columnSlotNumber,
+                                           long increment) {
+            Table table = this.table;
+            if (table.needResize()) {
+                table = table.resize();
+                this.table = table;
+            }
+            table.increment(rowApplicationName, rowServiceType, rowTimeSlot,
+                    columnAgentId, columnServiceType, columnApplicationName, columnHost, columnSlotNumber, increment);
+            return table.size;
+        }
+
+        /**
+         * @return null if empty
+         */
+        private synchronized Table remove() {
+            final Table old = this.table;
+            if (old.size == 0) {
+                return null;
+            }
+            // the next round usually has a similar number of entries
+            this.table = new Table(old.capacity());
+            return old;
+        }
+
+        private synchronized int size() {
+            return table.size;
+        }
+    }
+
+    private static final class Table {
+        // null if the slot is empty
+        private final String[] rowApplicationNames;
+        private final short[] rowServiceTypes;
+        private final long[] rowTimeSlots;
+        private final String[] columnAgentIds;
+        private final short[] columnServiceTypes;
+        private final String[] columnApplicationNames;
+        private final String[] columnHosts;
+        private final short[] columnSlotNumbers;
+        private final int[] hashes;
+        private final long[] counts;
+        private final int mask;
+        private int size;
+
+        private Table(int capacity) {
+            this.rowApplicationNames = new String[capacity];
+            this.rowServiceTypes = new short[capacity];
+            this.rowTimeSlots = new long[capacity];
+            this.columnAgentIds = new String[capacity];
+            this.columnServiceTypes = new short[capacity];
+            this.columnApplicationNames = new String[capacity];
+            this.columnHosts = new String[capacity];
+            this.columnSlotNumbers = new short[capacity];
+            this.hashes = new int[capacity];
+            this.counts = new long[capacity];
+            this.mask = capacity - 1;
+        }
+
+        private int capacity() {
+            return rowApplicationNames.length;
+        }
+
+        private boolean needResize() {
+            // load factor 0.5
+            return (size + 1) * 2 > capacity();
+        }
+
+        private Table resize() {
+            final Table resized = new Table(capacity() * 2);
+            for (int i = 0; i < capacity(); i++) {
+                if (rowApplicationNames[i] != null) {
+                    final int index = resized.emptyIndex(hashes[i]);
+                    resized.insert(index, hashes[i], rowApplicationNames[i], rowServiceTypes[i], rowTimeSlots[i],
+                            columnAgentIds[i], columnServiceTypes[i], columnApplicationNames[i], columnHosts[i], columnSlotNumbers[i], counts[i]);
+                }
+            }
+            return resized;
+        }
+
+        private void increment(String rowApplicationName, short rowServiceType, long rowTimeSlot,
+                               String columnAgentId, short columnServiceType, String columnApplicationName, String columnHost, short columnSlotNumber,
+                               long increment) {
+            int hash = rowApplicationName.hashCode();
+            hash = 31 * hash + rowServiceType;
+            hash = 31 * hash + (int) (rowTimeSlot ^ (rowTimeSlot >>> 32));
+            hash = 31 * hash + hashCode(columnAgentId);
+            hash = 31 * hash + columnServiceType;
+            hash = 31 * hash + hashCode(columnApplicationName);
+            hash = 31 * hash + hashCode(columnHost);
+            hash = 31 * hash + columnSlotNumber;
+
+            int index = spread(hash) & mask;
+            while (true) {
+                final String slotRowApplicationName = rowApplicationNames[index];
+                if (slotRowApplicationName == null) {
+                    insert(index, hash, rowApplicationName, rowServiceType, rowTimeSlot,
+                            columnAgentId, columnServiceType, columnApplicationName, columnHost, columnSlotNumber, increment);
+                    return;
+                }
+                if (hashes[index] == hash
+                        && rowServiceTypes[index] == rowServiceType
+                        && rowTimeSlots[index] == rowTimeSlot
+                        && columnServiceTypes[index] == columnServiceType
+                        && columnSlotNumbers[index] == columnSlotNumber
+                        && slotRowApplicationName.equals(rowApplicationName)
+                        && equals(columnAgentIds[index], columnAgentId)
+                        && equals(columnApplicationNames[index], columnApplicationName)
+                        && equals(columnHosts[index], columnHost)) {
+                    counts[index] += increment;
+                    return;
+                }
+                index = (index + 1) & mask;
+            }
+        }
+
+        private int emptyIndex(int hash) {
+            int index = spread(hash) & mask;
+            while (rowApplicationNames[index] != null) {
+                index = (index + 1) & mask;
+            }
+            return index;
+        }
+
+        private void insert(int index, int hash, String rowApplicationName, short rowServiceType, long rowTimeSlot,
+                            String columnAgentId, short columnServiceType, String columnApplicationName, String columnHost, short columnSlotNumber,
+                            long count) {
+            rowApplicationNames[index] = rowApplicationName;
+            rowServiceTypes[index] = rowServiceType;
+            rowTimeSlots[index] = rowTimeSlot;
+            columnAgentIds[index] = columnAgentId;
+            columnServiceTypes[index] = columnServiceType;
+            columnApplicationNames[index] = columnApplicationName;
+            columnHosts[index] = columnHost;
+            columnSlotNumbers[index] = columnSlotNumber;
+            hashes[index] = hash;
+            counts[index] = count;
+            size++;
+        }
+
+        private static int hashCode(String value) {
+            return value == null ? 0 : value.hashCode();
+        }
+
+        private static boolean equals(String value1, String value2) {
+            if (value1 == value2) {
+                return true;
+            }
+            return value1 != null && value1.equals(value2);
+        }
+
+        private static int spread(int hash) {
+            return hash ^ (hash >>> 16);
+        }
+    }
+}
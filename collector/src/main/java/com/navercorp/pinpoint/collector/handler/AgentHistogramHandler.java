@@ -0,0 +1,131 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.handler;
+
+import java.util.List;
+
+import org.apache.thrift.TBase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.navercorp.pinpoint.common.HistogramSchema;
+import com.navercorp.pinpoint.common.ServiceType;
+import com.navercorp.pinpoint.thrift.dto.TAgentHistogramBatch;
+import com.navercorp.pinpoint.thrift.dto.TResponseHistogram;
+
+/**
+ * Folds the response histograms pre-aggregated by the agent into the server map statistics.
+ * <p/>
+ * The histograms count every transaction including unsampled ones, so the statistics of the node itself and of the
+ * user calling it are exact. SpanHandler skips the statistics of the spans marked as counted in the histogram(histogramCounted).
+ */
+@Service("agentHistogramHandler")
+public class AgentHistogramHandler implements Handler {
+
+    private final Logger logger = LoggerFactory.getLogger(AgentHistogramHandler.class.getName());
+
+    @Autowired
+    private StatisticsHandler statisticsHandler;
+
+    public void handle(TBase<?, ?> tbase, byte[] packet, int offset, int length) {
+        if (!(tbase instanceof TAgentHistogramBatch)) {
+            throw new IllegalArgumentException("unexpected tbase:" + tbase + " expected:" + TAgentHistogramBatch.class.getName());
+        }
+        final TAgentHistogramBatch histogramBatch = (TAgentHistogramBatch) tbase;
+        if (logger.isDebugEnabled()) {
+            logger.debug("Received AgentHistogram={}", histogramBatch);
+        }
+        try {
+            handleAgentHistogramBatch(histogramBatch);
+        } catch (Exception e) {
+            logger.warn("AgentHistogram handle error. Caused:{}", e.getMessage(), e);
+        }
+    }
+
+    private void handleAgentHistogramBatch(TAgentHistogramBatch histogramBatch) {
+        final String applicationName = histogramBatch.getApplicationName();
+        final short serviceType = histogramBatch.getServiceType();
+        final String agentId = histogramBatch.getAgentId();
+
+        if (histogramBatch.isSetResponseHistogram()) {
+            // response time of the node itself
+            new HistogramFolder() {
+                @Override
+                void update(int elapsed, boolean isError, long count) {
+                    statisticsHandler.updateResponseTime(applicationName, serviceType, agentId, elapsed, isError, count);
+                }
+            }.fold(histogramBatch.getResponseHistogram());
+        }
+
+        if (histogramBatch.isSetUserAcceptHistogram()) {
+            // same as the root span of SpanHandler
+            new HistogramFolder() {
+                @Override
+                void update(int elapsed, boolean isError, long count) {
+                    statisticsHandler.updateCaller(applicationName, ServiceType.USER.getCode(), agentId, applicationName, serviceType, agentId, elapsed, isError, count);
+                    statisticsHandler.updateCallee(applicationName, serviceType, applicationName, ServiceType.USER.getCode(), agentId, elapsed, isError, count);
+                }
+            }.fold(histogramBatch.getUserAcceptHistogram());
+        }
+
+        final List<TResponseHistogram> acceptHistograms = histogramBatch.getAcceptHistograms();
+        if (acceptHistograms == null) {
+            return;
+        }
+        for (final TResponseHistogram acceptHistogram : acceptHistograms) {
+            final String parentApplicationName = acceptHistogram.getParentApplicationName();
+            if (parentApplicationName == null) {
+                logger.warn("parentApplicationName not found. agentId:{}", agentId);
+                continue;
+            }
+            // same as the span having a parent application
+            new HistogramFolder() {
+                @Override
+                void update(int elapsed, boolean isError, long count) {
+                    statisticsHandler.updateCallee(applicationName, serviceType, parentApplicationName, acceptHistogram.getServiceType(), agentId, elapsed, isError, count);
+                }
+            }.fold(acceptHistogram);
+        }
+    }
+
+    /**
+     * converts each slot of the histogram to a representative elapsed time. the statistics dao finds the same slot again.
+     */
+    private abstract static class HistogramFolder {
+
+        void fold(TResponseHistogram histogram) {
+            final HistogramSchema schema = ServiceType.findServiceType(histogram.getServiceType()).getHistogramSchema();
+            fold(schema.getFastSlot().getSlotTime(), false, histogram.getFastCount());
+            fold(schema.getNormalSlot().getSlotTime(), false, histogram.getNormalCount());
+            fold(schema.getSlowSlot().getSlotTime(), false, histogram.getSlowCount());
+            // very slow slot time is 0. any time over the slow slot falls into the very slow slot.
+            fold(Integer.MAX_VALUE, false, histogram.getVerySlowCount());
+            fold(HistogramSchema.ERROR_SLOT_TIME, true, histogram.getErrorCount());
+        }
+
+        private void fold(int elapsed, boolean isError, long count) {
+            if (count <= 0) {
+                return;
+            }
+            update(elapsed, isError, count);
+        }
+
+        abstract void update(int elapsed, boolean isError, long count);
+    }
+}
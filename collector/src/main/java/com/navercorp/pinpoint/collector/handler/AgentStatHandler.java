@@ -16,6 +16,7 @@
 
 package com.navercorp.pinpoint.collector.handler;
 
+import com.navercorp.pinpoint.collector.config.CollectorConfiguration;
 import com.navercorp.pinpoint.collector.dao.AgentStatDao;
 import com.navercorp.pinpoint.thrift.dto.TAgentStat;
 import com.navercorp.pinpoint.thrift.dto.TAgentStatBatch;
@@ -38,6 +39,9 @@ public class AgentStatHandler implements Handler {
     @Autowired
     private AgentStatDao agentStatDao;
 
+    @Autowired
+    private CollectorConfiguration collectorConfiguration;
+
     public void handle(TBase<?, ?> tbase, byte[] packet, int offset, int length) {
         // FIXME (2014.08) Legacy - TAgentStats should not be sent over the wire.
         if (tbase instanceof TAgentStat) {
@@ -66,6 +70,14 @@ public class AgentStatHandler implements Handler {
         if (logger.isDebugEnabled()) {
             logger.debug("Received AgentStats={}", agentStatBatch);
         }
+        if (collectorConfiguration.isAgentStatBatchFormatEnable()) {
+            try {
+                agentStatDao.insert(agentStatBatch);
+            } catch (Exception e) {
+                logger.warn("AgentStatBatch handle error. Caused:{}", e.getMessage());
+            }
+            return;
+        }
         String agentId = agentStatBatch.getAgentId();
         long startTimestamp = agentStatBatch.getStartTimestamp();
         for (TAgentStat agentStat : agentStatBatch.getAgentStats()) {
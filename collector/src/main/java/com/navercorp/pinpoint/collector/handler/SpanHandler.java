@@ -72,7 +72,10 @@ public class SpanHandler implements SimpleHandler {
 
             // insert statistics info for server map
             insertAcceptorHost(span);
-            insertSpanStat(span);
+            // the agent counted this span in the response histogram. AgentHistogramHandler
+            if (!span.isHistogramCounted()) {
+                insertSpanStat(span);
+            }
             insertSpanEventStat(span);
         } catch (Exception e) {
             logger.warn("Span handle error. Caused:{}. Span:{}",e.getMessage(), tbase, e);
@@ -58,6 +58,13 @@ public class StatisticsHandler {
         mapStatisticsCallerDao.update(callerApplicationName, callerServiceType, callerAgentId, calleeApplicationName, calleeServiceType, calleeHost, elapsed, isError);
     }
 
+    /**
+     * same as {@link #updateCaller(String, short, String, String, short, String, int, boolean)} for the count of calls pre-aggregated by the agent
+     */
+    public void updateCaller(String callerApplicationName, short callerServiceType, String callerAgentId, String calleeApplicationName, short calleeServiceType, String calleeHost, int elapsed, boolean isError, long count) {
+        mapStatisticsCallerDao.update(callerApplicationName, callerServiceType, callerAgentId, calleeApplicationName, calleeServiceType, calleeHost, elapsed, isError, count);
+    }
+
     /**
      * Calling MySQL from Tomcat generates the following message for the callee(MySQL) :<br/>
      * MySQL_DB_ID (MYSQL) <- emeroad-app (TOMCAT)[localhost:8080] <br/>
@@ -76,7 +83,18 @@ public class StatisticsHandler {
         mapStatisticsCalleeDao.update(calleeApplicationName, calleeServiceType, callerApplicationName, callerServiceType, callerHost, elapsed, isError);
     }
 
+    /**
+     * same as {@link #updateCallee(String, short, String, short, String, int, boolean)} for the count of calls pre-aggregated by the agent
+     */
+    public void updateCallee(String calleeApplicationName, short calleeServiceType, String callerApplicationName, short callerServiceType, String callerHost, int elapsed, boolean isError, long count) {
+        mapStatisticsCalleeDao.update(calleeApplicationName, calleeServiceType, callerApplicationName, callerServiceType, callerHost, elapsed, isError, count);
+    }
+
     public void updateResponseTime(String applicationName, short serviceType, String agentId, int elapsed, boolean isError) {
         mapResponseTimeDao.received(applicationName, serviceType, agentId, elapsed, isError);
     }
+
+    public void updateResponseTime(String applicationName, short serviceType, String agentId, int elapsed, boolean isError, long count) {
+        mapResponseTimeDao.received(applicationName, serviceType, agentId, elapsed, isError, count);
+    }
 }
@@ -34,6 +34,9 @@ public class UdpDispatchHandler extends AbstractDispatchHandler {
     @Qualifier("agentStatHandler")
     private Handler agentStatHandler;
 
+    @Autowired()
+    @Qualifier("agentHistogramHandler")
+    private Handler agentHistogramHandler;
 
     public UdpDispatchHandler() {
         this.logger = LoggerFactory.getLogger(this.getClass());
@@ -47,6 +50,9 @@ public class UdpDispatchHandler extends AbstractDispatchHandler {
         if (tBase instanceof TAgentStat || tBase instanceof TAgentStatBatch) {
             return agentStatHandler;
         }
+        if (tBase instanceof TAgentHistogramBatch) {
+            return agentHistogramHandler;
+        }
         return null;
     }
 
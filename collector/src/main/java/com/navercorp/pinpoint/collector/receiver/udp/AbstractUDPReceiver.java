@@ -37,12 +37,27 @@ import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
 
 import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.net.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
+ * Two receive modes.
+ * <p/>
+ * worker mode(default) : io threads read one DatagramSocket and hand each packet over to the worker pool.
+ * packets are rejected when the worker queue is full.
+ * <p/>
+ * channel mode : N DatagramChannels are bound to the same port with SO_REUSEPORT(java 9+ on linux),
+ * the kernel spreads the packets over the channels. each channel has its own thread which reads into its own buffer
+ * and decodes and dispatches without the worker hand-off. if SO_REUSEPORT is not supported,
+ * the N threads share one channel and still decode in parallel.
+ *
  * @author emeroad
  * @author netspider
  * @author jaehong.kim
@@ -50,6 +65,8 @@ import java.util.concurrent.atomic.AtomicInteger;
  */
 public abstract class AbstractUDPReceiver implements DataReceiver {
 
+    private static final int MAX_PACKET_SIZE = 65507;
+
     protected final Logger logger = LoggerFactory.getLogger(this.getClass().getName());
 
     private String bindAddress;
@@ -63,6 +80,8 @@ public abstract class AbstractUDPReceiver implements DataReceiver {
 
     private Timer timer;
     private Counter rejectedCounter;
+    // from the end of receive to the end of dispatch. includes the wait in the worker queue
+    private Timer receiveLatencyTimer;
 
     // increasing ioThread size wasn't very effective
     private int ioThreadSize = CpuUtils.cpuCount();
@@ -81,6 +100,11 @@ public abstract class AbstractUDPReceiver implements DataReceiver {
 
     private volatile DatagramSocket socket = null;
 
+    private boolean channelEnable = false;
+    // 0 : cpu count
+    private int channelSize = 0;
+    private volatile DatagramChannel[] channels = null;
+
     private DispatchHandler dispatchHandler;
 
 
@@ -109,23 +133,40 @@ public abstract class AbstractUDPReceiver implements DataReceiver {
         this.workerThreadQueueSize = workerThreadQueueSize;
     }
 
-    abstract Runnable getPacketDispatcher(AbstractUDPReceiver receiver, DatagramPacket packet);
-    
+    /**
+     * decodes and dispatches one packet. the data is valid only until this method returns.
+     */
+    abstract void handlePacket(byte[] data, int offset, int length, SocketAddress remoteAddress);
+
     public void afterPropertiesSet() {
         Assert.notNull(dispatchHandler, "dispatchHandler must not be null");
         Assert.notNull(metricRegistry, "metricRegistry must not be null");
 
-        this.socket = createSocket(bindAddress, port, receiverBufferSize);
+        if (channelEnable) {
+            final int readerSize = getChannelReaderSize();
+            this.channels = createChannels(bindAddress, port, receiverBufferSize, readerSize);
+            this.ioThreadSize = readerSize;
+        } else {
+            this.socket = createSocket(bindAddress, port, receiverBufferSize);
 
-        final int packetPoolSize = getPacketPoolSize(workerThreadSize, workerThreadQueueSize);
-        this.datagramPacketPool = new ObjectPool<DatagramPacket>(new DatagramPacketFactory(), packetPoolSize);
-        this.worker = ExecutorFactory.newFixedThreadPool(workerThreadSize, workerThreadQueueSize, receiverName + "-Worker", true);
+            final int packetPoolSize = getPacketPoolSize(workerThreadSize, workerThreadQueueSize);
+            this.datagramPacketPool = new ObjectPool<DatagramPacket>(new DatagramPacketFactory(), packetPoolSize);
+            this.worker = ExecutorFactory.newFixedThreadPool(workerThreadSize, workerThreadQueueSize, receiverName + "-Worker", true);
+        }
 
         this.timer = metricRegistry.timer(receiverName + "-timer");
         this.rejectedCounter = metricRegistry.counter(receiverName + "-rejected");
+        this.receiveLatencyTimer = metricRegistry.timer(receiverName + "-receiveLatency");
         this.io = (ThreadPoolExecutor) Executors.newCachedThreadPool(new PinpointThreadFactory(receiverName + "-Io", true));
     }
 
+    private int getChannelReaderSize() {
+        if (channelSize > 0) {
+            return channelSize;
+        }
+        return CpuUtils.cpuCount();
+    }
+
 
     private void receive() {
         if (logger.isInfoEnabled()) {
@@ -150,14 +191,10 @@ public abstract class AbstractUDPReceiver implements DataReceiver {
                 logger.debug("pool getActiveCount:{}", worker.getActiveCount());
             }
             try {
-                worker.execute(getPacketDispatcher(this, packet));
+                worker.execute(new DispatchPacket(packet));
             } catch (RejectedExecutionException ree) {
-                rejectedCounter.inc();
-                final int error = rejectedExecutionCount.incrementAndGet();
-                final int mod = 100;
-                if ((error % mod) == 0) {
-                    logger.warn("RejectedExecutionCount={}", error);
-                }
+                datagramPacketPool.returnObject(packet);
+                rejected();
             }
         }
         if (logger.isInfoEnabled()) {
@@ -165,6 +202,15 @@ public abstract class AbstractUDPReceiver implements DataReceiver {
         }
     }
 
+    private void rejected() {
+        rejectedCounter.inc();
+        final int error = rejectedExecutionCount.incrementAndGet();
+        final int mod = 100;
+        if ((error % mod) == 0) {
+            logger.warn("RejectedExecutionCount={}", error);
+        }
+    }
+
     private DatagramPacket read0() {
         boolean success = false;
         DatagramPacket packet = datagramPacketPool.getObject();
@@ -201,6 +247,96 @@ public abstract class AbstractUDPReceiver implements DataReceiver {
         return packet;
     }
 
+    private class DispatchPacket implements Runnable {
+        private final DatagramPacket packet;
+        private final long receivedTime;
+
+        private DispatchPacket(DatagramPacket packet) {
+            if (packet == null) {
+                throw new NullPointerException("packet must not be null");
+            }
+            this.packet = packet;
+            this.receivedTime = System.nanoTime();
+        }
+
+        @Override
+        public void run() {
+            Timer.Context time = timer.time();
+            try {
+                handlePacket(packet.getData(), packet.getOffset(), packet.getLength(), packet.getSocketAddress());
+            } finally {
+                datagramPacketPool.returnObject(packet);
+                // what should we do when an exception is thrown?
+                time.stop();
+                receiveLatencyTimer.update(System.nanoTime() - receivedTime, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private void receiveChannel(DatagramChannel channel) {
+        final String threadName = Thread.currentThread().getName();
+        logger.info("start channel reader localAddress:{}, IoThread:{}", channel.socket().getLocalSocketAddress(), threadName);
+        final boolean debugEnabled = logger.isDebugEnabled();
+
+        // owned by this thread. reused for every packet.
+        // the packet is received into the backing array and handed over without a copy.
+        final byte[] data = new byte[MAX_PACKET_SIZE];
+        final ByteBuffer buffer = ByteBuffer.wrap(data);
+
+        while (state.get()) {
+            final SocketAddress remoteAddress;
+            try {
+                buffer.clear();
+                remoteAddress = channel.receive(buffer);
+            } catch (ClosedChannelException e) {
+                // shutdown
+                break;
+            } catch (IOException e) {
+                if (state.get()) {
+                    logger.error("IoError, Caused:", e.getMessage(), e);
+                }
+                continue;
+            }
+            if (remoteAddress == null) {
+                continue;
+            }
+            final long receivedTime = System.nanoTime();
+            final int length = buffer.position();
+            if (length == 0) {
+                if (debugEnabled) {
+                    logger.debug("length is 0 remoteAddress:{}", remoteAddress);
+                }
+                continue;
+            }
+            if (debugEnabled) {
+                logger.debug("DatagramChannel SocketAddress:{} read size:{}", remoteAddress, length);
+            }
+
+            final Timer.Context time = timer.time();
+            try {
+                handlePacket(data, 0, length, remoteAddress);
+            } catch (Throwable th) {
+                logger.warn("Unexpected error. SendSocketAddress:{} Cause:{}", remoteAddress, th.getMessage(), th);
+            } finally {
+                time.stop();
+                receiveLatencyTimer.update(System.nanoTime() - receivedTime, TimeUnit.NANOSECONDS);
+            }
+        }
+        logger.info("stop channel reader IoThread:{}", threadName);
+    }
+
+    /**
+     * sends a response(e.g. network availability check) to the agent.
+     */
+    void sendResponse(byte[] data, SocketAddress remoteAddress) throws IOException {
+        final DatagramChannel[] channels = this.channels;
+        if (channels != null) {
+            channels[0].send(ByteBuffer.wrap(data), remoteAddress);
+        } else {
+            socket.send(new DatagramPacket(data, data.length, remoteAddress));
+        }
+    }
+
     private DatagramSocket createSocket(String bindAddress, int port, int receiveBufferSize) {
         try {
             DatagramSocket so = new DatagramSocket(null);
@@ -220,6 +356,83 @@ public abstract class AbstractUDPReceiver implements DataReceiver {
         }
     }
 
+    private DatagramChannel[] createChannels(String bindAddress, int port, int receiveBufferSize, int readerSize) {
+        final Object reusePortOption = getReusePortOption();
+        final DatagramChannel first = createChannel(bindAddress, port, receiveBufferSize, reusePortOption);
+        final boolean reusePort = reusePortOption != null && isReusePort(first, reusePortOption);
+        if (!reusePort) {
+            logger.warn("SO_REUSEPORT not supported. {} readers share one DatagramChannel. port:{}", readerSize, port);
+            final DatagramChannel[] channels = new DatagramChannel[readerSize];
+            for (int i = 0; i < readerSize; i++) {
+                channels[i] = first;
+            }
+            return channels;
+        }
+
+        logger.info("bind {} DatagramChannels with SO_REUSEPORT. port:{}", readerSize, port);
+        final DatagramChannel[] channels = new DatagramChannel[readerSize];
+        channels[0] = first;
+        for (int i = 1; i < readerSize; i++) {
+            channels[i] = createChannel(bindAddress, port, receiveBufferSize, reusePortOption);
+        }
+        return channels;
+    }
+
+    private DatagramChannel createChannel(String bindAddress, int port, int receiveBufferSize, Object reusePortOption) {
+        try {
+            final DatagramChannel channel = DatagramChannel.open();
+            final DatagramSocket so = channel.socket();
+            so.setReceiveBufferSize(receiveBufferSize);
+            if (logger.isWarnEnabled()) {
+                final int checkReceiveBufferSize = so.getReceiveBufferSize();
+                if (receiveBufferSize != checkReceiveBufferSize) {
+                    logger.warn("DatagramSocket.setReceiveBufferSize() error. {}!={}", receiveBufferSize, checkReceiveBufferSize);
+                }
+            }
+            if (reusePortOption != null) {
+                setReusePort(channel, reusePortOption);
+            }
+            channel.configureBlocking(true);
+            so.bind(new InetSocketAddress(bindAddress, port));
+            return channel;
+        } catch (IOException ex) {
+            throw new RuntimeException("DatagramChannel create Fail. port:" + port + " Caused:" + ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * StandardSocketOptions.SO_REUSEPORT exists since java 9. looked up by reflection to build with the old jdk.
+     */
+    private Object getReusePortOption() {
+        try {
+            final Class<?> standardSocketOptions = Class.forName("java.net.StandardSocketOptions");
+            return standardSocketOptions.getField("SO_REUSEPORT").get(null);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private void setReusePort(DatagramChannel channel, Object reusePortOption) {
+        try {
+            final Method setOption = DatagramChannel.class.getMethod("setOption", Class.forName("java.net.SocketOption"), Object.class);
+            setOption.invoke(channel, reusePortOption, Boolean.TRUE);
+        } catch (InvocationTargetException e) {
+            // UnsupportedOperationException : not supported by the os
+            logger.debug("SO_REUSEPORT set fail. Caused:{}", e.getCause().getMessage());
+        } catch (Exception e) {
+            logger.debug("SO_REUSEPORT set fail. Caused:{}", e.getMessage());
+        }
+    }
+
+    private boolean isReusePort(DatagramChannel channel, Object reusePortOption) {
+        try {
+            final Method getOption = DatagramChannel.class.getMethod("getOption", Class.forName("java.net.SocketOption"));
+            return Boolean.TRUE.equals(getOption.invoke(channel, reusePortOption));
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
     private int getPacketPoolSize(int workerThreadSize, int workerThreadQueueSize) {
         return workerThreadSize + workerThreadQueueSize + ioThreadSize;
     }
@@ -229,6 +442,18 @@ public abstract class AbstractUDPReceiver implements DataReceiver {
     public void start() {
         logger.info("{} start.", receiverName);
         afterPropertiesSet();
+        if (channels != null) {
+            logger.info("UDP Channel reader:{} started.", channels.length);
+            for (final DatagramChannel channel : channels) {
+                io.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        receiveChannel(channel);
+                    }
+                });
+            }
+            return;
+        }
         if (socket == null) {
             throw new RuntimeException("socket create fail");
         }
@@ -251,9 +476,27 @@ public abstract class AbstractUDPReceiver implements DataReceiver {
         logger.info("{} shutdown.", this.receiverName);
         state.set(false);
         // is it okay to just close here?
-        socket.close();
+        if (socket != null) {
+            socket.close();
+        }
+        if (channels != null) {
+            closeChannels(channels);
+        }
         shutdownExecutor(io, "IoExecutor");
-        shutdownExecutor(worker, "WorkerExecutor");
+        if (worker != null) {
+            shutdownExecutor(worker, "WorkerExecutor");
+        }
+    }
+
+    private void closeChannels(DatagramChannel[] channels) {
+        for (DatagramChannel channel : channels) {
+            try {
+                // closing a shared channel again is no-op
+                channel.close();
+            } catch (IOException e) {
+                logger.warn("DatagramChannel.close() error. Caused:{}", e.getMessage(), e);
+            }
+        }
     }
 
     private void shutdownExecutor(ExecutorService executor, String executorName) {
@@ -266,10 +509,22 @@ public abstract class AbstractUDPReceiver implements DataReceiver {
         }
     }
 
+    public void setChannelEnable(boolean channelEnable) {
+        this.channelEnable = channelEnable;
+    }
+
+    public void setChannelSize(int channelSize) {
+        this.channelSize = channelSize;
+    }
+
     public Timer getTimer() {
         return timer;
     }
 
+    public Timer getReceiveLatencyTimer() {
+        return receiveLatencyTimer;
+    }
+
     public DispatchHandler getDispatchHandler() {
         return dispatchHandler;
     }
@@ -16,7 +16,6 @@
 
 package com.navercorp.pinpoint.collector.receiver.udp;
 
-import com.codahale.metrics.Timer;
 import com.navercorp.pinpoint.collector.receiver.DispatchHandler;
 import com.navercorp.pinpoint.collector.util.PacketUtils;
 import com.navercorp.pinpoint.thrift.io.*;
@@ -43,84 +42,59 @@ public class ChunkedUDPReceiver extends AbstractUDPReceiver {
     }
     
     @Override
-    Runnable getPacketDispatcher(AbstractUDPReceiver receiver, DatagramPacket packet) {
-        return new DispatchPacket(receiver, packet);
-    }
-
-    private class DispatchPacket implements Runnable {
-        private final AbstractUDPReceiver receiver;
-        private final DatagramPacket packet;
-
-        private DispatchPacket(AbstractUDPReceiver receiver, DatagramPacket packet) {
-            if (packet == null) {
-                throw new NullPointerException("packet must not be null");
+    void handlePacket(byte[] data, int offset, int length, SocketAddress remoteAddress) {
+        final ChunkHeaderTBaseDeserializer deserializer = deserializerFactory.createDeserializer();
+        try {
+            List<TBase<?, ?>> list = deserializer.deserialize(data, offset, length);
+            if (list == null) {
+                return;
             }
-            this.receiver = receiver;
-            this.packet = packet;
-        }
-
-        @Override
-        public void run() {
-            Timer.Context time = receiver.getTimer().time();
 
-            final ChunkHeaderTBaseDeserializer deserializer = deserializerFactory.createDeserializer();
-            try {
-                List<TBase<?, ?>> list = deserializer.deserialize(packet.getData(), packet.getOffset(), packet.getLength());
-                if (list == null) {
-                    return;
-                }
-
-                for (TBase<?, ?> tBase : list) {
-                    if (tBase instanceof L4Packet) {
-                        if (logger.isDebugEnabled()) {
-                            L4Packet packet = (L4Packet) tBase;
-                            logger.debug("udp l4 packet {}", packet.getHeader());
-                        }
-                        continue;
-                    }
-                    // Network port availability check packet
-                    if (tBase instanceof NetworkAvailabilityCheckPacket) {
-                        if (logger.isDebugEnabled()) {
-                            logger.debug("received udp network availability check packet.");
-                        }
-                        responseOK();
-                        continue;
+            for (TBase<?, ?> tBase : list) {
+                if (tBase instanceof L4Packet) {
+                    if (logger.isDebugEnabled()) {
+                        L4Packet packet = (L4Packet) tBase;
+                        logger.debug("udp l4 packet {}", packet.getHeader());
                     }
-                    // dispatch signifies business logic execution
-                    receiver.getDispatchHandler().dispatchSendMessage(tBase, packet.getData(), Header.HEADER_SIZE, packet.getLength());
-                }
-            } catch (TException e) {
-                if (logger.isWarnEnabled()) {
-                    logger.warn("packet serialize error. SendSocketAddress:{} Cause:{}", packet.getSocketAddress(), e.getMessage(), e);
-                }
-                if (logger.isDebugEnabled()) {
-                    logger.debug("packet dump hex:{}", PacketUtils.dumpDatagramPacket(packet));
+                    continue;
                 }
-            } catch (Exception e) {
-                if (logger.isWarnEnabled()) {
-                    logger.warn("Unexpected error. SendSocketAddress:{} Cause:{} ", packet.getSocketAddress(), e.getMessage(), e);
-                }
-                if (logger.isDebugEnabled()) {
-                    logger.debug("packet dump hex:{}", PacketUtils.dumpDatagramPacket(packet));
+                // Network port availability check packet
+                if (tBase instanceof NetworkAvailabilityCheckPacket) {
+                    if (logger.isDebugEnabled()) {
+                        logger.debug("received udp network availability check packet.");
+                    }
+                    responseOK(data, offset, length, remoteAddress);
+                    continue;
                 }
-            } finally {
-                receiver.getDatagramPacketPool().returnObject(packet);
-                time.stop();
+                // dispatch signifies business logic execution
+                getDispatchHandler().dispatchSendMessage(tBase, data, Header.HEADER_SIZE, length);
+            }
+        } catch (TException e) {
+            if (logger.isWarnEnabled()) {
+                logger.warn("packet serialize error. SendSocketAddress:{} Cause:{}", remoteAddress, e.getMessage(), e);
+            }
+            if (logger.isDebugEnabled()) {
+                logger.debug("packet dump hex:{}", PacketUtils.dumpByteArray(data, offset, length));
+            }
+        } catch (Exception e) {
+            if (logger.isWarnEnabled()) {
+                logger.warn("Unexpected error. SendSocketAddress:{} Cause:{} ", remoteAddress, e.getMessage(), e);
+            }
+            if (logger.isDebugEnabled()) {
+                logger.debug("packet dump hex:{}", PacketUtils.dumpByteArray(data, offset, length));
             }
         }
+    }
 
-        private void responseOK() {
-            try {
-                byte[] okBytes = NetworkAvailabilityCheckPacket.DATA_OK;
-                DatagramPacket pongPacket = new DatagramPacket(okBytes, okBytes.length, packet.getSocketAddress());
-                receiver.getSocket().send(pongPacket);
-            } catch (IOException e) {
-                if (logger.isWarnEnabled()) {
-                    logger.warn("pong error. SendSocketAddress:{} Cause:{}", packet.getSocketAddress(), e.getMessage(), e);
-                }
-                if (logger.isDebugEnabled()) {
-                    logger.debug("packet dump hex:{}", PacketUtils.dumpDatagramPacket(packet));
-                }
+    private void responseOK(byte[] data, int offset, int length, SocketAddress remoteAddress) {
+        try {
+            sendResponse(NetworkAvailabilityCheckPacket.DATA_OK, remoteAddress);
+        } catch (IOException e) {
+            if (logger.isWarnEnabled()) {
+                logger.warn("pong error. SendSocketAddress:{} Cause:{}", remoteAddress, e.getMessage(), e);
+            }
+            if (logger.isDebugEnabled()) {
+                logger.debug("packet dump hex:{}", PacketUtils.dumpByteArray(data, offset, length));
             }
         }
     }
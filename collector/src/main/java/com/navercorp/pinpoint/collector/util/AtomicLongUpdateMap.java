@@ -16,19 +16,35 @@
 
 package com.navercorp.pinpoint.collector.util;
 
+import java.util.Iterator;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
+ * Remembers the last updated time of each key.
+ * The number of keys is bounded by maxSize. a new key over the limit is not cached and always needs update.
+ * Stale keys are removed by {@link #evictBefore(long)}.
+ *
  * @author emeroad
  */
 public class AtomicLongUpdateMap<T> {
-    // FIXME consider to save a mapping information at each 30 ~ 50 seconds not to do at each time.
-    // consider to change to LRU due to OOM risk
 
     private final ConcurrentMap<T, AtomicLong> cache = new ConcurrentHashMap<T, AtomicLong>(1024, 0.75f, 32);
 
+    private final int maxSize;
+
+    public AtomicLongUpdateMap() {
+        this(Integer.MAX_VALUE);
+    }
+
+    public AtomicLongUpdateMap(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be greater than 0. maxSize:" + maxSize);
+        }
+        this.maxSize = maxSize;
+    }
 
     public boolean update(final T cacheKey, final long time) {
         if (cacheKey == null) {
@@ -36,6 +52,10 @@ public class AtomicLongUpdateMap<T> {
         }
         final AtomicLong hitSlot = cache.get(cacheKey);
         if (hitSlot == null ) {
+            if (cache.size() >= maxSize) {
+                // memory ceiling. update without caching until stale keys are evicted.
+                return true;
+            }
             final AtomicLong newTime = new AtomicLong(time);
             final AtomicLong oldTime = cache.putIfAbsent(cacheKey, newTime);
             if (oldTime == null) {
@@ -51,6 +71,27 @@ public class AtomicLongUpdateMap<T> {
         }
     }
 
+    /**
+     * removes the keys last updated before the given time.
+     * @return the number of removed keys
+     */
+    public int evictBefore(final long time) {
+        int evictCount = 0;
+        final Iterator<Map.Entry<T, AtomicLong>> iterator = cache.entrySet().iterator();
+        while (iterator.hasNext()) {
+            final Map.Entry<T, AtomicLong> entry = iterator.next();
+            if (entry.getValue().get() < time) {
+                iterator.remove();
+                evictCount++;
+            }
+        }
+        return evictCount;
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
     private boolean updateTime(final long newTime, final AtomicLong oldTime) {
         final long oldLong = oldTime.get();
         if (newTime > oldLong) {
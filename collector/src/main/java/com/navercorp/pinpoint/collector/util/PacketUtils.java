@@ -40,4 +40,11 @@ public final class PacketUtils {
         }
         return Bytes.toStringBinary(bytes, 0, bytes.length);
     }
+
+    public static String dumpByteArray(byte[] bytes, int offset, int length) {
+        if (bytes == null) {
+            return "null";
+        }
+        return Bytes.toStringBinary(bytes, offset, length);
+    }
 }
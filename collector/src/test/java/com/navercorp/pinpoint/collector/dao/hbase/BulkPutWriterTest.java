@@ -0,0 +1,110 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.dao.hbase;
+
+import com.codahale.metrics.MetricRegistry;
+import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
+
+import org.apache.hadoop.hbase.client.Put;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.*;
+
+public class BulkPutWriterTest {
+
+    private static final String TABLE = "Traces";
+
+    @Test
+    public void flushBySize() throws Exception {
+        HbaseOperations2 template = mock(HbaseOperations2.class);
+        BulkPutWriter writer = new BulkPutWriter(TABLE, template, new MetricRegistry(), true, 2, 10, 1024 * 1024);
+
+        writer.write(createPut(1));
+        verify(template, never()).put(eq(TABLE), anyListOf(Put.class));
+        Assert.assertEquals(1, writer.getQueueSize());
+
+        writer.write(createPut(2));
+        verify(template, times(1)).put(eq(TABLE), anyListOf(Put.class));
+        Assert.assertEquals(0, writer.getQueueSize());
+        Assert.assertEquals(0, writer.getPendingBytes());
+    }
+
+    @Test
+    public void flushAll() throws Exception {
+        HbaseOperations2 template = mock(HbaseOperations2.class);
+        BulkPutWriter writer = new BulkPutWriter(TABLE, template, new MetricRegistry(), true, 10, 10, 1024 * 1024);
+
+        writer.write(createPut(1));
+        writer.write(createPut(2));
+        writer.write(createPut(3));
+        writer.flushAll();
+
+        verify(template, times(1)).put(eq(TABLE), anyListOf(Put.class));
+        Assert.assertEquals(0, writer.getQueueSize());
+    }
+
+    @Test
+    public void memoryBudget() throws Exception {
+        HbaseOperations2 template = mock(HbaseOperations2.class);
+        Put put = createPut(1);
+        // budget for only one put
+        BulkPutWriter writer = new BulkPutWriter(TABLE, template, new MetricRegistry(), true, 10, 10, put.heapSize());
+
+        writer.write(put);
+        writer.write(createPut(2));
+
+        verify(template, times(1)).put(eq(TABLE), anyListOf(Put.class));
+        Assert.assertEquals(1, writer.getQueueSize());
+    }
+
+    @Test
+    public void disable() throws Exception {
+        HbaseOperations2 template = mock(HbaseOperations2.class);
+        BulkPutWriter writer = new BulkPutWriter(TABLE, template, new MetricRegistry(), false, 10, 10, 1024 * 1024);
+
+        Put put = createPut(1);
+        writer.write(put);
+
+        verify(template, times(1)).put(TABLE, put);
+        Assert.assertEquals(0, writer.getQueueSize());
+    }
+
+    @Test
+    public void flushFail() throws Exception {
+        HbaseOperations2 template = mock(HbaseOperations2.class);
+        doThrow(new RuntimeException("test")).when(template).put(eq(TABLE), anyListOf(Put.class));
+        BulkPutWriter writer = new BulkPutWriter(TABLE, template, new MetricRegistry(), true, 1, 10, 1024 * 1024);
+
+        writer.write(createPut(1));
+
+        // retry one
+        verify(template, times(2)).put(eq(TABLE), anyListOf(Put.class));
+        Assert.assertEquals(0, writer.getQueueSize());
+        Assert.assertEquals(0, writer.getPendingBytes());
+    }
+
+    private Put createPut(int row) {
+        Put put = new Put(Bytes.toBytes(row));
+        put.add(Bytes.toBytes("S"), Bytes.toBytes(row), Bytes.toBytes("value"));
+        return put;
+    }
+}
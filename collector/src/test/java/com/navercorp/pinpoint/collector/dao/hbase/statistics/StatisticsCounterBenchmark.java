@@ -0,0 +1,122 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.collector.dao.hbase.statistics;
+
+import com.navercorp.pinpoint.collector.util.ConcurrentCounterMap;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the update path of the map statistics daos.
+ * <pre>
+ * CONCURRENT : ConcurrentCounterMap. round-robin stripe + HashMap&lt;RowInfo, LongAdder&gt;
+ * STRIPED    : StripedCounterMap. thread-affine stripe + open addressing table of the key fields and primitive counts
+ * </pre>
+ * CONCURRENT creates the row key and column name per update. STRIPED counts the fields as the daos do.
+ * run main() or the jmh runner with -prof gc to see the allocation rate per update.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Threads(8)
+@Fork(1)
+public class StatisticsCounterBenchmark {
+
+    private static final int APPLICATION_SIZE = 64;
+    private static final int AGENT_SIZE = 16;
+
+    @Param({"CONCURRENT", "STRIPED"})
+    public String counterType;
+
+    private ConcurrentCounterMap<RowInfo> concurrentCounterMap;
+    private StripedCounterMap stripedCounterMap;
+
+    private final String[] applicationNames = new String[APPLICATION_SIZE];
+    private final String[] agentIds = new String[AGENT_SIZE];
+
+    @State(Scope.Thread)
+    public static class Sequence {
+        private int next;
+
+        private int next() {
+            return next++;
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        for (int i = 0; i < APPLICATION_SIZE; i++) {
+            applicationNames[i] = "application" + i;
+        }
+        for (int i = 0; i < AGENT_SIZE; i++) {
+            agentIds[i] = "agent" + i;
+        }
+        // a new map per iteration. the number of keys is the same as a flush period of a busy collector
+        concurrentCounterMap = new ConcurrentCounterMap<RowInfo>();
+        stripedCounterMap = new StripedCounterMap(new StripedCounterMap.ColumnNameFactory() {
+            @Override
+            public ColumnName newColumnName(String agentId, short serviceType, String applicationName, String host, short slotNumber) {
+                return new ResponseColumnName(agentId, slotNumber);
+            }
+        }, Integer.MAX_VALUE);
+    }
+
+    @Benchmark
+    public boolean increment(Sequence sequence) {
+        final int next = sequence.next();
+        final String applicationName = applicationNames[next & (APPLICATION_SIZE - 1)];
+        final String agentId = agentIds[(next >>> 6) & (AGENT_SIZE - 1)];
+        final short slotNumber = (short) (next & 7);
+        if ("STRIPED".equals(counterType)) {
+            return stripedCounterMap.increment(applicationName, (short) 1000, 60000L, agentId, (short) 0, null, null, slotNumber, 1L);
+        }
+        final RowKey rowKey = new CallRowKey(applicationName, (short) 1000, 60000L);
+        final ColumnName columnName = new ResponseColumnName(agentId, slotNumber);
+        concurrentCounterMap.increment(new DefaultRowInfo(rowKey, columnName), 1L);
+        return false;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(StatisticsCounterBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
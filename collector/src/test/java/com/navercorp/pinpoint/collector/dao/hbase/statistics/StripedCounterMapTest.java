@@ -0,0 +1,148 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.dao.hbase.statistics;
+
+import com.navercorp.pinpoint.collector.util.ConcurrentCounterMap;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+public class StripedCounterMapTest {
+
+    private static final StripedCounterMap.ColumnNameFactory RESPONSE_COLUMN_FACTORY = new StripedCounterMap.ColumnNameFactory() {
+        @Override
+        public ColumnName newColumnName(String agentId, short serviceType, String applicationName, String host, short slotNumber) {
+            return new ResponseColumnName(agentId, slotNumber);
+        }
+    };
+
+    @Test
+    public void testIncrement() throws Exception {
+        StripedCounterMap counter = new StripedCounterMap(RESPONSE_COLUMN_FACTORY, 1000);
+        increment(counter, "a", "agent", 1L);
+        increment(counter, "a", "agent", 2L);
+        increment(counter, "b", "agent", 5L);
+
+        Map<RowInfo, ConcurrentCounterMap.LongAdder> remove = counter.remove();
+        Assert.assertEquals(2, remove.size());
+        Assert.assertEquals(3L, remove.get(rowInfo("a", "agent")).get());
+        Assert.assertEquals(5L, remove.get(rowInfo("b", "agent")).get());
+
+        increment(counter, "a", "agent", 1L);
+        Map<RowInfo, ConcurrentCounterMap.LongAdder> remove2 = counter.remove();
+        Assert.assertEquals(1L, remove2.get(rowInfo("a", "agent")).get());
+        Assert.assertTrue(counter.remove().isEmpty());
+    }
+
+    @Test
+    public void testColumnFields() throws Exception {
+        StripedCounterMap counter = new StripedCounterMap(new StripedCounterMap.ColumnNameFactory() {
+            @Override
+            public ColumnName newColumnName(String agentId, short serviceType, String applicationName, String host, short slotNumber) {
+                return new CallerColumnName(serviceType, applicationName, host, slotNumber);
+            }
+        }, 1000);
+        counter.increment("callee", (short) 1000, 60000L, null, (short) 2000, "caller", "host", (short) 100, 1L);
+        counter.increment("callee", (short) 1000, 60000L, null, (short) 2000, "caller", "host", (short) 100, 1L);
+        counter.increment("callee", (short) 1000, 60000L, null, (short) 2000, "caller", "", (short) 100, 1L);
+
+        Map<RowInfo, ConcurrentCounterMap.LongAdder> remove = counter.remove();
+        Assert.assertEquals(2, remove.size());
+        RowKey rowKey = new CallRowKey("callee", (short) 1000, 60000L);
+        Assert.assertEquals(2L, remove.get(new DefaultRowInfo(rowKey, new CallerColumnName((short) 2000, "caller", "host", (short) 100))).get());
+        Assert.assertEquals(1L, remove.get(new DefaultRowInfo(rowKey, new CallerColumnName((short) 2000, "caller", "", (short) 100))).get());
+    }
+
+    @Test
+    public void testResize() throws Exception {
+        StripedCounterMap counter = new StripedCounterMap(RESPONSE_COLUMN_FACTORY, 1, 100000);
+        for (int i = 0; i < 1000; i++) {
+            increment(counter, "app" + i, "agent", i);
+            increment(counter, "app" + i, "agent", 1L);
+        }
+        Assert.assertEquals(1000, counter.size());
+
+        Map<RowInfo, ConcurrentCounterMap.LongAdder> remove = counter.remove();
+        Assert.assertEquals(1000, remove.size());
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertEquals(i + 1L, remove.get(rowInfo("app" + i, "agent")).get());
+        }
+    }
+
+    @Test
+    public void testFull() throws Exception {
+        StripedCounterMap counter = new StripedCounterMap(RESPONSE_COLUMN_FACTORY, 1, 3);
+        Assert.assertFalse(increment(counter, "a", "agent", 1L));
+        Assert.assertFalse(increment(counter, "b", "agent", 1L));
+        // same key does not add an entry
+        Assert.assertFalse(increment(counter, "b", "agent", 1L));
+        Assert.assertFalse(counter.isFull());
+        Assert.assertTrue(increment(counter, "c", "agent", 1L));
+        Assert.assertTrue(counter.isFull());
+
+        counter.remove();
+        Assert.assertFalse(counter.isFull());
+        Assert.assertFalse(increment(counter, "c", "agent", 1L));
+    }
+
+    @Test
+    public void testMultiThread() throws Exception {
+        final StripedCounterMap counter = new StripedCounterMap(RESPONSE_COLUMN_FACTORY, 4, 100000);
+        final int threadSize = 8;
+        final int loop = 10000;
+        final CountDownLatch latch = new CountDownLatch(threadSize);
+        List<Thread> threadList = new ArrayList<Thread>();
+        for (int i = 0; i < threadSize; i++) {
+            Thread thread = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < loop; j++) {
+                        increment(counter, "app" + (j % 10), "agent", 1L);
+                    }
+                    latch.countDown();
+                }
+            });
+            threadList.add(thread);
+            thread.start();
+        }
+        latch.await();
+
+        Map<RowInfo, ConcurrentCounterMap.LongAdder> remove = counter.remove();
+        Assert.assertEquals(10, remove.size());
+        long total = 0;
+        for (ConcurrentCounterMap.LongAdder longAdder : remove.values()) {
+            total += longAdder.get();
+        }
+        Assert.assertEquals((long) threadSize * loop, total);
+        for (Thread thread : threadList) {
+            thread.join();
+        }
+    }
+
+    private static boolean increment(StripedCounterMap counter, String applicationName, String agentId, long increment) {
+        return counter.increment(applicationName, (short) 1000, 60000L, agentId, (short) 0, null, null, (short) 100, increment);
+    }
+
+    private RowInfo rowInfo(String applicationName, String agentId) {
+        return new DefaultRowInfo(new CallRowKey(applicationName, (short) 1000, 60000L), new ResponseColumnName(agentId, (short) 100));
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.handler;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.navercorp.pinpoint.common.HistogramSchema;
+import com.navercorp.pinpoint.common.ServiceType;
+import com.navercorp.pinpoint.thrift.dto.TAgentHistogramBatch;
+import com.navercorp.pinpoint.thrift.dto.TAgentInfo;
+import com.navercorp.pinpoint.thrift.dto.TResponseHistogram;
+
+public class AgentHistogramHandlerTest {
+
+    private static final String APPLICATION_NAME = "app";
+    private static final String AGENT_ID = "agentId";
+    private static final short SERVICE_TYPE = ServiceType.STAND_ALONE.getCode();
+
+    @Mock
+    private StatisticsHandler statisticsHandler;
+
+    @InjectMocks
+    private AgentHistogramHandler agentHistogramHandler = new AgentHistogramHandler();
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+    }
+
+    @Test
+    public void foldResponseHistogram() {
+        // Given
+        final TAgentHistogramBatch histogramBatch = createHistogramBatch();
+        histogramBatch.setResponseHistogram(new TResponseHistogram(SERVICE_TYPE, 3, 0, 0, 2, 1));
+        // When
+        agentHistogramHandler.handle(histogramBatch, new byte[0], 0, 0);
+        // Then
+        final HistogramSchema schema = ServiceType.STAND_ALONE.getHistogramSchema();
+        verify(statisticsHandler).updateResponseTime(APPLICATION_NAME, SERVICE_TYPE, AGENT_ID, schema.getFastSlot().getSlotTime(), false, 3L);
+        verify(statisticsHandler).updateResponseTime(APPLICATION_NAME, SERVICE_TYPE, AGENT_ID, Integer.MAX_VALUE, false, 2L);
+        verify(statisticsHandler).updateResponseTime(APPLICATION_NAME, SERVICE_TYPE, AGENT_ID, HistogramSchema.ERROR_SLOT_TIME, true, 1L);
+        verifyNoMoreInteractions(statisticsHandler);
+    }
+
+    @Test
+    public void foldAcceptHistogram() {
+        // Given
+        final TAgentHistogramBatch histogramBatch = createHistogramBatch();
+        histogramBatch.setUserAcceptHistogram(new TResponseHistogram(SERVICE_TYPE, 1, 0, 0, 0, 0));
+        final TResponseHistogram acceptHistogram = new TResponseHistogram(SERVICE_TYPE, 0, 0, 4, 0, 0);
+        acceptHistogram.setParentApplicationName("parent");
+        histogramBatch.setAcceptHistograms(Arrays.asList(acceptHistogram));
+        // When
+        agentHistogramHandler.handle(histogramBatch, new byte[0], 0, 0);
+        // Then
+        final HistogramSchema schema = ServiceType.STAND_ALONE.getHistogramSchema();
+        final short fast = schema.getFastSlot().getSlotTime();
+        final short user = ServiceType.USER.getCode();
+        verify(statisticsHandler).updateCaller(APPLICATION_NAME, user, AGENT_ID, APPLICATION_NAME, SERVICE_TYPE, AGENT_ID, fast, false, 1L);
+        verify(statisticsHandler).updateCallee(APPLICATION_NAME, SERVICE_TYPE, APPLICATION_NAME, user, AGENT_ID, fast, false, 1L);
+        verify(statisticsHandler).updateCallee(APPLICATION_NAME, SERVICE_TYPE, "parent", SERVICE_TYPE, AGENT_ID, schema.getSlowSlot().getSlotTime(), false, 4L);
+        verifyNoMoreInteractions(statisticsHandler);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void handleShouldThrowIllegalArgumentExceptionForIncorrectTBaseObjects() {
+        // Given
+        final TAgentInfo wrongTBaseObject = new TAgentInfo();
+        // When
+        agentHistogramHandler.handle(wrongTBaseObject, new byte[0], 0, 0);
+        // Then
+        fail();
+    }
+
+    private TAgentHistogramBatch createHistogramBatch() {
+        final TAgentHistogramBatch histogramBatch = new TAgentHistogramBatch();
+        histogramBatch.setAgentId(AGENT_ID);
+        histogramBatch.setStartTimestamp(Long.MAX_VALUE);
+        histogramBatch.setApplicationName(APPLICATION_NAME);
+        histogramBatch.setServiceType(SERVICE_TYPE);
+        histogramBatch.setTimestamp(System.currentTimeMillis());
+        return histogramBatch;
+    }
+}
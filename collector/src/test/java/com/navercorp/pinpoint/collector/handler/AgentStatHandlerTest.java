@@ -28,6 +28,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import com.navercorp.pinpoint.collector.config.CollectorConfiguration;
 import com.navercorp.pinpoint.collector.dao.AgentStatDao;
 import com.navercorp.pinpoint.collector.handler.AgentStatHandler;
 import com.navercorp.pinpoint.thrift.dto.TAgentInfo;
@@ -44,6 +45,9 @@ public class AgentStatHandlerTest {
     @Mock
     private AgentStatDao agentStatDao;
 
+    @Mock
+    private CollectorConfiguration collectorConfiguration;
+
     @InjectMocks
     private AgentStatHandler agentStatHandler = new AgentStatHandler();
 
@@ -77,6 +81,21 @@ public class AgentStatHandlerTest {
         verify(agentStatDao, times(numBatches)).insert(any(TAgentStat.class));
     }
 
+    @Test
+    public void testHandleForTAgentStatBatchFormat() {
+        // Given
+        final int numBatches = 6;
+        final String agentId = "agentId";
+        final long startTimestamp = Long.MAX_VALUE;
+        final TAgentStatBatch agentStatBatch = createAgentStatBatch(agentId, startTimestamp, numBatches);
+        when(collectorConfiguration.isAgentStatBatchFormatEnable()).thenReturn(true);
+        // When
+        agentStatHandler.handle(agentStatBatch, new byte[0], 0, 0);
+        // Then
+        verify(agentStatDao).insert(agentStatBatch);
+        verify(agentStatDao, never()).insert(any(TAgentStat.class));
+    }
+
     @Test(expected=IllegalArgumentException.class)
     public void handleShouldThrowIllegalArgumentExceptionForIncorrectTBaseObjects() {
         // Given
@@ -18,10 +18,16 @@ package com.navercorp.pinpoint.collector.receiver.udp;
 
 import java.io.IOException;
 import java.net.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import com.navercorp.pinpoint.collector.receiver.DataReceiver;
 import com.navercorp.pinpoint.collector.receiver.DispatchHandler;
 import com.navercorp.pinpoint.collector.receiver.udp.BaseUDPReceiver;
+import com.navercorp.pinpoint.thrift.dto.TAgentInfo;
+import com.navercorp.pinpoint.thrift.io.HeaderTBaseSerializerFactory;
+
+import com.codahale.metrics.MetricRegistry;
 
 import junit.framework.Assert;
 
@@ -30,6 +36,7 @@ import org.junit.Ignore;
 import org.junit.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.test.util.ReflectionTestUtils;
 
 /**
  * @author emeroad
@@ -60,6 +67,45 @@ public class UDPReceiverTest {
         }
     }
 
+    @Test
+    public void channelReceive() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(3);
+        BaseUDPReceiver receiver = new BaseUDPReceiver("test", new DispatchHandler() {
+            @Override
+            public void dispatchSendMessage(TBase<?, ?> tBase, byte[] packet, int offset, int length) {
+                if (tBase instanceof TAgentInfo) {
+                    latch.countDown();
+                }
+            }
+
+            @Override
+            public TBase dispatchRequestMessage(TBase<?, ?> tBase, byte[] packet, int offset, int length) {
+                return null;
+            }
+        }, "127.0.0.1", 10998, 1024 * 64, 1, 10);
+        MetricRegistry metricRegistry = new MetricRegistry();
+        ReflectionTestUtils.setField(receiver, "metricRegistry", metricRegistry);
+        receiver.setChannelEnable(true);
+        receiver.setChannelSize(2);
+        receiver.start();
+
+        DatagramSocket sender = new DatagramSocket();
+        try {
+            TAgentInfo agentInfo = new TAgentInfo();
+            agentInfo.setAgentId("agent");
+            byte[] bytes = new HeaderTBaseSerializerFactory().createSerializer().serialize(agentInfo);
+            for (int i = 0; i < 3; i++) {
+                sender.send(new DatagramPacket(bytes, bytes.length, new InetSocketAddress("127.0.0.1", 10998)));
+            }
+            Assert.assertTrue(latch.await(5000, TimeUnit.MILLISECONDS));
+        } finally {
+            sender.close();
+            receiver.shutdown();
+        }
+        // reader threads are terminated
+        Assert.assertEquals(3, receiver.getReceiveLatencyTimer().getCount());
+    }
+
     @Test
     public void hostNullCheck() {
         InetSocketAddress address = new InetSocketAddress((InetAddress) null, 90);
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.collector.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class AtomicLongUpdateMapTest {
+
+    @Test
+    public void update() {
+        AtomicLongUpdateMap<String> cache = new AtomicLongUpdateMap<String>();
+        Assert.assertTrue(cache.update("a", 10));
+        Assert.assertFalse(cache.update("a", 10));
+        Assert.assertFalse(cache.update("a", 5));
+        Assert.assertTrue(cache.update("a", 20));
+    }
+
+    @Test
+    public void maxSize() {
+        AtomicLongUpdateMap<String> cache = new AtomicLongUpdateMap<String>(2);
+        Assert.assertTrue(cache.update("a", 10));
+        Assert.assertTrue(cache.update("b", 10));
+        // not cached over the limit
+        Assert.assertTrue(cache.update("c", 10));
+        Assert.assertTrue(cache.update("c", 10));
+        Assert.assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void evictBefore() {
+        AtomicLongUpdateMap<String> cache = new AtomicLongUpdateMap<String>(2);
+        cache.update("a", 10);
+        cache.update("b", 20);
+
+        Assert.assertEquals(1, cache.evictBefore(20));
+        Assert.assertEquals(1, cache.size());
+
+        Assert.assertTrue(cache.update("a", 10));
+        Assert.assertFalse(cache.update("b", 20));
+    }
+}
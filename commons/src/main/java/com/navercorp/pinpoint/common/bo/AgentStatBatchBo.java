@@ -0,0 +1,235 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.common.bo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.navercorp.pinpoint.common.buffer.AutomaticBuffer;
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.buffer.FixedBuffer;
+
+/**
+ * Statistics of an agent stat batch stored in a single cell.
+ * agentId, startTimestamp and gcType are written once per batch.
+ * timestamps and values are written as zigzag varints of the difference to the previous sample.
+ */
+public class AgentStatBatchBo {
+
+    private static final byte VERSION = 0;
+
+    /**
+     * max time between the first and the last sample of a stored batch. the row is keyed by the first sample,
+     * so a scan should start MAX_TIME_SPAN earlier than its range. the agent sends 6 samples per 5 seconds(25s) by default.
+     */
+    public static final long MAX_TIME_SPAN = 60000L;
+
+    // cpu loads are stored as fixed-point numbers with 6 decimal places
+    private static final double CPU_LOAD_SCALE = 1000000D;
+
+    private final String agentId;
+    private final long startTimestamp;
+    private final List<AgentStatMemoryGcBo> memoryGcBoList;
+    private final List<AgentStatCpuLoadBo> cpuLoadBoList;
+
+    private AgentStatBatchBo(Builder builder) {
+        this.agentId = builder.agentId;
+        this.startTimestamp = builder.startTimestamp;
+        this.memoryGcBoList = builder.memoryGcBoList;
+        this.cpuLoadBoList = builder.cpuLoadBoList;
+    }
+
+    public String getAgentId() {
+        return agentId;
+    }
+
+    public long getStartTimestamp() {
+        return startTimestamp;
+    }
+
+    /**
+     * @return statistics in the order they were added
+     */
+    public List<AgentStatMemoryGcBo> getMemoryGcBoList() {
+        return Collections.unmodifiableList(memoryGcBoList);
+    }
+
+    /**
+     * @return statistics in the order they were added
+     */
+    public List<AgentStatCpuLoadBo> getCpuLoadBoList() {
+        return Collections.unmodifiableList(cpuLoadBoList);
+    }
+
+    public int size() {
+        return memoryGcBoList.size();
+    }
+
+    public byte[] writeValue() {
+        final int size = size();
+        final Buffer buffer = new AutomaticBuffer(32 + (size * 24));
+        buffer.put(VERSION);
+        buffer.putPrefixedString(this.agentId);
+        buffer.putVar(this.startTimestamp);
+        // gcType does not change while the jvm is running
+        buffer.putPrefixedString(size == 0 ? null : memoryGcBoList.get(0).getGcType());
+        buffer.putVar(size);
+
+        long timestamp = this.startTimestamp;
+        long jvmMemoryHeapUsed = 0;
+        long jvmMemoryHeapMax = 0;
+        long jvmMemoryNonHeapUsed = 0;
+        long jvmMemoryNonHeapMax = 0;
+        long jvmGcOldCount = 0;
+        long jvmGcOldTime = 0;
+        long jvmCpuLoad = 0;
+        long systemCpuLoad = 0;
+        for (int i = 0; i < size; i++) {
+            final AgentStatMemoryGcBo memoryGcBo = memoryGcBoList.get(i);
+            final AgentStatCpuLoadBo cpuLoadBo = cpuLoadBoList.get(i);
+
+            buffer.putSVar(memoryGcBo.getTimestamp() - timestamp);
+            timestamp = memoryGcBo.getTimestamp();
+
+            buffer.putSVar(memoryGcBo.getJvmMemoryHeapUsed() - jvmMemoryHeapUsed);
+            jvmMemoryHeapUsed = memoryGcBo.getJvmMemoryHeapUsed();
+            buffer.putSVar(memoryGcBo.getJvmMemoryHeapMax() - jvmMemoryHeapMax);
+            jvmMemoryHeapMax = memoryGcBo.getJvmMemoryHeapMax();
+            buffer.putSVar(memoryGcBo.getJvmMemoryNonHeapUsed() - jvmMemoryNonHeapUsed);
+            jvmMemoryNonHeapUsed = memoryGcBo.getJvmMemoryNonHeapUsed();
+            buffer.putSVar(memoryGcBo.getJvmMemoryNonHeapMax() - jvmMemoryNonHeapMax);
+            jvmMemoryNonHeapMax = memoryGcBo.getJvmMemoryNonHeapMax();
+            buffer.putSVar(memoryGcBo.getJvmGcOldCount() - jvmGcOldCount);
+            jvmGcOldCount = memoryGcBo.getJvmGcOldCount();
+            buffer.putSVar(memoryGcBo.getJvmGcOldTime() - jvmGcOldTime);
+            jvmGcOldTime = memoryGcBo.getJvmGcOldTime();
+
+            final long currentJvmCpuLoad = toFixedPoint(cpuLoadBo.getJvmCpuLoad());
+            buffer.putSVar(currentJvmCpuLoad - jvmCpuLoad);
+            jvmCpuLoad = currentJvmCpuLoad;
+            final long currentSystemCpuLoad = toFixedPoint(cpuLoadBo.getSystemCpuLoad());
+            buffer.putSVar(currentSystemCpuLoad - systemCpuLoad);
+            systemCpuLoad = currentSystemCpuLoad;
+        }
+        return buffer.getBuffer();
+    }
+
+    static long toFixedPoint(double cpuLoad) {
+        return Math.round(cpuLoad * CPU_LOAD_SCALE);
+    }
+
+    static double fromFixedPoint(long cpuLoad) {
+        return cpuLoad / CPU_LOAD_SCALE;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("AgentStatBatchBo{");
+        sb.append("agentId='").append(this.agentId).append('\'');
+        sb.append(", startTimestamp=").append(this.startTimestamp);
+        sb.append(", size=").append(size());
+        sb.append('}');
+        return sb.toString();
+    }
+
+    public static class Builder {
+        private final String agentId;
+        private final long startTimestamp;
+        private final List<AgentStatMemoryGcBo> memoryGcBoList;
+        private final List<AgentStatCpuLoadBo> cpuLoadBoList;
+
+        public Builder(final byte[] value) {
+            final Buffer buffer = new FixedBuffer(value);
+            final byte version = buffer.readByte();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("unsupported version:" + version);
+            }
+            this.agentId = buffer.readPrefixedString();
+            this.startTimestamp = buffer.readVarLong();
+            final String gcType = buffer.readPrefixedString();
+            final int size = buffer.readVarInt();
+            this.memoryGcBoList = new ArrayList<AgentStatMemoryGcBo>(size);
+            this.cpuLoadBoList = new ArrayList<AgentStatCpuLoadBo>(size);
+
+            long timestamp = this.startTimestamp;
+            long jvmMemoryHeapUsed = 0;
+            long jvmMemoryHeapMax = 0;
+            long jvmMemoryNonHeapUsed = 0;
+            long jvmMemoryNonHeapMax = 0;
+            long jvmGcOldCount = 0;
+            long jvmGcOldTime = 0;
+            long jvmCpuLoad = 0;
+            long systemCpuLoad = 0;
+            for (int i = 0; i < size; i++) {
+                timestamp += buffer.readSVarLong();
+
+                final AgentStatMemoryGcBo.Builder memoryGcBoBuilder = new AgentStatMemoryGcBo.Builder(this.agentId, this.startTimestamp, timestamp);
+                memoryGcBoBuilder.gcType(gcType);
+                jvmMemoryHeapUsed += buffer.readSVarLong();
+                memoryGcBoBuilder.jvmMemoryHeapUsed(jvmMemoryHeapUsed);
+                jvmMemoryHeapMax += buffer.readSVarLong();
+                memoryGcBoBuilder.jvmMemoryHeapMax(jvmMemoryHeapMax);
+                jvmMemoryNonHeapUsed += buffer.readSVarLong();
+                memoryGcBoBuilder.jvmMemoryNonHeapUsed(jvmMemoryNonHeapUsed);
+                jvmMemoryNonHeapMax += buffer.readSVarLong();
+                memoryGcBoBuilder.jvmMemoryNonHeapMax(jvmMemoryNonHeapMax);
+                jvmGcOldCount += buffer.readSVarLong();
+                memoryGcBoBuilder.jvmGcOldCount(jvmGcOldCount);
+                jvmGcOldTime += buffer.readSVarLong();
+                memoryGcBoBuilder.jvmGcOldTime(jvmGcOldTime);
+                this.memoryGcBoList.add(memoryGcBoBuilder.build());
+
+                final AgentStatCpuLoadBo.Builder cpuLoadBoBuilder = new AgentStatCpuLoadBo.Builder(this.agentId, this.startTimestamp, timestamp);
+                jvmCpuLoad += buffer.readSVarLong();
+                cpuLoadBoBuilder.jvmCpuLoad(fromFixedPoint(jvmCpuLoad));
+                systemCpuLoad += buffer.readSVarLong();
+                cpuLoadBoBuilder.systemCpuLoad(fromFixedPoint(systemCpuLoad));
+                this.cpuLoadBoList.add(cpuLoadBoBuilder.build());
+            }
+        }
+
+        public Builder(String agentId, long startTimestamp) {
+            this.agentId = agentId;
+            this.startTimestamp = startTimestamp;
+            this.memoryGcBoList = new ArrayList<AgentStatMemoryGcBo>();
+            this.cpuLoadBoList = new ArrayList<AgentStatCpuLoadBo>();
+        }
+
+        /**
+         * adds the statistics of a single sample. samples are expected in timestamp order.
+         */
+        public void addAgentStat(AgentStatMemoryGcBo memoryGcBo, AgentStatCpuLoadBo cpuLoadBo) {
+            if (memoryGcBo == null) {
+                throw new NullPointerException("memoryGcBo must not be null");
+            }
+            if (cpuLoadBo == null) {
+                throw new NullPointerException("cpuLoadBo must not be null");
+            }
+            if (memoryGcBo.getTimestamp() != cpuLoadBo.getTimestamp()) {
+                throw new IllegalArgumentException("timestamp mismatch. memoryGc:" + memoryGcBo.getTimestamp() + " cpuLoad:" + cpuLoadBo.getTimestamp());
+            }
+            this.memoryGcBoList.add(memoryGcBo);
+            this.cpuLoadBoList.add(cpuLoadBo);
+        }
+
+        public AgentStatBatchBo build() {
+            return new AgentStatBatchBo(this);
+        }
+    }
+}
@@ -0,0 +1,453 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.common.bo;
+
+import com.navercorp.pinpoint.common.buffer.AutomaticBuffer;
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.buffer.FixedBuffer;
+
+/**
+ * min/max/sum of the agent statistics in a rollup time slot.
+ * cpu loads are summarized as fixed-point numbers. see {@link #getJvmCpuLoad()}
+ * <p/>
+ * count and sums are stored as counters, one per summary in the order of {@link #getSum(int)}, so that the aggregates
+ * of several collectors add up. min/max can not be added up; they are written with {@link #writeMinMaxValue()} once per
+ * aggregate and merged on read with {@link Builder#mergeMinMax(byte[])}.
+ */
+public class AgentStatRollupBo {
+
+    private static final byte VERSION = 0;
+
+    /**
+     * number of the summarized statistics
+     */
+    public static final int SUMMARY_SIZE = 8;
+
+    private final String agentId;
+    private final long startTimestamp;
+    private final long timestamp;
+    private final String gcType;
+    private final long count;
+    private final Summary jvmMemoryHeapUsed;
+    private final Summary jvmMemoryHeapMax;
+    private final Summary jvmMemoryNonHeapUsed;
+    private final Summary jvmMemoryNonHeapMax;
+    private final Summary jvmGcOldCount;
+    private final Summary jvmGcOldTime;
+    private final Summary jvmCpuLoad;
+    private final Summary systemCpuLoad;
+
+    private AgentStatRollupBo(Builder builder) {
+        this.agentId = builder.agentId;
+        this.startTimestamp = builder.startTimestamp;
+        this.timestamp = builder.timestamp;
+        this.gcType = builder.gcType;
+        this.count = builder.count;
+        this.jvmMemoryHeapUsed = builder.jvmMemoryHeapUsed.copy();
+        this.jvmMemoryHeapMax = builder.jvmMemoryHeapMax.copy();
+        this.jvmMemoryNonHeapUsed = builder.jvmMemoryNonHeapUsed.copy();
+        this.jvmMemoryNonHeapMax = builder.jvmMemoryNonHeapMax.copy();
+        this.jvmGcOldCount = builder.jvmGcOldCount.copy();
+        this.jvmGcOldTime = builder.jvmGcOldTime.copy();
+        this.jvmCpuLoad = builder.jvmCpuLoad.copy();
+        this.systemCpuLoad = builder.systemCpuLoad.copy();
+    }
+
+    public String getAgentId() {
+        return agentId;
+    }
+
+    /**
+     * @return startTimestamp of the agent that sent the last statistics of the slot
+     */
+    public long getStartTimestamp() {
+        return startTimestamp;
+    }
+
+    /**
+     * @return start of the rollup time slot
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public String getGcType() {
+        return gcType;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @param index 0 ~ SUMMARY_SIZE - 1. the order of the summary getters of this class
+     */
+    public long getSum(int index) {
+        return summaries()[index].getSum();
+    }
+
+    private Summary[] summaries() {
+        return new Summary[] {jvmMemoryHeapUsed, jvmMemoryHeapMax, jvmMemoryNonHeapUsed, jvmMemoryNonHeapMax,
+                jvmGcOldCount, jvmGcOldTime, jvmCpuLoad, systemCpuLoad};
+    }
+
+    public Summary getJvmMemoryHeapUsed() {
+        return jvmMemoryHeapUsed;
+    }
+
+    public Summary getJvmMemoryHeapMax() {
+        return jvmMemoryHeapMax;
+    }
+
+    public Summary getJvmMemoryNonHeapUsed() {
+        return jvmMemoryNonHeapUsed;
+    }
+
+    public Summary getJvmMemoryNonHeapMax() {
+        return jvmMemoryNonHeapMax;
+    }
+
+    public Summary getJvmGcOldCount() {
+        return jvmGcOldCount;
+    }
+
+    public Summary getJvmGcOldTime() {
+        return jvmGcOldTime;
+    }
+
+    /**
+     * use {@link #toCpuLoad(long)} to convert the summarized values
+     */
+    public Summary getJvmCpuLoad() {
+        return jvmCpuLoad;
+    }
+
+    /**
+     * use {@link #toCpuLoad(long)} to convert the summarized values
+     */
+    public Summary getSystemCpuLoad() {
+        return systemCpuLoad;
+    }
+
+    public static double toCpuLoad(long fixedPointCpuLoad) {
+        return AgentStatBatchBo.fromFixedPoint(fixedPointCpuLoad);
+    }
+
+    /**
+     * statistics representing the slot. gauges are averaged, capacities and cumulative counters take the maximum.
+     */
+    public AgentStatMemoryGcBo toMemoryGcBo() {
+        final AgentStatMemoryGcBo.Builder builder = new AgentStatMemoryGcBo.Builder(this.agentId, this.startTimestamp, this.timestamp);
+        builder.gcType(this.gcType);
+        builder.jvmMemoryHeapUsed(this.jvmMemoryHeapUsed.getAvg(count));
+        builder.jvmMemoryHeapMax(this.jvmMemoryHeapMax.getMax());
+        builder.jvmMemoryNonHeapUsed(this.jvmMemoryNonHeapUsed.getAvg(count));
+        builder.jvmMemoryNonHeapMax(this.jvmMemoryNonHeapMax.getMax());
+        builder.jvmGcOldCount(this.jvmGcOldCount.getMax());
+        builder.jvmGcOldTime(this.jvmGcOldTime.getMax());
+        return builder.build();
+    }
+
+    /**
+     * minimum of each statistic in the slot
+     */
+    public AgentStatMemoryGcBo toMinMemoryGcBo() {
+        final AgentStatMemoryGcBo.Builder builder = new AgentStatMemoryGcBo.Builder(this.agentId, this.startTimestamp, this.timestamp);
+        builder.gcType(this.gcType);
+        builder.jvmMemoryHeapUsed(this.jvmMemoryHeapUsed.getMin());
+        builder.jvmMemoryHeapMax(this.jvmMemoryHeapMax.getMin());
+        builder.jvmMemoryNonHeapUsed(this.jvmMemoryNonHeapUsed.getMin());
+        builder.jvmMemoryNonHeapMax(this.jvmMemoryNonHeapMax.getMin());
+        builder.jvmGcOldCount(this.jvmGcOldCount.getMin());
+        builder.jvmGcOldTime(this.jvmGcOldTime.getMin());
+        return builder.build();
+    }
+
+    /**
+     * maximum of each statistic in the slot
+     */
+    public AgentStatMemoryGcBo toMaxMemoryGcBo() {
+        final AgentStatMemoryGcBo.Builder builder = new AgentStatMemoryGcBo.Builder(this.agentId, this.startTimestamp, this.timestamp);
+        builder.gcType(this.gcType);
+        builder.jvmMemoryHeapUsed(this.jvmMemoryHeapUsed.getMax());
+        builder.jvmMemoryHeapMax(this.jvmMemoryHeapMax.getMax());
+        builder.jvmMemoryNonHeapUsed(this.jvmMemoryNonHeapUsed.getMax());
+        builder.jvmMemoryNonHeapMax(this.jvmMemoryNonHeapMax.getMax());
+        builder.jvmGcOldCount(this.jvmGcOldCount.getMax());
+        builder.jvmGcOldTime(this.jvmGcOldTime.getMax());
+        return builder.build();
+    }
+
+    /**
+     * average cpu loads of the slot
+     */
+    public AgentStatCpuLoadBo toCpuLoadBo() {
+        final AgentStatCpuLoadBo.Builder builder = new AgentStatCpuLoadBo.Builder(this.agentId, this.startTimestamp, this.timestamp);
+        builder.jvmCpuLoad(toCpuLoad(this.jvmCpuLoad.getAvg(count)));
+        builder.systemCpuLoad(toCpuLoad(this.systemCpuLoad.getAvg(count)));
+        return builder.build();
+    }
+
+    /**
+     * minimum cpu loads of the slot
+     */
+    public AgentStatCpuLoadBo toMinCpuLoadBo() {
+        final AgentStatCpuLoadBo.Builder builder = new AgentStatCpuLoadBo.Builder(this.agentId, this.startTimestamp, this.timestamp);
+        builder.jvmCpuLoad(toCpuLoad(this.jvmCpuLoad.getMin()));
+        builder.systemCpuLoad(toCpuLoad(this.systemCpuLoad.getMin()));
+        return builder.build();
+    }
+
+    /**
+     * maximum cpu loads of the slot
+     */
+    public AgentStatCpuLoadBo toMaxCpuLoadBo() {
+        final AgentStatCpuLoadBo.Builder builder = new AgentStatCpuLoadBo.Builder(this.agentId, this.startTimestamp, this.timestamp);
+        builder.jvmCpuLoad(toCpuLoad(this.jvmCpuLoad.getMax()));
+        builder.systemCpuLoad(toCpuLoad(this.systemCpuLoad.getMax()));
+        return builder.build();
+    }
+
+    /**
+     * everything but count and sums
+     */
+    public byte[] writeMinMaxValue() {
+        final Buffer buffer = new AutomaticBuffer(128);
+        buffer.put(VERSION);
+        buffer.putPrefixedString(this.agentId);
+        buffer.putVar(this.startTimestamp);
+        buffer.putVar(this.timestamp);
+        buffer.putPrefixedString(this.gcType);
+        for (Summary summary : summaries()) {
+            summary.writeMinMax(buffer);
+        }
+        return buffer.getBuffer();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("AgentStatRollupBo{");
+        sb.append("agentId='").append(this.agentId).append('\'');
+        sb.append(", startTimestamp=").append(this.startTimestamp);
+        sb.append(", timestamp=").append(this.timestamp);
+        sb.append(", gcType='").append(this.gcType).append('\'');
+        sb.append(", count=").append(this.count);
+        sb.append(", jvmMemoryHeapUsed=").append(this.jvmMemoryHeapUsed);
+        sb.append(", jvmMemoryHeapMax=").append(this.jvmMemoryHeapMax);
+        sb.append(", jvmMemoryNonHeapUsed=").append(this.jvmMemoryNonHeapUsed);
+        sb.append(", jvmMemoryNonHeapMax=").append(this.jvmMemoryNonHeapMax);
+        sb.append(", jvmGcOldCount=").append(this.jvmGcOldCount);
+        sb.append(", jvmGcOldTime=").append(this.jvmGcOldTime);
+        sb.append(", jvmCpuLoad=").append(this.jvmCpuLoad);
+        sb.append(", systemCpuLoad=").append(this.systemCpuLoad);
+        sb.append('}');
+        return sb.toString();
+    }
+
+    public static final class Summary {
+        private long min = Long.MAX_VALUE;
+        private long max = Long.MIN_VALUE;
+        private long sum;
+
+        private Summary() {
+        }
+
+        private void add(long value) {
+            if (value < min) {
+                min = value;
+            }
+            if (value > max) {
+                max = value;
+            }
+            sum += value;
+        }
+
+        private Summary copy() {
+            final Summary copy = new Summary();
+            copy.min = this.min;
+            copy.max = this.max;
+            copy.sum = this.sum;
+            return copy;
+        }
+
+        private void writeMinMax(Buffer buffer) {
+            buffer.putSVar(min);
+            buffer.putSVar(max);
+        }
+
+        private void mergeMinMax(Buffer buffer) {
+            final long min = buffer.readSVarLong();
+            final long max = buffer.readSVarLong();
+            if (min < this.min) {
+                this.min = min;
+            }
+            if (max > this.max) {
+                this.max = max;
+            }
+        }
+
+        public long getMin() {
+            return min;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        public long getSum() {
+            return sum;
+        }
+
+        public long getAvg(long count) {
+            if (count == 0) {
+                return 0;
+            }
+            return sum / count;
+        }
+
+        @Override
+        public String toString() {
+            return "{min=" + min + ", max=" + max + ", sum=" + sum + '}';
+        }
+    }
+
+    public static class Builder {
+        private final String agentId;
+        private long startTimestamp;
+        private final long timestamp;
+        private String gcType;
+        private long count;
+        private final Summary jvmMemoryHeapUsed = new Summary();
+        private final Summary jvmMemoryHeapMax = new Summary();
+        private final Summary jvmMemoryNonHeapUsed = new Summary();
+        private final Summary jvmMemoryNonHeapMax = new Summary();
+        private final Summary jvmGcOldCount = new Summary();
+        private final Summary jvmGcOldTime = new Summary();
+        private final Summary jvmCpuLoad = new Summary();
+        private final Summary systemCpuLoad = new Summary();
+
+        /**
+         * count and sums are set with {@link #count(long)} and {@link #sum(int, long)}
+         * @param minMaxValue written by {@link AgentStatRollupBo#writeMinMaxValue()}
+         */
+        public Builder(final byte[] minMaxValue) {
+            final Buffer buffer = new FixedBuffer(minMaxValue);
+            readVersion(buffer);
+            this.agentId = buffer.readPrefixedString();
+            this.startTimestamp = buffer.readVarLong();
+            this.timestamp = buffer.readVarLong();
+            this.gcType = buffer.readPrefixedString();
+            readMinMax(buffer);
+        }
+
+        /**
+         * @param timestamp start of the rollup time slot
+         */
+        public Builder(String agentId, long timestamp) {
+            this.agentId = agentId;
+            this.timestamp = timestamp;
+        }
+
+        private static void readVersion(Buffer buffer) {
+            final byte version = buffer.readByte();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("unsupported version:" + version);
+            }
+        }
+
+        private void readMinMax(Buffer buffer) {
+            for (Summary summary : summaries()) {
+                summary.mergeMinMax(buffer);
+            }
+        }
+
+        private Summary[] summaries() {
+            return new Summary[] {jvmMemoryHeapUsed, jvmMemoryHeapMax, jvmMemoryNonHeapUsed, jvmMemoryNonHeapMax,
+                    jvmGcOldCount, jvmGcOldTime, jvmCpuLoad, systemCpuLoad};
+        }
+
+        /**
+         * merges the min/max written by another aggregate of the same slot.
+         * startTimestamp and gcType are taken from the value of the latest agent start.
+         */
+        public void mergeMinMax(final byte[] minMaxValue) {
+            final Buffer buffer = new FixedBuffer(minMaxValue);
+            readVersion(buffer);
+            // agentId
+            buffer.readPrefixedString();
+            final long startTimestamp = buffer.readVarLong();
+            // timestamp
+            buffer.readVarLong();
+            final String gcType = buffer.readPrefixedString();
+            if (startTimestamp > this.startTimestamp) {
+                this.startTimestamp = startTimestamp;
+                this.gcType = gcType;
+            }
+            readMinMax(buffer);
+        }
+
+        public void count(long count) {
+            this.count = count;
+        }
+
+        /**
+         * @param index see {@link AgentStatRollupBo#getSum(int)}
+         */
+        public void sum(int index, long sum) {
+            summaries()[index].sum = sum;
+        }
+
+        /**
+         * the next {@link #build()} has the count and sums of the statistics added after this call, and the min/max of all.
+         */
+        public void clearCountAndSums() {
+            this.count = 0;
+            for (Summary summary : summaries()) {
+                summary.sum = 0;
+            }
+        }
+
+        public void addAgentStat(AgentStatMemoryGcBo memoryGcBo, AgentStatCpuLoadBo cpuLoadBo) {
+            if (memoryGcBo == null) {
+                throw new NullPointerException("memoryGcBo must not be null");
+            }
+            if (cpuLoadBo == null) {
+                throw new NullPointerException("cpuLoadBo must not be null");
+            }
+            this.startTimestamp = memoryGcBo.getStartTimestamp();
+            this.gcType = memoryGcBo.getGcType();
+            this.count++;
+            this.jvmMemoryHeapUsed.add(memoryGcBo.getJvmMemoryHeapUsed());
+            this.jvmMemoryHeapMax.add(memoryGcBo.getJvmMemoryHeapMax());
+            this.jvmMemoryNonHeapUsed.add(memoryGcBo.getJvmMemoryNonHeapUsed());
+            this.jvmMemoryNonHeapMax.add(memoryGcBo.getJvmMemoryNonHeapMax());
+            this.jvmGcOldCount.add(memoryGcBo.getJvmGcOldCount());
+            this.jvmGcOldTime.add(memoryGcBo.getJvmGcOldTime());
+            this.jvmCpuLoad.add(AgentStatBatchBo.toFixedPoint(cpuLoadBo.getJvmCpuLoad()));
+            this.systemCpuLoad.add(AgentStatBatchBo.toFixedPoint(cpuLoadBo.getSystemCpuLoad()));
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public AgentStatRollupBo build() {
+            return new AgentStatRollupBo(this);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.common.bo;
+
+import com.navercorp.pinpoint.common.buffer.AutomaticBuffer;
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.util.AnnotationTranscoder;
+import com.navercorp.pinpoint.thrift.dto.TAnnotation;
+import com.navercorp.pinpoint.thrift.dto.TIntStringValue;
+import com.navercorp.pinpoint.thrift.dto.TSpan;
+import com.navercorp.pinpoint.thrift.dto.TSpanChunk;
+import com.navercorp.pinpoint.thrift.dto.TSpanEvent;
+
+import java.util.List;
+
+/**
+ * Writes the storage encoding of {@link SpanBo}, {@link SpanEventBo} and the annotation column straight from the thrift objects.
+ * The output is byte-for-byte identical to {@link SpanBo#writeValue()}, {@link SpanEventBo#writeValue()} and {@link AnnotationBoList#writeValue(Buffer)}
+ * but skips the intermediate bo objects, and every value is written into one reusable scratch buffer and copied out at its exact size.
+ * Not thread-safe. keep one encoder per thread.
+ */
+public class SpanEncoder {
+
+    public static final int DEFAULT_BUFFER_SIZE = 512;
+    // a scratch buffer grown beyond this by an unusually large span is dropped instead of being kept for the thread's lifetime
+    public static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
+
+    private static final byte VERSION = 0;
+
+    private static final AnnotationTranscoder transcoder = new AnnotationTranscoder();
+
+    private final int bufferSize;
+    private Buffer buffer;
+
+    public SpanEncoder() {
+        this(DEFAULT_BUFFER_SIZE);
+    }
+
+    public SpanEncoder(int bufferSize) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("bufferSize must be positive " + bufferSize);
+        }
+        this.bufferSize = bufferSize;
+        this.buffer = new AutomaticBuffer(bufferSize);
+    }
+
+    /**
+     * same encoding as {@link SpanBo#writeValue()}
+     */
+    public byte[] encodeSpan(TSpan span) {
+        if (span == null) {
+            throw new NullPointerException("span must not be null");
+        }
+        final Buffer buffer = reset();
+
+        buffer.put(VERSION);
+        buffer.putPrefixedString(span.getAgentId());
+        buffer.putVar(span.getAgentStartTime());
+        buffer.put(span.getParentSpanId());
+        buffer.putVar(span.getStartTime());
+        buffer.putVar(span.getElapsed());
+        buffer.putPrefixedString(span.getRpc());
+        buffer.putPrefixedString(span.getApplicationName());
+        buffer.put(span.getServiceType());
+        buffer.putPrefixedString(span.getEndPoint());
+        buffer.putPrefixedString(span.getRemoteAddr());
+        buffer.putSVar(span.getApiId());
+        buffer.putSVar(span.getErr());
+        writeException(buffer, span.getExceptionInfo());
+        buffer.put(span.getFlag());
+
+        return buffer.copyBuffer();
+    }
+
+    /**
+     * same encoding as {@link SpanEventBo#writeValue()} of {@link SpanEventBo#SpanEventBo(TSpan, TSpanEvent)}
+     */
+    public byte[] encodeSpanEvent(TSpan span, TSpanEvent spanEvent) {
+        if (span == null) {
+            throw new NullPointerException("span must not be null");
+        }
+        return encodeSpanEvent(span.getAgentId(), span.getApplicationName(), span.getAgentStartTime(), spanEvent);
+    }
+
+    /**
+     * same encoding as {@link SpanEventBo#writeValue()} of {@link SpanEventBo#SpanEventBo(TSpanChunk, TSpanEvent)}
+     */
+    public byte[] encodeSpanEvent(TSpanChunk spanChunk, TSpanEvent spanEvent) {
+        if (spanChunk == null) {
+            throw new NullPointerException("spanChunk must not be null");
+        }
+        return encodeSpanEvent(spanChunk.getAgentId(), spanChunk.getApplicationName(), spanChunk.getAgentStartTime(), spanEvent);
+    }
+
+    private byte[] encodeSpanEvent(String agentId, String applicationName, long agentStartTime, TSpanEvent spanEvent) {
+        if (spanEvent == null) {
+            throw new NullPointerException("spanEvent must not be null");
+        }
+        final Buffer buffer = reset();
+
+        buffer.put(VERSION);
+        buffer.putPrefixedString(agentId);
+        buffer.putPrefixedString(applicationName);
+        buffer.putVar(agentStartTime);
+        buffer.putVar(spanEvent.getStartElapsed());
+        buffer.putVar(spanEvent.getEndElapsed());
+        buffer.putPrefixedString(spanEvent.getRpc());
+        buffer.put(spanEvent.getServiceType());
+        buffer.putPrefixedString(spanEvent.getEndPoint());
+        buffer.putPrefixedString(spanEvent.getDestinationId());
+        buffer.putSVar(spanEvent.getApiId());
+        // unset values default to -1 as in SpanEventBo
+        buffer.putSVar(spanEvent.isSetDepth() ? spanEvent.getDepth() : -1);
+        buffer.put(spanEvent.isSetNextSpanId() ? spanEvent.getNextSpanId() : -1L);
+        writeException(buffer, spanEvent.getExceptionInfo());
+        writeAnnotationList(buffer, spanEvent.getAnnotations());
+
+        return buffer.copyBuffer();
+    }
+
+    /**
+     * same encoding as {@link AnnotationBoList#writeValue(Buffer)} of the span's annotation column
+     */
+    public byte[] encodeAnnotationList(List<TAnnotation> annotations) {
+        final Buffer buffer = reset();
+        writeAnnotationList(buffer, annotations);
+        return buffer.copyBuffer();
+    }
+
+    private void writeException(Buffer buffer, TIntStringValue exceptionInfo) {
+        if (exceptionInfo != null) {
+            buffer.put(true);
+            buffer.putSVar(exceptionInfo.getIntValue());
+            buffer.putPrefixedString(exceptionInfo.getStringValue());
+        } else {
+            buffer.put(false);
+        }
+    }
+
+    private void writeAnnotationList(Buffer buffer, List<TAnnotation> annotations) {
+        if (annotations == null) {
+            buffer.putVar(0);
+            return;
+        }
+        buffer.putVar(annotations.size());
+        for (TAnnotation annotation : annotations) {
+            // same as AnnotationBo.writeValue()
+            final Object value = transcoder.getMappingValue(annotation);
+            final byte valueType = transcoder.getTypeCode(value);
+            buffer.put(VERSION);
+            buffer.putSVar(annotation.getKey());
+            buffer.put(valueType);
+            buffer.putPrefixedBytes(transcoder.encode(value, valueType));
+        }
+    }
+
+    private Buffer reset() {
+        if (buffer.getInternalBuffer().length > MAX_RETAINED_BUFFER_SIZE) {
+            this.buffer = new AutomaticBuffer(bufferSize);
+        } else {
+            this.buffer.setOffset(0);
+        }
+        return this.buffer;
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.common.hbase;
+
+import com.navercorp.pinpoint.common.util.BytesUtils;
+import com.navercorp.pinpoint.common.util.DefaultTimeSlot;
+import com.navercorp.pinpoint.common.util.TimeSlot;
+
+import org.apache.hadoop.hbase.util.Bytes;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.navercorp.pinpoint.common.hbase.HBaseTables.*;
+
+public enum AgentStatRollup {
+
+    RAW(TimeUnit.SECONDS.toMillis(5), AGENT_STAT),
+    MINUTE(TimeUnit.MINUTES.toMillis(1), AGENT_STAT_MINUTE),
+    TEN_MINUTES(TimeUnit.MINUTES.toMillis(10), AGENT_STAT_TEN_MINUTES),
+    HOUR(TimeUnit.HOURS.toMillis(1), AGENT_STAT_HOUR);
+
+    private final long resolution;
+    private final TimeSlot timeSlot;
+    private final String tableName;
+
+    AgentStatRollup(long resolution, String tableName) {
+        this.resolution = resolution;
+        this.timeSlot = new DefaultTimeSlot(resolution);
+        this.tableName = tableName;
+    }
+
+    /**
+     * @return true if aggregated from the raw agent statistics
+     */
+    public boolean isRollup() {
+        return this != RAW;
+    }
+
+    public long getResolution() {
+        return resolution;
+    }
+
+    public TimeSlot getTimeSlot() {
+        return timeSlot;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    /**
+     * @param summaryIndex see {@link com.navercorp.pinpoint.common.bo.AgentStatRollupBo#getSum(int)}
+     */
+    public static byte[] getSumQualifier(int summaryIndex) {
+        return BytesUtils.merge(AGENT_STAT_CF_STATISTICS_ROLLUP_SUM, new byte[] {(byte) summaryIndex});
+    }
+
+    /**
+     * @param aggregateId unique id of the aggregate that wrote the min/max
+     */
+    public static byte[] getMinMaxQualifier(String aggregateId) {
+        return BytesUtils.merge(AGENT_STAT_CF_STATISTICS_ROLLUP_MIN_MAX, BytesUtils.toBytes(aggregateId));
+    }
+
+    public static boolean isMinMaxQualifier(byte[] qualifier) {
+        final int prefixLength = AGENT_STAT_CF_STATISTICS_ROLLUP_MIN_MAX.length;
+        if (qualifier.length < prefixLength) {
+            return false;
+        }
+        return Bytes.compareTo(qualifier, 0, prefixLength, AGENT_STAT_CF_STATISTICS_ROLLUP_MIN_MAX, 0, prefixLength) == 0;
+    }
+
+    /**
+     * @return the coarsest resolution that still has at least one value for every window slot
+     */
+    public static AgentStatRollup select(long windowSlotSize) {
+        AgentStatRollup selected = RAW;
+        for (AgentStatRollup rollup : values()) {
+            if (rollup.resolution <= windowSlotSize) {
+                selected = rollup;
+            }
+        }
+        return selected;
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.hbase;
+
+import org.apache.hadoop.hbase.client.Increment;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Result of {@link HbaseOperations2#bulkIncrement(String, List)}.
+ * Unlike increment(String, List), failed increments are reported instead of throwing the last exception.
+ */
+public class BulkIncrementResult {
+
+    private int successCount;
+    private final List<Increment> failList = new ArrayList<Increment>();
+    private Throwable lastException;
+    private int regionCount;
+    private long elapsedTime;
+
+    void addSuccess(int count) {
+        this.successCount += count;
+    }
+
+    void addFail(Increment increment, Throwable th) {
+        this.failList.add(increment);
+        this.lastException = th;
+    }
+
+    void addFail(List<Increment> incrementList, Throwable th) {
+        this.failList.addAll(incrementList);
+        this.lastException = th;
+    }
+
+    void merge(BulkIncrementResult result) {
+        this.successCount += result.successCount;
+        this.failList.addAll(result.failList);
+        if (result.lastException != null) {
+            this.lastException = result.lastException;
+        }
+    }
+
+    void setRegionCount(int regionCount) {
+        this.regionCount = regionCount;
+    }
+
+    void setElapsedTime(long elapsedTime) {
+        this.elapsedTime = elapsedTime;
+    }
+
+    public int getSuccessCount() {
+        return successCount;
+    }
+
+    public int getFailCount() {
+        return failList.size();
+    }
+
+    public boolean hasFail() {
+        return !failList.isEmpty();
+    }
+
+    public List<Increment> getFailList() {
+        return Collections.unmodifiableList(failList);
+    }
+
+    public Throwable getLastException() {
+        return lastException;
+    }
+
+    public int getRegionCount() {
+        return regionCount;
+    }
+
+    public long getElapsedTime() {
+        return elapsedTime;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("BulkIncrementResult{");
+        sb.append("successCount=").append(successCount);
+        sb.append(", failCount=").append(failList.size());
+        sb.append(", regionCount=").append(regionCount);
+        sb.append(", elapsedTime=").append(elapsedTime);
+        sb.append('}');
+        return sb.toString();
+    }
+}
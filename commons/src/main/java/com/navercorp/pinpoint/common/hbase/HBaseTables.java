@@ -37,8 +37,17 @@ public final class HBaseTables {
     public static final byte[] AGENT_STAT_CF_STATISTICS_V1 = Bytes.toBytes("V1"); // qualifier
     public static final byte[] AGENT_STAT_CF_STATISTICS_MEMORY_GC = Bytes.toBytes("Gc"); // qualifier for Heap Memory/Gc statistics
     public static final byte[] AGENT_STAT_CF_STATISTICS_CPU_LOAD = Bytes.toBytes("Cpu"); // qualifier for CPU load statistics
+    public static final byte[] AGENT_STAT_CF_STATISTICS_BATCH = Bytes.toBytes("B"); // qualifier for delta encoded statistics of a whole agent stat batch
     public static final int AGENT_STAT_ROW_DISTRIBUTE_SIZE = 1; // agent statistics hash size
 
+    // min/max/avg rollup of the agent statistics. same column family and row key as AgentStat
+    public static final String AGENT_STAT_MINUTE = "AgentStat_Minute";
+    public static final String AGENT_STAT_TEN_MINUTES = "AgentStat_TenMinutes";
+    public static final String AGENT_STAT_HOUR = "AgentStat_Hour";
+    public static final byte[] AGENT_STAT_CF_STATISTICS_ROLLUP_COUNT = Bytes.toBytes("Rc"); // counter qualifier for the number of statistics in a rollup slot
+    public static final byte[] AGENT_STAT_CF_STATISTICS_ROLLUP_SUM = Bytes.toBytes("Rs"); // counter qualifier prefix for the sums of a rollup slot, followed by the summary index
+    public static final byte[] AGENT_STAT_CF_STATISTICS_ROLLUP_MIN_MAX = Bytes.toBytes("Rm"); // qualifier prefix for the min/max of a rollup slot, followed by the collector aggregate id
+
     public static final String TRACES = "Traces";
     public static final byte[] TRACES_CF_SPAN = Bytes.toBytes("S");  //Span
     public static final byte[] TRACES_CF_ANNOTATION = Bytes.toBytes("A");  //Annotation
@@ -78,6 +87,15 @@ public final class HBaseTables {
     public static final String MAP_STATISTICS_SELF = "ApplicationMapStatisticsSelf";
     public static final byte[] MAP_STATISTICS_SELF_CF_COUNTER = Bytes.toBytes("C");
 
+    // rollup of the map statistics. same column families as the one-minute tables
+    public static final String MAP_STATISTICS_CALLER_HOUR = "ApplicationMapStatisticsCaller_Hour";
+    public static final String MAP_STATISTICS_CALLEE_HOUR = "ApplicationMapStatisticsCallee_Hour";
+    public static final String MAP_STATISTICS_SELF_HOUR = "ApplicationMapStatisticsSelf_Hour";
+
+    public static final String MAP_STATISTICS_CALLER_DAY = "ApplicationMapStatisticsCaller_Day";
+    public static final String MAP_STATISTICS_CALLEE_DAY = "ApplicationMapStatisticsCallee_Day";
+    public static final String MAP_STATISTICS_SELF_DAY = "ApplicationMapStatisticsSelf_Day";
+
     public static final String HOST_APPLICATION_MAP = "HostApplicationMap";
     public static final byte[] HOST_APPLICATION_MAP_CF_MAP = Bytes.toBytes("M");
 
@@ -94,6 +94,29 @@ public interface HbaseOperations2 extends HbaseOperations {
     
     <T> T find(String tableName, final Scan scan, final AbstractRowKeyDistributor rowKeyDistributor, final ResultsExtractor<T> action);
 
+    /**
+     * Scans every bucket of the rowKeyDistributor in parallel.
+     *
+     * @param ordered if false, rows are returned in the arrival order instead of the original row key order
+     */
+    <T> List<T> findParallel(String tableName, final Scan scan, final AbstractRowKeyDistributor rowKeyDistributor, final RowMapper<T> action, boolean ordered);
+
+    /**
+     * Scans every bucket of the rowKeyDistributor in parallel. all buckets stop as soon as the limit is reached.
+     *
+     * @param ordered if false, rows are returned in the arrival order instead of the original row key order
+     */
+    <T> List<T> findParallel(String tableName, final Scan scan, final AbstractRowKeyDistributor rowKeyDistributor, int limit, final RowMapper<T> action, boolean ordered);
+
+    <T> List<T> findParallel(String tableName, final Scan scan, final AbstractRowKeyDistributor rowKeyDistributor, int limit, final RowMapper<T> action, final LimitEventHandler limitEventHandler, boolean ordered);
+
+    <T> T findParallel(String tableName, final Scan scan, final AbstractRowKeyDistributor rowKeyDistributor, final ResultsExtractor<T> action, boolean ordered);
+
+    /**
+     * Runs every scan in parallel. the results are returned in the order of the scans.
+     */
+    <T> List<List<T>> findParallel(String tableName, final List<Scan> scans, final AbstractRowKeyDistributor rowKeyDistributor, final RowMapper<T> action);
+
     Result increment(String tableName, final Increment increment);
 
     /**
@@ -107,6 +130,16 @@ public interface HbaseOperations2 extends HbaseOperations {
      */
     List<Result> increment(String tableName, final List<Increment> incrementList);
 
+    /**
+     * Increments grouped by region and each region group is sent concurrently.
+     * Failed increments don't stop the others and are reported through the result.
+     *
+     * @param tableName
+     * @param incrementList
+     * @return success/fail count, failed increments and elapsed time
+     */
+    BulkIncrementResult bulkIncrement(String tableName, final List<Increment> incrementList);
+
     long incrementColumnValue(String tableName, final byte[] rowName, final byte[] familyName, final byte[] qualifier, final long amount);
 
     long incrementColumnValue(String tableName, final byte[] rowName, final byte[] familyName, final byte[] qualifier, final long amount, final boolean writeToWAL);
@@ -16,12 +16,15 @@
 
 package com.navercorp.pinpoint.common.hbase;
 
+import com.navercorp.pinpoint.common.util.PinpointThreadFactory;
 import com.navercorp.pinpoint.common.util.StopWatch;
 import com.sematext.hbase.wd.AbstractRowKeyDistributor;
 import com.sematext.hbase.wd.DistributedScanner;
 
 import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.hbase.HRegionLocation;
 import org.apache.hadoop.hbase.client.*;
+import org.apache.hadoop.hbase.util.Bytes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.DisposableBean;
@@ -31,7 +34,9 @@ import org.springframework.util.Assert;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.*;
 
 /**
@@ -44,15 +49,23 @@ public class HbaseTemplate2 extends HbaseTemplate implements HbaseOperations2, I
     private PooledHTableFactory pooledHTableFactory;
     private int poolSize = PooledHTableFactory.DEFAULT_POOL_SIZE;
 
-    private ExecutorService executor = newCachedThreadPool();
+    public static final int DEFAULT_MAX_THREADS = 128;
+    private int maxThreads = DEFAULT_MAX_THREADS;
+
+    private ExecutorService executor;
+
+    private HConnection connection;
 
     public HbaseTemplate2() {
     }
 
     public ExecutorService newCachedThreadPool() {
-        return new ThreadPoolExecutor(0, 128,
+        // with an unbounded queue, a pool grows only up to corePoolSize. so core == max and idle threads time out.
+        final ThreadPoolExecutor threadPoolExecutor = new ThreadPoolExecutor(maxThreads, maxThreads,
                 60L, TimeUnit.SECONDS,
-                new LinkedBlockingQueue<Runnable>());
+                new LinkedBlockingQueue<Runnable>(), PinpointThreadFactory.createThreadFactory(this.getClass().getSimpleName(), true));
+        threadPoolExecutor.allowCoreThreadTimeOut(true);
+        return threadPoolExecutor;
     }
 
 //    public Executor getExecutor() {
@@ -80,12 +93,27 @@ public class HbaseTemplate2 extends HbaseTemplate implements HbaseOperations2, I
         this.poolSize = hTablePoolSize;
     }
 
+    public int getMaxThreads() {
+        return maxThreads;
+    }
+
+    public void setMaxThreads(int maxThreads) {
+        this.maxThreads = maxThreads;
+    }
+
     @Override
     public void afterPropertiesSet() {
         Configuration configuration = getConfiguration();
         Assert.notNull(configuration, "configuration is required");
         this.pooledHTableFactory = new PooledHTableFactory(configuration, poolSize);
         this.setTableFactory(pooledHTableFactory);
+        this.executor = newCachedThreadPool();
+        try {
+            // shares the connection(and the region location cache) of HTablePool
+            this.connection = HConnectionManager.getConnection(configuration);
+        } catch (Exception e) {
+            logger.warn("HConnection create fail. bulkIncrement() will not be grouped by region. Caused:{}", e.getMessage(), e);
+        }
     }
 
     @Override
@@ -94,6 +122,15 @@ public class HbaseTemplate2 extends HbaseTemplate implements HbaseOperations2, I
             this.pooledHTableFactory.destroy();
         }
 
+        final HConnection connection = this.connection;
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (IOException e) {
+                logger.warn("HConnection.close() error Caused:{}", e.getMessage(), e);
+            }
+        }
+
         final ExecutorService executor = this.executor;
         if (executor != null) {
             executor.shutdown();
@@ -153,60 +190,6 @@ public class HbaseTemplate2 extends HbaseTemplate implements HbaseOperations2, I
         return find(tableName, scan, new RowMapperResultsExtractor<T>(action));
     }
 
-//    public class ParallelScan<T> {
-//        private String tableName;
-//        private Scan scan;
-//        private RowMapper<T> mapper;
-//
-//        public String getTableName() {
-//            return tableName;
-//        }
-//
-//        public void setTableName(String tableName) {
-//            this.tableName = tableName;
-//        }
-//
-//        public Scan getScan() {
-//            return scan;
-//        }
-//
-//        public void setScan(Scan scan) {
-//            this.scan = scan;
-//        }
-//
-//        public RowMapper<T> getMapper() {
-//            return mapper;
-//        }
-//
-//        public void setMapper(RowMapper<T> action) {
-//            this.mapper = action;
-//        }
-//    }
-//
-//    /**
-//     * API for running a scanner in parallel
-//     * for now comment out, you don't know how scanner's implementation can execute in parallel.
-//     * @return
-//     */
-//    public <T> List<Future<List<T>>> findParallel(final ParallelScan<T> parallelScans) {
-//        Callable<List<T>> tCallable = new Callable<List<T>>() {
-//            @Override
-//            public List<T> call() throws Exception {
-//                return find(parallelScans.getTableName(), parallelScans.getScan(), parallelScans.getMapper());
-//            }
-//        };
-//        ArrayList<Callable<List<T>>> callables = new ArrayList<Callable<List<T>>>();
-//        callables.add(tCallable);
-//
-//        List<Future<List<T>>> futures = null;
-//        try {
-//            futures = this.executor.invokeAll(callables);
-//        } catch (InterruptedException e) {
-//            Thread.currentThread().interrupt();
-//        }
-//        return futures;
-//    }
-
     @Override
     public <T> T get(String tableName, String rowName, final RowMapper<T> mapper) {
         return get(tableName, rowName, null, null, mapper);
@@ -483,9 +466,108 @@ public class HbaseTemplate2 extends HbaseTemplate implements HbaseOperations2, I
         });
     }
 
-    public ResultScanner createDistributeScanner(HTableInterface htable, Scan originalScan, AbstractRowKeyDistributor rowKeyDistributor) throws IOException {
+    @Override
+    public <T> List<T> findParallel(String tableName, final Scan scan, final AbstractRowKeyDistributor rowKeyDistributor, final RowMapper<T> action, boolean ordered) {
+        final ResultsExtractor<List<T>> resultsExtractor = new RowMapperResultsExtractor<T>(action);
+        return findParallel(tableName, scan, rowKeyDistributor, resultsExtractor, ordered);
+    }
+
+    @Override
+    public <T> List<T> findParallel(String tableName, final Scan scan, final AbstractRowKeyDistributor rowKeyDistributor, int limit, final RowMapper<T> action, boolean ordered) {
+        final ResultsExtractor<List<T>> resultsExtractor = new LimitRowMapperResultsExtractor<T>(action, limit);
+        return findParallel(tableName, scan, rowKeyDistributor, resultsExtractor, ordered);
+    }
+
+    @Override
+    public <T> List<T> findParallel(String tableName, final Scan scan, final AbstractRowKeyDistributor rowKeyDistributor, int limit, final RowMapper<T> action, final LimitEventHandler limitEventHandler, boolean ordered) {
+        final ResultsExtractor<List<T>> resultsExtractor = new LimitRowMapperResultsExtractor<T>(action, limit, limitEventHandler);
+        return findParallel(tableName, scan, rowKeyDistributor, resultsExtractor, ordered);
+    }
+
+    @Override
+    public <T> T findParallel(String tableName, final Scan scan, final AbstractRowKeyDistributor rowKeyDistributor, final ResultsExtractor<T> action, final boolean ordered) {
+        return execute(tableName, new TableCallback<T>() {
+            @Override
+            public T doInTable(HTableInterface htable) throws Throwable {
+                final boolean debugEnabled = logger.isDebugEnabled();
+                StopWatch watch = null;
+                if (debugEnabled) {
+                    watch = new StopWatch();
+                    watch.start();
+                }
+                final ResultScanner scanner = createParallelScanner(htable, scan, rowKeyDistributor, ordered);
+                try {
+                    return action.extractData(scanner);
+                } finally {
+                    scanner.close();
+                    if (debugEnabled) {
+                        logger.debug("ParallelScanner scanTime:{}", watch.stop());
+                    }
+                }
+            }
+        });
+    }
+
+    @Override
+    public <T> List<List<T>> findParallel(final String tableName, final List<Scan> scans, final AbstractRowKeyDistributor rowKeyDistributor, final RowMapper<T> action) {
+        if (scans == null) {
+            throw new NullPointerException("scans must not be null");
+        }
+        if (scans.size() == 1) {
+            final List<List<T>> result = new ArrayList<List<T>>(1);
+            result.add(find(tableName, scans.get(0), rowKeyDistributor, action));
+            return result;
+        }
+
+        final List<Future<List<T>>> futureList = new ArrayList<Future<List<T>>>(scans.size());
+        for (final Scan scan : scans) {
+            Callable<List<T>> callable = new Callable<List<T>>() {
+                @Override
+                public List<T> call() throws Exception {
+                    // each task reads its buckets serially so that the tasks never wait for each other on this executor.
+                    return find(tableName, scan, rowKeyDistributor, action);
+                }
+            };
+            futureList.add(executor.submit(callable));
+        }
+
+        final List<List<T>> result = new ArrayList<List<T>>(futureList.size());
+        boolean success = false;
+        try {
+            for (Future<List<T>> future : futureList) {
+                result.add(future.get());
+            }
+            success = true;
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(tableName + " findParallel interrupted", e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(tableName + " findParallel error. Caused:" + cause.getMessage(), cause);
+        } finally {
+            if (!success) {
+                for (Future<List<T>> future : futureList) {
+                    future.cancel(true);
+                }
+            }
+        }
+    }
+
+    /**
+     * Every bucket is read by its own prefetch task on the executor of this template.
+     * The returned scanner must be closed before the htable is released.
+     */
+    public ResultScanner createParallelScanner(HTableInterface htable, Scan originalScan, AbstractRowKeyDistributor rowKeyDistributor, boolean ordered) throws IOException {
+        final Scan[] scans = createDistributedScans(originalScan, rowKeyDistributor);
+        return new ParallelResultScanner(executor, rowKeyDistributor, htable, scans, ordered);
+    }
 
-        Scan[] scans = rowKeyDistributor.getDistributedScans(originalScan);
+    private Scan[] createDistributedScans(Scan originalScan, AbstractRowKeyDistributor rowKeyDistributor) throws IOException {
+        final Scan[] scans = rowKeyDistributor.getDistributedScans(originalScan);
         final int length = scans.length;
         for(int i = 0; i < length; i++) {
             Scan scan = scans[i];
@@ -493,6 +575,13 @@ public class HbaseTemplate2 extends HbaseTemplate implements HbaseOperations2, I
             // is it okay to set only a caching?
             scan.setCaching(originalScan.getCaching());
         }
+        return scans;
+    }
+
+    public ResultScanner createDistributeScanner(HTableInterface htable, Scan originalScan, AbstractRowKeyDistributor rowKeyDistributor) throws IOException {
+
+        final Scan[] scans = createDistributedScans(originalScan, rowKeyDistributor);
+        final int length = scans.length;
 
         ResultScanner[] scanner = new ResultScanner[length];
         boolean success = false;
@@ -555,6 +644,113 @@ public class HbaseTemplate2 extends HbaseTemplate implements HbaseOperations2, I
         });
     }
 
+    @Override
+    public BulkIncrementResult bulkIncrement(final String tableName, final List<Increment> incrementList) {
+        if (tableName == null) {
+            throw new NullPointerException("tableName must not be null");
+        }
+        if (incrementList == null) {
+            throw new NullPointerException("incrementList must not be null");
+        }
+        final long startTime = System.currentTimeMillis();
+
+        final Map<String, List<Increment>> regionGroup = groupByRegion(tableName, incrementList);
+        final BulkIncrementResult bulkResult = new BulkIncrementResult();
+        bulkResult.setRegionCount(regionGroup.size());
+
+        if (regionGroup.size() <= 1) {
+            for (List<Increment> regionIncrementList : regionGroup.values()) {
+                try {
+                    bulkResult.merge(incrementRegion(tableName, regionIncrementList));
+                } catch (RuntimeException e) {
+                    logger.warn("{} bulkIncrement error Caused:{}", tableName, e.getMessage(), e);
+                    bulkResult.addFail(regionIncrementList, e);
+                }
+            }
+            bulkResult.setElapsedTime(System.currentTimeMillis() - startTime);
+            return bulkResult;
+        }
+
+        final List<List<Increment>> regionIncrementLists = new ArrayList<List<Increment>>(regionGroup.values());
+        final List<Future<BulkIncrementResult>> futureList = new ArrayList<Future<BulkIncrementResult>>(regionIncrementLists.size());
+        for (final List<Increment> regionIncrementList : regionIncrementLists) {
+            Callable<BulkIncrementResult> callable = new Callable<BulkIncrementResult>() {
+                @Override
+                public BulkIncrementResult call() throws Exception {
+                    return incrementRegion(tableName, regionIncrementList);
+                }
+            };
+            futureList.add(executor.submit(callable));
+        }
+
+        for (int i = 0; i < futureList.size(); i++) {
+            final Future<BulkIncrementResult> future = futureList.get(i);
+            try {
+                bulkResult.merge(future.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                bulkResult.addFail(regionIncrementLists.get(i), e);
+            } catch (ExecutionException e) {
+                logger.warn("{} bulkIncrement error Caused:{}", tableName, e.getCause().getMessage(), e.getCause());
+                bulkResult.addFail(regionIncrementLists.get(i), e.getCause());
+            }
+        }
+        bulkResult.setElapsedTime(System.currentTimeMillis() - startTime);
+        return bulkResult;
+    }
+
+    private BulkIncrementResult incrementRegion(final String tableName, final List<Increment> regionIncrementList) {
+        return execute(tableName, new TableCallback<BulkIncrementResult>() {
+            @Override
+            public BulkIncrementResult doInTable(HTableInterface htable) throws Throwable {
+                final BulkIncrementResult result = new BulkIncrementResult();
+                for (Increment increment : regionIncrementList) {
+                    try {
+                        htable.increment(increment);
+                        result.addSuccess(1);
+                    } catch (IOException e) {
+                        logger.warn("{} increment error Caused:{}", tableName, e.getMessage(), e);
+                        result.addFail(increment, e);
+                    }
+                }
+                return result;
+            }
+        });
+    }
+
+    private Map<String, List<Increment>> groupByRegion(String tableName, List<Increment> incrementList) {
+        final Map<String, List<Increment>> regionGroup = new HashMap<String, List<Increment>>();
+        final HConnection connection = this.connection;
+        final byte[] tableNameBytes = Bytes.toBytes(tableName);
+        for (Increment increment : incrementList) {
+            final String regionName = getRegionName(connection, tableNameBytes, increment.getRow());
+            List<Increment> regionIncrementList = regionGroup.get(regionName);
+            if (regionIncrementList == null) {
+                regionIncrementList = new ArrayList<Increment>();
+                regionGroup.put(regionName, regionIncrementList);
+            }
+            regionIncrementList.add(increment);
+        }
+        return regionGroup;
+    }
+
+    private String getRegionName(HConnection connection, byte[] tableName, byte[] row) {
+        if (connection == null) {
+            return "";
+        }
+        try {
+            // cached by HConnection. a stale location only makes a group slower.
+            final HRegionLocation location = connection.locateRegion(tableName, row);
+            if (location == null) {
+                return "";
+            }
+            return location.getRegionInfo().getRegionNameAsString();
+        } catch (IOException e) {
+            logger.debug("locateRegion error Caused:{}", e.getMessage(), e);
+            return "";
+        }
+    }
+
     public long incrementColumnValue(String tableName, final byte[] rowName, final byte[] familyName, final byte[] qualifier, final long amount) {
         return execute(tableName, new TableCallback<Long>() {
             @Override
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.hbase;
+
+import com.navercorp.pinpoint.common.util.DefaultTimeSlot;
+import com.navercorp.pinpoint.common.util.TimeSlot;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.navercorp.pinpoint.common.hbase.HBaseTables.*;
+
+/**
+ * Time granularity of the server map statistics and the tables storing each granularity.
+ * The collector adds every one-minute count to the hourly and daily rows as well,
+ * so a long range is read from a few coarse rows instead of thousands of one-minute rows.
+ */
+public enum MapStatisticsRollup {
+
+    MINUTE(TimeUnit.MINUTES.toMillis(1), MAP_STATISTICS_CALLER, MAP_STATISTICS_CALLEE, MAP_STATISTICS_SELF),
+    HOUR(TimeUnit.HOURS.toMillis(1), MAP_STATISTICS_CALLER_HOUR, MAP_STATISTICS_CALLEE_HOUR, MAP_STATISTICS_SELF_HOUR),
+    DAY(TimeUnit.DAYS.toMillis(1), MAP_STATISTICS_CALLER_DAY, MAP_STATISTICS_CALLEE_DAY, MAP_STATISTICS_SELF_DAY);
+
+    private final long resolution;
+    private final TimeSlot timeSlot;
+    private final String callerTableName;
+    private final String calleeTableName;
+    private final String selfTableName;
+
+    MapStatisticsRollup(long resolution, String callerTableName, String calleeTableName, String selfTableName) {
+        this.resolution = resolution;
+        this.timeSlot = new DefaultTimeSlot(resolution);
+        this.callerTableName = callerTableName;
+        this.calleeTableName = calleeTableName;
+        this.selfTableName = selfTableName;
+    }
+
+    /**
+     * @return true if aggregated from the one-minute statistics
+     */
+    public boolean isRollup() {
+        return this != MINUTE;
+    }
+
+    public long getResolution() {
+        return resolution;
+    }
+
+    public TimeSlot getTimeSlot() {
+        return timeSlot;
+    }
+
+    /**
+     * rowkey = callee, column = caller
+     */
+    public String getCallerTableName() {
+        return callerTableName;
+    }
+
+    /**
+     * rowkey = caller, column = callee
+     */
+    public String getCalleeTableName() {
+        return calleeTableName;
+    }
+
+    public String getSelfTableName() {
+        return selfTableName;
+    }
+}
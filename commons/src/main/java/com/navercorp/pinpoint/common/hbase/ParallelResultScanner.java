@@ -0,0 +1,368 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.hbase;
+
+import com.sematext.hbase.wd.AbstractRowKeyDistributor;
+
+import org.apache.hadoop.hbase.client.HTableInterface;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * ResultScanner reading every salt bucket of a distributed scan in parallel.
+ * <p/>
+ * Each bucket has one prefetch task on the executor. A task fetches one chunk(scan caching) and returns,
+ * the next chunk is requested when the consumer takes the previous one. So a worker never waits for the consumer
+ * and at most two chunks per bucket are kept in memory.
+ * <p/>
+ * ordered : merged in the original row key order like {@link com.sematext.hbase.wd.DistributedScanner}<br/>
+ * unordered : returned in the arrival order. faster when the caller doesn't care about the order.
+ * <p/>
+ * close() stops all prefetches. so a limited extractor(e.g. {@link LimitRowMapperResultsExtractor}) stops every bucket early.
+ */
+public class ParallelResultScanner implements ResultScanner {
+
+    private static final Result[] EMPTY_RESULT = new Result[0];
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final ExecutorService executor;
+    private final AbstractRowKeyDistributor keyDistributor;
+    private final HTableInterface htable;
+    private final int fetchSize;
+    private final boolean ordered;
+
+    private final Bucket[] buckets;
+    // notified bucket of completed prefetch. used by unordered mode only
+    private final BlockingQueue<Bucket> completeQueue;
+
+    private volatile boolean closed = false;
+
+    public ParallelResultScanner(ExecutorService executor, AbstractRowKeyDistributor keyDistributor, HTableInterface htable, Scan[] scans, boolean ordered) {
+        if (executor == null) {
+            throw new NullPointerException("executor must not be null");
+        }
+        if (keyDistributor == null) {
+            throw new NullPointerException("keyDistributor must not be null");
+        }
+        if (htable == null) {
+            throw new NullPointerException("htable must not be null");
+        }
+        if (scans == null) {
+            throw new NullPointerException("scans must not be null");
+        }
+        this.executor = executor;
+        this.keyDistributor = keyDistributor;
+        this.htable = htable;
+        this.fetchSize = getFetchSize(scans);
+        this.ordered = ordered;
+        if (ordered) {
+            this.completeQueue = null;
+        } else {
+            this.completeQueue = new LinkedBlockingQueue<Bucket>();
+        }
+
+        this.buckets = new Bucket[scans.length];
+        for (int i = 0; i < scans.length; i++) {
+            this.buckets[i] = new Bucket(scans[i]);
+        }
+        for (Bucket bucket : buckets) {
+            bucket.prefetch();
+        }
+    }
+
+    private int getFetchSize(Scan[] scans) {
+        if (scans.length == 0) {
+            return 1;
+        }
+        final int caching = scans[0].getCaching();
+        if (caching <= 0) {
+            return 1;
+        }
+        return caching;
+    }
+
+    @Override
+    public Result next() throws IOException {
+        if (closed) {
+            return null;
+        }
+        if (ordered) {
+            return nextOrdered();
+        } else {
+            return nextUnordered();
+        }
+    }
+
+    private Result nextOrdered() throws IOException {
+        Bucket minBucket = null;
+        byte[] minKey = null;
+        for (Bucket bucket : buckets) {
+            if (!bucket.fill()) {
+                continue;
+            }
+            final byte[] key = keyDistributor.getOriginalKey(bucket.peek().getRow());
+            if (minBucket == null || Bytes.compareTo(key, minKey) < 0) {
+                minBucket = bucket;
+                minKey = key;
+            }
+        }
+        if (minBucket == null) {
+            return null;
+        }
+        return minBucket.poll();
+    }
+
+    private Result nextUnordered() throws IOException {
+        while (true) {
+            for (Bucket bucket : buckets) {
+                if (bucket.hasBuffered()) {
+                    return bucket.poll();
+                }
+            }
+            if (!hasPrefetch()) {
+                return null;
+            }
+            final Bucket completed;
+            try {
+                completed = completeQueue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("interrupted while waiting prefetch");
+            }
+            completed.fill();
+        }
+    }
+
+    private boolean hasPrefetch() {
+        for (Bucket bucket : buckets) {
+            if (bucket.hasPrefetch()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public Result[] next(int nbRows) throws IOException {
+        final List<Result> resultList = new ArrayList<Result>(nbRows);
+        for (int i = 0; i < nbRows; i++) {
+            final Result next = next();
+            if (next == null) {
+                break;
+            }
+            resultList.add(next);
+        }
+        return resultList.toArray(new Result[resultList.size()]);
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        this.closed = true;
+        for (Bucket bucket : buckets) {
+            bucket.close();
+        }
+    }
+
+    @Override
+    public Iterator<Result> iterator() {
+        return new Iterator<Result>() {
+            private Result next = null;
+
+            @Override
+            public boolean hasNext() {
+                if (next == null) {
+                    try {
+                        next = ParallelResultScanner.this.next();
+                    } catch (IOException e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+                return next != null;
+            }
+
+            @Override
+            public Result next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                final Result result = next;
+                next = null;
+                return result;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    private class Bucket {
+        private final Scan scan;
+        // opened by the first prefetch task. accessed by only one thread at a time.
+        private ResultScanner scanner;
+
+        private Result[] chunk = EMPTY_RESULT;
+        private int index = 0;
+        private Future<Result[]> prefetch;
+
+        private Bucket(Scan scan) {
+            this.scan = scan;
+        }
+
+        private void prefetch() {
+            if (closed) {
+                return;
+            }
+            this.prefetch = executor.submit(new FetchTask(this));
+        }
+
+        private boolean hasPrefetch() {
+            return prefetch != null;
+        }
+
+        private boolean hasBuffered() {
+            return index < chunk.length;
+        }
+
+        private Result peek() {
+            return chunk[index];
+        }
+
+        private Result poll() {
+            final Result result = chunk[index];
+            // release the reference as soon as possible
+            chunk[index] = null;
+            index++;
+            return result;
+        }
+
+        /**
+         * @return false if the bucket is exhausted
+         */
+        private boolean fill() throws IOException {
+            if (hasBuffered()) {
+                return true;
+            }
+            if (prefetch == null) {
+                return false;
+            }
+            final Result[] fetched = await(prefetch);
+            this.prefetch = null;
+            if (fetched == null || fetched.length == 0) {
+                return false;
+            }
+            this.chunk = fetched;
+            this.index = 0;
+            if (fetched.length >= fetchSize) {
+                // a short chunk means the end of the bucket
+                prefetch();
+            }
+            return true;
+        }
+
+        private Result[] await(Future<Result[]> future) throws IOException {
+            try {
+                return future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("interrupted while waiting prefetch");
+            } catch (ExecutionException e) {
+                final Throwable cause = e.getCause();
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                }
+                throw new IOException(cause);
+            }
+        }
+
+        private Result[] fetch() throws IOException {
+            if (closed) {
+                return EMPTY_RESULT;
+            }
+            if (scanner == null) {
+                scanner = htable.getScanner(scan);
+            }
+            return scanner.next(fetchSize);
+        }
+
+        private void close() {
+            final Future<Result[]> prefetch = this.prefetch;
+            this.prefetch = null;
+            if (prefetch != null && !prefetch.cancel(false)) {
+                // running. wait for the completion before closing the scanner.
+                try {
+                    prefetch.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (Exception e) {
+                    logger.debug("prefetch error Caused:{}", e.getMessage(), e);
+                }
+            }
+            this.chunk = EMPTY_RESULT;
+            this.index = 0;
+            if (scanner != null) {
+                try {
+                    scanner.close();
+                } catch (Exception e) {
+                    logger.warn("Scanner.close() error Caused:{}", e.getMessage(), e);
+                }
+                scanner = null;
+            }
+        }
+    }
+
+    private class FetchTask implements Callable<Result[]> {
+        private final Bucket bucket;
+
+        private FetchTask(Bucket bucket) {
+            this.bucket = bucket;
+        }
+
+        @Override
+        public Result[] call() throws Exception {
+            try {
+                return bucket.fetch();
+            } finally {
+                if (completeQueue != null) {
+                    completeQueue.offer(bucket);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.common.hbase.filter;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.filter.FilterBase;
+
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.buffer.OffsetFixedBuffer;
+
+/**
+ * server side filter of the application trace index.
+ * each column of a row is one span of the application and its value is (elapsed, err, agentId).
+ * the columns not matching the conditions are skipped, so a row left without any column is not returned at all.
+ * <p>
+ * the filter is instantiated by the region server, so pinpoint-commons should be in the classpath of hbase.
+ */
+public class ApplicationTraceIndexColumnFilter extends FilterBase {
+
+    public enum ErrorState {
+        ANY, ERROR, SUCCESS
+    }
+
+    private long responseTimeFrom;
+    private long responseTimeTo;
+    private ErrorState errorState;
+    private String agentId;
+
+    /**
+     * used by hbase for deserialization.
+     */
+    public ApplicationTraceIndexColumnFilter() {
+        this(0, Long.MAX_VALUE, ErrorState.ANY, null);
+    }
+
+    /**
+     * @param responseTimeFrom inclusive
+     * @param responseTimeTo inclusive
+     * @param errorState error state of the span
+     * @param agentId agentId of the span. null means any agent.
+     */
+    public ApplicationTraceIndexColumnFilter(long responseTimeFrom, long responseTimeTo, ErrorState errorState, String agentId) {
+        if (responseTimeFrom > responseTimeTo) {
+            throw new IllegalArgumentException("invalid response time range. from:" + responseTimeFrom + " to:" + responseTimeTo);
+        }
+        if (errorState == null) {
+            throw new NullPointerException("errorState must not be null");
+        }
+        this.responseTimeFrom = responseTimeFrom;
+        this.responseTimeTo = responseTimeTo;
+        this.errorState = errorState;
+        this.agentId = agentId;
+    }
+
+    public long getResponseTimeFrom() {
+        return responseTimeFrom;
+    }
+
+    public long getResponseTimeTo() {
+        return responseTimeTo;
+    }
+
+    public ErrorState getErrorState() {
+        return errorState;
+    }
+
+    public String getAgentId() {
+        return agentId;
+    }
+
+    @Override
+    public ReturnCode filterKeyValue(KeyValue kv) {
+        final Buffer valueBuffer = new OffsetFixedBuffer(kv.getBuffer(), kv.getValueOffset());
+        final int elapsed = valueBuffer.readVarInt();
+        if (elapsed < responseTimeFrom || elapsed > responseTimeTo) {
+            return ReturnCode.SKIP;
+        }
+
+        final int err = valueBuffer.readSVarInt();
+        if (errorState == ErrorState.ERROR && err <= 0) {
+            return ReturnCode.SKIP;
+        }
+        if (errorState == ErrorState.SUCCESS && err > 0) {
+            return ReturnCode.SKIP;
+        }
+
+        if (agentId != null) {
+            final String spanAgentId = valueBuffer.readPrefixedString();
+            if (!agentId.equals(spanAgentId)) {
+                return ReturnCode.SKIP;
+            }
+        }
+        return ReturnCode.INCLUDE;
+    }
+
+    @Override
+    public void write(DataOutput dataOutput) throws IOException {
+        dataOutput.writeLong(responseTimeFrom);
+        dataOutput.writeLong(responseTimeTo);
+        dataOutput.writeByte(errorState.ordinal());
+        dataOutput.writeBoolean(agentId != null);
+        if (agentId != null) {
+            dataOutput.writeUTF(agentId);
+        }
+    }
+
+    @Override
+    public void readFields(DataInput dataInput) throws IOException {
+        this.responseTimeFrom = dataInput.readLong();
+        this.responseTimeTo = dataInput.readLong();
+        this.errorState = ErrorState.values()[dataInput.readByte()];
+        this.agentId = dataInput.readBoolean() ? dataInput.readUTF() : null;
+    }
+
+    @Override
+    public String toString() {
+        return "ApplicationTraceIndexColumnFilter{" +
+                "responseTimeFrom=" + responseTimeFrom +
+                ", responseTimeTo=" + responseTimeTo +
+                ", errorState=" + errorState +
+                ", agentId='" + agentId + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.common.bo;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import com.navercorp.pinpoint.thrift.dto.TJvmGcType;
+
+public class AgentStatBatchBoTest {
+
+    @Test
+    public void testByteArrayConversion() {
+        // Given
+        final String agentId = "agentId";
+        final long startTimestamp = 1400000000000L;
+        final AgentStatBatchBo.Builder builder = new AgentStatBatchBo.Builder(agentId, startTimestamp);
+        for (int i = 0; i < 6; i++) {
+            final long timestamp = startTimestamp + 60000L + (i * 5000L);
+            builder.addAgentStat(createMemoryGcBo(agentId, startTimestamp, timestamp, i), createCpuLoadBo(agentId, startTimestamp, timestamp, i));
+        }
+        final AgentStatBatchBo testBo = builder.build();
+        // When
+        final byte[] serializedBo = testBo.writeValue();
+        final AgentStatBatchBo deserializedBo = new AgentStatBatchBo.Builder(serializedBo).build();
+        // Then
+        assertEquals(testBo.getAgentId(), deserializedBo.getAgentId());
+        assertEquals(testBo.getStartTimestamp(), deserializedBo.getStartTimestamp());
+        assertEquals(testBo.size(), deserializedBo.size());
+        for (int i = 0; i < testBo.size(); i++) {
+            assertMemoryGcBo(testBo.getMemoryGcBoList().get(i), deserializedBo.getMemoryGcBoList().get(i));
+            assertCpuLoadBo(testBo.getCpuLoadBoList().get(i), deserializedBo.getCpuLoadBoList().get(i));
+        }
+    }
+
+    @Test
+    public void testUnsupportedCpuLoad() {
+        // Given
+        final AgentStatBatchBo.Builder builder = new AgentStatBatchBo.Builder("agentId", 0L);
+        final AgentStatCpuLoadBo cpuLoadBo = new AgentStatCpuLoadBo.Builder("agentId", 0L, 1L).build();
+        builder.addAgentStat(new AgentStatMemoryGcBo.Builder("agentId", 0L, 1L).build(), cpuLoadBo);
+        // When
+        final AgentStatBatchBo deserializedBo = new AgentStatBatchBo.Builder(builder.build().writeValue()).build();
+        // Then
+        final List<AgentStatCpuLoadBo> cpuLoadBoList = deserializedBo.getCpuLoadBoList();
+        assertEquals(cpuLoadBo.getJvmCpuLoad(), cpuLoadBoList.get(0).getJvmCpuLoad(), 0);
+        assertEquals(cpuLoadBo.getSystemCpuLoad(), cpuLoadBoList.get(0).getSystemCpuLoad(), 0);
+    }
+
+    @Test
+    public void testSmallerThanSeparateValues() {
+        // Given
+        final String agentId = "agentId";
+        final long startTimestamp = 1400000000000L;
+        final AgentStatBatchBo.Builder builder = new AgentStatBatchBo.Builder(agentId, startTimestamp);
+        int separateSize = 0;
+        for (int i = 0; i < 6; i++) {
+            final long timestamp = startTimestamp + 60000L + (i * 5000L);
+            final AgentStatMemoryGcBo memoryGcBo = createMemoryGcBo(agentId, startTimestamp, timestamp, i);
+            final AgentStatCpuLoadBo cpuLoadBo = createCpuLoadBo(agentId, startTimestamp, timestamp, i);
+            separateSize += memoryGcBo.writeValue().length + cpuLoadBo.writeValue().length;
+            builder.addAgentStat(memoryGcBo, cpuLoadBo);
+        }
+        // When
+        final int batchSize = builder.build().writeValue().length;
+        // Then
+        assertTrue("batch:" + batchSize + " separate:" + separateSize, batchSize * 3 < separateSize);
+    }
+
+    private AgentStatMemoryGcBo createMemoryGcBo(String agentId, long startTimestamp, long timestamp, int i) {
+        final AgentStatMemoryGcBo.Builder builder = new AgentStatMemoryGcBo.Builder(agentId, startTimestamp, timestamp);
+        builder.gcType(TJvmGcType.G1.name());
+        builder.jvmMemoryHeapUsed(300000000L + (i * 1234567L));
+        builder.jvmMemoryHeapMax(1073741824L);
+        builder.jvmMemoryNonHeapUsed(50000000L - (i * 1000L));
+        builder.jvmMemoryNonHeapMax(-1L);
+        builder.jvmGcOldCount(10L + i);
+        builder.jvmGcOldTime(1000L + (i * 35L));
+        return builder.build();
+    }
+
+    private AgentStatCpuLoadBo createCpuLoadBo(String agentId, long startTimestamp, long timestamp, int i) {
+        final AgentStatCpuLoadBo.Builder builder = new AgentStatCpuLoadBo.Builder(agentId, startTimestamp, timestamp);
+        builder.jvmCpuLoad(0.25D + (i * 0.01D));
+        builder.systemCpuLoad(0.5D - (i * 0.02D));
+        return builder.build();
+    }
+
+    private void assertMemoryGcBo(AgentStatMemoryGcBo expected, AgentStatMemoryGcBo actual) {
+        assertEquals(expected.getAgentId(), actual.getAgentId());
+        assertEquals(expected.getStartTimestamp(), actual.getStartTimestamp());
+        assertEquals(expected.getTimestamp(), actual.getTimestamp());
+        assertEquals(expected.getGcType(), actual.getGcType());
+        assertEquals(expected.getJvmMemoryHeapUsed(), actual.getJvmMemoryHeapUsed());
+        assertEquals(expected.getJvmMemoryHeapMax(), actual.getJvmMemoryHeapMax());
+        assertEquals(expected.getJvmMemoryNonHeapUsed(), actual.getJvmMemoryNonHeapUsed());
+        assertEquals(expected.getJvmMemoryNonHeapMax(), actual.getJvmMemoryNonHeapMax());
+        assertEquals(expected.getJvmGcOldCount(), actual.getJvmGcOldCount());
+        assertEquals(expected.getJvmGcOldTime(), actual.getJvmGcOldTime());
+    }
+
+    private void assertCpuLoadBo(AgentStatCpuLoadBo expected, AgentStatCpuLoadBo actual) {
+        assertEquals(expected.getTimestamp(), actual.getTimestamp());
+        assertEquals(expected.getJvmCpuLoad(), actual.getJvmCpuLoad(), 0.000001D);
+        assertEquals(expected.getSystemCpuLoad(), actual.getSystemCpuLoad(), 0.000001D);
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.common.bo;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+import com.navercorp.pinpoint.thrift.dto.TJvmGcType;
+
+public class AgentStatRollupBoTest {
+
+    @Test
+    public void testByteArrayConversion() {
+        // Given
+        final AgentStatRollupBo testBo = createRollupBo("agentId", 1400000000000L, 1400000060000L, 12);
+        // When
+        final AgentStatRollupBo deserializedBo = read(testBo.writeMinMaxValue(), testBo);
+        // Then
+        assertEquals(testBo.getAgentId(), deserializedBo.getAgentId());
+        assertEquals(testBo.getStartTimestamp(), deserializedBo.getStartTimestamp());
+        assertEquals(testBo.getTimestamp(), deserializedBo.getTimestamp());
+        assertEquals(testBo.getGcType(), deserializedBo.getGcType());
+        assertEquals(testBo.getCount(), deserializedBo.getCount());
+        assertSummary(testBo.getJvmMemoryHeapUsed(), deserializedBo.getJvmMemoryHeapUsed());
+        assertSummary(testBo.getJvmMemoryHeapMax(), deserializedBo.getJvmMemoryHeapMax());
+        assertSummary(testBo.getJvmMemoryNonHeapUsed(), deserializedBo.getJvmMemoryNonHeapUsed());
+        assertSummary(testBo.getJvmMemoryNonHeapMax(), deserializedBo.getJvmMemoryNonHeapMax());
+        assertSummary(testBo.getJvmGcOldCount(), deserializedBo.getJvmGcOldCount());
+        assertSummary(testBo.getJvmGcOldTime(), deserializedBo.getJvmGcOldTime());
+        assertSummary(testBo.getJvmCpuLoad(), deserializedBo.getJvmCpuLoad());
+        assertSummary(testBo.getSystemCpuLoad(), deserializedBo.getSystemCpuLoad());
+    }
+
+    @Test
+    public void testMergeMinMax() {
+        // Given
+        final AgentStatRollupBo firstBo = createRollupBo("agentId", 1400000000000L, 1400000060000L, 12);
+        final AgentStatMemoryGcBo.Builder memoryGcBuilder = new AgentStatMemoryGcBo.Builder("agentId", 1400000050000L, 1400000090000L);
+        memoryGcBuilder.gcType(TJvmGcType.CMS.name());
+        memoryGcBuilder.jvmMemoryHeapUsed(100L);
+        final AgentStatCpuLoadBo.Builder cpuLoadBuilder = new AgentStatCpuLoadBo.Builder("agentId", 1400000050000L, 1400000090000L);
+        cpuLoadBuilder.jvmCpuLoad(0.9D);
+        final AgentStatRollupBo.Builder secondBuilder = new AgentStatRollupBo.Builder("agentId", 1400000060000L);
+        secondBuilder.addAgentStat(memoryGcBuilder.build(), cpuLoadBuilder.build());
+        final AgentStatRollupBo secondBo = secondBuilder.build();
+        // When
+        final AgentStatRollupBo.Builder builder = new AgentStatRollupBo.Builder(firstBo.writeMinMaxValue());
+        builder.mergeMinMax(secondBo.writeMinMaxValue());
+        builder.count(firstBo.getCount() + secondBo.getCount());
+        final AgentStatRollupBo mergedBo = builder.build();
+        // Then
+        assertEquals(13, mergedBo.getCount());
+        assertEquals(1400000050000L, mergedBo.getStartTimestamp());
+        assertEquals(TJvmGcType.CMS.name(), mergedBo.getGcType());
+        assertEquals(100L, mergedBo.getJvmMemoryHeapUsed().getMin());
+        assertEquals(300000000L + (11 * 1000L), mergedBo.getJvmMemoryHeapUsed().getMax());
+        assertEquals(0.25D, AgentStatRollupBo.toCpuLoad(mergedBo.getJvmCpuLoad().getMin()), 0.000001D);
+        assertEquals(0.9D, AgentStatRollupBo.toCpuLoad(mergedBo.getJvmCpuLoad().getMax()), 0.000001D);
+    }
+
+    @Test
+    public void testClearCountAndSums() {
+        // Given
+        final AgentStatRollupBo.Builder builder = new AgentStatRollupBo.Builder("agentId", 1400000060000L);
+        addAgentStats(builder, "agentId", 1400000000000L, 1400000060000L, 12);
+        // When
+        builder.clearCountAndSums();
+        final AgentStatRollupBo clearedBo = builder.build();
+        // Then
+        assertEquals(0, clearedBo.getCount());
+        for (int i = 0; i < AgentStatRollupBo.SUMMARY_SIZE; i++) {
+            assertEquals(0, clearedBo.getSum(i));
+        }
+        assertEquals(300000000L, clearedBo.getJvmMemoryHeapUsed().getMin());
+        assertEquals(300000000L + (11 * 1000L), clearedBo.getJvmMemoryHeapUsed().getMax());
+    }
+
+    @Test
+    public void testSummary() {
+        // Given
+        final AgentStatRollupBo testBo = createRollupBo("agentId", 1400000000000L, 1400000060000L, 12);
+        // When
+        final AgentStatMemoryGcBo memoryGcBo = testBo.toMemoryGcBo();
+        final AgentStatCpuLoadBo cpuLoadBo = testBo.toCpuLoadBo();
+        // Then
+        assertEquals(12, testBo.getCount());
+        assertEquals(1400000060000L, memoryGcBo.getTimestamp());
+        assertEquals(300000000L, testBo.getJvmMemoryHeapUsed().getMin());
+        assertEquals(300000000L + (11 * 1000L), testBo.getJvmMemoryHeapUsed().getMax());
+        assertEquals(300000000L + 5500L, memoryGcBo.getJvmMemoryHeapUsed());
+        assertEquals(1073741824L, memoryGcBo.getJvmMemoryHeapMax());
+        assertEquals(10L + 11, memoryGcBo.getJvmGcOldCount());
+        assertEquals(1000L + (11 * 35L), memoryGcBo.getJvmGcOldTime());
+        assertEquals(0.25D, AgentStatRollupBo.toCpuLoad(testBo.getJvmCpuLoad().getMin()), 0.000001D);
+        assertEquals(0.36D, AgentStatRollupBo.toCpuLoad(testBo.getJvmCpuLoad().getMax()), 0.000001D);
+        assertEquals(0.305D, cpuLoadBo.getJvmCpuLoad(), 0.000001D);
+        assertEquals(0.5D, cpuLoadBo.getSystemCpuLoad(), 0.000001D);
+    }
+
+    @Test
+    public void testMinMax() {
+        // Given
+        final AgentStatRollupBo testBo = createRollupBo("agentId", 1400000000000L, 1400000060000L, 12);
+        // When
+        final AgentStatMemoryGcBo minMemoryGcBo = testBo.toMinMemoryGcBo();
+        final AgentStatMemoryGcBo maxMemoryGcBo = testBo.toMaxMemoryGcBo();
+        final AgentStatCpuLoadBo minCpuLoadBo = testBo.toMinCpuLoadBo();
+        final AgentStatCpuLoadBo maxCpuLoadBo = testBo.toMaxCpuLoadBo();
+        // Then
+        assertEquals(1400000060000L, maxMemoryGcBo.getTimestamp());
+        assertEquals(TJvmGcType.G1.name(), maxMemoryGcBo.getGcType());
+        assertEquals(300000000L, minMemoryGcBo.getJvmMemoryHeapUsed());
+        assertEquals(300000000L + (11 * 1000L), maxMemoryGcBo.getJvmMemoryHeapUsed());
+        assertEquals(10L, minMemoryGcBo.getJvmGcOldCount());
+        assertEquals(10L + 11, maxMemoryGcBo.getJvmGcOldCount());
+        assertEquals(0.25D, minCpuLoadBo.getJvmCpuLoad(), 0.000001D);
+        assertEquals(0.36D, maxCpuLoadBo.getJvmCpuLoad(), 0.000001D);
+        assertEquals(0.5D, maxCpuLoadBo.getSystemCpuLoad(), 0.000001D);
+    }
+
+    private AgentStatRollupBo read(byte[] minMaxValue, AgentStatRollupBo counters) {
+        final AgentStatRollupBo.Builder builder = new AgentStatRollupBo.Builder(minMaxValue);
+        builder.count(counters.getCount());
+        for (int i = 0; i < AgentStatRollupBo.SUMMARY_SIZE; i++) {
+            builder.sum(i, counters.getSum(i));
+        }
+        return builder.build();
+    }
+
+    private AgentStatRollupBo createRollupBo(String agentId, long startTimestamp, long timeSlot, int count) {
+        final AgentStatRollupBo.Builder builder = new AgentStatRollupBo.Builder(agentId, timeSlot);
+        addAgentStats(builder, agentId, startTimestamp, timeSlot, count);
+        return builder.build();
+    }
+
+    private void addAgentStats(AgentStatRollupBo.Builder builder, String agentId, long startTimestamp, long timeSlot, int count) {
+        for (int i = 0; i < count; i++) {
+            final long timestamp = timeSlot + (i * 5000L);
+            final AgentStatMemoryGcBo.Builder memoryGcBuilder = new AgentStatMemoryGcBo.Builder(agentId, startTimestamp, timestamp);
+            memoryGcBuilder.gcType(TJvmGcType.G1.name());
+            memoryGcBuilder.jvmMemoryHeapUsed(300000000L + (i * 1000L));
+            memoryGcBuilder.jvmMemoryHeapMax(1073741824L);
+            memoryGcBuilder.jvmMemoryNonHeapUsed(50000000L);
+            memoryGcBuilder.jvmMemoryNonHeapMax(-1L);
+            memoryGcBuilder.jvmGcOldCount(10L + i);
+            memoryGcBuilder.jvmGcOldTime(1000L + (i * 35L));
+            final AgentStatCpuLoadBo.Builder cpuLoadBuilder = new AgentStatCpuLoadBo.Builder(agentId, startTimestamp, timestamp);
+            cpuLoadBuilder.jvmCpuLoad(0.25D + (i * 0.01D));
+            cpuLoadBuilder.systemCpuLoad(0.5D);
+            builder.addAgentStat(memoryGcBuilder.build(), cpuLoadBuilder.build());
+        }
+    }
+
+    private void assertSummary(AgentStatRollupBo.Summary expected, AgentStatRollupBo.Summary actual) {
+        assertEquals(expected.getMin(), actual.getMin());
+        assertEquals(expected.getMax(), actual.getMax());
+        assertEquals(expected.getSum(), actual.getSum());
+    }
+}
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.common.bo;
+
+import com.navercorp.pinpoint.common.AnnotationKey;
+import com.navercorp.pinpoint.common.ServiceType;
+import com.navercorp.pinpoint.common.buffer.AutomaticBuffer;
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.util.TransactionIdUtils;
+import com.navercorp.pinpoint.thrift.dto.TAnnotation;
+import com.navercorp.pinpoint.thrift.dto.TAnnotationValue;
+import com.navercorp.pinpoint.thrift.dto.TIntStringValue;
+import com.navercorp.pinpoint.thrift.dto.TSpan;
+import com.navercorp.pinpoint.thrift.dto.TSpanChunk;
+import com.navercorp.pinpoint.thrift.dto.TSpanEvent;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class SpanEncoderTest {
+
+    @Test
+    public void encodeSpan() {
+        TSpan span = createSpan();
+        span.setExceptionInfo(intStringValue(3, "exception message"));
+
+        SpanEncoder encoder = new SpanEncoder();
+        Assert.assertArrayEquals(new SpanBo(span).writeValue(), encoder.encodeSpan(span));
+    }
+
+    @Test
+    public void encodeSpan_nullValue() {
+        TSpan span = new TSpan();
+        span.setTransactionId(TransactionIdUtils.formatBytes("agent", 1, 2));
+
+        SpanEncoder encoder = new SpanEncoder();
+        Assert.assertArrayEquals(new SpanBo(span).writeValue(), encoder.encodeSpan(span));
+    }
+
+    @Test
+    public void encodeSpanEvent() {
+        TSpan span = createSpan();
+        SpanEncoder encoder = new SpanEncoder();
+        for (TSpanEvent spanEvent : span.getSpanEventList()) {
+            Assert.assertArrayEquals(new SpanEventBo(span, spanEvent).writeValue(), encoder.encodeSpanEvent(span, spanEvent));
+        }
+    }
+
+    @Test
+    public void encodeSpanChunkEvent() {
+        TSpan span = createSpan();
+        TSpanChunk spanChunk = new TSpanChunk();
+        spanChunk.setAgentId(span.getAgentId());
+        spanChunk.setApplicationName(span.getApplicationName());
+        spanChunk.setAgentStartTime(span.getAgentStartTime());
+        spanChunk.setTransactionId(span.getTransactionId());
+        spanChunk.setSpanId(span.getSpanId());
+        spanChunk.setSpanEventList(span.getSpanEventList());
+
+        SpanEncoder encoder = new SpanEncoder();
+        for (TSpanEvent spanEvent : spanChunk.getSpanEventList()) {
+            Assert.assertArrayEquals(new SpanEventBo(spanChunk, spanEvent).writeValue(), encoder.encodeSpanEvent(spanChunk, spanEvent));
+        }
+    }
+
+    @Test
+    public void encodeAnnotationList() {
+        List<TAnnotation> annotations = createAnnotations();
+        List<AnnotationBo> boList = new ArrayList<AnnotationBo>();
+        for (TAnnotation annotation : annotations) {
+            boList.add(new AnnotationBo(annotation));
+        }
+        Buffer buffer = new AutomaticBuffer(64);
+        new AnnotationBoList(boList).writeValue(buffer);
+
+        SpanEncoder encoder = new SpanEncoder();
+        Assert.assertArrayEquals(buffer.getBuffer(), encoder.encodeAnnotationList(annotations));
+    }
+
+    @Test
+    public void reuseBuffer() {
+        TSpan span = createSpan();
+        char[] large = new char[SpanEncoder.DEFAULT_BUFFER_SIZE * 3];
+        Arrays.fill(large, 'a');
+        span.setRpc(new String(large));
+
+        SpanEncoder encoder = new SpanEncoder();
+        byte[] largeValue = encoder.encodeSpan(span);
+        byte[] smallValue = encoder.encodeSpanEvent(span, span.getSpanEventList().get(1));
+        byte[] largeValueAgain = encoder.encodeSpan(span);
+
+        Assert.assertArrayEquals(new SpanBo(span).writeValue(), largeValue);
+        Assert.assertArrayEquals(new SpanEventBo(span, span.getSpanEventList().get(1)).writeValue(), smallValue);
+        Assert.assertArrayEquals(largeValue, largeValueAgain);
+        Assert.assertNotSame(largeValue, largeValueAgain);
+    }
+
+    private TSpan createSpan() {
+        TSpan span = new TSpan();
+        span.setAgentId("agentId");
+        span.setApplicationName("applicationName");
+        span.setAgentStartTime(1000);
+        span.setTransactionId(TransactionIdUtils.formatBytes("agentId", 1000, 5));
+        span.setSpanId(10);
+        span.setParentSpanId(-1);
+        span.setStartTime(2000);
+        span.setElapsed(300);
+        span.setRpc("/test.nhn");
+        span.setServiceType(ServiceType.STAND_ALONE.getCode());
+        span.setEndPoint("localhost:8080");
+        span.setRemoteAddr("127.0.0.1");
+        span.setApiId(7);
+        span.setErr(1);
+        span.setFlag((short) 2);
+        span.setAnnotations(createAnnotations());
+
+        List<TSpanEvent> spanEventList = new ArrayList<TSpanEvent>();
+
+        TSpanEvent methodEvent = new TSpanEvent();
+        methodEvent.setSequence((short) 0);
+        methodEvent.setStartElapsed(1);
+        methodEvent.setEndElapsed(20);
+        methodEvent.setServiceType(ServiceType.INTERNAL_METHOD.getCode());
+        methodEvent.setApiId(8);
+        methodEvent.setDepth(1);
+        spanEventList.add(methodEvent);
+
+        TSpanEvent rpcEvent = new TSpanEvent();
+        rpcEvent.setSequence((short) 1);
+        rpcEvent.setStartElapsed(3);
+        rpcEvent.setEndElapsed(15);
+        rpcEvent.setRpc("http://remote/test.nhn");
+        rpcEvent.setServiceType(ServiceType.HTTP_CLIENT.getCode());
+        rpcEvent.setEndPoint("remote:8080");
+        rpcEvent.setDestinationId("remote");
+        rpcEvent.setApiId(-9);
+        rpcEvent.setDepth(2);
+        rpcEvent.setNextSpanId(11);
+        rpcEvent.setAnnotations(createAnnotations());
+        rpcEvent.setExceptionInfo(intStringValue(4, null));
+        spanEventList.add(rpcEvent);
+
+        span.setSpanEventList(spanEventList);
+        return span;
+    }
+
+    private List<TAnnotation> createAnnotations() {
+        List<TAnnotation> annotations = new ArrayList<TAnnotation>();
+        annotations.add(annotation(AnnotationKey.API, TAnnotationValue.stringValue("api")));
+        annotations.add(annotation(AnnotationKey.ARGS0, TAnnotationValue.intValue(-3)));
+        annotations.add(annotation(AnnotationKey.ARGS1, TAnnotationValue.longValue(Long.MAX_VALUE)));
+        annotations.add(annotation(AnnotationKey.ARGS2, TAnnotationValue.boolValue(true)));
+        annotations.add(annotation(AnnotationKey.ARGS3, TAnnotationValue.binaryValue(new byte[]{1, 2, 3})));
+        annotations.add(annotation(AnnotationKey.SQL_ID, TAnnotationValue.intStringValue(intStringValue(5, "bind"))));
+        annotations.add(annotation(AnnotationKey.ARGS4, null));
+        return annotations;
+    }
+
+    private TAnnotation annotation(AnnotationKey key, TAnnotationValue value) {
+        TAnnotation annotation = new TAnnotation();
+        annotation.setKey(key.getCode());
+        annotation.setValue(value);
+        return annotation;
+    }
+
+    private TIntStringValue intStringValue(int intValue, String stringValue) {
+        TIntStringValue value = new TIntStringValue();
+        value.setIntValue(intValue);
+        value.setStringValue(stringValue);
+        return value;
+    }
+}
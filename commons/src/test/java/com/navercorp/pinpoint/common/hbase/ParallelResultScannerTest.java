@@ -0,0 +1,153 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.common.hbase;
+
+import com.sematext.hbase.wd.AbstractRowKeyDistributor;
+import com.sematext.hbase.wd.RowKeyDistributorByHashPrefix;
+
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.client.HTableInterface;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.*;
+
+public class ParallelResultScannerTest {
+
+    private final AbstractRowKeyDistributor keyDistributor = new RowKeyDistributorByHashPrefix(new RowKeyDistributorByHashPrefix.OneByteSimpleHash(2));
+
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() throws Exception {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void ordered() throws Exception {
+        HTableInterface htable = mock(HTableInterface.class);
+        Scan[] scans = createScans(2);
+        ResultScanner scanner0 = mockScanner(htable, scans[0], new Result[]{result(0, "a"), result(0, "c")}, new Result[]{result(0, "e")});
+        ResultScanner scanner1 = mockScanner(htable, scans[1], new Result[]{result(1, "b"), result(1, "d")});
+
+        ParallelResultScanner scanner = new ParallelResultScanner(executor, keyDistributor, htable, scans, true);
+        List<String> keys = readAll(scanner);
+        scanner.close();
+
+        Assert.assertEquals(5, keys.size());
+        Assert.assertEquals("abcde", join(keys));
+        verify(scanner0).close();
+        verify(scanner1).close();
+    }
+
+    @Test
+    public void unordered() throws Exception {
+        HTableInterface htable = mock(HTableInterface.class);
+        Scan[] scans = createScans(2);
+        mockScanner(htable, scans[0], new Result[]{result(0, "a"), result(0, "c")}, new Result[]{result(0, "e")});
+        mockScanner(htable, scans[1], new Result[]{result(1, "b"), result(1, "d")});
+
+        ParallelResultScanner scanner = new ParallelResultScanner(executor, keyDistributor, htable, scans, false);
+        List<String> keys = readAll(scanner);
+        scanner.close();
+
+        Collections.sort(keys);
+        Assert.assertEquals("abcde", join(keys));
+    }
+
+    @Test
+    public void closeEarly() throws Exception {
+        HTableInterface htable = mock(HTableInterface.class);
+        Scan[] scans = createScans(2);
+        ResultScanner scanner0 = mockScanner(htable, scans[0], new Result[]{result(0, "a"), result(0, "c")}, new Result[]{result(0, "e"), result(0, "g")});
+        ResultScanner scanner1 = mockScanner(htable, scans[1], new Result[]{result(1, "b"), result(1, "d")}, new Result[]{result(1, "f"), result(1, "h")});
+
+        ParallelResultScanner scanner = new ParallelResultScanner(executor, keyDistributor, htable, scans, true);
+        Result first = scanner.next();
+        Assert.assertEquals("a", key(first));
+        scanner.close();
+
+        Assert.assertNull(scanner.next());
+        verify(scanner0).close();
+        verify(scanner1).close();
+    }
+
+    private Scan[] createScans(int size) {
+        Scan[] scans = new Scan[size];
+        for (int i = 0; i < size; i++) {
+            Scan scan = new Scan();
+            scan.setId("scan-" + i);
+            scan.setCaching(2);
+            scans[i] = scan;
+        }
+        return scans;
+    }
+
+    private ResultScanner mockScanner(HTableInterface htable, Scan scan, Result[]... chunks) throws Exception {
+        ResultScanner scanner = mock(ResultScanner.class);
+        Result[][] returns = new Result[chunks.length][];
+        System.arraycopy(chunks, 1, returns, 0, chunks.length - 1);
+        returns[chunks.length - 1] = new Result[0];
+        when(scanner.next(anyInt())).thenReturn(chunks[0], returns);
+        when(htable.getScanner(scan)).thenReturn(scanner);
+        return scanner;
+    }
+
+    private Result result(int bucket, String key) {
+        byte[] row = Bytes.add(new byte[]{(byte) bucket}, Bytes.toBytes(key));
+        KeyValue keyValue = new KeyValue(row, Bytes.toBytes("F"), Bytes.toBytes("Q"), Bytes.toBytes(key));
+        return new Result(new KeyValue[]{keyValue});
+    }
+
+    private String key(Result result) {
+        return Bytes.toString(keyDistributor.getOriginalKey(result.getRow()));
+    }
+
+    private List<String> readAll(ParallelResultScanner scanner) {
+        List<String> keys = new ArrayList<String>();
+        for (Result result : scanner) {
+            keys.add(key(result));
+        }
+        return keys;
+    }
+
+    private String join(List<String> keys) {
+        StringBuilder sb = new StringBuilder();
+        for (String key : keys) {
+            sb.append(key);
+        }
+        return sb.toString();
+    }
+}
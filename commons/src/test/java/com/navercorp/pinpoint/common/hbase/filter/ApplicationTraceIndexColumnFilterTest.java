@@ -0,0 +1,92 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.common.hbase.filter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.filter.Filter.ReturnCode;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.navercorp.pinpoint.common.buffer.AutomaticBuffer;
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.hbase.filter.ApplicationTraceIndexColumnFilter.ErrorState;
+
+public class ApplicationTraceIndexColumnFilterTest {
+
+    @Test
+    public void responseTime() {
+        ApplicationTraceIndexColumnFilter filter = new ApplicationTraceIndexColumnFilter(100, 200, ErrorState.ANY, null);
+
+        Assert.assertEquals(ReturnCode.SKIP, filter.filterKeyValue(createKeyValue(99, 0, "agent")));
+        Assert.assertEquals(ReturnCode.INCLUDE, filter.filterKeyValue(createKeyValue(100, 0, "agent")));
+        Assert.assertEquals(ReturnCode.INCLUDE, filter.filterKeyValue(createKeyValue(200, 1, "agent")));
+        Assert.assertEquals(ReturnCode.SKIP, filter.filterKeyValue(createKeyValue(201, 0, "agent")));
+    }
+
+    @Test
+    public void errorState() {
+        ApplicationTraceIndexColumnFilter error = new ApplicationTraceIndexColumnFilter(0, Long.MAX_VALUE, ErrorState.ERROR, null);
+        Assert.assertEquals(ReturnCode.INCLUDE, error.filterKeyValue(createKeyValue(10, 1, "agent")));
+        Assert.assertEquals(ReturnCode.SKIP, error.filterKeyValue(createKeyValue(10, 0, "agent")));
+
+        ApplicationTraceIndexColumnFilter success = new ApplicationTraceIndexColumnFilter(0, Long.MAX_VALUE, ErrorState.SUCCESS, null);
+        Assert.assertEquals(ReturnCode.SKIP, success.filterKeyValue(createKeyValue(10, 1, "agent")));
+        Assert.assertEquals(ReturnCode.INCLUDE, success.filterKeyValue(createKeyValue(10, 0, "agent")));
+    }
+
+    @Test
+    public void agentId() {
+        ApplicationTraceIndexColumnFilter filter = new ApplicationTraceIndexColumnFilter(0, Long.MAX_VALUE, ErrorState.ANY, "agent");
+
+        Assert.assertEquals(ReturnCode.INCLUDE, filter.filterKeyValue(createKeyValue(10, 0, "agent")));
+        Assert.assertEquals(ReturnCode.SKIP, filter.filterKeyValue(createKeyValue(10, 0, "agent2")));
+    }
+
+    @Test
+    public void serialize() throws IOException {
+        assertSerialize(new ApplicationTraceIndexColumnFilter(100, 200, ErrorState.ERROR, "agent"));
+        assertSerialize(new ApplicationTraceIndexColumnFilter(0, Long.MAX_VALUE, ErrorState.SUCCESS, null));
+    }
+
+    private void assertSerialize(ApplicationTraceIndexColumnFilter filter) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        filter.write(new DataOutputStream(bytes));
+
+        ApplicationTraceIndexColumnFilter read = new ApplicationTraceIndexColumnFilter();
+        read.readFields(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        Assert.assertEquals(filter.getResponseTimeFrom(), read.getResponseTimeFrom());
+        Assert.assertEquals(filter.getResponseTimeTo(), read.getResponseTimeTo());
+        Assert.assertEquals(filter.getErrorState(), read.getErrorState());
+        Assert.assertEquals(filter.getAgentId(), read.getAgentId());
+    }
+
+    private KeyValue createKeyValue(int elapsed, int err, String agentId) {
+        Buffer buffer = new AutomaticBuffer(32);
+        buffer.putVar(elapsed);
+        buffer.putSVar(err);
+        buffer.putPrefixedString(agentId);
+        return new KeyValue(new byte[] {1}, new byte[] {2}, new byte[] {3}, buffer.getBuffer());
+    }
+}
@@ -124,7 +124,7 @@ public class StandardHostValveInvokeInterceptor extends SpanSimpleAroundIntercep
             return trace;
         } else {
             final TraceContext traceContext = getTraceContext();
-            final Trace trace = traceContext.newTraceObject();
+            final Trace trace = traceContext.newTraceObject(request.getRequestURI());
             if (trace.canSampled()) {
                 if (isDebug) {
                     logger.debug("TraceID not exist. start new trace. requestUrl:{}, remoteAddr:{}", request.getRequestURI(), request.getRemoteAddr());
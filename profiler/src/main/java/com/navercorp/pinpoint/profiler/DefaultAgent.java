@@ -52,15 +52,22 @@ import com.navercorp.pinpoint.profiler.context.storage.StorageFactory;
 import com.navercorp.pinpoint.profiler.interceptor.bci.JavaAssistByteCodeInstrumentor;
 import com.navercorp.pinpoint.profiler.logging.Slf4jLoggerBinder;
 import com.navercorp.pinpoint.profiler.monitor.AgentStatMonitor;
+import com.navercorp.pinpoint.profiler.monitor.ResponseHistogramCollector;
+import com.navercorp.pinpoint.profiler.monitor.codahale.MetricMonitorRegistry;
+import com.navercorp.pinpoint.profiler.monitor.metric.ContextMetric;
 import com.navercorp.pinpoint.profiler.plugin.DefaultProfilerPluginContext;
 import com.navercorp.pinpoint.profiler.receiver.CommandDispatcher;
 import com.navercorp.pinpoint.profiler.receiver.service.EchoService;
 import com.navercorp.pinpoint.profiler.receiver.service.ThreadDumpService;
 import com.navercorp.pinpoint.profiler.sampler.SamplerFactory;
+import com.navercorp.pinpoint.profiler.sender.AsyncQueueType;
+import com.navercorp.pinpoint.profiler.sender.AsyncQueueingOption;
 import com.navercorp.pinpoint.profiler.sender.DataSender;
 import com.navercorp.pinpoint.profiler.sender.EnhancedDataSender;
+import com.navercorp.pinpoint.profiler.sender.NioUdpDataSender;
 import com.navercorp.pinpoint.profiler.sender.TcpDataSender;
 import com.navercorp.pinpoint.profiler.sender.UdpDataSender;
+import com.navercorp.pinpoint.profiler.sender.WaitStrategy;
 import com.navercorp.pinpoint.profiler.util.ApplicationServerTypeResolver;
 import com.navercorp.pinpoint.profiler.util.PreparedStatementUtils;
 import com.navercorp.pinpoint.profiler.util.RuntimeMXBeanUtils;
@@ -87,6 +94,7 @@ public class DefaultAgent implements Agent {
 
     private final AgentInfoSender agentInfoSender;
     private final AgentStatMonitor agentStatMonitor;
+    private final MetricMonitorRegistry monitorRegistry = new MetricMonitorRegistry();
 
     private final TraceContext traceContext;
 
@@ -167,11 +175,12 @@ public class DefaultAgent implements Agent {
                 this.profilerConfig.getStatDataSenderWriteQueueSize(), this.profilerConfig.getStatDataSenderSocketTimeout(),
                 this.profilerConfig.getStatDataSenderSocketSendBufferSize());
 
-        this.traceContext = createTraceContext(agentInformation.getServerType());
+        final DefaultTraceContext defaultTraceContext = createTraceContext(agentInformation.getServerType());
+        this.traceContext = defaultTraceContext;
 
         this.agentInfoSender = new AgentInfoSender(tcpDataSender, profilerConfig.getAgentInfoSendRetryInterval(), this.agentInformation, this.serverMetaDataHolder);
 
-        this.agentStatMonitor = new AgentStatMonitor(this.statDataSender, this.agentInformation.getAgentId(), this.agentInformation.getStartTime());
+        this.agentStatMonitor = createAgentStatMonitor(defaultTraceContext);
         
         
         ClassFileRetransformer retransformer = new ClassFileRetransformer(instrumentation);
@@ -263,7 +272,7 @@ public class DefaultAgent implements Agent {
         PLoggerFactory.initialize(binder);
     }
 
-    private TraceContext createTraceContext(ServiceType serverType) {
+    private DefaultTraceContext createTraceContext(ServiceType serverType) {
         final StorageFactory storageFactory = createStorageFactory();
         logger.info("StorageFactoryType:{}", storageFactory);
 
@@ -271,7 +280,8 @@ public class DefaultAgent implements Agent {
         logger.info("SamplerType:{}", sampler);
         
         final int jdbcSqlCacheSize = profilerConfig.getJdbcSqlCacheSize();
-        final DefaultTraceContext traceContext = new DefaultTraceContext(jdbcSqlCacheSize, serverType, storageFactory, sampler, this.serverMetaDataHolder);
+        final int jdbcSqlParsingCacheSize = profilerConfig.getJdbcSqlParsingCacheSize();
+        final DefaultTraceContext traceContext = new DefaultTraceContext(jdbcSqlCacheSize, jdbcSqlParsingCacheSize, serverType, storageFactory, sampler, this.serverMetaDataHolder);
         traceContext.setAgentInformation(this.agentInformation);
         traceContext.setPriorityDataSender(this.tcpDataSender);
 
@@ -280,6 +290,18 @@ public class DefaultAgent implements Agent {
         return traceContext;
     }
 
+    private AgentStatMonitor createAgentStatMonitor(DefaultTraceContext traceContext) {
+        final String agentId = this.agentInformation.getAgentId();
+        final long startTime = this.agentInformation.getStartTime();
+        // the sampler registers its metrics in monitorRegistry. it is created with the trace context, so they are found here.
+        if (!profilerConfig.isResponseHistogramSendEnable()) {
+            return new AgentStatMonitor(this.statDataSender, agentId, startTime, this.monitorRegistry, null);
+        }
+        final ContextMetric contextMetric = traceContext.getMetricRegistry().getResponseMetric();
+        final ResponseHistogramCollector responseHistogramCollector = new ResponseHistogramCollector(this.agentInformation.getApplicationName(), contextMetric);
+        return new AgentStatMonitor(this.statDataSender, agentId, startTime, this.monitorRegistry, responseHistogramCollector);
+    }
+
     protected StorageFactory createStorageFactory() {
         if (profilerConfig.isIoBufferingEnable()) {
             return new BufferedStorageFactory(this.spanDataSender, this.profilerConfig, this.agentInformation);
@@ -292,8 +314,14 @@ public class DefaultAgent implements Agent {
     private Sampler createSampler() {
         boolean samplingEnable = this.profilerConfig.isSamplingEnable();
         int samplingRate = this.profilerConfig.getSamplingRate();
+        int samplingThroughput = this.profilerConfig.getSamplingThroughput();
 
         SamplerFactory samplerFactory = new SamplerFactory();
+        if (samplingThroughput > 0) {
+            int entryPointThroughput = this.profilerConfig.getSamplingEntryPointThroughput();
+            int entryPointMaxSize = this.profilerConfig.getSamplingEntryPointMaxSize();
+            return samplerFactory.createThroughputSampler(samplingEnable, samplingThroughput, entryPointThroughput, entryPointMaxSize, this.monitorRegistry);
+        }
         return samplerFactory.createSampler(samplingEnable, samplingRate);
     }
     
@@ -348,11 +376,32 @@ public class DefaultAgent implements Agent {
     }
 
     protected DataSender createUdpStatDataSender(int port, String threadName, int writeQueueSize, int timeout, int sendBufferSize) {
-        return new UdpDataSender(this.profilerConfig.getCollectorStatServerIp(), port, threadName, writeQueueSize, timeout, sendBufferSize);
+        return createUdpDataSender(this.profilerConfig.getCollectorStatServerIp(), port, threadName, writeQueueSize, timeout, sendBufferSize);
     }
     
     protected DataSender createUdpSpanDataSender(int port, String threadName, int writeQueueSize, int timeout, int sendBufferSize) {
-        return new UdpDataSender(this.profilerConfig.getCollectorSpanServerIp(), port, threadName, writeQueueSize, timeout, sendBufferSize);
+        return createUdpDataSender(this.profilerConfig.getCollectorSpanServerIp(), port, threadName, writeQueueSize, timeout, sendBufferSize);
+    }
+
+    private DataSender createUdpDataSender(String host, int port, String threadName, int writeQueueSize, int timeout, int sendBufferSize) {
+        final AsyncQueueingOption queueingOption = createAsyncQueueingOption();
+        if (this.profilerConfig.isDataSenderNioEnable()) {
+            return new NioUdpDataSender(host, port, threadName, writeQueueSize, timeout, sendBufferSize, queueingOption);
+        }
+        return new UdpDataSender(host, port, threadName, writeQueueSize, timeout, sendBufferSize, queueingOption);
+    }
+
+    protected AsyncQueueingOption createAsyncQueueingOption() {
+        final AsyncQueueType queueType = AsyncQueueType.getQueueType(this.profilerConfig.getDataSenderQueueType(), AsyncQueueType.LINKED);
+        final WaitStrategy waitStrategy = WaitStrategy.getWaitStrategy(this.profilerConfig.getDataSenderWaitStrategy(), WaitStrategy.PARK);
+        int drainSize = this.profilerConfig.getDataSenderDrainSize();
+        if (drainSize <= 0) {
+            logger.warn("invalid profiler.datasender.drain.size:{}. use default:{}", drainSize, AsyncQueueingOption.DEFAULT_MAX_DRAIN_SIZE);
+            drainSize = AsyncQueueingOption.DEFAULT_MAX_DRAIN_SIZE;
+        }
+        final AsyncQueueingOption option = new AsyncQueueingOption(queueType, drainSize, waitStrategy);
+        logger.info("{}", option);
+        return option;
     }
 
     protected EnhancedDataSender getTcpDataSender() {
@@ -374,6 +423,10 @@ public class DefaultAgent implements Agent {
     public AgentInformation getAgentInformation() {
         return agentInformation;
     }
+
+    public MetricMonitorRegistry getMonitorRegistry() {
+        return monitorRegistry;
+    }
     
     @Override
     public void start() {
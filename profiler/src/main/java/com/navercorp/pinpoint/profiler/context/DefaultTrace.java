@@ -16,6 +16,7 @@
 
 package com.navercorp.pinpoint.profiler.context;
 
+import com.navercorp.pinpoint.bootstrap.config.ProfilerConfig;
 import com.navercorp.pinpoint.bootstrap.context.*;
 import com.navercorp.pinpoint.bootstrap.interceptor.MethodDescriptor;
 import com.navercorp.pinpoint.bootstrap.util.StringUtils;
@@ -181,8 +182,10 @@ public final class DefaultTrace implements Trace {
 
     @Override
     public void traceRootBlockEnd() {
-//        TODO STATDISABLE remove stat code for now
-//        metricResponseTime();
+        // TODO STATDISABLE statistics are recorded only when the response histogram is sent to the collector.
+        if (isResponseHistogramSendEnable()) {
+            metricResponseTime();
+        }
         pop(ROOT_STACKID);
         callStack.popRoot();
         
@@ -195,8 +198,15 @@ public final class DefaultTrace implements Trace {
         traceBlockEnd(DEFAULT_STACKID);
     }
 
+    private boolean isResponseHistogramSendEnable() {
+        final ProfilerConfig profilerConfig = traceContext.getProfilerConfig();
+        return profilerConfig != null && profilerConfig.isResponseHistogramSendEnable();
+    }
+
     private void metricResponseTime() {
         final Span span = this.getCallStack().getSpan();
+        // the collector takes the statistics of this span from the response histogram instead of the span.
+        span.setHistogramCounted(true);
         final boolean isError = span.getErrCode() != 0;
         final int elapsedTime = this.currentStackFrame.getElapsedTime();
         final TraceContext traceContext = this.traceContext;
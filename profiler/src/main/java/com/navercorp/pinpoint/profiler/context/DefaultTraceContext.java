@@ -30,6 +30,7 @@ import com.navercorp.pinpoint.profiler.AgentInformation;
 import com.navercorp.pinpoint.profiler.context.storage.LogStorageFactory;
 import com.navercorp.pinpoint.profiler.context.storage.StorageFactory;
 import com.navercorp.pinpoint.profiler.metadata.LRUCache;
+import com.navercorp.pinpoint.profiler.metadata.ParsingResultCache;
 import com.navercorp.pinpoint.profiler.metadata.Result;
 import com.navercorp.pinpoint.profiler.metadata.SimpleCache;
 import com.navercorp.pinpoint.profiler.modifier.db.DefaultDatabaseInfo;
@@ -75,6 +76,8 @@ public class DefaultTraceContext implements TraceContext {
     private final MetricRegistry metricRegistry;
 
     private final SimpleCache<String> sqlCache;
+    // raw sql -> parsing result with sql id. skips the normalization of the same sql
+    private final ParsingResultCache parsingResultCache;
     private final SqlParser sqlParser = new SqlParser();
 
     private final SimpleCache<String> apiCache = new SimpleCache<String>();
@@ -92,6 +95,10 @@ public class DefaultTraceContext implements TraceContext {
     }
 
     public DefaultTraceContext(final int sqlCacheSize, final ServiceType contextServiceType, StorageFactory storageFactory, Sampler sampler, ServerMetaDataHolder serverMetaDataHolder) {
+        this(sqlCacheSize, sqlCacheSize, contextServiceType, storageFactory, sampler, serverMetaDataHolder);
+    }
+
+    public DefaultTraceContext(final int sqlCacheSize, final int parsingResultCacheSize, final ServiceType contextServiceType, StorageFactory storageFactory, Sampler sampler, ServerMetaDataHolder serverMetaDataHolder) {
         if (storageFactory == null) {
             throw new NullPointerException("storageFactory must not be null");
         }
@@ -99,6 +106,7 @@ public class DefaultTraceContext implements TraceContext {
             throw new NullPointerException("sampler must not be null");
         }
         this.sqlCache = new SimpleCache<String>(sqlCacheSize);
+        this.parsingResultCache = new ParsingResultCache(parsingResultCacheSize);
         this.contextServiceType = contextServiceType;
         this.metricRegistry = new MetricRegistry(this.contextServiceType);
 
@@ -155,6 +163,11 @@ public class DefaultTraceContext implements TraceContext {
         return traceFactory.newTraceObject();
     }
 
+    @Override
+    public Trace newTraceObject(String entryPoint) {
+        return traceFactory.newTraceObject(entryPoint);
+    }
+
 
     @Override
     public void detachTraceObject() {
@@ -247,15 +260,28 @@ public class DefaultTraceContext implements TraceContext {
 
     @Override
     public ParsingResult parseSql(final String sql) {
+        if (sql == null) {
+            return parseSql0(null);
+        }
+        final DefaultParsingResult cachedResult = this.parsingResultCache.get(sql);
+        if (cachedResult != null) {
+            return cachedResult;
+        }
 
+        final DefaultParsingResult parsingResult = parseSql0(sql);
+        // the sql id is never reused. so the cached id stays valid even if the sql is evicted from sqlCache.
+        this.parsingResultCache.put(sql, parsingResult);
+        return parsingResult;
+    }
+
+    private DefaultParsingResult parseSql0(final String sql) {
         final DefaultParsingResult parsingResult = this.sqlParser.normalizedSql(sql);
         final String normalizedSql = parsingResult.getSql();
 
         final Result cachingResult = this.sqlCache.put(normalizedSql);
         if (cachingResult.isNewValue()) {
             if (isDebug) {
-                // TODO logging hit ratio could help debugging
-                logger.debug("NewSQLParsingResult:{}", parsingResult);
+                logger.debug("NewSQLParsingResult:{} parsingResultCache hit:{} miss:{}", parsingResult, parsingResultCache.getHitCount(), parsingResultCache.getMissCount());
             }
             
             // isNewValue means that the value is newly cached.  
@@ -274,6 +300,14 @@ public class DefaultTraceContext implements TraceContext {
         return parsingResult;
     }
 
+    public ParsingResultCache getParsingResultCache() {
+        return parsingResultCache;
+    }
+
+    public MetricRegistry getMetricRegistry() {
+        return metricRegistry;
+    }
+
     @Override
      public DatabaseInfo parseJdbcUrl(final String url) {
         return this.jdbcUrlParser.parse(url);
@@ -97,7 +97,7 @@ public class DisableTrace  implements Trace {
 
     @Override
     public void recordException(Throwable throwable) {
-        throw new UnsupportedOperationException();
+        // nothing to record. allows the interceptor to mark the error of an unsampled trace without type checking.
     }
 
     @Override
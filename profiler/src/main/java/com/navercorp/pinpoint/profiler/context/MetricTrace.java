@@ -21,6 +21,7 @@ import com.navercorp.pinpoint.bootstrap.context.TraceContext;
 import com.navercorp.pinpoint.bootstrap.context.TraceId;
 import com.navercorp.pinpoint.bootstrap.interceptor.MethodDescriptor;
 import com.navercorp.pinpoint.common.AnnotationKey;
+import com.navercorp.pinpoint.common.HistogramSchema;
 import com.navercorp.pinpoint.common.ServiceType;
 import com.navercorp.pinpoint.common.util.DefaultParsingResult;
 import com.navercorp.pinpoint.common.util.ParsingResult;
@@ -56,12 +57,23 @@ public class MetricTrace implements Trace {
 
     private long transactionId;
 
+    // true if the request was started at this node. the response time is also recorded as the response to the user.
+    private final boolean root;
+    // unsampled interceptors don't mark the time of the root block. the trace measures its own lifetime.
+    private final long startTime = System.currentTimeMillis();
+    private boolean responseTimeRecorded = false;
+
     public MetricTrace(final TraceContext traceContext, long transactionId) {
+        this(traceContext, transactionId, true);
+    }
+
+    public MetricTrace(final TraceContext traceContext, long transactionId, boolean root) {
         if (traceContext == null) {
             throw new NullPointerException("traceContext must not be null");
         }
         this.traceContext = traceContext;
         this.transactionId = transactionId;
+        this.root = root;
 
         final Span span = createSpan();
         this.callStack = new CallStack(span);
@@ -86,6 +98,7 @@ public class MetricTrace implements Trace {
         }
         this.traceContext = traceContext;
         this.traceId = continueTraceId;
+        this.root = false;
         final Span span = createSpan();
         this.callStack = new CallStack(span);
         latestStackIndex = this.callStack.push();
@@ -164,7 +177,7 @@ public class MetricTrace implements Trace {
 
     @Override
     public void traceRootBlockEnd() {
-        metricResponseTime();
+        recordResponseTime();
         checkStackId(ROOT_STACKID);
         callStack.popRoot();
 
@@ -179,14 +192,30 @@ public class MetricTrace implements Trace {
         traceBlockEnd(DEFAULT_STACKID);
     }
 
-    private void metricResponseTime() {
-        final int errCode = this.getCallStack().getSpan().getErrCode();
-        if (errCode != 0) {
+    /**
+     * records the response time once. invoked by traceRootBlockEnd() or when the trace is detached from the thread.
+     */
+    void recordResponseTime() {
+        if (responseTimeRecorded) {
+            return;
+        }
+        this.responseTimeRecorded = true;
+
+        final boolean isError = this.getCallStack().getSpan().getErrCode() != 0;
+        final int elapsedTime = (int) (System.currentTimeMillis() - startTime);
+        if (isError) {
             traceContext.recordContextMetricIsError();
         } else {
-            final int elapsedTime = this.currentStackFrame.getElapsedTime();
             traceContext.recordContextMetric(elapsedTime);
         }
+        // the parent application of a non-root unsampled request is unknown.
+        if (root) {
+            if (isError) {
+                traceContext.recordUserAcceptResponseTime(HistogramSchema.ERROR_SLOT_TIME);
+            } else {
+                traceContext.recordUserAcceptResponseTime(elapsedTime);
+            }
+        }
     }
 
 
@@ -16,9 +16,11 @@
 
 package com.navercorp.pinpoint.profiler.context;
 
+import com.navercorp.pinpoint.bootstrap.config.ProfilerConfig;
 import com.navercorp.pinpoint.bootstrap.context.Trace;
 import com.navercorp.pinpoint.bootstrap.context.TraceContext;
 import com.navercorp.pinpoint.bootstrap.context.TraceId;
+import com.navercorp.pinpoint.bootstrap.sampler.EntryPointSampler;
 import com.navercorp.pinpoint.bootstrap.sampler.Sampler;
 import com.navercorp.pinpoint.exception.PinpointException;
 import com.navercorp.pinpoint.profiler.context.storage.Storage;
@@ -45,7 +47,8 @@ public class ThreadLocalTraceFactory implements TraceFactory {
 
     private final StorageFactory storageFactory;
     private final Sampler sampler;
-
+    // null if the sampler doesn't care about the entry point
+    private final EntryPointSampler entryPointSampler;
 
     // Unique id for tracing a internal stacktrace and calculating a slow time of activethreadcount
     // moved here in order to make codes simpler for now
@@ -68,6 +71,11 @@ public class ThreadLocalTraceFactory implements TraceFactory {
         this.metricRegistry = metricRegistry;
         this.storageFactory = storageFactory;
         this.sampler = sampler;
+        if (sampler instanceof EntryPointSampler) {
+            this.entryPointSampler = (EntryPointSampler) sampler;
+        } else {
+            this.entryPointSampler = null;
+        }
     }
 
 
@@ -108,10 +116,11 @@ public class ThreadLocalTraceFactory implements TraceFactory {
     @Override
     public Trace disableSampling() {
         checkBeforeTraceObject();
-        final Trace metricTrace = createMetricTrace();
+        // sampling was disabled by the previous node.
+        final Trace metricTrace = createMetricTrace(false);
         threadLocal.set(metricTrace);
 
-        // TODO STATDISABLE, disabled to store statistics for now. createMetricTrace() returns DisableTrace.INSTANCE.
+        // TODO STATDISABLE, createMetricTrace() returns DisableTrace.INSTANCE unless the response histogram is sent.
         return metricTrace;
     }
 
@@ -146,9 +155,14 @@ public class ThreadLocalTraceFactory implements TraceFactory {
 
     @Override
     public Trace newTraceObject() {
+        return newTraceObject(null);
+    }
+
+    @Override
+    public Trace newTraceObject(String entryPoint) {
         checkBeforeTraceObject();
         // TODO need to modify how to inject a datasender
-        final boolean sampling = sampler.isSampling();
+        final boolean sampling = isSampling(entryPoint);
         if (sampling) {
             final Storage storage = storageFactory.createStorage();
             final DefaultTrace trace = new DefaultTrace(traceContext, nextTransactionId());
@@ -157,16 +171,29 @@ public class ThreadLocalTraceFactory implements TraceFactory {
             threadLocal.set(trace);
             return trace;
         } else {
-            final Trace metricTrace = createMetricTrace();
+            final Trace metricTrace = createMetricTrace(true);
             threadLocal.set(metricTrace);
             return metricTrace;
         }
     }
 
-    private Trace createMetricTrace() {
-        return DisableTrace.INSTANCE;
-//        TODO STATDISABLE ,  disabled to store statistics for now
-//        return new MetricTrace(traceContext, nextTransactionId());
+    private boolean isSampling(String entryPoint) {
+        if (entryPoint != null && entryPointSampler != null) {
+            return entryPointSampler.isSampling(entryPoint);
+        }
+        return sampler.isSampling();
+    }
+
+    private Trace createMetricTrace(boolean root) {
+        if (!isResponseHistogramSendEnable()) {
+            return DisableTrace.INSTANCE;
+        }
+        return new MetricTrace(traceContext, nextTransactionId(), root);
+    }
+
+    private boolean isResponseHistogramSendEnable() {
+        final ProfilerConfig profilerConfig = traceContext.getProfilerConfig();
+        return profilerConfig != null && profilerConfig.isResponseHistogramSendEnable();
     }
 
     private long nextTransactionId() {
@@ -176,6 +203,11 @@ public class ThreadLocalTraceFactory implements TraceFactory {
 
     @Override
     public void detachTraceObject() {
+        final Trace trace = this.threadLocal.get();
         this.threadLocal.remove();
+        if (trace instanceof MetricTrace) {
+            // unsampled traces don't reach traceRootBlockEnd(). the request ends when the trace is detached.
+            ((MetricTrace) trace).recordResponseTime();
+        }
     }
 }
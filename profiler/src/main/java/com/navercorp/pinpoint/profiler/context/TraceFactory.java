@@ -36,5 +36,7 @@ public interface TraceFactory {
 
     Trace newTraceObject();
 
+    Trace newTraceObject(String entryPoint);
+
     void detachTraceObject();
 }
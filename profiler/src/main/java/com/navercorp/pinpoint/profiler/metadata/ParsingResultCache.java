@@ -0,0 +1,81 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.metadata;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.navercorp.pinpoint.common.util.DefaultParsingResult;
+
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Concurrent LRU cache of the sql parsing result keyed by the raw sql.
+ * The cached result must not be modified after put.
+ */
+public class ParsingResultCache {
+
+    public static final int DEFAULT_CACHE_SIZE = 1024;
+
+    private final ConcurrentMap<String, DefaultParsingResult> cache;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    public ParsingResultCache() {
+        this(DEFAULT_CACHE_SIZE);
+    }
+
+    public ParsingResultCache(int maxCacheSize) {
+        final CacheBuilder<Object, Object> cacheBuilder = CacheBuilder.newBuilder();
+        cacheBuilder.concurrencyLevel(64);
+        cacheBuilder.initialCapacity(maxCacheSize);
+        cacheBuilder.maximumSize(maxCacheSize);
+        Cache<String, DefaultParsingResult> localCache = cacheBuilder.build();
+        this.cache = localCache.asMap();
+    }
+
+    /**
+     * @return null if the sql is not cached
+     */
+    public DefaultParsingResult get(String sql) {
+        final DefaultParsingResult parsingResult = this.cache.get(sql);
+        if (parsingResult == null) {
+            missCount.incrementAndGet();
+        } else {
+            hitCount.incrementAndGet();
+        }
+        return parsingResult;
+    }
+
+    public void put(String sql, DefaultParsingResult parsingResult) {
+        this.cache.putIfAbsent(sql, parsingResult);
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public long getSize() {
+        return cache.size();
+    }
+
+}
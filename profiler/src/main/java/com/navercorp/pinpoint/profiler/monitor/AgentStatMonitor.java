@@ -24,9 +24,12 @@ import java.util.concurrent.TimeUnit;
 
 import com.navercorp.pinpoint.common.util.PinpointThreadFactory;
 import com.navercorp.pinpoint.profiler.monitor.codahale.AgentStatCollectorFactory;
+import com.navercorp.pinpoint.profiler.monitor.codahale.MetricMonitorRegistry;
 import com.navercorp.pinpoint.profiler.monitor.codahale.cpu.CpuLoadCollector;
 import com.navercorp.pinpoint.profiler.monitor.codahale.gc.GarbageCollector;
+import com.navercorp.pinpoint.profiler.monitor.codahale.sampler.SamplerCollector;
 import com.navercorp.pinpoint.profiler.sender.DataSender;
+import com.navercorp.pinpoint.thrift.dto.TAgentHistogramBatch;
 import com.navercorp.pinpoint.thrift.dto.TAgentStat;
 import com.navercorp.pinpoint.thrift.dto.TAgentStatBatch;
 import com.navercorp.pinpoint.thrift.dto.TCpuLoad;
@@ -57,24 +60,41 @@ public class AgentStatMonitor {
     private final String agentId;
     private final AgentStatCollectorFactory agentStatCollectorFactory;
     private final long agentStartTime;
+    // null if the response histogram is not sent
+    private final ResponseHistogramCollector responseHistogramCollector;
 
     public AgentStatMonitor(DataSender dataSender, String agentId, long startTime) {
-        this(dataSender, agentId, startTime, DEFAULT_COLLECTION_INTERVAL_MS, DEFAULT_NUM_COLLECTIONS_PER_SEND);
+        this(dataSender, agentId, startTime, new MetricMonitorRegistry(), null);
+    }
+
+    /**
+     * @param monitorRegistry the metrics registered by the agent, such as the sampler metrics, are sent with the agent stats
+     */
+    public AgentStatMonitor(DataSender dataSender, String agentId, long startTime, MetricMonitorRegistry monitorRegistry, ResponseHistogramCollector responseHistogramCollector) {
+        this(dataSender, agentId, startTime, DEFAULT_COLLECTION_INTERVAL_MS, DEFAULT_NUM_COLLECTIONS_PER_SEND, monitorRegistry, responseHistogramCollector);
     }
 
     public AgentStatMonitor(DataSender dataSender, String agentId, long startTime, long collectionInterval, int numCollectionsPerBatch) {
+        this(dataSender, agentId, startTime, collectionInterval, numCollectionsPerBatch, new MetricMonitorRegistry(), null);
+    }
+
+    public AgentStatMonitor(DataSender dataSender, String agentId, long startTime, long collectionInterval, int numCollectionsPerBatch, MetricMonitorRegistry monitorRegistry, ResponseHistogramCollector responseHistogramCollector) {
         if (dataSender == null) {
             throw new NullPointerException("dataSender must not be null");
         }
         if (agentId == null) {
             throw new NullPointerException("agentId must not be null");
         }
+        if (monitorRegistry == null) {
+            throw new NullPointerException("monitorRegistry must not be null");
+        }
         this.dataSender = dataSender;
         this.agentId = agentId;
         this.agentStartTime = startTime;
         this.collectionIntervalMs = collectionInterval;
         this.numCollectionsPerBatch = numCollectionsPerBatch;
-        this.agentStatCollectorFactory = new AgentStatCollectorFactory();
+        this.agentStatCollectorFactory = new AgentStatCollectorFactory(monitorRegistry);
+        this.responseHistogramCollector = responseHistogramCollector;
     }
 
     public void start() {
@@ -98,6 +118,7 @@ public class AgentStatMonitor {
 
         private final GarbageCollector garbageCollector;
         private final CpuLoadCollector cpuLoadCollector;
+        private final SamplerCollector samplerCollector;
         // Will be used by single thread.
         // I don't think this object would run with multi threads.
         private final int numStatsPerBatch;
@@ -107,6 +128,7 @@ public class AgentStatMonitor {
         private CollectJob(int numStatsPerBatch) {
             this.garbageCollector = agentStatCollectorFactory.getGarbageCollector();
             this.cpuLoadCollector = agentStatCollectorFactory.getCpuLoadCollector();
+            this.samplerCollector = agentStatCollectorFactory.getSamplerCollector();
             this.numStatsPerBatch = numStatsPerBatch;
             this.agentStats = new ArrayList<TAgentStat>(this.numStatsPerBatch);
         }
@@ -117,6 +139,7 @@ public class AgentStatMonitor {
                 this.agentStats.add(agentStat);
                 if (++this.collectCount >= this.numStatsPerBatch) {
                     sendAgentStats();
+                    sendResponseHistograms();
                     this.collectCount = 0;
                 }
             } catch (Exception ex) {
@@ -131,6 +154,7 @@ public class AgentStatMonitor {
             agentStat.setGc(gc);
             final TCpuLoad cpuLoad = cpuLoadCollector.collectCpuLoad();
             agentStat.setCpuLoad(cpuLoad);
+            samplerCollector.collect(agentStat);
             if (isTrace) {
                 logger.trace("collect agentStat:{}", agentStat);
             }
@@ -153,6 +177,22 @@ public class AgentStatMonitor {
             }
             dataSender.send(agentStatBatch);
         }
+
+        private void sendResponseHistograms() {
+            if (responseHistogramCollector == null) {
+                return;
+            }
+            final TAgentHistogramBatch histogramBatch = responseHistogramCollector.collect(System.currentTimeMillis());
+            if (histogramBatch == null) {
+                return;
+            }
+            histogramBatch.setAgentId(agentId);
+            histogramBatch.setStartTimestamp(agentStartTime);
+            if (isTrace) {
+                logger.trace("collect histogram:{}", histogramBatch);
+            }
+            dataSender.send(histogramBatch);
+        }
     }
 
 }
@@ -0,0 +1,165 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.monitor;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.navercorp.pinpoint.profiler.monitor.metric.AcceptHistogramSnapshot;
+import com.navercorp.pinpoint.profiler.monitor.metric.ContextMetric;
+import com.navercorp.pinpoint.profiler.monitor.metric.HistogramSnapshot;
+import com.navercorp.pinpoint.thrift.dto.TAgentHistogramBatch;
+import com.navercorp.pinpoint.thrift.dto.TResponseHistogram;
+
+/**
+ * Collects the response histograms of {@link ContextMetric}.
+ * <p/>
+ * The histograms of ContextMetric are cumulative, so only the increase since the previous collection is sent.
+ * Histograms without any new response are left out.
+ * The first collection carries the responses since the agent start. Their spans are marked as histogramCounted,
+ * so the collector counts them only once.
+ * Not thread safe. Used only by the AgentStat monitor thread.
+ */
+public class ResponseHistogramCollector {
+
+    private final String applicationName;
+    private final ContextMetric contextMetric;
+
+    private HistogramSnapshot lastResponseSnapshot;
+    private HistogramSnapshot lastUserAcceptSnapshot;
+    private Map<AcceptKey, HistogramSnapshot> lastAcceptSnapshotMap = new HashMap<AcceptKey, HistogramSnapshot>();
+
+    public ResponseHistogramCollector(String applicationName, ContextMetric contextMetric) {
+        if (applicationName == null) {
+            throw new NullPointerException("applicationName must not be null");
+        }
+        if (contextMetric == null) {
+            throw new NullPointerException("contextMetric must not be null");
+        }
+        this.applicationName = applicationName;
+        this.contextMetric = contextMetric;
+    }
+
+    /**
+     * @return null if no response has been recorded since the previous collection
+     */
+    public TAgentHistogramBatch collect(long timestamp) {
+        final TAgentHistogramBatch histogramBatch = new TAgentHistogramBatch();
+        histogramBatch.setApplicationName(applicationName);
+        histogramBatch.setServiceType(contextMetric.getContextServiceType().getCode());
+        histogramBatch.setTimestamp(timestamp);
+        boolean changed = false;
+
+        final HistogramSnapshot responseSnapshot = contextMetric.createResponseSnapshot();
+        final TResponseHistogram responseHistogram = createDelta(responseSnapshot, lastResponseSnapshot);
+        this.lastResponseSnapshot = responseSnapshot;
+        if (responseHistogram != null) {
+            histogramBatch.setResponseHistogram(responseHistogram);
+            changed = true;
+        }
+
+        final HistogramSnapshot userAcceptSnapshot = contextMetric.createUserAcceptSnapshot();
+        final TResponseHistogram userAcceptHistogram = createDelta(userAcceptSnapshot, lastUserAcceptSnapshot);
+        this.lastUserAcceptSnapshot = userAcceptSnapshot;
+        if (userAcceptHistogram != null) {
+            histogramBatch.setUserAcceptHistogram(userAcceptHistogram);
+            changed = true;
+        }
+
+        final List<TResponseHistogram> acceptHistograms = collectAcceptHistograms();
+        if (!acceptHistograms.isEmpty()) {
+            histogramBatch.setAcceptHistograms(acceptHistograms);
+            changed = true;
+        }
+
+        if (!changed) {
+            return null;
+        }
+        return histogramBatch;
+    }
+
+    private List<TResponseHistogram> collectAcceptHistograms() {
+        final Collection<AcceptHistogramSnapshot> snapshotList = contextMetric.createAcceptSnapshotList();
+        final Map<AcceptKey, HistogramSnapshot> snapshotMap = new HashMap<AcceptKey, HistogramSnapshot>(snapshotList.size());
+        final List<TResponseHistogram> acceptHistograms = new ArrayList<TResponseHistogram>();
+        for (AcceptHistogramSnapshot acceptSnapshot : snapshotList) {
+            final HistogramSnapshot snapshot = acceptSnapshot.getHistogramSnapshot();
+            final AcceptKey key = new AcceptKey(acceptSnapshot.getParentApplicationName(), snapshot.getServiceType());
+            snapshotMap.put(key, snapshot);
+
+            final TResponseHistogram acceptHistogram = createDelta(snapshot, lastAcceptSnapshotMap.get(key));
+            if (acceptHistogram != null) {
+                acceptHistogram.setParentApplicationName(acceptSnapshot.getParentApplicationName());
+                acceptHistograms.add(acceptHistogram);
+            }
+        }
+        this.lastAcceptSnapshotMap = snapshotMap;
+        return acceptHistograms;
+    }
+
+    private TResponseHistogram createDelta(HistogramSnapshot current, HistogramSnapshot last) {
+        long fast = current.getFastCount();
+        long normal = current.getNormalCount();
+        long slow = current.getSlowCount();
+        long verySlow = current.getVerySlowCount();
+        long error = current.getErrorCount();
+        if (last != null) {
+            fast -= last.getFastCount();
+            normal -= last.getNormalCount();
+            slow -= last.getSlowCount();
+            verySlow -= last.getVerySlowCount();
+            error -= last.getErrorCount();
+        }
+        if (fast == 0 && normal == 0 && slow == 0 && verySlow == 0 && error == 0) {
+            return null;
+        }
+        return new TResponseHistogram(current.getServiceType(), fast, normal, slow, verySlow, error);
+    }
+
+    private static final class AcceptKey {
+        private final String parentApplicationName;
+        private final short serviceType;
+
+        private AcceptKey(String parentApplicationName, short serviceType) {
+            this.parentApplicationName = parentApplicationName;
+            this.serviceType = serviceType;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            AcceptKey that = (AcceptKey) o;
+
+            if (serviceType != that.serviceType) return false;
+            if (!parentApplicationName.equals(that.parentApplicationName)) return false;
+
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = parentApplicationName.hashCode();
+            result = 31 * result + (int) serviceType;
+            return result;
+        }
+    }
+}
@@ -25,6 +25,7 @@ import com.navercorp.pinpoint.profiler.monitor.codahale.gc.GarbageCollector;
 import com.navercorp.pinpoint.profiler.monitor.codahale.gc.ParallelCollector;
 import com.navercorp.pinpoint.profiler.monitor.codahale.gc.SerialCollector;
 import com.navercorp.pinpoint.profiler.monitor.codahale.gc.UnknownGarbageCollector;
+import com.navercorp.pinpoint.profiler.monitor.codahale.sampler.SamplerCollector;
 
 import java.util.Collection;
 
@@ -44,16 +45,23 @@ public class AgentStatCollectorFactory {
     private final MetricMonitorRegistry monitorRegistry;
     private final GarbageCollector garbageCollector;
     private final CpuLoadCollector cpuLoadCollector;
+    private final SamplerCollector samplerCollector;
 
     public AgentStatCollectorFactory() {
-        this.monitorRegistry = createRegistry();
-        this.garbageCollector = createGarbageCollector();
-        this.cpuLoadCollector = createCpuLoadCollector();
+        this(new MetricMonitorRegistry());
     }
 
-    private MetricMonitorRegistry createRegistry() {
-        final MetricMonitorRegistry monitorRegistry = new MetricMonitorRegistry();
-        return monitorRegistry;
+    /**
+     * @param monitorRegistry registry shared with the other agent components. ex) the sampler metrics
+     */
+    public AgentStatCollectorFactory(MetricMonitorRegistry monitorRegistry) {
+        if (monitorRegistry == null) {
+            throw new NullPointerException("monitorRegistry must not be null");
+        }
+        this.monitorRegistry = monitorRegistry;
+        this.garbageCollector = createGarbageCollector();
+        this.cpuLoadCollector = createCpuLoadCollector();
+        this.samplerCollector = createSamplerCollector();
     }
 
     /**
@@ -91,6 +99,14 @@ public class AgentStatCollectorFactory {
         return new CpuLoadCollector(cpuLoadMetricSet);
     }
 
+    private SamplerCollector createSamplerCollector() {
+        final SamplerCollector samplerCollector = new SamplerCollector(this.monitorRegistry);
+        if (logger.isInfoEnabled()) {
+            logger.info("loaded : {}", samplerCollector);
+        }
+        return samplerCollector;
+    }
+
     public GarbageCollector getGarbageCollector() {
         return this.garbageCollector;
     }
@@ -99,4 +115,8 @@ public class AgentStatCollectorFactory {
         return this.cpuLoadCollector;
     }
 
+    public SamplerCollector getSamplerCollector() {
+        return this.samplerCollector;
+    }
+
 }
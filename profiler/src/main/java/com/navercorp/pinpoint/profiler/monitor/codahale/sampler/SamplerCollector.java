@@ -0,0 +1,59 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.monitor.codahale.sampler;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.navercorp.pinpoint.profiler.monitor.codahale.MetricMonitorRegistry;
+import com.navercorp.pinpoint.profiler.sampler.ThroughputSampler;
+import com.navercorp.pinpoint.thrift.dto.TAgentStat;
+
+/**
+ * collects the cumulative counts of the {@link ThroughputSampler} registered in the same registry.
+ */
+public class SamplerCollector {
+
+    // null if the throughput sampler is not used
+    private final Meter sampledMeter;
+    private final Counter unsampledCounter;
+
+    public SamplerCollector(MetricMonitorRegistry monitorRegistry) {
+        if (monitorRegistry == null) {
+            throw new NullPointerException("monitorRegistry must not be null");
+        }
+        final MetricRegistry registry = monitorRegistry.getRegistry();
+        this.sampledMeter = registry.getMeters().get(ThroughputSampler.SAMPLED_MONITOR_NAME);
+        this.unsampledCounter = registry.getCounters().get(ThroughputSampler.UNSAMPLED_MONITOR_NAME);
+    }
+
+    public void collect(TAgentStat agentStat) {
+        if (sampledMeter == null || unsampledCounter == null) {
+            return;
+        }
+        agentStat.setSampledCount(sampledMeter.getCount());
+        agentStat.setUnsampledCount(unsampledCounter.getCount());
+    }
+
+    @Override
+    public String toString() {
+        return "SamplerCollector{" +
+                "enabled=" + (sampledMeter != null) +
+                '}';
+    }
+}
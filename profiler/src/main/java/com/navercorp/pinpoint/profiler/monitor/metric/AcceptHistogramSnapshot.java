@@ -0,0 +1,52 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.monitor.metric;
+
+/**
+ * snapshot of the response time accepted from a parent application
+ */
+public class AcceptHistogramSnapshot {
+    private final String parentApplicationName;
+    private final HistogramSnapshot histogramSnapshot;
+
+    public AcceptHistogramSnapshot(String parentApplicationName, HistogramSnapshot histogramSnapshot) {
+        if (parentApplicationName == null) {
+            throw new NullPointerException("parentApplicationName must not be null");
+        }
+        if (histogramSnapshot == null) {
+            throw new NullPointerException("histogramSnapshot must not be null");
+        }
+        this.parentApplicationName = parentApplicationName;
+        this.histogramSnapshot = histogramSnapshot;
+    }
+
+    public String getParentApplicationName() {
+        return parentApplicationName;
+    }
+
+    public HistogramSnapshot getHistogramSnapshot() {
+        return histogramSnapshot;
+    }
+
+    @Override
+    public String toString() {
+        return "AcceptHistogramSnapshot{" +
+                "parentApplicationName='" + parentApplicationName + '\'' +
+                ", histogramSnapshot=" + histogramSnapshot +
+                '}';
+    }
+}
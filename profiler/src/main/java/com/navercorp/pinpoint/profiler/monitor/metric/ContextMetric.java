@@ -18,6 +18,8 @@ package com.navercorp.pinpoint.profiler.monitor.metric;
 
 import com.navercorp.pinpoint.common.ServiceType;
 
+import java.util.Collection;
+
 /**
  * @author emeroad
  */
@@ -58,7 +60,19 @@ public class ContextMetric {
         this.userHistogram.addResponseTime(millis);
     }
 
+    public ServiceType getContextServiceType() {
+        return contextServiceType;
+    }
 
+    public HistogramSnapshot createResponseSnapshot() {
+        return this.responseMetric.createSnapshot();
+    }
 
+    public HistogramSnapshot createUserAcceptSnapshot() {
+        return this.userHistogram.createSnapshot();
+    }
 
+    public Collection<AcceptHistogramSnapshot> createAcceptSnapshotList() {
+        return this.acceptHistogram.createSnapshotList();
+    }
 }
@@ -19,6 +19,10 @@ package com.navercorp.pinpoint.profiler.monitor.metric;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
 /**
  * @author emeroad
  */
@@ -45,4 +49,14 @@ public class DefaultAcceptHistogram implements AcceptHistogram {
         }
         return false;
     }
+
+    @Override
+    public Collection<AcceptHistogramSnapshot> createSnapshotList() {
+        final Collection<AcceptHistogramSnapshot> staticSnapshotList = this.staticAcceptHistogram.createSnapshotList();
+        final Collection<AcceptHistogramSnapshot> dynamicSnapshotList = this.dynamicAcceptHistogram.createSnapshotList();
+        final List<AcceptHistogramSnapshot> snapshotList = new ArrayList<AcceptHistogramSnapshot>(staticSnapshotList.size() + dynamicSnapshotList.size());
+        snapshotList.addAll(staticSnapshotList);
+        snapshotList.addAll(dynamicSnapshotList);
+        return snapshotList;
+    }
 }
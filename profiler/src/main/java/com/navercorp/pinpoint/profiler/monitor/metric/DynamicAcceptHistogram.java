@@ -18,6 +18,10 @@ package com.navercorp.pinpoint.profiler.monitor.metric;
 
 import com.navercorp.pinpoint.common.ServiceType;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
@@ -68,6 +72,15 @@ public class DynamicAcceptHistogram implements AcceptHistogram {
         return histogram;
     }
 
+    @Override
+    public Collection<AcceptHistogramSnapshot> createSnapshotList() {
+        final List<AcceptHistogramSnapshot> snapshotList = new ArrayList<AcceptHistogramSnapshot>(map.size());
+        for (Map.Entry<ResponseKey, Histogram> entry : map.entrySet()) {
+            final HistogramSnapshot snapshot = entry.getValue().createSnapshot();
+            snapshotList.add(new AcceptHistogramSnapshot(entry.getKey().getParentApplicationName(), snapshot));
+        }
+        return snapshotList;
+    }
 
     private static final class ResponseKey {
         private final ServiceType serviceType;
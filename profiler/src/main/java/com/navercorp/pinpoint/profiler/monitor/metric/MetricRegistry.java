@@ -83,6 +83,6 @@ public class MetricRegistry {
     }
 
     public HistogramSnapshot createWasResponseSnapshot() {
-        return null;
+        return this.contextMetric.createResponseSnapshot();
     }
 }
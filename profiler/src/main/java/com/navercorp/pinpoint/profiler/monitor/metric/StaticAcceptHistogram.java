@@ -19,6 +19,10 @@ package com.navercorp.pinpoint.profiler.monitor.metric;
 import com.navercorp.pinpoint.common.ServiceType;
 import com.navercorp.pinpoint.common.util.apache.IntHashMap;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
@@ -28,17 +32,21 @@ import java.util.concurrent.ConcurrentMap;
 public class StaticAcceptHistogram implements AcceptHistogram {
     // Cannot add data dynamically. Never put to this map because it's not thread safe. 
     private final IntHashMap<ConcurrentMap<String, Histogram>> map;
+    // same values as map. IntHashMap doesn't support iteration
+    private final List<ConcurrentMap<String, Histogram>> histogramMapList;
 
     public StaticAcceptHistogram() {
         this.map = new IntHashMap<ConcurrentMap<String, Histogram>>();
-        bindMap(map);
+        this.histogramMapList = new ArrayList<ConcurrentMap<String, Histogram>>();
+        bindMap(map, histogramMapList);
     }
 
-    private void bindMap(IntHashMap<ConcurrentMap<String, Histogram>> map) {
+    private void bindMap(IntHashMap<ConcurrentMap<String, Histogram>> map, List<ConcurrentMap<String, Histogram>> histogramMapList) {
         for (ServiceType serviceType : ServiceType.values()) {
             if (serviceType.isWas()) {
                 ConcurrentMap<String, Histogram> caller = new ConcurrentHashMap<String, Histogram>();
                 map.put(serviceType.getCode(), caller);
+                histogramMapList.add(caller);
             }
         }
     }
@@ -72,4 +80,16 @@ public class StaticAcceptHistogram implements AcceptHistogram {
         }
         return histogram;
     }
+
+    @Override
+    public Collection<AcceptHistogramSnapshot> createSnapshotList() {
+        final List<AcceptHistogramSnapshot> snapshotList = new ArrayList<AcceptHistogramSnapshot>();
+        for (ConcurrentMap<String, Histogram> histogramMap : histogramMapList) {
+            for (Map.Entry<String, Histogram> entry : histogramMap.entrySet()) {
+                final HistogramSnapshot snapshot = entry.getValue().createSnapshot();
+                snapshotList.add(new AcceptHistogramSnapshot(entry.getKey(), snapshot));
+            }
+        }
+        return snapshotList;
+    }
 }
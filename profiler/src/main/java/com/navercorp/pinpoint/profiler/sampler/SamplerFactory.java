@@ -17,6 +17,7 @@
 package com.navercorp.pinpoint.profiler.sampler;
 
 import com.navercorp.pinpoint.bootstrap.sampler.Sampler;
+import com.navercorp.pinpoint.profiler.monitor.MonitorRegistry;
 
 /**
  * @author emeroad
@@ -31,4 +32,11 @@ public class SamplerFactory {
         }
         return new SamplingRateSampler(samplingRate);
     }
+
+    public Sampler createThroughputSampler(boolean sampling, int throughput, int entryPointThroughput, int entryPointMaxSize, MonitorRegistry monitorRegistry) {
+        if (!sampling || throughput <= 0) {
+            return new FalseSampler();
+        }
+        return new ThroughputSampler(throughput, entryPointThroughput, entryPointMaxSize, monitorRegistry);
+    }
 }
@@ -0,0 +1,206 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.sampler;
+
+import com.navercorp.pinpoint.bootstrap.sampler.EntryPointSampler;
+import com.navercorp.pinpoint.common.util.Clock;
+import com.navercorp.pinpoint.common.util.SystemClock;
+import com.navercorp.pinpoint.profiler.monitor.CounterMonitor;
+import com.navercorp.pinpoint.profiler.monitor.EventRateMonitor;
+import com.navercorp.pinpoint.profiler.monitor.MonitorName;
+import com.navercorp.pinpoint.profiler.monitor.MonitorRegistry;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Samples up to the target number of transactions per second regardless of the traffic.
+ * <p/>
+ * The budget is striped into token buckets chosen by the thread id, so request threads don't share one counter.
+ * When the bucket of the thread is empty, the other buckets are checked before dropping.
+ * An empty bucket is only read, so a dropped request doesn't write any shared memory.
+ * <p/>
+ * Each entry point(url, rpc name) has its own small budget on top of the target throughput,
+ * so rare entry points are still sampled while the busy ones use up the shared budget.
+ * The number of entry point budgets is limited to prevent unbounded memory caused by urls with path variables.
+ */
+public class ThroughputSampler implements EntryPointSampler {
+
+    public static final String SAMPLED_MONITOR_NAME = "sampler.throughput.sampled";
+    public static final String ENTRY_POINT_SAMPLED_MONITOR_NAME = "sampler.throughput.entrypoint.sampled";
+    public static final String UNSAMPLED_MONITOR_NAME = "sampler.throughput.unsampled";
+
+    private final Clock clock;
+    private final int throughput;
+
+    private final TokenBucket[] buckets;
+    private final int bucketMask;
+
+    private final int entryPointThroughput;
+    private final int entryPointMaxSize;
+    // null if the entry point budget is disabled
+    private final ConcurrentMap<String, TokenBucket> entryPointBuckets;
+
+    private final EventRateMonitor sampledMonitor;
+    private final CounterMonitor entryPointSampledMonitor;
+    private final CounterMonitor unsampledMonitor;
+
+    public ThroughputSampler(int throughput, int entryPointThroughput, int entryPointMaxSize, MonitorRegistry monitorRegistry) {
+        this(throughput, entryPointThroughput, entryPointMaxSize, monitorRegistry, getDefaultBucketSize(throughput), SystemClock.INSTANCE);
+    }
+
+    ThroughputSampler(int throughput, int entryPointThroughput, int entryPointMaxSize, MonitorRegistry monitorRegistry, int bucketSize, Clock clock) {
+        if (throughput <= 0) {
+            throw new IllegalArgumentException("Invalid throughput " + throughput);
+        }
+        if (monitorRegistry == null) {
+            throw new NullPointerException("monitorRegistry must not be null");
+        }
+        if (bucketSize <= 0 || Integer.bitCount(bucketSize) != 1) {
+            throw new IllegalArgumentException("bucketSize must be a power of 2. bucketSize:" + bucketSize);
+        }
+        if (clock == null) {
+            throw new NullPointerException("clock must not be null");
+        }
+        this.clock = clock;
+        this.throughput = throughput;
+
+        final long currentTime = clock.getTime();
+        final double bucketThroughput = throughput / (double) bucketSize;
+        // each bucket holds the tokens of one second
+        final int bucketCapacity = Math.max(1, (int) Math.ceil(bucketThroughput));
+        this.buckets = new TokenBucket[bucketSize];
+        for (int i = 0; i < bucketSize; i++) {
+            this.buckets[i] = new TokenBucket(bucketThroughput, bucketCapacity, currentTime);
+        }
+        this.bucketMask = bucketSize - 1;
+
+        this.entryPointThroughput = entryPointThroughput;
+        this.entryPointMaxSize = entryPointMaxSize;
+        if (entryPointThroughput > 0 && entryPointMaxSize > 0) {
+            this.entryPointBuckets = new ConcurrentHashMap<String, TokenBucket>();
+        } else {
+            this.entryPointBuckets = null;
+        }
+
+        this.sampledMonitor = monitorRegistry.newEventRateMonitor(new MonitorName(SAMPLED_MONITOR_NAME));
+        this.entryPointSampledMonitor = monitorRegistry.newCounterMonitor(new MonitorName(ENTRY_POINT_SAMPLED_MONITOR_NAME));
+        this.unsampledMonitor = monitorRegistry.newCounterMonitor(new MonitorName(UNSAMPLED_MONITOR_NAME));
+    }
+
+    /**
+     * one bucket per processor. but a bucket refills one token per second at least.
+     */
+    static int getDefaultBucketSize(int throughput) {
+        final int processors = Runtime.getRuntime().availableProcessors();
+        final int bucketSize = Math.min(nextPowerOfTwo(processors), Integer.highestOneBit(Math.max(1, throughput)));
+        return Math.max(1, bucketSize);
+    }
+
+    private static int nextPowerOfTwo(int value) {
+        final int highestOneBit = Integer.highestOneBit(value);
+        if (highestOneBit == value) {
+            return value;
+        }
+        return highestOneBit << 1;
+    }
+
+    @Override
+    public boolean isSampling() {
+        return isSampling(null);
+    }
+
+    @Override
+    public boolean isSampling(String entryPoint) {
+        final long currentTime = clock.getTime();
+        if (tryAcquire(currentTime)) {
+            sampledMonitor.event();
+            return true;
+        }
+        if (entryPoint != null && tryAcquireEntryPoint(entryPoint, currentTime)) {
+            sampledMonitor.event();
+            entryPointSampledMonitor.incr();
+            return true;
+        }
+        unsampledMonitor.incr();
+        return false;
+    }
+
+    private boolean tryAcquire(long currentTime) {
+        final int index = (int) Thread.currentThread().getId();
+        for (int i = 0; i < buckets.length; i++) {
+            final TokenBucket bucket = buckets[(index + i) & bucketMask];
+            if (bucket.tryAcquire(currentTime)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean tryAcquireEntryPoint(String entryPoint, long currentTime) {
+        if (entryPointBuckets == null) {
+            return false;
+        }
+        final TokenBucket bucket = getEntryPointBucket(entryPoint, currentTime);
+        if (bucket == null) {
+            return false;
+        }
+        return bucket.tryAcquire(currentTime);
+    }
+
+    private TokenBucket getEntryPointBucket(String entryPoint, long currentTime) {
+        final TokenBucket bucket = entryPointBuckets.get(entryPoint);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (entryPointBuckets.size() >= entryPointMaxSize) {
+            // shares the throughput budget only
+            return null;
+        }
+        final TokenBucket newBucket = new TokenBucket(entryPointThroughput, 1, currentTime);
+        final TokenBucket before = entryPointBuckets.putIfAbsent(entryPoint, newBucket);
+        if (before != null) {
+            return before;
+        }
+        return newBucket;
+    }
+
+    public long getSampledCount() {
+        return sampledMonitor.getCount();
+    }
+
+    public long getUnsampledCount() {
+        return unsampledMonitor.getCount();
+    }
+
+    /**
+     * @return sampled transactions per second
+     */
+    public double getSampledRate() {
+        return sampledMonitor.getRate();
+    }
+
+    @Override
+    public String toString() {
+        return "ThroughputSampler{" +
+                "throughput=" + throughput +
+                ", bucketSize=" + buckets.length +
+                ", entryPointThroughput=" + entryPointThroughput +
+                ", entryPointMaxSize=" + entryPointMaxSize +
+                '}';
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.sampler;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket without a lock. (generic cell rate algorithm)
+ * Stores only the time when the next token is available, so one CAS for each taken token.
+ * A denied acquire doesn't write anything.
+ */
+class TokenBucket {
+
+    private static final long MICROS_PER_SECOND = 1000L * 1000L;
+
+    // micros to refill one token
+    private final long interval;
+    // micros of the tokens that the full bucket can hold
+    private final long capacity;
+
+    // the tokens before this time are already taken
+    private final PaddedAtomicLong nextTokenTime;
+
+    /**
+     * @param tokensPerSecond refill rate
+     * @param capacity max tokens taken at once after idle time. at least one
+     * @param currentTimeMillis creation time. the bucket is full at the creation time.
+     */
+    TokenBucket(double tokensPerSecond, int capacity, long currentTimeMillis) {
+        if (tokensPerSecond <= 0) {
+            throw new IllegalArgumentException("Invalid tokensPerSecond " + tokensPerSecond);
+        }
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Invalid capacity " + capacity);
+        }
+        this.interval = Math.max(1L, (long) (MICROS_PER_SECOND / tokensPerSecond));
+        this.capacity = this.interval * capacity;
+        this.nextTokenTime = new PaddedAtomicLong(toMicros(currentTimeMillis) - this.capacity);
+    }
+
+    boolean tryAcquire(long currentTimeMillis) {
+        final long now = toMicros(currentTimeMillis);
+        while (true) {
+            final long next = nextTokenTime.get();
+            // tokens are not accumulated beyond the capacity
+            final long base = Math.max(next, now - capacity);
+            final long update = base + interval;
+            if (update > now) {
+                return false;
+            }
+            if (nextTokenTime.compareAndSet(next, update)) {
+                return true;
+            }
+        }
+    }
+
+    private static long toMicros(long millis) {
+        return millis * 1000L;
+    }
+
+    // avoid false sharing between the buckets of the striped sampler
+    @SuppressWarnings("unused")
+    private static class PaddedAtomicLong extends AtomicLong {
+        volatile long p0, p1, p2, p3, p4, p5, p6;
+
+        PaddedAtomicLong(long initialValue) {
+            super(initialValue);
+        }
+    }
+}
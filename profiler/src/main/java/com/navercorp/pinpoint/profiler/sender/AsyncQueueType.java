@@ -0,0 +1,49 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.pinpoint.profiler.sender;
+
+public enum AsyncQueueType {
+
+    LINKED {
+        @Override
+        <E> MessageQueue<E> createQueue(int capacity, WaitStrategy waitStrategy) {
+            return new LinkedMessageQueue<E>(capacity);
+        }
+    },
+    RING_BUFFER {
+        @Override
+        <E> MessageQueue<E> createQueue(int capacity, WaitStrategy waitStrategy) {
+            return new MpscRingBuffer<E>(capacity, waitStrategy);
+        }
+    };
+
+    abstract <E> MessageQueue<E> createQueue(int capacity, WaitStrategy waitStrategy);
+
+    /**
+     * @return defaultType if the name is unknown
+     */
+    public static AsyncQueueType getQueueType(String name, AsyncQueueType defaultType) {
+        if (name == null) {
+            return defaultType;
+        }
+        for (AsyncQueueType queueType : values()) {
+            if (queueType.name().equalsIgnoreCase(name.trim())) {
+                return queueType;
+            }
+        }
+        return defaultType;
+    }
+}
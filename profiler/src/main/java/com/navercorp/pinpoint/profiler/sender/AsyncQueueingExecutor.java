@@ -17,10 +17,10 @@
 package com.navercorp.pinpoint.profiler.sender;
 
 import java.util.Collection;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -37,7 +37,8 @@ public class AsyncQueueingExecutor<T> implements Runnable {
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
     private final boolean isWarn = logger.isWarnEnabled();
 
-    private final LinkedBlockingQueue<T> queue;
+    private final MessageQueue<T> queue;
+    private final AtomicLong dropCount = new AtomicLong(0);
     private final AtomicBoolean isRun = new AtomicBoolean(true);
     private final Thread executeThread;
     private final String executorName;
@@ -54,13 +55,20 @@ public class AsyncQueueingExecutor<T> implements Runnable {
     }
 
     public AsyncQueueingExecutor(int queueSize, String executorName) {
+        this(queueSize, executorName, AsyncQueueingOption.DEFAULT);
+    }
+
+    public AsyncQueueingExecutor(int queueSize, String executorName, AsyncQueueingOption option) {
         if (executorName == null) {
             throw new NullPointerException("executorName must not be null");
         }
+        if (option == null) {
+            throw new NullPointerException("option must not be null");
+        }
         // before executeThread start
-        this.maxDrainSize = 10;
+        this.maxDrainSize = option.getMaxDrainSize();
         this.drain = new UnsafeArrayCollection<T>(maxDrainSize);
-        this.queue = new LinkedBlockingQueue<T>(queueSize);
+        this.queue = option.getQueueType().createQueue(queueSize, option.getWaitStrategy());
 
         this.executeThread = this.createExecuteThread(executorName);
         this.executorName = executeThread.getName();
@@ -150,6 +158,7 @@ public class AsyncQueueingExecutor<T> implements Runnable {
         }
         boolean offer = queue.offer(data);
         if (!offer) {
+            dropCount.incrementAndGet();
             if (isWarn) {
                 logger.warn("{} Drop data. queue is full. size:{}", executorName, queue.size());
             }
@@ -176,6 +185,13 @@ public class AsyncQueueingExecutor<T> implements Runnable {
         return queue.isEmpty();
     }
 
+    /**
+     * @return the number of messages discarded because the queue was full
+     */
+    public long getDropCount() {
+        return dropCount.get();
+    }
+
     public boolean isRun() {
         return isRun.get();
     }
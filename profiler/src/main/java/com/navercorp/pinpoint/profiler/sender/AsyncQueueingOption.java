@@ -0,0 +1,64 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.pinpoint.profiler.sender;
+
+public class AsyncQueueingOption {
+
+    public static final int DEFAULT_MAX_DRAIN_SIZE = 10;
+
+    public static final AsyncQueueingOption DEFAULT = new AsyncQueueingOption(AsyncQueueType.LINKED, DEFAULT_MAX_DRAIN_SIZE, WaitStrategy.PARK);
+
+    private final AsyncQueueType queueType;
+    private final int maxDrainSize;
+    private final WaitStrategy waitStrategy;
+
+    public AsyncQueueingOption(AsyncQueueType queueType, int maxDrainSize, WaitStrategy waitStrategy) {
+        if (queueType == null) {
+            throw new NullPointerException("queueType must not be null");
+        }
+        if (maxDrainSize <= 0) {
+            throw new IllegalArgumentException("maxDrainSize must be positive");
+        }
+        if (waitStrategy == null) {
+            throw new NullPointerException("waitStrategy must not be null");
+        }
+        this.queueType = queueType;
+        this.maxDrainSize = maxDrainSize;
+        this.waitStrategy = waitStrategy;
+    }
+
+    public AsyncQueueType getQueueType() {
+        return queueType;
+    }
+
+    public int getMaxDrainSize() {
+        return maxDrainSize;
+    }
+
+    public WaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("AsyncQueueingOption{");
+        sb.append("queueType=").append(queueType);
+        sb.append(", maxDrainSize=").append(maxDrainSize);
+        sb.append(", waitStrategy=").append(waitStrategy);
+        sb.append('}');
+        return sb.toString();
+    }
+}
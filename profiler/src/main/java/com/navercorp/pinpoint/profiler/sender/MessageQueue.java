@@ -0,0 +1,44 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.pinpoint.profiler.sender;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Queue between the application threads(producer) and the sender thread(consumer) of {@link AsyncQueueingExecutor}.
+ */
+interface MessageQueue<E> {
+
+    /**
+     * @return false if the queue is full
+     */
+    boolean offer(E e);
+
+    /**
+     * single consumer only.
+     */
+    E poll(long timeout, TimeUnit unit) throws InterruptedException;
+
+    /**
+     * single consumer only.
+     */
+    int drainTo(Collection<? super E> drain, int maxElements);
+
+    int size();
+
+    boolean isEmpty();
+}
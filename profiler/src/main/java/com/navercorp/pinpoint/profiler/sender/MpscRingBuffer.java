@@ -0,0 +1,179 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.pinpoint.profiler.sender;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded lock-free multi-producer/single-consumer queue on a preallocated array.
+ * <p/>
+ * A producer claims a sequence with CAS and publishes the element into the slot. no node allocation and no lock per offer().
+ * The consumer takes a slot only after it is published and clears it before moving its sequence.
+ * A claimed but unpublished slot is regarded as empty until the producer stores the element.
+ */
+class MpscRingBuffer<E> implements MessageQueue<E> {
+
+    private final int capacity;
+    // array length is the power of two above the capacity
+    private final int mask;
+    private final AtomicReferenceArray<E> buffer;
+
+    private final AtomicLong producerSequence = new AtomicLong(0);
+    // written by the consumer thread only
+    private final AtomicLong consumerSequence = new AtomicLong(0);
+
+    private final WaitStrategy waitStrategy;
+    // consumer thread parked in poll()
+    private volatile Thread waiter;
+
+    public MpscRingBuffer(int capacity, WaitStrategy waitStrategy) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        if (waitStrategy == null) {
+            throw new NullPointerException("waitStrategy must not be null");
+        }
+        this.capacity = capacity;
+        final int length = roundUpToPowerOfTwo(capacity);
+        this.mask = length - 1;
+        this.buffer = new AtomicReferenceArray<E>(length);
+        this.waitStrategy = waitStrategy;
+    }
+
+    static int roundUpToPowerOfTwo(int value) {
+        if (value > (1 << 30)) {
+            throw new IllegalArgumentException("too large capacity:" + value);
+        }
+        int result = 1;
+        while (result < value) {
+            result <<= 1;
+        }
+        return result;
+    }
+
+    @Override
+    public boolean offer(E e) {
+        if (e == null) {
+            throw new NullPointerException("e must not be null");
+        }
+        long sequence;
+        do {
+            sequence = producerSequence.get();
+            if (sequence - consumerSequence.get() >= capacity) {
+                return false;
+            }
+        } while (!producerSequence.compareAndSet(sequence, sequence + 1));
+
+        buffer.lazySet(index(sequence), e);
+
+        final Thread waiter = this.waiter;
+        if (waiter != null) {
+            LockSupport.unpark(waiter);
+        }
+        return true;
+    }
+
+    private int index(long sequence) {
+        return (int) sequence & mask;
+    }
+
+    /**
+     * single consumer only.
+     */
+    E poll() {
+        final long sequence = consumerSequence.get();
+        final int index = index(sequence);
+        final E e = buffer.get(index);
+        if (e == null) {
+            return null;
+        }
+        // clear the slot before releasing it to the producers
+        buffer.lazySet(index, null);
+        consumerSequence.lazySet(sequence + 1);
+        return e;
+    }
+
+    @Override
+    public E poll(long timeout, TimeUnit unit) throws InterruptedException {
+        E e = poll();
+        if (e != null) {
+            return e;
+        }
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        final boolean park = waitStrategy == WaitStrategy.PARK;
+        if (park) {
+            this.waiter = Thread.currentThread();
+        }
+        try {
+            while (true) {
+                e = poll();
+                if (e != null) {
+                    return e;
+                }
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                final long remainNanos = deadline - System.nanoTime();
+                if (remainNanos <= 0) {
+                    return null;
+                }
+                waitStrategy.idle(remainNanos);
+            }
+        } finally {
+            if (park) {
+                this.waiter = null;
+            }
+        }
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> drain, int maxElements) {
+        int count = 0;
+        while (count < maxElements) {
+            final E e = poll();
+            if (e == null) {
+                break;
+            }
+            drain.add(e);
+            count++;
+        }
+        return count;
+    }
+
+    @Override
+    public int size() {
+        // read the consumer first. otherwise the size may be negative.
+        final long consumer = consumerSequence.get();
+        final long size = producerSequence.get() - consumer;
+        if (size > capacity) {
+            return capacity;
+        }
+        return (int) size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+}
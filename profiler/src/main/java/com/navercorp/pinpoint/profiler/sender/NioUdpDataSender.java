@@ -0,0 +1,182 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.pinpoint.profiler.sender;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.Arrays;
+
+import com.navercorp.pinpoint.thrift.io.ByteBufferHeaderTBaseSerializer;
+import com.navercorp.pinpoint.thrift.io.NetworkAvailabilityCheckPacket;
+
+import org.apache.thrift.TBase;
+import org.apache.thrift.TException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * UdpDataSender based on a connected DatagramChannel.
+ * <p/>
+ * Every message is serialized straight into one reusable direct ByteBuffer and written to the channel,
+ * so the sender thread allocates no byte[] and no DatagramPacket per message.
+ * All messages drained from the queue at a wake up are sent in a row.
+ */
+public class NioUdpDataSender extends AbstractDataSender implements DataSender {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final boolean isDebug = logger.isDebugEnabled();
+
+    private final DatagramChannel channel;
+
+    // Caution. not thread safe. used by the executor thread only.
+    private final ByteBufferHeaderTBaseSerializer serializer;
+
+    private final AsyncQueueingExecutor<Object> executor;
+
+    public NioUdpDataSender(String host, int port, String threadName, int queueSize) {
+        this(host, port, threadName, queueSize, UdpDataSender.SOCKET_TIMEOUT, UdpDataSender.SEND_BUFFER_SIZE, AsyncQueueingOption.DEFAULT);
+    }
+
+    public NioUdpDataSender(String host, int port, String threadName, int queueSize, int timeout, int sendBufferSize, AsyncQueueingOption queueingOption) {
+        if (host == null) {
+            throw new NullPointerException("host must not be null");
+        }
+        if (threadName == null) {
+            throw new NullPointerException("threadName must not be null");
+        }
+        if (queueSize <= 0) {
+            throw new IllegalArgumentException("queueSize");
+        }
+        if (timeout <= 0) {
+            throw new IllegalArgumentException("timeout");
+        }
+        if (sendBufferSize <= 0) {
+            throw new IllegalArgumentException("sendBufferSize");
+        }
+        if (queueingOption == null) {
+            throw new NullPointerException("queueingOption must not be null");
+        }
+
+        logger.info("NioUdpDataSender initialized. host={}, port={}", host, port);
+        this.channel = createChannel(host, port, timeout, sendBufferSize);
+        // larger message than UDP_MAX_PACKET_LENGTH fails on serialize()
+        this.serializer = new ByteBufferHeaderTBaseSerializer(ByteBuffer.allocateDirect(UdpDataSender.UDP_MAX_PACKET_LENGTH));
+
+        this.executor = createAsyncQueueingExecutor(queueSize, threadName, queueingOption);
+    }
+
+    private DatagramChannel createChannel(String host, int port, int timeout, int sendBufferSize) {
+        DatagramChannel channel = null;
+        try {
+            channel = DatagramChannel.open();
+            final DatagramSocket socket = channel.socket();
+            // used by isNetworkAvailable() only
+            socket.setSoTimeout(timeout);
+            socket.setSendBufferSize(sendBufferSize);
+            if (logger.isWarnEnabled()) {
+                final int checkSendBufferSize = socket.getSendBufferSize();
+                if (sendBufferSize != checkSendBufferSize) {
+                    logger.warn("DatagramSocket.setSendBufferSize() error. {}!={}", sendBufferSize, checkSendBufferSize);
+                }
+            }
+            channel.configureBlocking(true);
+            channel.connect(new InetSocketAddress(host, port));
+            return channel;
+        } catch (IOException e) {
+            closeChannel(channel);
+            throw new IllegalStateException("DatagramChannel create fail. Cause" + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public boolean send(TBase<?, ?> data) {
+        return executor.execute(data);
+    }
+
+    @Override
+    public void stop() {
+        executor.stop();
+        closeChannel(channel);
+    }
+
+    public long getDropCount() {
+        return executor.getDropCount();
+    }
+
+    private void closeChannel(DatagramChannel channel) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.warn("DatagramChannel.close() error. Cause:{}", e.getMessage(), e);
+        }
+    }
+
+    @Override
+    protected void sendPacket(Object message) {
+        if (!(message instanceof TBase)) {
+            logger.warn("sendPacket fail. invalid type:{}", message != null ? message.getClass() : null);
+            return;
+        }
+        final TBase<?, ?> dto = (TBase<?, ?>) message;
+        final ByteBuffer buffer;
+        try {
+            buffer = serializer.serialize(dto);
+        } catch (TException e) {
+            // When packet size is greater than UDP packet size limit, it's better to discard packet than let the socket API fails.
+            logger.warn("discard packet. Caused:{}, {}", e.getMessage(), dto, e);
+            return;
+        }
+        final int size = buffer.remaining();
+        try {
+            channel.write(buffer);
+            if (isDebug) {
+                logger.debug("Data sent. size:{}, {}", size, dto);
+            }
+        } catch (IOException e) {
+            logger.warn("packet send error. size:{}, {}", size, dto, e);
+        }
+    }
+
+    @Override
+    public boolean isNetworkAvailable() {
+        // called rarely(e.g. NetworkAvailabilityChecker). not the executor thread. so it uses its own buffer.
+        final NetworkAvailabilityCheckPacket dto = new NetworkAvailabilityCheckPacket();
+        try {
+            final ByteBufferHeaderTBaseSerializer checkSerializer = new ByteBufferHeaderTBaseSerializer(ByteBuffer.allocate(64));
+            channel.write(checkSerializer.serialize(dto));
+
+            final byte[] receiveData = new byte[NetworkAvailabilityCheckPacket.DATA_OK.length];
+            final DatagramPacket receivePacket = new DatagramPacket(receiveData, receiveData.length);
+            // the socket adaptor honors SO_TIMEOUT
+            channel.socket().receive(receivePacket);
+
+            return Arrays.equals(NetworkAvailabilityCheckPacket.DATA_OK, receiveData);
+        } catch (TException e) {
+            logger.warn("packet serialize error {}", dto, e);
+            return false;
+        } catch (IOException e) {
+            logger.warn("packet send error {}", dto, e);
+            return false;
+        }
+    }
+}
@@ -61,6 +61,10 @@ public class UdpDataSender extends AbstractDataSender implements DataSender {
     }
 
     public UdpDataSender(String host, int port, String threadName, int queueSize, int timeout, int sendBufferSize) {
+        this(host, port, threadName, queueSize, timeout, sendBufferSize, AsyncQueueingOption.DEFAULT);
+    }
+
+    public UdpDataSender(String host, int port, String threadName, int queueSize, int timeout, int sendBufferSize, AsyncQueueingOption queueingOption) {
         if (host == null ) {
             throw new NullPointerException("host must not be null");
         }
@@ -76,12 +80,15 @@ public class UdpDataSender extends AbstractDataSender implements DataSender {
         if (sendBufferSize <= 0) {
             throw new IllegalArgumentException("sendBufferSize");
         }
+        if (queueingOption == null) {
+            throw new NullPointerException("queueingOption must not be null");
+        }
 
         // TODO If fail to create socket, stop agent start
         logger.info("UdpDataSender initialized. host={}, port={}", host, port);
         this.udpSocket = createSocket(host, port, timeout, sendBufferSize);
 
-        this.executor = createAsyncQueueingExecutor(queueSize, threadName);
+        this.executor = createAsyncQueueingExecutor(queueSize, threadName, queueingOption);
     }
 
     @Override
@@ -94,6 +101,10 @@ public class UdpDataSender extends AbstractDataSender implements DataSender {
         executor.stop();
     }
 
+    public long getDropCount() {
+        return executor.getDropCount();
+    }
+
     public boolean isNetworkAvailable() {
         NetworkAvailabilityCheckPacket dto = new NetworkAvailabilityCheckPacket();
         try {
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.pinpoint.profiler.sender;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Idle strategy of the consumer thread of {@link MpscRingBuffer}.
+ */
+public enum WaitStrategy {
+
+    /**
+     * sleeps until a producer wakes it up. lowest cpu usage.
+     */
+    PARK {
+        @Override
+        void idle(long remainNanos) {
+            // a wake up may be missed because producers publish without a full fence. so the park is bounded.
+            LockSupport.parkNanos(Math.min(remainNanos, MAX_PARK_NANOS));
+        }
+    },
+    /**
+     * busy spin. lowest latency but burns a whole core.
+     */
+    SPIN {
+        @Override
+        void idle(long remainNanos) {
+        }
+    },
+    YIELD {
+        @Override
+        void idle(long remainNanos) {
+            Thread.yield();
+        }
+    };
+
+    static final long MAX_PARK_NANOS = 10 * 1000 * 1000;
+
+    abstract void idle(long remainNanos);
+
+    /**
+     * @return defaultStrategy if the name is unknown
+     */
+    public static WaitStrategy getWaitStrategy(String name, WaitStrategy defaultStrategy) {
+        if (name == null) {
+            return defaultStrategy;
+        }
+        for (WaitStrategy waitStrategy : values()) {
+            if (waitStrategy.name().equalsIgnoreCase(name.trim())) {
+                return waitStrategy;
+            }
+        }
+        return defaultStrategy;
+    }
+}
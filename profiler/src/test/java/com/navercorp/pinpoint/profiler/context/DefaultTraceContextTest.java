@@ -20,11 +20,13 @@ import com.navercorp.pinpoint.bootstrap.context.Trace;
 import com.navercorp.pinpoint.bootstrap.context.TraceId;
 import com.navercorp.pinpoint.common.ServiceType;
 import com.navercorp.pinpoint.common.Version;
+import com.navercorp.pinpoint.common.util.ParsingResult;
 import com.navercorp.pinpoint.common.util.TransactionId;
 import com.navercorp.pinpoint.common.util.TransactionIdUtils;
 import com.navercorp.pinpoint.profiler.AgentInformation;
 import com.navercorp.pinpoint.profiler.context.DefaultTraceContext;
 import com.navercorp.pinpoint.profiler.context.DefaultTraceId;
+import com.navercorp.pinpoint.profiler.sender.CountingDataSender;
 import com.navercorp.pinpoint.profiler.util.RuntimeMXBeanUtils;
 
 import junit.framework.Assert;
@@ -87,4 +89,28 @@ public class DefaultTraceContextTest {
 
 
     }
+
+    @Test
+    public void parseSqlCache() {
+        AgentInformation agentInformation = new AgentInformation("d", "d", System.currentTimeMillis(), 123, "machineName", "127.0.0.1", ServiceType.TEST_STAND_ALONE, Version.VERSION);
+        CountingDataSender dataSender = new CountingDataSender();
+
+        DefaultTraceContext traceContext = new DefaultTraceContext();
+        traceContext.setAgentInformation(agentInformation);
+        traceContext.setPriorityDataSender(dataSender);
+
+        ParsingResult first = traceContext.parseSql("select * from table where id = 1");
+        ParsingResult second = traceContext.parseSql("select * from table where id = 1");
+        Assert.assertSame(first, second);
+        Assert.assertEquals("1", second.getOutput());
+
+        // same normalized sql. parsed again but shares the sql id
+        ParsingResult other = traceContext.parseSql("select * from table where id = 2");
+        Assert.assertEquals(first.getId(), other.getId());
+        Assert.assertEquals("2", other.getOutput());
+
+        Assert.assertEquals(1, dataSender.getRequestCounter());
+        Assert.assertEquals(1, traceContext.getParsingResultCache().getHitCount());
+        Assert.assertEquals(2, traceContext.getParsingResultCache().getMissCount());
+    }
 }
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.monitor;
+
+import com.navercorp.pinpoint.common.HistogramSchema;
+import com.navercorp.pinpoint.common.ServiceType;
+import com.navercorp.pinpoint.profiler.monitor.metric.ContextMetric;
+import com.navercorp.pinpoint.thrift.dto.TAgentHistogramBatch;
+import com.navercorp.pinpoint.thrift.dto.TResponseHistogram;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ResponseHistogramCollectorTest {
+
+    @Test
+    public void collectDelta() {
+        final ContextMetric contextMetric = new ContextMetric(ServiceType.STAND_ALONE);
+        final ResponseHistogramCollector collector = new ResponseHistogramCollector("app", contextMetric);
+        Assert.assertNull(collector.collect(1000));
+
+        contextMetric.addResponseTime(10);
+        contextMetric.addResponseTime(HistogramSchema.ERROR_SLOT_TIME);
+        contextMetric.addUserAcceptHistogram(10);
+        contextMetric.addAcceptHistogram("parent", ServiceType.STAND_ALONE.getCode(), 10);
+
+        final TAgentHistogramBatch first = collector.collect(2000);
+        Assert.assertEquals("app", first.getApplicationName());
+        Assert.assertEquals(ServiceType.STAND_ALONE.getCode(), first.getServiceType());
+        Assert.assertEquals(2000, first.getTimestamp());
+        final TResponseHistogram response = first.getResponseHistogram();
+        Assert.assertEquals(1, response.getFastCount());
+        Assert.assertEquals(1, response.getErrorCount());
+        Assert.assertEquals(1, first.getUserAcceptHistogram().getFastCount());
+        Assert.assertEquals(1, first.getAcceptHistogramsSize());
+        Assert.assertEquals("parent", first.getAcceptHistograms().get(0).getParentApplicationName());
+
+        // only the increase since the previous collection
+        contextMetric.addResponseTime(10);
+        final TAgentHistogramBatch second = collector.collect(3000);
+        Assert.assertEquals(1, second.getResponseHistogram().getFastCount());
+        Assert.assertEquals(0, second.getResponseHistogram().getErrorCount());
+        Assert.assertFalse(second.isSetUserAcceptHistogram());
+        Assert.assertFalse(second.isSetAcceptHistograms());
+
+        Assert.assertNull(collector.collect(4000));
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.profiler.monitor.codahale.sampler;
+
+import com.navercorp.pinpoint.profiler.monitor.codahale.MetricMonitorRegistry;
+import com.navercorp.pinpoint.profiler.sampler.ThroughputSampler;
+import com.navercorp.pinpoint.thrift.dto.TAgentStat;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SamplerCollectorTest {
+
+    @Test
+    public void collect() {
+        MetricMonitorRegistry registry = new MetricMonitorRegistry();
+        ThroughputSampler sampler = new ThroughputSampler(1, 0, 0, registry);
+        for (int i = 0; i < 10; i++) {
+            sampler.isSampling();
+        }
+        SamplerCollector collector = new SamplerCollector(registry);
+
+        TAgentStat agentStat = new TAgentStat();
+        collector.collect(agentStat);
+
+        Assert.assertEquals(sampler.getSampledCount(), agentStat.getSampledCount());
+        Assert.assertEquals(sampler.getUnsampledCount(), agentStat.getUnsampledCount());
+        Assert.assertEquals(10, agentStat.getSampledCount() + agentStat.getUnsampledCount());
+    }
+
+    @Test
+    public void notRegistered() {
+        SamplerCollector collector = new SamplerCollector(new MetricMonitorRegistry());
+
+        TAgentStat agentStat = new TAgentStat();
+        collector.collect(agentStat);
+
+        Assert.assertFalse(agentStat.isSetSampledCount());
+        Assert.assertFalse(agentStat.isSetUnsampledCount());
+    }
+}
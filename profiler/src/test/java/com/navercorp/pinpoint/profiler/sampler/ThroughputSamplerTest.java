@@ -0,0 +1,84 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.profiler.sampler;
+
+import com.navercorp.pinpoint.common.util.MockClock;
+import com.navercorp.pinpoint.profiler.monitor.codahale.MetricMonitorRegistry;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ThroughputSamplerTest {
+
+    @Test
+    public void throughput() {
+        MockClock clock = new MockClock();
+        clock.setTime(1000);
+        ThroughputSampler sampler = new ThroughputSampler(10, 0, 0, new MetricMonitorRegistry(), 2, clock);
+
+        Assert.assertEquals(10, countSampled(sampler, null, 100));
+
+        clock.setTime(1500);
+        Assert.assertEquals(4, countSampled(sampler, null, 100));
+
+        // tokens are not accumulated beyond one second
+        clock.setTime(10000);
+        Assert.assertEquals(10, countSampled(sampler, null, 100));
+
+        Assert.assertEquals(24, sampler.getSampledCount());
+        Assert.assertEquals(276, sampler.getUnsampledCount());
+    }
+
+    @Test
+    public void entryPoint() {
+        MockClock clock = new MockClock();
+        clock.setTime(1000);
+        ThroughputSampler sampler = new ThroughputSampler(2, 1, 2, new MetricMonitorRegistry(), 1, clock);
+
+        Assert.assertEquals(3, countSampled(sampler, "/busy", 100));
+        // rare entry point is sampled even though the throughput is used up
+        Assert.assertEquals(1, countSampled(sampler, "/rare", 100));
+        // exceeds entryPointMaxSize
+        Assert.assertEquals(0, countSampled(sampler, "/other", 100));
+
+        clock.setTime(2000);
+        Assert.assertEquals(1, countSampled(sampler, "/rare", 1));
+    }
+
+    @Test
+    public void bucketSize() {
+        Assert.assertEquals(1, ThroughputSampler.getDefaultBucketSize(1));
+        Assert.assertTrue(ThroughputSampler.getDefaultBucketSize(3) <= 2);
+        int bucketSize = ThroughputSampler.getDefaultBucketSize(1000);
+        Assert.assertEquals(1, Integer.bitCount(bucketSize));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidThroughput() {
+        new ThroughputSampler(0, 0, 0, new MetricMonitorRegistry());
+    }
+
+    private int countSampled(ThroughputSampler sampler, String entryPoint, int count) {
+        int sampled = 0;
+        for (int i = 0; i < count; i++) {
+            if (sampler.isSampling(entryPoint)) {
+                sampled++;
+            }
+        }
+        return sampled;
+    }
+}
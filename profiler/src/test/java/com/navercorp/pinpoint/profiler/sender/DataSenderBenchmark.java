@@ -0,0 +1,121 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.pinpoint.profiler.sender;
+
+import com.navercorp.pinpoint.thrift.dto.TSpan;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.net.SocketException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the sender thread path(serialize + send) of the udp data senders.
+ * <pre>
+ * UDP      : UdpDataSender. byte[] serializer + DatagramSocket
+ * BUFFERED : BufferedUdpDataSender. chunked serializer + DatagramSocket
+ * NIO      : NioUdpDataSender. direct ByteBuffer serializer + DatagramChannel
+ * </pre>
+ * run main() or the jmh runner with -prof gc to see the allocation rate per message.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 10, time = 1, timeUnit = TimeUnit.SECONDS)
+@Fork(1)
+public class DataSenderBenchmark {
+
+    @Param({"UDP", "BUFFERED", "NIO"})
+    public String senderType;
+
+    // the kernel drops the packets when the receive buffer is full. reading is not necessary.
+    private DatagramSocket receiver;
+    private AbstractDataSender sender;
+    private TSpan span;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SocketException {
+        receiver = new DatagramSocket(new InetSocketAddress("localhost", 0));
+        final int port = receiver.getLocalPort();
+        if ("UDP".equals(senderType)) {
+            sender = new UdpDataSender("localhost", port, "benchmark", 1024);
+        } else if ("BUFFERED".equals(senderType)) {
+            sender = new BufferedUdpDataSender("localhost", port, "benchmark", 1024);
+        } else if ("NIO".equals(senderType)) {
+            sender = new NioUdpDataSender("localhost", port, "benchmark", 1024);
+        } else {
+            throw new IllegalArgumentException("unknown senderType:" + senderType);
+        }
+        span = createSpan();
+    }
+
+    private TSpan createSpan() {
+        TSpan span = new TSpan();
+        span.setAgentId("benchmarkAgent");
+        span.setApplicationName("benchmarkApplication");
+        span.setAgentStartTime(System.currentTimeMillis());
+        span.setTransactionId(new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12});
+        span.setSpanId(1234567890L);
+        span.setParentSpanId(-1);
+        span.setStartTime(System.currentTimeMillis());
+        span.setElapsed(120);
+        span.setRpc("/benchmark/request/uri");
+        span.setServiceType((short) 1010);
+        span.setEndPoint("localhost:8080");
+        span.setRemoteAddr("127.0.0.1");
+        return span;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        sender.stop();
+        receiver.close();
+    }
+
+    @Benchmark
+    public void sendPacket() {
+        // executor thread path. send() only enqueues.
+        sender.sendPacket(span);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(DataSenderBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
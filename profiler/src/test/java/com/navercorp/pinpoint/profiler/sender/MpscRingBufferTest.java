@@ -0,0 +1,136 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.pinpoint.profiler.sender;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class MpscRingBufferTest {
+
+    @Test
+    public void offerFull() {
+        MpscRingBuffer<Integer> ringBuffer = new MpscRingBuffer<Integer>(3, WaitStrategy.PARK);
+        Assert.assertTrue(ringBuffer.offer(1));
+        Assert.assertTrue(ringBuffer.offer(2));
+        Assert.assertTrue(ringBuffer.offer(3));
+        Assert.assertFalse(ringBuffer.offer(4));
+        Assert.assertEquals(3, ringBuffer.size());
+
+        Assert.assertEquals(Integer.valueOf(1), ringBuffer.poll());
+        Assert.assertTrue(ringBuffer.offer(4));
+        Assert.assertFalse(ringBuffer.offer(5));
+    }
+
+    @Test
+    public void drainTo() {
+        MpscRingBuffer<Integer> ringBuffer = new MpscRingBuffer<Integer>(8, WaitStrategy.YIELD);
+        for (int i = 0; i < 5; i++) {
+            ringBuffer.offer(i);
+        }
+        List<Integer> drain = new ArrayList<Integer>();
+        Assert.assertEquals(3, ringBuffer.drainTo(drain, 3));
+        Assert.assertEquals(2, ringBuffer.drainTo(drain, 3));
+        Assert.assertEquals(0, ringBuffer.drainTo(drain, 3));
+        for (int i = 0; i < 5; i++) {
+            Assert.assertEquals(Integer.valueOf(i), drain.get(i));
+        }
+        Assert.assertTrue(ringBuffer.isEmpty());
+    }
+
+    @Test
+    public void pollTimeout() throws InterruptedException {
+        MpscRingBuffer<Integer> ringBuffer = new MpscRingBuffer<Integer>(8, WaitStrategy.PARK);
+        Assert.assertNull(ringBuffer.poll(10, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void multiProducer() throws InterruptedException {
+        final MpscRingBuffer<Integer> ringBuffer = new MpscRingBuffer<Integer>(64, WaitStrategy.PARK);
+        final int producerCount = 4;
+        final int messageCount = 10000;
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        for (int i = 0; i < producerCount; i++) {
+            Thread producer = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        startLatch.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int j = 0; j < messageCount; j++) {
+                        while (!ringBuffer.offer(j)) {
+                            Thread.yield();
+                        }
+                    }
+                }
+            });
+            producer.setDaemon(true);
+            producer.start();
+        }
+        startLatch.countDown();
+
+        long sum = 0;
+        for (int i = 0; i < producerCount * messageCount; i++) {
+            Integer value = ringBuffer.poll(5, TimeUnit.SECONDS);
+            Assert.assertNotNull(value);
+            sum += value;
+        }
+        Assert.assertEquals((long) producerCount * messageCount * (messageCount - 1) / 2, sum);
+        Assert.assertTrue(ringBuffer.isEmpty());
+    }
+
+    @Test
+    public void dropCount() {
+        AsyncQueueingOption option = new AsyncQueueingOption(AsyncQueueType.RING_BUFFER, 10, WaitStrategy.PARK);
+        AsyncQueueingExecutor<Object> executor = new AsyncQueueingExecutor<Object>(1, "dropCount", option);
+        final CountDownLatch blockLatch = new CountDownLatch(1);
+        executor.setListener(new AsyncQueueingExecutorListener<Object>() {
+            @Override
+            public void execute(Collection<Object> dataList) {
+                await();
+            }
+
+            @Override
+            public void execute(Object data) {
+                await();
+            }
+
+            private void await() {
+                try {
+                    blockLatch.await();
+                } catch (InterruptedException ignore) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        try {
+            for (int i = 0; i < 10; i++) {
+                executor.execute(i);
+            }
+            Assert.assertTrue(executor.getDropCount() > 0);
+        } finally {
+            blockLatch.countDown();
+            executor.stop();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.pinpoint.profiler.sender;
+
+import com.navercorp.pinpoint.profiler.logging.Slf4jLoggerBinderInitializer;
+import com.navercorp.pinpoint.thrift.dto.TAgentInfo;
+import com.navercorp.pinpoint.thrift.io.HeaderTBaseDeserializer;
+import com.navercorp.pinpoint.thrift.io.HeaderTBaseDeserializerFactory;
+
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.util.Arrays;
+
+public class NioUdpDataSenderTest {
+
+    private DatagramSocket receiver;
+
+    @BeforeClass
+    public static void before() {
+        Slf4jLoggerBinderInitializer.beforeClass();
+    }
+
+    @AfterClass
+    public static void after() {
+        Slf4jLoggerBinderInitializer.afterClass();
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        receiver = new DatagramSocket(new InetSocketAddress("localhost", 0));
+        receiver.setSoTimeout(3000);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        receiver.close();
+    }
+
+    @Test
+    public void send() throws Exception {
+        NioUdpDataSender sender = new NioUdpDataSender("localhost", receiver.getLocalPort(), "test", 128);
+        try {
+            for (int i = 0; i < 3; i++) {
+                TAgentInfo agentInfo = new TAgentInfo();
+                agentInfo.setAgentId("agent" + i);
+                sender.send(agentInfo);
+            }
+
+            HeaderTBaseDeserializer deserializer = new HeaderTBaseDeserializerFactory().createDeserializer();
+            for (int i = 0; i < 3; i++) {
+                TAgentInfo received = (TAgentInfo) deserializer.deserialize(receive());
+                Assert.assertEquals("agent" + i, received.getAgentId());
+            }
+        } finally {
+            sender.stop();
+        }
+    }
+
+    @Test
+    public void discardLargeMessage() throws Exception {
+        NioUdpDataSender sender = new NioUdpDataSender("localhost", receiver.getLocalPort(), "test", 128);
+        try {
+            TAgentInfo large = new TAgentInfo();
+            large.setAgentId(RandomStringUtils.randomAlphabetic(UdpDataSender.UDP_MAX_PACKET_LENGTH));
+            sender.send(large);
+
+            TAgentInfo agentInfo = new TAgentInfo();
+            agentInfo.setAgentId("agent");
+            sender.send(agentInfo);
+
+            HeaderTBaseDeserializer deserializer = new HeaderTBaseDeserializerFactory().createDeserializer();
+            TAgentInfo received = (TAgentInfo) deserializer.deserialize(receive());
+            Assert.assertEquals("agent", received.getAgentId());
+        } finally {
+            sender.stop();
+        }
+    }
+
+    private byte[] receive() throws Exception {
+        byte[] buffer = new byte[UdpDataSender.UDP_MAX_PACKET_LENGTH];
+        DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+        try {
+            receiver.receive(packet);
+        } catch (SocketTimeoutException e) {
+            Assert.fail("receive timeout");
+        }
+        return Arrays.copyOf(packet.getData(), packet.getLength());
+    }
+}
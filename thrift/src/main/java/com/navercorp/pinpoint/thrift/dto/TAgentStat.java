@@ -40,6 +40,8 @@ public class TAgentStat implements org.apache.thrift.TBase<TAgentStat, TAgentSta
   private static final org.apache.thrift.protocol.TField TIMESTAMP_FIELD_DESC = new org.apache.thrift.protocol.TField("timestamp", org.apache.thrift.protocol.TType.I64, (short)3);
   private static final org.apache.thrift.protocol.TField GC_FIELD_DESC = new org.apache.thrift.protocol.TField("gc", org.apache.thrift.protocol.TType.STRUCT, (short)10);
   private static final org.apache.thrift.protocol.TField CPU_LOAD_FIELD_DESC = new org.apache.thrift.protocol.TField("cpuLoad", org.apache.thrift.protocol.TType.STRUCT, (short)20);
+  private static final org.apache.thrift.protocol.TField SAMPLED_COUNT_FIELD_DESC = new org.apache.thrift.protocol.TField("sampledCount", org.apache.thrift.protocol.TType.I64, (short)30);
+  private static final org.apache.thrift.protocol.TField UNSAMPLED_COUNT_FIELD_DESC = new org.apache.thrift.protocol.TField("unsampledCount", org.apache.thrift.protocol.TType.I64, (short)31);
   private static final org.apache.thrift.protocol.TField METADATA_FIELD_DESC = new org.apache.thrift.protocol.TField("metadata", org.apache.thrift.protocol.TType.STRING, (short)200);
 
   private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
@@ -53,6 +55,8 @@ public class TAgentStat implements org.apache.thrift.TBase<TAgentStat, TAgentSta
   private long timestamp; // optional
   private TJvmGc gc; // optional
   private TCpuLoad cpuLoad; // optional
+  private long sampledCount; // optional
+  private long unsampledCount; // optional
   private String metadata; // optional
 
   /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
@@ -62,6 +66,8 @@ public class TAgentStat implements org.apache.thrift.TBase<TAgentStat, TAgentSta
     TIMESTAMP((short)3, "timestamp"),
     GC((short)10, "gc"),
     CPU_LOAD((short)20, "cpuLoad"),
+    SAMPLED_COUNT((short)30, "sampledCount"),
+    UNSAMPLED_COUNT((short)31, "unsampledCount"),
     METADATA((short)200, "metadata");
 
     private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
@@ -87,6 +93,10 @@ public class TAgentStat implements org.apache.thrift.TBase<TAgentStat, TAgentSta
           return GC;
         case 20: // CPU_LOAD
           return CPU_LOAD;
+        case 30: // SAMPLED_COUNT
+          return SAMPLED_COUNT;
+        case 31: // UNSAMPLED_COUNT
+          return UNSAMPLED_COUNT;
         case 200: // METADATA
           return METADATA;
         default:
@@ -131,8 +141,10 @@ public class TAgentStat implements org.apache.thrift.TBase<TAgentStat, TAgentSta
   // isset id assignments
   private static final int __STARTTIMESTAMP_ISSET_ID = 0;
   private static final int __TIMESTAMP_ISSET_ID = 1;
+  private static final int __SAMPLEDCOUNT_ISSET_ID = 2;
+  private static final int __UNSAMPLEDCOUNT_ISSET_ID = 3;
   private byte __isset_bitfield = 0;
-  private _Fields optionals[] = {_Fields.AGENT_ID,_Fields.START_TIMESTAMP,_Fields.TIMESTAMP,_Fields.GC,_Fields.CPU_LOAD,_Fields.METADATA};
+  private _Fields optionals[] = {_Fields.AGENT_ID,_Fields.START_TIMESTAMP,_Fields.TIMESTAMP,_Fields.GC,_Fields.CPU_LOAD,_Fields.SAMPLED_COUNT,_Fields.UNSAMPLED_COUNT,_Fields.METADATA};
   public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
   static {
     Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
@@ -146,6 +158,10 @@ public class TAgentStat implements org.apache.thrift.TBase<TAgentStat, TAgentSta
         new org.apache.thrift.meta_data.StructMetaData(org.apache.thrift.protocol.TType.STRUCT, TJvmGc.class)));
     tmpMap.put(_Fields.CPU_LOAD, new org.apache.thrift.meta_data.FieldMetaData("cpuLoad", org.apache.thrift.TFieldRequirementType.OPTIONAL, 
         new org.apache.thrift.meta_data.StructMetaData(org.apache.thrift.protocol.TType.STRUCT, TCpuLoad.class)));
+    tmpMap.put(_Fields.SAMPLED_COUNT, new org.apache.thrift.meta_data.FieldMetaData("sampledCount", org.apache.thrift.TFieldRequirementType.OPTIONAL, 
+        new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I64)));
+    tmpMap.put(_Fields.UNSAMPLED_COUNT, new org.apache.thrift.meta_data.FieldMetaData("unsampledCount", org.apache.thrift.TFieldRequirementType.OPTIONAL, 
+        new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I64)));
     tmpMap.put(_Fields.METADATA, new org.apache.thrift.meta_data.FieldMetaData("metadata", org.apache.thrift.TFieldRequirementType.OPTIONAL, 
         new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING)));
     metaDataMap = Collections.unmodifiableMap(tmpMap);
@@ -171,6 +187,8 @@ public class TAgentStat implements org.apache.thrift.TBase<TAgentStat, TAgentSta
     if (other.isSetCpuLoad()) {
       this.cpuLoad = new TCpuLoad(other.cpuLoad);
     }
+    this.sampledCount = other.sampledCount;
+    this.unsampledCount = other.unsampledCount;
     if (other.isSetMetadata()) {
       this.metadata = other.metadata;
     }
@@ -189,6 +207,10 @@ public class TAgentStat implements org.apache.thrift.TBase<TAgentStat, TAgentSta
     this.timestamp = 0;
     this.gc = null;
     this.cpuLoad = null;
+    setSampledCountIsSet(false);
+    this.sampledCount = 0;
+    setUnsampledCountIsSet(false);
+    this.unsampledCount = 0;
     this.metadata = null;
   }
 
@@ -305,6 +327,50 @@ public class TAgentStat implements org.apache.thrift.TBase<TAgentStat, TAgentSta
     }
   }
 
+  public long getSampledCount() {
+    return this.sampledCount;
+  }
+
+  public void setSampledCount(long sampledCount) {
+    this.sampledCount = sampledCount;
+    setSampledCountIsSet(true);
+  }
+
+  public void unsetSampledCount() {
+    __isset_bitfield = EncodingUtils.clearBit(__isset_bitfield, __SAMPLEDCOUNT_ISSET_ID);
+  }
+
+  /** Returns true if field sampledCount is set (has been assigned a value) and false otherwise */
+  public boolean isSetSampledCount() {
+    return EncodingUtils.testBit(__isset_bitfield, __SAMPLEDCOUNT_ISSET_ID);
+  }
+
+  public void setSampledCountIsSet(boolean value) {
+    __isset_bitfield = EncodingUtils.setBit(__isset_bitfield, __SAMPLEDCOUNT_ISSET_ID, value);
+  }
+
+  public long getUnsampledCount() {
+    return this.unsampledCount;
+  }
+
+  public void setUnsampledCount(long unsampledCount) {
+    this.unsampledCount = unsampledCount;
+    setUnsampledCountIsSet(true);
+  }
+
+  public void unsetUnsampledCount() {
+    __isset_bitfield = EncodingUtils.clearBit(__isset_bitfield, __UNSAMPLEDCOUNT_ISSET_ID);
+  }
+
+  /** Returns true if field unsampledCount is set (has been assigned a value) and false otherwise */
+  public boolean isSetUnsampledCount() {
+    return EncodingUtils.testBit(__isset_bitfield, __UNSAMPLEDCOUNT_ISSET_ID);
+  }
+
+  public void setUnsampledCountIsSet(boolean value) {
+    __isset_bitfield = EncodingUtils.setBit(__isset_bitfield, __UNSAMPLEDCOUNT_ISSET_ID, value);
+  }
+
   public String getMetadata() {
     return this.metadata;
   }
@@ -370,6 +436,22 @@ public class TAgentStat implements org.apache.thrift.TBase<TAgentStat, TAgentSta
       }
       break;
 
+    case SAMPLED_COUNT:
+      if (value == null) {
+        unsetSampledCount();
+      } else {
+        setSampledCount((Long)value);
+      }
+      break;
+
+    case UNSAMPLED_COUNT:
+      if (value == null) {
+        unsetUnsampledCount();
+      } else {
+        setUnsampledCount((Long)value);
+      }
+      break;
+
     case METADATA:
       if (value == null) {
         unsetMetadata();
@@ -398,6 +480,12 @@ public class TAgentStat implements org.apache.thrift.TBase<TAgentStat, TAgentSta
     case CPU_LOAD:
       return getCpuLoad();
 
+    case SAMPLED_COUNT:
+      return Long.valueOf(getSampledCount());
+
+    case UNSAMPLED_COUNT:
+      return Long.valueOf(getUnsampledCount());
+
     case METADATA:
       return getMetadata();
 
@@ -422,6 +510,10 @@ public class TAgentStat implements org.apache.thrift.TBase<TAgentStat, TAgentSta
       return isSetGc();
     case CPU_LOAD:
       return isSetCpuLoad();
+    case SAMPLED_COUNT:
+      return isSetSampledCount();
+    case UNSAMPLED_COUNT:
+      return isSetUnsampledCount();
     case METADATA:
       return isSetMetadata();
     }
@@ -486,6 +578,24 @@ public class TAgentStat implements org.apache.thrift.TBase<TAgentStat, TAgentSta
         return false;
     }
 
+    boolean this_present_sampledCount = true && this.isSetSampledCount();
+    boolean that_present_sampledCount = true && that.isSetSampledCount();
+    if (this_present_sampledCount || that_present_sampledCount) {
+      if (!(this_present_sampledCount && that_present_sampledCount))
+        return false;
+      if (this.sampledCount != that.sampledCount)
+        return false;
+    }
+
+    boolean this_present_unsampledCount = true && this.isSetUnsampledCount();
+    boolean that_present_unsampledCount = true && that.isSetUnsampledCount();
+    if (this_present_unsampledCount || that_present_unsampledCount) {
+      if (!(this_present_unsampledCount && that_present_unsampledCount))
+        return false;
+      if (this.unsampledCount != that.unsampledCount)
+        return false;
+    }
+
     boolean this_present_metadata = true && this.isSetMetadata();
     boolean that_present_metadata = true && that.isSetMetadata();
     if (this_present_metadata || that_present_metadata) {
@@ -561,6 +671,26 @@ public class TAgentStat implements org.apache.thrift.TBase<TAgentStat, TAgentSta
         return lastComparison;
       }
     }
+    lastComparison = Boolean.valueOf(isSetSampledCount()).compareTo(other.isSetSampledCount());
+    if (lastComparison != 0) {
+      return lastComparison;
+    }
+    if (isSetSampledCount()) {
+      lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.sampledCount, other.sampledCount);
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+    }
+    lastComparison = Boolean.valueOf(isSetUnsampledCount()).compareTo(other.isSetUnsampledCount());
+    if (lastComparison != 0) {
+      return lastComparison;
+    }
+    if (isSetUnsampledCount()) {
+      lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.unsampledCount, other.unsampledCount);
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+    }
     lastComparison = Boolean.valueOf(isSetMetadata()).compareTo(other.isSetMetadata());
     if (lastComparison != 0) {
       return lastComparison;
@@ -632,6 +762,18 @@ public class TAgentStat implements org.apache.thrift.TBase<TAgentStat, TAgentSta
       }
       first = false;
     }
+    if (isSetSampledCount()) {
+      if (!first) sb.append(", ");
+      sb.append("sampledCount:");
+      sb.append(this.sampledCount);
+      first = false;
+    }
+    if (isSetUnsampledCount()) {
+      if (!first) sb.append(", ");
+      sb.append("unsampledCount:");
+      sb.append(this.unsampledCount);
+      first = false;
+    }
     if (isSetMetadata()) {
       if (!first) sb.append(", ");
       sb.append("metadata:");
@@ -735,6 +877,22 @@ public class TAgentStat implements org.apache.thrift.TBase<TAgentStat, TAgentSta
               org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
             }
             break;
+          case 30: // SAMPLED_COUNT
+            if (schemeField.type == org.apache.thrift.protocol.TType.I64) {
+              struct.sampledCount = iprot.readI64();
+              struct.setSampledCountIsSet(true);
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+            }
+            break;
+          case 31: // UNSAMPLED_COUNT
+            if (schemeField.type == org.apache.thrift.protocol.TType.I64) {
+              struct.unsampledCount = iprot.readI64();
+              struct.setUnsampledCountIsSet(true);
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+            }
+            break;
           case 200: // METADATA
             if (schemeField.type == org.apache.thrift.protocol.TType.STRING) {
               struct.metadata = iprot.readString();
@@ -787,6 +945,16 @@ public class TAgentStat implements org.apache.thrift.TBase<TAgentStat, TAgentSta
           oprot.writeFieldEnd();
         }
       }
+      if (struct.isSetSampledCount()) {
+        oprot.writeFieldBegin(SAMPLED_COUNT_FIELD_DESC);
+        oprot.writeI64(struct.sampledCount);
+        oprot.writeFieldEnd();
+      }
+      if (struct.isSetUnsampledCount()) {
+        oprot.writeFieldBegin(UNSAMPLED_COUNT_FIELD_DESC);
+        oprot.writeI64(struct.unsampledCount);
+        oprot.writeFieldEnd();
+      }
       if (struct.metadata != null) {
         if (struct.isSetMetadata()) {
           oprot.writeFieldBegin(METADATA_FIELD_DESC);
@@ -827,10 +995,16 @@ public class TAgentStat implements org.apache.thrift.TBase<TAgentStat, TAgentSta
       if (struct.isSetCpuLoad()) {
         optionals.set(4);
       }
-      if (struct.isSetMetadata()) {
+      if (struct.isSetSampledCount()) {
         optionals.set(5);
       }
-      oprot.writeBitSet(optionals, 6);
+      if (struct.isSetUnsampledCount()) {
+        optionals.set(6);
+      }
+      if (struct.isSetMetadata()) {
+        optionals.set(7);
+      }
+      oprot.writeBitSet(optionals, 8);
       if (struct.isSetAgentId()) {
         oprot.writeString(struct.agentId);
       }
@@ -846,6 +1020,12 @@ public class TAgentStat implements org.apache.thrift.TBase<TAgentStat, TAgentSta
       if (struct.isSetCpuLoad()) {
         struct.cpuLoad.write(oprot);
       }
+      if (struct.isSetSampledCount()) {
+        oprot.writeI64(struct.sampledCount);
+      }
+      if (struct.isSetUnsampledCount()) {
+        oprot.writeI64(struct.unsampledCount);
+      }
       if (struct.isSetMetadata()) {
         oprot.writeString(struct.metadata);
       }
@@ -854,7 +1034,7 @@ public class TAgentStat implements org.apache.thrift.TBase<TAgentStat, TAgentSta
     @Override
     public void read(org.apache.thrift.protocol.TProtocol prot, TAgentStat struct) throws org.apache.thrift.TException {
       TTupleProtocol iprot = (TTupleProtocol) prot;
-      BitSet incoming = iprot.readBitSet(6);
+      BitSet incoming = iprot.readBitSet(8);
       if (incoming.get(0)) {
         struct.agentId = iprot.readString();
         struct.setAgentIdIsSet(true);
@@ -878,6 +1058,14 @@ public class TAgentStat implements org.apache.thrift.TBase<TAgentStat, TAgentSta
         struct.setCpuLoadIsSet(true);
       }
       if (incoming.get(5)) {
+        struct.sampledCount = iprot.readI64();
+        struct.setSampledCountIsSet(true);
+      }
+      if (incoming.get(6)) {
+        struct.unsampledCount = iprot.readI64();
+        struct.setUnsampledCountIsSet(true);
+      }
+      if (incoming.get(7)) {
         struct.metadata = iprot.readString();
         struct.setMetadataIsSet(true);
       }
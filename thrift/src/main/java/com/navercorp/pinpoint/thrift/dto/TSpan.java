@@ -56,6 +56,7 @@ public class TSpan implements org.apache.thrift.TBase<TSpan, TSpan._Fields>, jav
   private static final org.apache.thrift.protocol.TField ACCEPTOR_HOST_FIELD_DESC = new org.apache.thrift.protocol.TField("acceptorHost", org.apache.thrift.protocol.TType.STRING, (short)21);
   private static final org.apache.thrift.protocol.TField API_ID_FIELD_DESC = new org.apache.thrift.protocol.TField("apiId", org.apache.thrift.protocol.TType.I32, (short)25);
   private static final org.apache.thrift.protocol.TField EXCEPTION_INFO_FIELD_DESC = new org.apache.thrift.protocol.TField("exceptionInfo", org.apache.thrift.protocol.TType.STRUCT, (short)26);
+  private static final org.apache.thrift.protocol.TField HISTOGRAM_COUNTED_FIELD_DESC = new org.apache.thrift.protocol.TField("histogramCounted", org.apache.thrift.protocol.TType.BOOL, (short)27);
 
   private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
   static {
@@ -84,6 +85,7 @@ public class TSpan implements org.apache.thrift.TBase<TSpan, TSpan._Fields>, jav
   private String acceptorHost; // optional
   private int apiId; // optional
   private TIntStringValue exceptionInfo; // optional
+  private boolean histogramCounted; // optional
 
   /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
   public enum _Fields implements org.apache.thrift.TFieldIdEnum {
@@ -107,7 +109,8 @@ public class TSpan implements org.apache.thrift.TBase<TSpan, TSpan._Fields>, jav
     PARENT_APPLICATION_TYPE((short)20, "parentApplicationType"),
     ACCEPTOR_HOST((short)21, "acceptorHost"),
     API_ID((short)25, "apiId"),
-    EXCEPTION_INFO((short)26, "exceptionInfo");
+    EXCEPTION_INFO((short)26, "exceptionInfo"),
+    HISTOGRAM_COUNTED((short)27, "histogramCounted");
 
     private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
 
@@ -164,6 +167,8 @@ public class TSpan implements org.apache.thrift.TBase<TSpan, TSpan._Fields>, jav
           return API_ID;
         case 26: // EXCEPTION_INFO
           return EXCEPTION_INFO;
+        case 27: // HISTOGRAM_COUNTED
+          return HISTOGRAM_COUNTED;
         default:
           return null;
       }
@@ -214,8 +219,9 @@ public class TSpan implements org.apache.thrift.TBase<TSpan, TSpan._Fields>, jav
   private static final int __ERR_ISSET_ID = 7;
   private static final int __PARENTAPPLICATIONTYPE_ISSET_ID = 8;
   private static final int __APIID_ISSET_ID = 9;
+  private static final int __HISTOGRAMCOUNTED_ISSET_ID = 10;
   private short __isset_bitfield = 0;
-  private _Fields optionals[] = {_Fields.PARENT_SPAN_ID,_Fields.ELAPSED,_Fields.RPC,_Fields.END_POINT,_Fields.REMOTE_ADDR,_Fields.ANNOTATIONS,_Fields.FLAG,_Fields.ERR,_Fields.SPAN_EVENT_LIST,_Fields.PARENT_APPLICATION_NAME,_Fields.PARENT_APPLICATION_TYPE,_Fields.ACCEPTOR_HOST,_Fields.API_ID,_Fields.EXCEPTION_INFO};
+  private _Fields optionals[] = {_Fields.PARENT_SPAN_ID,_Fields.ELAPSED,_Fields.RPC,_Fields.END_POINT,_Fields.REMOTE_ADDR,_Fields.ANNOTATIONS,_Fields.FLAG,_Fields.ERR,_Fields.SPAN_EVENT_LIST,_Fields.PARENT_APPLICATION_NAME,_Fields.PARENT_APPLICATION_TYPE,_Fields.ACCEPTOR_HOST,_Fields.API_ID,_Fields.EXCEPTION_INFO,_Fields.HISTOGRAM_COUNTED};
   public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
   static {
     Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
@@ -263,6 +269,8 @@ public class TSpan implements org.apache.thrift.TBase<TSpan, TSpan._Fields>, jav
         new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I32)));
     tmpMap.put(_Fields.EXCEPTION_INFO, new org.apache.thrift.meta_data.FieldMetaData("exceptionInfo", org.apache.thrift.TFieldRequirementType.OPTIONAL, 
         new org.apache.thrift.meta_data.StructMetaData(org.apache.thrift.protocol.TType.STRUCT, TIntStringValue.class)));
+    tmpMap.put(_Fields.HISTOGRAM_COUNTED, new org.apache.thrift.meta_data.FieldMetaData("histogramCounted", org.apache.thrift.TFieldRequirementType.OPTIONAL, 
+        new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.BOOL)));
     metaDataMap = Collections.unmodifiableMap(tmpMap);
     org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(TSpan.class, metaDataMap);
   }
@@ -356,6 +364,7 @@ public class TSpan implements org.apache.thrift.TBase<TSpan, TSpan._Fields>, jav
     if (other.isSetExceptionInfo()) {
       this.exceptionInfo = new TIntStringValue(other.exceptionInfo);
     }
+    this.histogramCounted = other.histogramCounted;
   }
 
   public TSpan deepCopy() {
@@ -395,6 +404,8 @@ public class TSpan implements org.apache.thrift.TBase<TSpan, TSpan._Fields>, jav
     setApiIdIsSet(false);
     this.apiId = 0;
     this.exceptionInfo = null;
+    setHistogramCountedIsSet(false);
+    this.histogramCounted = false;
   }
 
   public String getAgentId() {
@@ -909,6 +920,28 @@ public class TSpan implements org.apache.thrift.TBase<TSpan, TSpan._Fields>, jav
     }
   }
 
+  public boolean isHistogramCounted() {
+    return this.histogramCounted;
+  }
+
+  public void setHistogramCounted(boolean histogramCounted) {
+    this.histogramCounted = histogramCounted;
+    setHistogramCountedIsSet(true);
+  }
+
+  public void unsetHistogramCounted() {
+    __isset_bitfield = EncodingUtils.clearBit(__isset_bitfield, __HISTOGRAMCOUNTED_ISSET_ID);
+  }
+
+  /** Returns true if field histogramCounted is set (has been assigned a value) and false otherwise */
+  public boolean isSetHistogramCounted() {
+    return EncodingUtils.testBit(__isset_bitfield, __HISTOGRAMCOUNTED_ISSET_ID);
+  }
+
+  public void setHistogramCountedIsSet(boolean value) {
+    __isset_bitfield = EncodingUtils.setBit(__isset_bitfield, __HISTOGRAMCOUNTED_ISSET_ID, value);
+  }
+
   public void setFieldValue(_Fields field, Object value) {
     switch (field) {
     case AGENT_ID:
@@ -1079,6 +1112,14 @@ public class TSpan implements org.apache.thrift.TBase<TSpan, TSpan._Fields>, jav
       }
       break;
 
+    case HISTOGRAM_COUNTED:
+      if (value == null) {
+        unsetHistogramCounted();
+      } else {
+        setHistogramCounted((Boolean)value);
+      }
+      break;
+
     }
   }
 
@@ -1147,6 +1188,9 @@ public class TSpan implements org.apache.thrift.TBase<TSpan, TSpan._Fields>, jav
     case EXCEPTION_INFO:
       return getExceptionInfo();
 
+    case HISTOGRAM_COUNTED:
+      return Boolean.valueOf(isHistogramCounted());
+
     }
     throw new IllegalStateException();
   }
@@ -1200,6 +1244,8 @@ public class TSpan implements org.apache.thrift.TBase<TSpan, TSpan._Fields>, jav
       return isSetApiId();
     case EXCEPTION_INFO:
       return isSetExceptionInfo();
+    case HISTOGRAM_COUNTED:
+      return isSetHistogramCounted();
     }
     throw new IllegalStateException();
   }
@@ -1406,6 +1452,15 @@ public class TSpan implements org.apache.thrift.TBase<TSpan, TSpan._Fields>, jav
         return false;
     }
 
+    boolean this_present_histogramCounted = true && this.isSetHistogramCounted();
+    boolean that_present_histogramCounted = true && that.isSetHistogramCounted();
+    if (this_present_histogramCounted || that_present_histogramCounted) {
+      if (!(this_present_histogramCounted && that_present_histogramCounted))
+        return false;
+      if (this.histogramCounted != that.histogramCounted)
+        return false;
+    }
+
     return true;
   }
 
@@ -1632,6 +1687,16 @@ public class TSpan implements org.apache.thrift.TBase<TSpan, TSpan._Fields>, jav
         return lastComparison;
       }
     }
+    lastComparison = Boolean.valueOf(isSetHistogramCounted()).compareTo(other.isSetHistogramCounted());
+    if (lastComparison != 0) {
+      return lastComparison;
+    }
+    if (isSetHistogramCounted()) {
+      lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.histogramCounted, other.histogramCounted);
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+    }
     return 0;
   }
 
@@ -1807,6 +1872,12 @@ public class TSpan implements org.apache.thrift.TBase<TSpan, TSpan._Fields>, jav
       }
       first = false;
     }
+    if (isSetHistogramCounted()) {
+      if (!first) sb.append(", ");
+      sb.append("histogramCounted:");
+      sb.append(this.histogramCounted);
+      first = false;
+    }
     sb.append(")");
     return sb.toString();
   }
@@ -2046,6 +2117,14 @@ public class TSpan implements org.apache.thrift.TBase<TSpan, TSpan._Fields>, jav
               org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
             }
             break;
+          case 27: // HISTOGRAM_COUNTED
+            if (schemeField.type == org.apache.thrift.protocol.TType.BOOL) {
+              struct.histogramCounted = iprot.readBool();
+              struct.setHistogramCountedIsSet(true);
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+            }
+            break;
           default:
             org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
         }
@@ -2186,6 +2265,11 @@ public class TSpan implements org.apache.thrift.TBase<TSpan, TSpan._Fields>, jav
           oprot.writeFieldEnd();
         }
       }
+      if (struct.isSetHistogramCounted()) {
+        oprot.writeFieldBegin(HISTOGRAM_COUNTED_FIELD_DESC);
+        oprot.writeBool(struct.histogramCounted);
+        oprot.writeFieldEnd();
+      }
       oprot.writeFieldStop();
       oprot.writeStructEnd();
     }
@@ -2267,7 +2351,10 @@ public class TSpan implements org.apache.thrift.TBase<TSpan, TSpan._Fields>, jav
       if (struct.isSetExceptionInfo()) {
         optionals.set(20);
       }
-      oprot.writeBitSet(optionals, 21);
+      if (struct.isSetHistogramCounted()) {
+        optionals.set(21);
+      }
+      oprot.writeBitSet(optionals, 22);
       if (struct.isSetAgentId()) {
         oprot.writeString(struct.agentId);
       }
@@ -2343,12 +2430,15 @@ public class TSpan implements org.apache.thrift.TBase<TSpan, TSpan._Fields>, jav
       if (struct.isSetExceptionInfo()) {
         struct.exceptionInfo.write(oprot);
       }
+      if (struct.isSetHistogramCounted()) {
+        oprot.writeBool(struct.histogramCounted);
+      }
     }
 
     @Override
     public void read(org.apache.thrift.protocol.TProtocol prot, TSpan struct) throws org.apache.thrift.TException {
       TTupleProtocol iprot = (TTupleProtocol) prot;
-      BitSet incoming = iprot.readBitSet(21);
+      BitSet incoming = iprot.readBitSet(22);
       if (incoming.get(0)) {
         struct.agentId = iprot.readString();
         struct.setAgentIdIsSet(true);
@@ -2454,6 +2544,10 @@ public class TSpan implements org.apache.thrift.TBase<TSpan, TSpan._Fields>, jav
         struct.exceptionInfo.read(iprot);
         struct.setExceptionInfoIsSet(true);
       }
+      if (incoming.get(21)) {
+        struct.histogramCounted = iprot.readBool();
+        struct.setHistogramCountedIsSet(true);
+      }
     }
   }
 
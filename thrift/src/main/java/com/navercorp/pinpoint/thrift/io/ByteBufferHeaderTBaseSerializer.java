@@ -0,0 +1,82 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.pinpoint.thrift.io;
+
+import java.nio.ByteBuffer;
+
+import org.apache.thrift.TBase;
+import org.apache.thrift.TException;
+import org.apache.thrift.protocol.TCompactProtocol;
+import org.apache.thrift.protocol.TProtocol;
+import org.apache.thrift.protocol.TProtocolFactory;
+
+/**
+ * Serializes header + TBase straight into a reusable ByteBuffer.
+ * A direct buffer can be written to a channel without the copy into a temporary direct buffer.
+ * <p/>
+ * Caution. not thread safe. the returned buffer is valid until the next serialize().
+ */
+public class ByteBufferHeaderTBaseSerializer {
+
+    private final ByteBuffer buffer;
+    private final TProtocol protocol;
+    private final TBaseLocator locator;
+
+    public ByteBufferHeaderTBaseSerializer(ByteBuffer buffer) {
+        this(buffer, new TCompactProtocol.Factory(), new DefaultTBaseLocator());
+    }
+
+    public ByteBufferHeaderTBaseSerializer(ByteBuffer buffer, TProtocolFactory protocolFactory, TBaseLocator locator) {
+        if (buffer == null) {
+            throw new NullPointerException("buffer must not be null");
+        }
+        if (protocolFactory == null) {
+            throw new NullPointerException("protocolFactory must not be null");
+        }
+        if (locator == null) {
+            throw new NullPointerException("locator must not be null");
+        }
+        this.buffer = buffer;
+        this.protocol = protocolFactory.getProtocol(new ByteBufferOutputTransport(buffer));
+        this.locator = locator;
+    }
+
+    /**
+     * @return the internal buffer flipped for reading
+     * @throws TException if the message is larger than the buffer
+     */
+    public ByteBuffer serialize(TBase<?, ?> base) throws TException {
+        final Header header = locator.headerLookup(base);
+        buffer.clear();
+        writeHeader(header);
+        base.write(protocol);
+        buffer.flip();
+        return buffer;
+    }
+
+    private void writeHeader(Header header) throws TException {
+        protocol.writeByte(header.getSignature());
+        protocol.writeByte(header.getVersion());
+        // fixed size regardless protocol
+        short type = header.getType();
+        protocol.writeByte(BytesUtils.writeShort1(type));
+        protocol.writeByte(BytesUtils.writeShort2(type));
+    }
+
+    public int getCapacity() {
+        return buffer.capacity();
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.pinpoint.thrift.io;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+import org.apache.thrift.transport.TTransport;
+import org.apache.thrift.transport.TTransportException;
+
+/**
+ * ByteBufferOutputTransport
+ * - write only
+ * - writes into a fixed size ByteBuffer(heap or direct). no copy and no growth.
+ */
+public class ByteBufferOutputTransport extends TTransport {
+
+    private final ByteBuffer buffer;
+
+    public ByteBufferOutputTransport(ByteBuffer buffer) {
+        if (buffer == null) {
+            throw new NullPointerException("buffer must not be null");
+        }
+        this.buffer = buffer;
+    }
+
+    public ByteBuffer getByteBuffer() {
+        return buffer;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return true;
+    }
+
+    @Override
+    public void open() throws TTransportException {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public int read(byte[] buf, int off, int len) throws TTransportException {
+        throw new TTransportException(TTransportException.NOT_OPEN, "unsupported inputStream");
+    }
+
+    @Override
+    public void write(byte[] buf, int off, int len) throws TTransportException {
+        try {
+            buffer.put(buf, off, len);
+        } catch (BufferOverflowException e) {
+            throw new TTransportException(TTransportException.UNKNOWN, "buffer overflow. capacity:" + buffer.capacity());
+        }
+    }
+}
@@ -19,6 +19,7 @@ package com.navercorp.pinpoint.thrift.io;
 import org.apache.thrift.TBase;
 import org.apache.thrift.TException;
 
+import com.navercorp.pinpoint.thrift.dto.TAgentHistogramBatch;
 import com.navercorp.pinpoint.thrift.dto.TAgentInfo;
 import com.navercorp.pinpoint.thrift.dto.TAgentStat;
 import com.navercorp.pinpoint.thrift.dto.TAgentStatBatch;
@@ -52,6 +53,8 @@ class DefaultTBaseLocator implements TBaseLocator {
     private static final Header AGENT_STAT_HEADER = createHeader(AGENT_STAT);
     private static final short AGENT_STAT_BATCH = 56;
     private static final Header AGENT_STAT_BATCH_HEADER = createHeader(AGENT_STAT_BATCH);
+    private static final short AGENT_HISTOGRAM_BATCH = 57;
+    private static final Header AGENT_HISTOGRAM_BATCH_HEADER = createHeader(AGENT_HISTOGRAM_BATCH);
 
     private static final short SPANCHUNK = 70;
     private static final Header SPANCHUNK_HEADER = createHeader(SPANCHUNK);
@@ -82,6 +85,8 @@ class DefaultTBaseLocator implements TBaseLocator {
                 return new TAgentStat();
             case AGENT_STAT_BATCH:
                 return new TAgentStatBatch();
+            case AGENT_HISTOGRAM_BATCH:
+                return new TAgentHistogramBatch();
             case SPANCHUNK:
                 return new TSpanChunk();
             case SQLMETADATA:
@@ -117,6 +122,9 @@ class DefaultTBaseLocator implements TBaseLocator {
         if (tbase instanceof TAgentStatBatch) {
             return AGENT_STAT_BATCH_HEADER;
         }
+        if (tbase instanceof TAgentHistogramBatch) {
+            return AGENT_HISTOGRAM_BATCH_HEADER;
+        }
         if (tbase instanceof TSqlMetaData) {
             return SQLMETADATA_HEADER;
         }
@@ -165,6 +173,9 @@ class DefaultTBaseLocator implements TBaseLocator {
         if (clazz.equals(TAgentStatBatch.class)) {
             return true;
         }
+        if (clazz.equals(TAgentHistogramBatch.class)) {
+            return true;
+        }
         if (clazz.equals(TSqlMetaData.class)) {
             return true;
         }
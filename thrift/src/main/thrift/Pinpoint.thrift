@@ -58,6 +58,9 @@ struct TAgentStat {
     3: optional i64         timestamp
     10: optional TJvmGc     gc
     20: optional TCpuLoad   cpuLoad
+    // cumulative counts of the throughput sampler. not set for the other samplers.
+    30: optional i64        sampledCount
+    31: optional i64        unsampledCount
     200: optional string    metadata    
 }
 
@@ -66,3 +69,24 @@ struct TAgentStatBatch {
     2: i64                      startTimestamp
     10: list<TAgentStat>        agentStats
 }
+
+struct TResponseHistogram {
+    1: i16                  serviceType
+    2: i64                  fastCount
+    3: i64                  normalCount
+    4: i64                  slowCount
+    5: i64                  verySlowCount
+    6: i64                  errorCount
+    10: optional string     parentApplicationName
+}
+
+struct TAgentHistogramBatch {
+    1: string                               agentId
+    2: i64                                  startTimestamp
+    3: string                               applicationName
+    4: i16                                  serviceType
+    5: i64                                  timestamp
+    10: optional TResponseHistogram         responseHistogram
+    11: optional TResponseHistogram         userAcceptHistogram
+    12: optional list<TResponseHistogram>   acceptHistograms
+}
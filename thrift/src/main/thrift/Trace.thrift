@@ -95,6 +95,9 @@ struct TSpan {
 
   25: optional i32 apiId;
   26: optional TIntStringValue exceptionInfo;
+
+  // the response is counted in the TAgentHistogramBatch of the agent. the collector skips the statistics of the span.
+  27: optional bool histogramCounted
 }
 
 struct TSpanChunk {
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.navercorp.pinpoint.thrift.io;
+
+import com.navercorp.pinpoint.thrift.dto.TAgentInfo;
+
+import org.apache.thrift.TException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+public class ByteBufferHeaderTBaseSerializerTest {
+
+    @Test
+    public void serialize() throws Exception {
+        ByteBufferHeaderTBaseSerializer serializer = new ByteBufferHeaderTBaseSerializer(ByteBuffer.allocateDirect(1024));
+        HeaderTBaseDeserializer deserializer = new HeaderTBaseDeserializerFactory().createDeserializer();
+
+        TAgentInfo tAgentInfo = createAgentInfo("agentId");
+
+        ByteBuffer buffer = serializer.serialize(tAgentInfo);
+        byte[] serialize = new byte[buffer.remaining()];
+        buffer.get(serialize);
+
+        byte[] expected = new HeaderTBaseSerializerFactory().createSerializer().serialize(tAgentInfo);
+        Assert.assertArrayEquals(expected, serialize);
+
+        TAgentInfo deserialize = (TAgentInfo) deserializer.deserialize(serialize);
+        Assert.assertEquals(tAgentInfo, deserialize);
+    }
+
+    @Test
+    public void reuse() throws Exception {
+        ByteBufferHeaderTBaseSerializer serializer = new ByteBufferHeaderTBaseSerializer(ByteBuffer.allocateDirect(1024));
+
+        int first = serializer.serialize(createAgentInfo("longAgentId")).remaining();
+        int second = serializer.serialize(createAgentInfo("id")).remaining();
+        Assert.assertEquals(first - "longAgentId".length() + "id".length(), second);
+    }
+
+    @Test(expected = TException.class)
+    public void overflow() throws Exception {
+        ByteBufferHeaderTBaseSerializer serializer = new ByteBufferHeaderTBaseSerializer(ByteBuffer.allocate(8));
+        serializer.serialize(createAgentInfo("agentId"));
+    }
+
+    private TAgentInfo createAgentInfo(String agentId) {
+        TAgentInfo tAgentInfo = new TAgentInfo();
+        tAgentInfo.setAgentId(agentId);
+        tAgentInfo.setHostname("host");
+        tAgentInfo.setApplicationName("applicationName");
+        return tAgentInfo;
+    }
+}
@@ -16,6 +16,7 @@
 
 package com.navercorp.pinpoint.web.alarm;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -49,16 +50,20 @@ public class AlarmReader implements ItemReader<AlarmChecker>, StepExecutionListe
     
     @Autowired
     private AlarmResourceDao alarmResourceDao;
+
+    @Autowired
+    private DataCollectorPrefetcher dataCollectorPrefetcher;
     
     private final Queue<AlarmChecker> checkers = new LinkedList<AlarmChecker>();
 
     public AlarmReader() {
     }
     
-    protected AlarmReader(DataCollectorFactory dataCollectorFactory, ApplicationIndexDao applicationIndexDao, AlarmResourceDao alarmResourceDao) {
+    protected AlarmReader(DataCollectorFactory dataCollectorFactory, ApplicationIndexDao applicationIndexDao, AlarmResourceDao alarmResourceDao, DataCollectorPrefetcher dataCollectorPrefetcher) {
         this.dataCollectorFactory = dataCollectorFactory;
         this.applicationIndexDao = applicationIndexDao;
         this.alarmResourceDao = alarmResourceDao;
+        this.dataCollectorPrefetcher = dataCollectorPrefetcher;
     }
     
     public AlarmChecker read() {
@@ -80,13 +85,15 @@ public class AlarmReader implements ItemReader<AlarmChecker>, StepExecutionListe
             to = appSize;
         }
 
-        
+        // the data of the whole partition is collected at once. the checkers only evaluate the prefetched data.
+        List<DataCollector> collectorList = new ArrayList<DataCollector>();
         for(int i = from; i < to; i++) {
-            addChecker(applicationList.get(i));
+            addChecker(applicationList.get(i), collectorList);
         }
+        dataCollectorPrefetcher.prefetch(collectorList);
     }
 
-    private void addChecker(Application application) {
+    private void addChecker(Application application, List<DataCollector> collectorList) {
         List<Rule> rules = alarmResourceDao.selectAppRule(application.getName());
         long timeSlotEndTime = System.currentTimeMillis();
         Map<DataCollectorCategory, DataCollector> collectorMap = new HashMap<DataCollectorCategory, DataCollector>();
@@ -98,6 +105,7 @@ public class AlarmReader implements ItemReader<AlarmChecker>, StepExecutionListe
             if(collector == null) {
                 collector = dataCollectorFactory.createDataCollector(checkerCategory, application, timeSlotEndTime);
                 collectorMap.put(collector.getDataCollectorCategory(), collector);
+                collectorList.add(collector);
             }
             
             AlarmChecker checker = checkerCategory.createChecker(collector, rule);
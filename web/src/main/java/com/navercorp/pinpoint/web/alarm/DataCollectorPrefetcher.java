@@ -0,0 +1,123 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.alarm;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.navercorp.pinpoint.common.util.ExecutorFactory;
+import com.navercorp.pinpoint.web.alarm.collector.DataCollector;
+
+/**
+ * Runs every collector of a partition in parallel before its rules are checked.
+ * The checkers then evaluate the prefetched data instead of scanning one application after another.
+ */
+public class DataCollectorPrefetcher {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final int threadSize;
+
+    private ExecutorService collectExecutor;
+
+    public DataCollectorPrefetcher(int threadSize) {
+        this.threadSize = threadSize;
+    }
+
+    @PostConstruct
+    public void start() {
+        int threadSize = this.threadSize;
+        if (threadSize <= 0) {
+            threadSize = Runtime.getRuntime().availableProcessors();
+        }
+        this.collectExecutor = ExecutorFactory.newFixedThreadPool(threadSize, Integer.MAX_VALUE, "Pinpoint-AlarmDataCollector", true);
+    }
+
+    @PreDestroy
+    public void stop() {
+        final ExecutorService collectExecutor = this.collectExecutor;
+        if (collectExecutor != null) {
+            collectExecutor.shutdownNow();
+        }
+    }
+
+    public void prefetch(Collection<? extends DataCollector> collectors) {
+        if (collectors == null) {
+            throw new NullPointerException("collectors must not be null");
+        }
+        if (collectExecutor == null) {
+            throw new IllegalStateException("not started");
+        }
+        final long startTime = System.currentTimeMillis();
+
+        final List<Future<Void>> futureList = new ArrayList<Future<Void>>(collectors.size());
+        for (DataCollector collector : collectors) {
+            futureList.add(collectExecutor.submit(new CollectTask(collector)));
+        }
+
+        boolean success = false;
+        try {
+            for (Future<Void> future : futureList) {
+                future.get();
+            }
+            success = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("prefetch interrupted", e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("prefetch error. Caused:" + cause.getMessage(), cause);
+        } finally {
+            if (!success) {
+                for (Future<Void> future : futureList) {
+                    future.cancel(true);
+                }
+            }
+        }
+        logger.debug("prefetch collector:{} elapsed:{}ms", collectors.size(), System.currentTimeMillis() - startTime);
+    }
+
+    private static class CollectTask implements Callable<Void> {
+
+        private final DataCollector collector;
+
+        private CollectTask(DataCollector collector) {
+            this.collector = collector;
+        }
+
+        @Override
+        public Void call() throws Exception {
+            collector.collect();
+            return null;
+        }
+    }
+}
@@ -61,9 +61,12 @@ public class AgentStatDataCollector extends DataCollector {
 
         Range range = Range.createUncheckedRange(timeSlotEndTime - slotInterval, timeSlotEndTime);
         List<String> agentIds = applicationIndexDao.selectAgentIds(application.getName());
+        // all agents of the application are scanned at once instead of one after another
+        Map<String, List<AgentStat>> agentStatMap = agentStatDao.scanAgentStatList(agentIds, range);
 
-        for(String agentId : agentIds) {
-            List<AgentStat> scanAgentStatList = agentStatDao.scanAgentStatList(agentId, range);
+        for (Map.Entry<String, List<AgentStat>> entry : agentStatMap.entrySet()) {
+            String agentId = entry.getKey();
+            List<AgentStat> scanAgentStatList = entry.getValue();
             int listSize = scanAgentStatList.size();
             long totalHeapSize = 0;
             long usedHeapSize = 0;
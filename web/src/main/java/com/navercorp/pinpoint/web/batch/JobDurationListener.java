@@ -0,0 +1,78 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.batch;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+
+import java.util.Date;
+
+/**
+ * Records how long a job run takes compared to the interval it is scheduled at.
+ * A run that takes longer than the interval delays the next one.
+ */
+public class JobDurationListener implements JobExecutionListener {
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+    private final long scheduleInterval;
+
+    private volatile long lastDuration = -1;
+
+    public JobDurationListener(long scheduleInterval) {
+        if (scheduleInterval <= 0) {
+            throw new IllegalArgumentException("scheduleInterval must be positive. scheduleInterval:" + scheduleInterval);
+        }
+        this.scheduleInterval = scheduleInterval;
+    }
+
+    @Override
+    public void beforeJob(JobExecution jobExecution) {
+    }
+
+    @Override
+    public void afterJob(JobExecution jobExecution) {
+        final Date startTime = jobExecution.getStartTime();
+        if (startTime == null) {
+            return;
+        }
+        final Date endTime = jobExecution.getEndTime();
+        final long end = (endTime != null) ? endTime.getTime() : System.currentTimeMillis();
+        final long duration = end - startTime.getTime();
+        this.lastDuration = duration;
+
+        final String jobName = jobExecution.getJobInstance().getJobName();
+        final long usage = (duration * 100L) / scheduleInterval;
+        if (duration > scheduleInterval) {
+            logger.warn("{} overran its schedule. duration:{}ms scheduleInterval:{}ms usage:{}%", jobName, duration, scheduleInterval, usage);
+        } else {
+            logger.info("{} duration:{}ms scheduleInterval:{}ms usage:{}%", jobName, duration, scheduleInterval, usage);
+        }
+    }
+
+    public long getScheduleInterval() {
+        return scheduleInterval;
+    }
+
+    /**
+     * @return duration of the last run in milliseconds. -1 if the job has never finished
+     */
+    public long getLastDuration() {
+        return lastDuration;
+    }
+}
@@ -45,6 +45,36 @@ public class WebConfig {
     @Value("#{pinpointWebProps['cluster.zookeeper.retry.interval'] ?: 60000}")
     private int clusterZookeeperRetryInterval;
 
+    @Value("#{pinpointWebProps['web.filteredMap.selectSpan.threadSize'] ?: 0}")
+    private int filteredMapSelectSpanThreadSize;
+
+    @Value("#{pinpointWebProps['web.filteredMap.selectSpan.batchSize'] ?: 500}")
+    private int filteredMapSelectSpanBatchSize;
+
+    @Value("#{pinpointWebProps['web.filteredMap.traceIndexFilter.enable'] ?: false}")
+    private boolean filteredMapTraceIndexFilterEnable;
+
+    @Value("#{pinpointWebProps['web.mapStatistics.rollup.enable'] ?: false}")
+    private boolean mapStatisticsRollupEnable;
+
+    @Value("#{pinpointWebProps['web.agentStat.rollup.enable'] ?: false}")
+    private boolean agentStatRollupEnable;
+
+    @Value("#{pinpointWebProps['web.applicationMap.selectLink.threadSize'] ?: 16}")
+    private int applicationMapSelectLinkThreadSize;
+
+    @Value("#{pinpointWebProps['web.applicationMap.cache.enable'] ?: false}")
+    private boolean applicationMapCacheEnable;
+
+    @Value("#{pinpointWebProps['web.applicationMap.cache.maxSize'] ?: 20000}")
+    private long applicationMapCacheMaxSize;
+
+    @Value("#{pinpointWebProps['web.applicationMap.cache.closeDelay'] ?: 120000}")
+    private long applicationMapCacheCloseDelay;
+
+    @Value("#{pinpointWebProps['web.metaData.cache.maxSize'] ?: 10000}")
+    private long metaDataCacheMaxSize;
+
     @PostConstruct
     public void validation() {
         if (isClusterEnable()) {
@@ -91,13 +121,63 @@ public class WebConfig {
         return clusterZookeeperSessionTimeout;
     }
 
+    public int getFilteredMapSelectSpanThreadSize() {
+        return filteredMapSelectSpanThreadSize;
+    }
+
+    public int getFilteredMapSelectSpanBatchSize() {
+        return filteredMapSelectSpanBatchSize;
+    }
+
+    public boolean isFilteredMapTraceIndexFilterEnable() {
+        return filteredMapTraceIndexFilterEnable;
+    }
+
+    public boolean isMapStatisticsRollupEnable() {
+        return mapStatisticsRollupEnable;
+    }
+
+    public boolean isAgentStatRollupEnable() {
+        return agentStatRollupEnable;
+    }
+
+    public int getApplicationMapSelectLinkThreadSize() {
+        return applicationMapSelectLinkThreadSize;
+    }
+
+    public boolean isApplicationMapCacheEnable() {
+        return applicationMapCacheEnable;
+    }
+
+    public long getApplicationMapCacheMaxSize() {
+        return applicationMapCacheMaxSize;
+    }
+
+    public long getApplicationMapCacheCloseDelay() {
+        return applicationMapCacheCloseDelay;
+    }
+
+    public long getMetaDataCacheMaxSize() {
+        return metaDataCacheMaxSize;
+    }
+
     @Override
     public String toString() {
         return "WebConfig [clusterEnable=" + clusterEnable
                 + ", clusterTcpPort=" + clusterTcpPort
                 + ", clusterZookeeperAddress=" + clusterZookeeperAddress
                 + ", clusterZookeeperSessionTimeout="
-                + clusterZookeeperSessionTimeout + "]";
+                + clusterZookeeperSessionTimeout
+                + ", filteredMapSelectSpanThreadSize=" + filteredMapSelectSpanThreadSize
+                + ", filteredMapSelectSpanBatchSize=" + filteredMapSelectSpanBatchSize
+                + ", filteredMapTraceIndexFilterEnable=" + filteredMapTraceIndexFilterEnable
+                + ", mapStatisticsRollupEnable=" + mapStatisticsRollupEnable
+                + ", agentStatRollupEnable=" + agentStatRollupEnable
+                + ", applicationMapSelectLinkThreadSize=" + applicationMapSelectLinkThreadSize
+                + ", applicationMapCacheEnable=" + applicationMapCacheEnable
+                + ", applicationMapCacheMaxSize=" + applicationMapCacheMaxSize
+                + ", applicationMapCacheCloseDelay=" + applicationMapCacheCloseDelay
+                + ", metaDataCacheMaxSize=" + metaDataCacheMaxSize + "]";
     }
 
     public int getClusterZookeeperRetryInterval() {
@@ -16,6 +16,7 @@
 
 package com.navercorp.pinpoint.web.controller;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.SortedSet;
 import java.util.TreeSet;
@@ -23,6 +24,9 @@ import java.util.TreeSet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.navercorp.pinpoint.common.bo.SpanBo;
 import com.navercorp.pinpoint.common.util.DateUtils;
 import com.navercorp.pinpoint.web.filter.Filter;
@@ -30,14 +34,18 @@ import com.navercorp.pinpoint.web.filter.FilterBuilder;
 import com.navercorp.pinpoint.web.service.FilteredMapService;
 import com.navercorp.pinpoint.web.service.ScatterChartService;
 import com.navercorp.pinpoint.web.util.LimitUtils;
+import com.navercorp.pinpoint.web.util.MappingJackson2JsonpView;
 import com.navercorp.pinpoint.web.util.TimeUtils;
+import com.navercorp.pinpoint.web.view.ScatterDataStreamWriter;
 import com.navercorp.pinpoint.web.vo.*;
 import com.navercorp.pinpoint.web.vo.scatter.Dot;
+import com.navercorp.pinpoint.web.vo.scatter.ScatterHeatMap;
 import com.navercorp.pinpoint.web.vo.scatter.ScatterIndex;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.util.StopWatch;
@@ -65,10 +73,17 @@ public class ScatterChartController {
     @Autowired
     private FilterBuilder filterBuilder;
 
+    // same configuration as the jsonView/jsonpView responses
+    @Autowired
+    @Qualifier("jsonViewObjectMapper")
+    private ObjectMapper jsonViewObjectMapper;
+
     private static final String PREFIX_TRANSACTION_ID = "I";
     private static final String PREFIX_TIME = "T";
     private static final String PREFIX_RESPONSE_TIME = "R";
 
+    private static final String CONTENT_TYPE_JSON = "application/json";
+
     @Deprecated
     @RequestMapping(value = "/scatterpopup", method = RequestMethod.GET)
     public String scatterPopup(Model model,
@@ -95,6 +110,8 @@ public class ScatterChartController {
      * @param limit
      *            max number of data return. if the requested data exceed this limit, we need additional calls to
      *                         fetch the rest of the data
+     * @param response
+     *            the unfiltered scatter data is written to the response while scanning, and null is returned
      * @return
      */
     @RequestMapping(value = "/getScatterData", method = RequestMethod.GET)
@@ -105,7 +122,8 @@ public class ScatterChartController {
                                 @RequestParam("limit") int limit,
                                 @RequestParam(value = "filter", required = false) String filterText,
                                 @RequestParam(value = "_callback", required = false) String jsonpCallback,
-                                @RequestParam(value = "v", required = false, defaultValue = "2") int version) {
+                                @RequestParam(value = "v", required = false, defaultValue = "2") int version,
+                                HttpServletResponse response) throws IOException {
         limit = LimitUtils.checkRange(limit);
 
         StopWatch watch = new StopWatch();
@@ -117,7 +135,7 @@ public class ScatterChartController {
 
         ModelAndView mv;
         if (filterText == null) {
-            mv = selectScatterData(applicationName, range, limit, jsonpCallback);
+            mv = streamScatterData(applicationName, range, limit, jsonpCallback, response);
         } else {
             mv = selectFilterScatterDataData(applicationName, range, filterText, limit, jsonpCallback);
         }
@@ -130,8 +148,9 @@ public class ScatterChartController {
     }
 
     private ModelAndView selectFilterScatterDataData(String applicationName, Range range, String filterText, int limit, String jsonpCallback) {
-
-        final LimitedScanResult<List<TransactionId>> limitedScanResult = flow.selectTraceIdsFromApplicationTraceIndex(applicationName, range, limit);
+        final Filter filter = filterBuilder.build(filterText);
+        // the conditions of the filter which can be checked by hbase are pushed down into the scan
+        final LimitedScanResult<List<TransactionId>> limitedScanResult = flow.selectTraceIdsFromApplicationTraceIndex(applicationName, range, limit, filter);
 
         final List<TransactionId> traceIdList = limitedScanResult.getScanData();
         logger.trace("submitted transactionId count={}", traceIdList.size());
@@ -140,7 +159,6 @@ public class ScatterChartController {
         SortedSet<TransactionId> traceIdSet = new TreeSet<TransactionId>(traceIdList);
         logger.debug("unified traceIdSet size={}", traceIdSet.size());
 
-        Filter filter = filterBuilder.build(filterText);
         List<Dot> scatterData = scatter.selectScatterData(traceIdSet, applicationName, filter);
         if (logger.isDebugEnabled()) {
             logger.debug("getScatterData range scan(limited:{}) from ~ to:{} ~ {}, limited:{}, filterDataSize:{}",
@@ -156,16 +174,36 @@ public class ScatterChartController {
         return createModelAndView(resultRange, jsonpCallback, scatterData);
     }
 
-    private ModelAndView selectScatterData(String applicationName, Range range, int limit, String jsonpCallback) {
-
-        final List<Dot> scatterData = scatter.selectScatterData(applicationName, range, limit);
-        Range resultRange;
-        if (scatterData.isEmpty()) {
-            resultRange = new Range(-1, -1);
+    /**
+     * writes the dots to the response as they come from the scanner instead of building the whole list for the jsonView.
+     */
+    private ModelAndView streamScatterData(String applicationName, Range range, int limit, String jsonpCallback, HttpServletResponse response) throws IOException {
+        if (jsonpCallback == null) {
+            response.setContentType(CONTENT_TYPE_JSON);
         } else {
-            resultRange = new Range(scatterData.get(scatterData.size() - 1).getAcceptedTime(), range.getTo());
+            response.setContentType(MappingJackson2JsonpView.CONTENT_TYPE_JSONP);
         }
-        return createModelAndView(resultRange, jsonpCallback, scatterData);
+        response.setCharacterEncoding("UTF-8");
+
+        final JsonGenerator jgen = jsonViewObjectMapper.getFactory().createGenerator(response.getOutputStream(), JsonEncoding.UTF8);
+        final ScatterDataStreamWriter writer = new ScatterDataStreamWriter(jgen, jsonpCallback);
+        writer.writeStart();
+        try {
+            scatter.selectScatterData(applicationName, range, limit, writer);
+        } catch (RuntimeException e) {
+            if (!response.isCommitted()) {
+                // nothing has reached the client yet. drop the buffered output and fail with an error status like the jsonView path.
+                response.reset();
+                throw e;
+            }
+            logger.warn("scatter scan failed after the response was committed. dotCount:{} Caused:{}", writer.getDotCount(), e.getMessage(), e);
+            writer.writeError(e.getMessage());
+            return null;
+        }
+        writer.writeEnd(range);
+        logger.debug("streamScatterData dotCount:{}", writer.getDotCount());
+        // the response is complete
+        return null;
     }
 
     private ModelAndView createModelAndView(Range range, String jsonpCallback, List<Dot> scatterData) {
@@ -182,6 +220,49 @@ public class ScatterChartController {
         return mv;
     }
 
+    /**
+     * heatmap mode of the scatter chart for busy applications.
+     * counts the transactions of the whole range into xBinCount x yBinCount cells instead of returning dots page by page.
+     * the transactions of a selected cell can be queried with transactionmetadata2.
+     *
+     * @param applicationName
+     * @param from
+     * @param to
+     * @param xBinCount number of time columns
+     * @param yBinCount number of response time rows
+     * @param yMax response time of the top row. slower transactions are counted in the top row
+     * @return
+     */
+    @RequestMapping(value = "/getScatterHeatMap", method = RequestMethod.GET)
+    public ModelAndView getScatterHeatMap(
+                                @RequestParam("application") String applicationName,
+                                @RequestParam("from") long from,
+                                @RequestParam("to") long to,
+                                @RequestParam(value = "xBinCount", required = false, defaultValue = "100") int xBinCount,
+                                @RequestParam(value = "yBinCount", required = false, defaultValue = "50") int yBinCount,
+                                @RequestParam(value = "yMax", required = false, defaultValue = "10000") int yMax,
+                                @RequestParam(value = "_callback", required = false) String jsonpCallback) {
+        StopWatch watch = new StopWatch();
+        watch.start("selectScatterHeatMap");
+
+        final Range range = new Range(from, to);
+        logger.debug("fetch scatter heatmap. {}, xBinCount={}, yBinCount={}, yMax={}", range, xBinCount, yBinCount, yMax);
+
+        final ScatterHeatMap heatMap = scatter.selectScatterHeatMap(applicationName, range, xBinCount, yBinCount, yMax);
+
+        watch.stop();
+        logger.info("Fetch scatterHeatMap time : {}ms, count:{}", watch.getLastTaskTimeMillis(), heatMap.getTotalCount());
+
+        ModelAndView mv = new ModelAndView();
+        mv.addObject("heatmap", heatMap);
+        if (jsonpCallback == null) {
+            mv.setViewName("jsonView");
+        } else {
+            mv.setViewName("jsonpView");
+        }
+        return mv;
+    }
+
     /**
      * scatter chart data query for "NOW" button
      *
@@ -196,14 +277,15 @@ public class ScatterChartController {
                                     @RequestParam("limit") int limit,
                                     @RequestParam(value = "filter", required = false) String filterText,
                                     @RequestParam(value = "_callback", required = false) String jsonpCallback,
-                                    @RequestParam(value = "v", required = false, defaultValue = "1") int version) {
+                                    @RequestParam(value = "v", required = false, defaultValue = "1") int version,
+                                    HttpServletResponse response) throws IOException {
         limit = LimitUtils.checkRange(limit);
 
         long to = TimeUtils.getDelayLastTime();
         long from = to - period;
 
         // TODO versioning is temporary. to sync template change and server dev
-        return getScatterData(applicationName, from, to, limit, filterText, jsonpCallback, version);
+        return getScatterData(applicationName, from, to, limit, filterText, jsonpCallback, version, response);
     }
 
     /**
@@ -17,7 +17,9 @@
 package com.navercorp.pinpoint.web.dao;
 
 import java.util.List;
+import java.util.Map;
 
+import com.navercorp.pinpoint.common.hbase.AgentStatRollup;
 import com.navercorp.pinpoint.web.vo.AgentStat;
 import com.navercorp.pinpoint.web.vo.Range;
 
@@ -28,4 +30,15 @@ public interface AgentStatDao {
 
     List<AgentStat> scanAgentStatList(String agentId, Range range);
 
+    /**
+     * scans the rollup table of the given resolution. each rollup slot is returned as a single statistic at the start of the slot
+     */
+    List<AgentStat> scanAgentStatList(String agentId, Range range, AgentStatRollup rollup);
+
+    /**
+     * scans the statistics of all agents at once.
+     * @return statistics keyed by agentId. agents without statistics are mapped to an empty list
+     */
+    Map<String, List<AgentStat>> scanAgentStatList(List<String> agentIdList, Range range);
+
 }
@@ -19,10 +19,17 @@ package com.navercorp.pinpoint.web.dao;
 import java.util.List;
 
 import com.navercorp.pinpoint.common.bo.ApiMetaDataBo;
+import com.navercorp.pinpoint.web.vo.MetaDataKey;
 
 /**
  * @author emeroad
  */
 public interface ApiMetaDataDao {
     List<ApiMetaDataBo> getApiMetaData(String agentId, long time, int apiId);
+
+    /**
+     * one multi get for all keys
+     * @return the metadata of each key in the order of keyList. an empty list if not found
+     */
+    List<List<ApiMetaDataBo>> getApiMetaDataList(List<MetaDataKey> keyList);
 }
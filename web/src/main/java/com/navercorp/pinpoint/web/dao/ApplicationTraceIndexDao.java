@@ -18,11 +18,14 @@ package com.navercorp.pinpoint.web.dao;
 
 import java.util.List;
 
+import com.navercorp.pinpoint.common.hbase.filter.ApplicationTraceIndexColumnFilter;
 import com.navercorp.pinpoint.web.vo.LimitedScanResult;
 import com.navercorp.pinpoint.web.vo.Range;
 import com.navercorp.pinpoint.web.vo.SelectedScatterArea;
 import com.navercorp.pinpoint.web.vo.TransactionId;
 import com.navercorp.pinpoint.web.vo.scatter.Dot;
+import com.navercorp.pinpoint.web.vo.scatter.DotHandler;
+import com.navercorp.pinpoint.web.vo.scatter.ScatterHeatMap;
 
 /**
  * @author emeroad
@@ -32,10 +35,25 @@ public interface ApplicationTraceIndexDao {
 
     LimitedScanResult<List<TransactionId>> scanTraceIndex(String applicationName, Range range, int limit);
 
+    /**
+     * only the transactions having a span of the application matching the traceIndexFilter are returned.
+     * the traceIndexFilter is evaluated by the region servers.
+     *
+     * @param traceIndexFilter null means no filter
+     */
+    LimitedScanResult<List<TransactionId>> scanTraceIndex(String applicationName, Range range, int limit, ApplicationTraceIndexColumnFilter traceIndexFilter);
+
     LimitedScanResult<List<TransactionId>> scanTraceIndex(String applicationName, SelectedScatterArea range, int limit);
 
     List<Dot> scanTraceScatter(String applicationName, Range range, int limit);
 
+    /**
+     * passes the dots to the dotHandler while scanning instead of returning them.
+     *
+     * @return number of the handled dots
+     */
+    int scanTraceScatter(String applicationName, Range range, int limit, DotHandler dotHandler);
+
     /**
      *
      * select transactions in a selection range(box) in the scatter chart.
@@ -48,4 +66,9 @@ public interface ApplicationTraceIndexDao {
      * @return
      */
     List<Dot> scanTraceScatter(String applicationName, SelectedScatterArea area, TransactionId offsetTransactionId, int offsetTransactionElapsed, int limit);
+
+    /**
+     * counts the transactions of the range into a time x response time grid without creating dots.
+     */
+    ScatterHeatMap scanTraceScatterHeatMap(String applicationName, Range range, int xBinCount, int yBinCount, int yMax);
 }
@@ -17,6 +17,7 @@
 package com.navercorp.pinpoint.web.dao;
 
 import java.util.List;
+import java.util.Map;
 
 import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkDataMap;
 import com.navercorp.pinpoint.web.vo.Application;
@@ -30,6 +31,11 @@ import com.navercorp.pinpoint.web.vo.Range;
 public interface MapStatisticsCalleeDao {
     LinkDataMap selectCallee(Application calleeApplication, Range range);
 
+    /**
+     * @return one-minute statistics of each time slot. key = time slot
+     */
+    Map<Long, LinkDataMap> selectCalleeTimeSlot(Application calleeApplication, Range range);
+
     @Deprecated
     List<LinkDataMap> selectCalleeStatistics(Application callerApplication, Application calleeApplication, Range range);
 }
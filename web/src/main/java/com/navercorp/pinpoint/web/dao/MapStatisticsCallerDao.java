@@ -17,6 +17,7 @@
 package com.navercorp.pinpoint.web.dao;
 
 import java.util.List;
+import java.util.Map;
 
 import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkDataMap;
 import com.navercorp.pinpoint.web.vo.Application;
@@ -30,5 +31,10 @@ import com.navercorp.pinpoint.web.vo.Range;
 public interface MapStatisticsCallerDao {
     LinkDataMap selectCaller(Application callerApplication, Range range);
 
+    /**
+     * @return one-minute statistics of each time slot. key = time slot
+     */
+    Map<Long, LinkDataMap> selectCallerTimeSlot(Application callerApplication, Range range);
+
     List<LinkDataMap> selectCallerStatistics(Application callerApplication, Application calleeApplication, Range range);
 }
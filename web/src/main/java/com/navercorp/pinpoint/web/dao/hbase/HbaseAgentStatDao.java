@@ -19,8 +19,12 @@ package com.navercorp.pinpoint.web.dao.hbase;
 import static com.navercorp.pinpoint.common.hbase.HBaseTables.*;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+import com.navercorp.pinpoint.common.bo.AgentStatBatchBo;
+import com.navercorp.pinpoint.common.hbase.AgentStatRollup;
 import com.navercorp.pinpoint.common.hbase.HBaseTables;
 import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
 import com.navercorp.pinpoint.common.util.BytesUtils;
@@ -79,13 +83,48 @@ public class HbaseAgentStatDao implements AgentStatDao {
         }
 
 
-        Scan scan = createScan(agentId, range);
+        Scan scan = createScan(agentId, createBatchScanRange(range));
 
-        List<List<AgentStat>> intermediate = hbaseOperations2.find(HBaseTables.AGENT_STAT, scan, rowKeyDistributor, agentStatMapper);
+        List<List<AgentStat>> intermediate = hbaseOperations2.findParallel(HBaseTables.AGENT_STAT, scan, rowKeyDistributor, agentStatMapper, true);
 
         int expectedSize = (int)(range.getRange() / 5000); // data for 5 seconds
         List<AgentStat> merged = new ArrayList<AgentStat>(expectedSize);
 
+        for(List<AgentStat> each : intermediate) {
+            addInRange(merged, each, range);
+        }
+
+        return merged;
+    }
+
+    @Override
+    public List<AgentStat> scanAgentStatList(String agentId, Range range, AgentStatRollup rollup) {
+        if (rollup == null) {
+            throw new NullPointerException("rollup must not be null");
+        }
+        if (!rollup.isRollup()) {
+            return scanAgentStatList(agentId, range);
+        }
+        if (agentId == null) {
+            throw new NullPointerException("agentId must not be null");
+        }
+        if (range == null) {
+            throw new NullPointerException("range must not be null");
+        }
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("scanAgentStat : agentId={}, {}, rollup={}", agentId, range, rollup);
+        }
+
+        // rows are keyed by the start of the slot. includes the slot containing range.from
+        final long from = rollup.getTimeSlot().getTimeSlot(range.getFrom()) - 1;
+        final Scan scan = createScan(agentId, new Range(from, range.getTo()));
+
+        List<List<AgentStat>> intermediate = hbaseOperations2.findParallel(rollup.getTableName(), scan, rowKeyDistributor, agentStatMapper, true);
+
+        int expectedSize = (int)(range.getRange() / rollup.getResolution()) + 1;
+        List<AgentStat> merged = new ArrayList<AgentStat>(expectedSize);
+
         for(List<AgentStat> each : intermediate) {
             merged.addAll(each);
         }
@@ -93,6 +132,71 @@ public class HbaseAgentStatDao implements AgentStatDao {
         return merged;
     }
 
+    @Override
+    public Map<String, List<AgentStat>> scanAgentStatList(List<String> agentIdList, Range range) {
+        if (agentIdList == null) {
+            throw new NullPointerException("agentIdList must not be null");
+        }
+        if (range == null) {
+            throw new NullPointerException("range must not be null");
+        }
+        final Map<String, List<AgentStat>> agentStatMap = new HashMap<String, List<AgentStat>>();
+        if (agentIdList.isEmpty()) {
+            return agentStatMap;
+        }
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("scanAgentStat : agentIdList={}, {}", agentIdList, range);
+        }
+
+        final List<Scan> scanList = new ArrayList<Scan>(agentIdList.size());
+        final Range scanRange = createBatchScanRange(range);
+        for (String agentId : agentIdList) {
+            scanList.add(createScan(agentId, scanRange));
+        }
+        // one scan per agent. all agents are read in parallel
+        final List<List<List<AgentStat>>> intermediate = hbaseOperations2.findParallel(HBaseTables.AGENT_STAT, scanList, rowKeyDistributor, agentStatMapper);
+
+        final int expectedSize = (int)(range.getRange() / 5000); // data for 5 seconds
+        for (int i = 0; i < agentIdList.size(); i++) {
+            List<AgentStat> merged = new ArrayList<AgentStat>(expectedSize);
+            for (List<AgentStat> each : intermediate.get(i)) {
+                addInRange(merged, each, range);
+            }
+            agentStatMap.put(agentIdList.get(i), merged);
+        }
+        return agentStatMap;
+    }
+
+    /**
+     * a batch row is keyed by its first sample. starts MAX_TIME_SPAN earlier to read the batch containing range.from.
+     */
+    private Range createBatchScanRange(Range range) {
+        return new Range(range.getFrom() - AgentStatBatchBo.MAX_TIME_SPAN, range.getTo());
+    }
+
+    /**
+     * drops the samples of the batches outside the range. (from, to] same as the scan of a row per sample.
+     */
+    static void addInRange(List<AgentStat> merged, List<AgentStat> agentStatList, Range range) {
+        for (AgentStat agentStat : agentStatList) {
+            final long timestamp = getTimestamp(agentStat);
+            if (timestamp > range.getFrom() && timestamp <= range.getTo()) {
+                merged.add(agentStat);
+            }
+        }
+    }
+
+    private static long getTimestamp(AgentStat agentStat) {
+        if (agentStat.getMemoryGc() != null) {
+            return agentStat.getMemoryGc().getTimestamp();
+        }
+        if (agentStat.getCpuLoad() != null) {
+            return agentStat.getCpuLoad().getTimestamp();
+        }
+        return -1;
+    }
+
     /**
      * make a row key based on timestamp
      * FIXME there is the same duplicate code at collector's dao module
@@ -42,11 +42,14 @@ import com.navercorp.pinpoint.common.buffer.Buffer;
 import com.navercorp.pinpoint.common.hbase.HBaseTables;
 import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
 import com.navercorp.pinpoint.common.hbase.LimitEventHandler;
+import com.navercorp.pinpoint.common.hbase.filter.ApplicationTraceIndexColumnFilter;
 import com.navercorp.pinpoint.common.util.BytesUtils;
 import com.navercorp.pinpoint.common.util.DateUtils;
 import com.navercorp.pinpoint.common.util.SpanUtils;
 import com.navercorp.pinpoint.common.util.TimeUtils;
 import com.navercorp.pinpoint.web.dao.ApplicationTraceIndexDao;
+import com.navercorp.pinpoint.web.mapper.TraceIndexScatterHandlerExtractor;
+import com.navercorp.pinpoint.web.mapper.TraceIndexScatterHeatMapExtractor;
 import com.navercorp.pinpoint.web.mapper.TraceIndexScatterMapper2;
 import com.navercorp.pinpoint.web.mapper.TransactionIdMapper;
 import com.navercorp.pinpoint.web.vo.LimitedScanResult;
@@ -55,6 +58,8 @@ import com.navercorp.pinpoint.web.vo.ResponseTimeRange;
 import com.navercorp.pinpoint.web.vo.SelectedScatterArea;
 import com.navercorp.pinpoint.web.vo.TransactionId;
 import com.navercorp.pinpoint.web.vo.scatter.Dot;
+import com.navercorp.pinpoint.web.vo.scatter.DotHandler;
+import com.navercorp.pinpoint.web.vo.scatter.ScatterHeatMap;
 import com.sematext.hbase.wd.AbstractRowKeyDistributor;
 
 /**
@@ -89,6 +94,11 @@ public class HbaseApplicationTraceIndexDao implements ApplicationTraceIndexDao {
 
     @Override
     public LimitedScanResult<List<TransactionId>> scanTraceIndex(final String applicationName, Range range, int limit) {
+        return scanTraceIndex(applicationName, range, limit, null);
+    }
+
+    @Override
+    public LimitedScanResult<List<TransactionId>> scanTraceIndex(final String applicationName, Range range, int limit, ApplicationTraceIndexColumnFilter traceIndexFilter) {
         if (applicationName == null) {
             throw new NullPointerException("applicationName must not be null");
         }
@@ -100,11 +110,15 @@ public class HbaseApplicationTraceIndexDao implements ApplicationTraceIndexDao {
         }
         logger.debug("scanTraceIndex");
         Scan scan = createScan(applicationName, range);
+        if (traceIndexFilter != null) {
+            logger.debug("traceIndexFilter:{}", traceIndexFilter);
+            scan.setFilter(traceIndexFilter);
+        }
 
         final LimitedScanResult<List<TransactionId>> limitedScanResult = new LimitedScanResult<List<TransactionId>>();
         LastRowAccessor lastRowAccessor = new LastRowAccessor();
-        List<List<TransactionId>> traceIndexList = hbaseOperations2.find(HBaseTables.APPLICATION_TRACE_INDEX,
-                scan, traceIdRowKeyDistributor, limit, traceIndexMapper, lastRowAccessor);
+        List<List<TransactionId>> traceIndexList = hbaseOperations2.findParallel(HBaseTables.APPLICATION_TRACE_INDEX,
+                scan, traceIdRowKeyDistributor, limit, traceIndexMapper, lastRowAccessor, true);
 
         List<TransactionId> transactionIdSum = new ArrayList<TransactionId>(128);
         for(List<TransactionId> transactionId: traceIndexList) {
@@ -144,8 +158,8 @@ public class HbaseApplicationTraceIndexDao implements ApplicationTraceIndexDao {
 
         final LimitedScanResult<List<TransactionId>> limitedScanResult = new LimitedScanResult<List<TransactionId>>();
         LastRowAccessor lastRowAccessor = new LastRowAccessor();
-        List<List<TransactionId>> traceIndexList = hbaseOperations2.find(HBaseTables.APPLICATION_TRACE_INDEX,
-                scan, traceIdRowKeyDistributor, limit, traceIndexMapper, lastRowAccessor);
+        List<List<TransactionId>> traceIndexList = hbaseOperations2.findParallel(HBaseTables.APPLICATION_TRACE_INDEX,
+                scan, traceIdRowKeyDistributor, limit, traceIndexMapper, lastRowAccessor, true);
 
         List<TransactionId> transactionIdSum = new ArrayList<TransactionId>(128);
         for(List<TransactionId> transactionId: traceIndexList) {
@@ -242,7 +256,7 @@ public class HbaseApplicationTraceIndexDao implements ApplicationTraceIndexDao {
         logger.debug("scanTraceScatter");
         Scan scan = createScan(applicationName, range);
 
-        List<List<Dot>> dotListList = hbaseOperations2.find(HBaseTables.APPLICATION_TRACE_INDEX, scan, traceIdRowKeyDistributor, limit, traceIndexScatterMapper);
+        List<List<Dot>> dotListList = hbaseOperations2.findParallel(HBaseTables.APPLICATION_TRACE_INDEX, scan, traceIdRowKeyDistributor, limit, traceIndexScatterMapper, true);
         List<Dot> mergeList = new ArrayList<Dot>(limit + 10);
         for(List<Dot> dotList : dotListList) {
             mergeList.addAll(dotList);
@@ -250,6 +264,24 @@ public class HbaseApplicationTraceIndexDao implements ApplicationTraceIndexDao {
         return mergeList;
     }
 
+    @Override
+    public int scanTraceScatter(String applicationName, Range range, int limit, DotHandler dotHandler) {
+        if (applicationName == null) {
+            throw new NullPointerException("applicationName must not be null");
+        }
+        if (range == null) {
+            throw new NullPointerException("range must not be null");
+        }
+        if (limit < 0) {
+            throw new IllegalArgumentException("negative limit:" + limit);
+        }
+        logger.debug("scanTraceScatter");
+        Scan scan = createScan(applicationName, range);
+
+        TraceIndexScatterHandlerExtractor extractor = new TraceIndexScatterHandlerExtractor(traceIndexScatterMapper, limit, dotHandler);
+        return hbaseOperations2.findParallel(HBaseTables.APPLICATION_TRACE_INDEX, scan, traceIdRowKeyDistributor, extractor, true);
+    }
+
     /**
      *
      */
@@ -275,7 +307,7 @@ public class HbaseApplicationTraceIndexDao implements ApplicationTraceIndexDao {
         ResponseTimeRange responseTimeRange = area.getResponseTimeRange();
         TraceIndexScatterMapper2 mapper = new TraceIndexScatterMapper2(responseTimeRange.getFrom(), responseTimeRange.getTo());
 
-        List<List<Dot>> dotListList = hbaseOperations2.find(HBaseTables.APPLICATION_TRACE_INDEX, scan, traceIdRowKeyDistributor, limit, mapper);
+        List<List<Dot>> dotListList = hbaseOperations2.findParallel(HBaseTables.APPLICATION_TRACE_INDEX, scan, traceIdRowKeyDistributor, limit, mapper, true);
 
         List<Dot> result = new ArrayList<Dot>();
         for(List<Dot> dotList : dotListList) {
@@ -285,6 +317,21 @@ public class HbaseApplicationTraceIndexDao implements ApplicationTraceIndexDao {
         return result;
     }
 
+    @Override
+    public ScatterHeatMap scanTraceScatterHeatMap(String applicationName, Range range, int xBinCount, int yBinCount, int yMax) {
+        if (applicationName == null) {
+            throw new NullPointerException("applicationName must not be null");
+        }
+        if (range == null) {
+            throw new NullPointerException("range must not be null");
+        }
+        logger.debug("scanTraceScatterHeatMap");
+        Scan scan = createScan(applicationName, range);
+
+        TraceIndexScatterHeatMapExtractor extractor = new TraceIndexScatterHeatMapExtractor(range, xBinCount, yBinCount, yMax);
+        return hbaseOperations2.findParallel(HBaseTables.APPLICATION_TRACE_INDEX, scan, traceIdRowKeyDistributor, extractor, false);
+    }
+
     /**
      * make the hbase filter for selecting values of y-axis(response time) in order to select transactions in scatter chart.
      * 4 bytes for elapsed time should be attached for the prefix of column qualifier for to use this filter.
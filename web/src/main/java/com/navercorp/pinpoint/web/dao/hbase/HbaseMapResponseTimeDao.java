@@ -23,6 +23,7 @@ import com.navercorp.pinpoint.web.dao.MapResponseDao;
 import com.navercorp.pinpoint.web.vo.Application;
 import com.navercorp.pinpoint.web.vo.Range;
 import com.navercorp.pinpoint.web.vo.RangeFactory;
+import com.navercorp.pinpoint.web.vo.RollupRange;
 import com.navercorp.pinpoint.web.vo.ResponseTime;
 
 import org.apache.hadoop.hbase.client.Scan;
@@ -43,8 +44,6 @@ public class HbaseMapResponseTimeDao implements MapResponseDao {
 
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
-    private final String tableName = HBaseTables.MAP_STATISTICS_SELF;
-
     private int scanCacheSize = 40;
 
     @Autowired
@@ -65,8 +64,12 @@ public class HbaseMapResponseTimeDao implements MapResponseDao {
         if (logger.isDebugEnabled()) {
             logger.debug("selectResponseTime applicationName:{}, {}", application, range);
         }
-        Scan scan = createScan(application, range);
-        List<ResponseTime> responseTimeList = hbaseOperations2.find(tableName, scan, responseTimeMapper);
+        List<ResponseTime> responseTimeList = new ArrayList<ResponseTime>();
+        for (RollupRange rollupRange : rangeFactory.createRollupStatisticsRanges(range)) {
+            Scan scan = createScan(application, rollupRange.getRange());
+            final String tableName = rollupRange.getRollup().getSelfTableName();
+            responseTimeList.addAll(hbaseOperations2.find(tableName, scan, responseTimeMapper));
+        }
         if (logger.isDebugEnabled()) {
             logger.debug("row:{}", responseTimeList.size());
             for (ResponseTime responseTime : responseTimeList) {
@@ -77,10 +80,10 @@ public class HbaseMapResponseTimeDao implements MapResponseDao {
         return responseTimeList;
     }
 
+    /**
+     * @param range reversed statistics range
+     */
     private Scan createScan(Application application, Range range) {
-        range = rangeFactory.createStatisticsRange(range);
-
-
         if (logger.isDebugEnabled()) {
             logger.debug("scan time:{} ", range.prettyToString());
         }
@@ -27,6 +27,7 @@ import com.navercorp.pinpoint.web.mapper.*;
 import com.navercorp.pinpoint.web.vo.Application;
 import com.navercorp.pinpoint.web.vo.Range;
 import com.navercorp.pinpoint.web.vo.RangeFactory;
+import com.navercorp.pinpoint.web.vo.RollupRange;
 
 import org.apache.hadoop.hbase.client.Scan;
 import org.slf4j.Logger;
@@ -66,8 +67,12 @@ public class HbaseMapStatisticsCalleeDao implements MapStatisticsCalleeDao {
         if (range == null) {
             throw new NullPointerException("range must not be null");
         }
-        Scan scan = createScan(calleeApplication, range);
-        List<LinkDataMap> foundListList = hbaseOperations2.find(HBaseTables.MAP_STATISTICS_CALLER, scan, mapStatisticsCalleeMapper);
+        List<LinkDataMap> foundListList = new ArrayList<LinkDataMap>();
+        for (RollupRange rollupRange : rangeFactory.createRollupStatisticsRanges(range)) {
+            Scan scan = createScan(calleeApplication, rollupRange.getRange());
+            final String tableName = rollupRange.getRollup().getCallerTableName();
+            foundListList.addAll(hbaseOperations2.find(tableName, scan, mapStatisticsCalleeMapper));
+        }
 
         if (foundListList.isEmpty()) {
             logger.debug("There's no caller data. {}, {}", calleeApplication, range);
@@ -76,6 +81,12 @@ public class HbaseMapStatisticsCalleeDao implements MapStatisticsCalleeDao {
         return merge(foundListList);
     }
 
+    @Override
+    public Map<Long, LinkDataMap> selectCalleeTimeSlot(Application calleeApplication, Range range) {
+        Scan scan = createScan(calleeApplication, rangeFactory.createStatisticsRange(range));
+        return hbaseOperations2.find(HBaseTables.MAP_STATISTICS_CALLER, scan, new TimeSlotLinkDataMapExtractor(mapStatisticsCalleeMapper));
+    }
+
     private LinkDataMap merge(List<LinkDataMap> foundListList) {
         final LinkDataMap result = new LinkDataMap();
 
@@ -107,7 +118,7 @@ public class HbaseMapStatisticsCalleeDao implements MapStatisticsCalleeDao {
         if (logger.isDebugEnabled()) {
             logger.debug("selectCalleeStatistics. {}, {}, {}", callerApplication, calleeApplication, range);
         }
-        Scan scan = createScan(calleeApplication, range);
+        Scan scan = createScan(calleeApplication, rangeFactory.createStatisticsRange(range));
 
 
         final LinkFilter filter = new DefaultLinkFilter(callerApplication, calleeApplication);
@@ -115,9 +126,10 @@ public class HbaseMapStatisticsCalleeDao implements MapStatisticsCalleeDao {
         return hbaseOperations2.find(HBaseTables.MAP_STATISTICS_CALLER, scan, mapper);
     }
 
+    /**
+     * @param range reversed statistics range
+     */
     private Scan createScan(Application application, Range range) {
-        range = rangeFactory.createStatisticsRange(range);
-
         if (logger.isDebugEnabled()) {
             logger.debug("scan time:{} ", range.prettyToString());
         }
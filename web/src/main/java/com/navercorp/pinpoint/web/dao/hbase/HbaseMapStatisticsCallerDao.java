@@ -27,6 +27,7 @@ import com.navercorp.pinpoint.web.mapper.*;
 import com.navercorp.pinpoint.web.vo.Application;
 import com.navercorp.pinpoint.web.vo.Range;
 import com.navercorp.pinpoint.web.vo.RangeFactory;
+import com.navercorp.pinpoint.web.vo.RollupRange;
 
 import org.apache.hadoop.hbase.client.Scan;
 import org.slf4j.Logger;
@@ -60,8 +61,12 @@ public class HbaseMapStatisticsCallerDao implements MapStatisticsCallerDao {
 
     @Override
     public LinkDataMap selectCaller(Application callerApplication, Range range) {
-        Scan scan = createScan(callerApplication, range);
-        final List<LinkDataMap> foundList = hbaseOperations2.find(HBaseTables.MAP_STATISTICS_CALLEE, scan, mapStatisticsCallerMapper);
+        final List<LinkDataMap> foundList = new ArrayList<LinkDataMap>();
+        for (RollupRange rollupRange : rangeFactory.createRollupStatisticsRanges(range)) {
+            Scan scan = createScan(callerApplication, rollupRange.getRange());
+            final String tableName = rollupRange.getRollup().getCalleeTableName();
+            foundList.addAll(hbaseOperations2.find(tableName, scan, mapStatisticsCallerMapper));
+        }
 
         if (foundList.isEmpty()) {
             logger.debug("There's no caller data. {}, {}", callerApplication, range);
@@ -70,6 +75,12 @@ public class HbaseMapStatisticsCallerDao implements MapStatisticsCallerDao {
         return merge(foundList);
     }
 
+    @Override
+    public Map<Long, LinkDataMap> selectCallerTimeSlot(Application callerApplication, Range range) {
+        Scan scan = createScan(callerApplication, rangeFactory.createStatisticsRange(range));
+        return hbaseOperations2.find(HBaseTables.MAP_STATISTICS_CALLEE, scan, new TimeSlotLinkDataMapExtractor(mapStatisticsCallerMapper));
+    }
+
     private LinkDataMap merge(List<LinkDataMap> foundList) {
         final LinkDataMap result = new LinkDataMap();
         for (LinkDataMap foundData : foundList) {
@@ -99,16 +110,17 @@ public class HbaseMapStatisticsCallerDao implements MapStatisticsCallerDao {
         if (logger.isDebugEnabled()) {
             logger.debug("selectCallerStatistics. {}, {}, {}", callerApplication, calleeApplication, range);
         }
-        Scan scan = createScan(callerApplication, range);
+        Scan scan = createScan(callerApplication, rangeFactory.createStatisticsRange(range));
 
         final LinkFilter filter = new DefaultLinkFilter(callerApplication, calleeApplication);
         RowMapper<LinkDataMap> mapper = new MapStatisticsCallerMapper(filter);
         return hbaseOperations2.find(HBaseTables.MAP_STATISTICS_CALLEE, scan, mapper);
     }
 
+    /**
+     * @param range reversed statistics range
+     */
     private Scan createScan(Application application, Range range) {
-        range = rangeFactory.createStatisticsRange(range);
-
         if (logger.isDebugEnabled()) {
             logger.debug("scan Time:{}", range.prettyToString());
         }
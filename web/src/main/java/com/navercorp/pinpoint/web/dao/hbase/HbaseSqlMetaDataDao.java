@@ -16,6 +16,8 @@
 
 package com.navercorp.pinpoint.web.dao.hbase;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import com.sematext.hbase.wd.RowKeyDistributorByHashPrefix;
@@ -30,6 +32,7 @@ import com.navercorp.pinpoint.common.bo.SqlMetaDataBo;
 import com.navercorp.pinpoint.common.hbase.HBaseTables;
 import com.navercorp.pinpoint.common.hbase.HbaseOperations2;
 import com.navercorp.pinpoint.web.dao.SqlMetaDataDao;
+import com.navercorp.pinpoint.web.vo.MetaDataKey;
 
 /**
  * @author emeroad
@@ -63,6 +66,26 @@ public class HbaseSqlMetaDataDao implements SqlMetaDataDao {
         return hbaseOperations2.get(HBaseTables.SQL_METADATA, get, sqlMetaDataMapper);
     }
 
+    @Override
+    public List<List<SqlMetaDataBo>> getSqlMetaDataList(List<MetaDataKey> keyList) {
+        if (keyList == null) {
+            throw new NullPointerException("keyList must not be null");
+        }
+        if (keyList.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        final List<Get> getList = new ArrayList<Get>(keyList.size());
+        for (MetaDataKey key : keyList) {
+            SqlMetaDataBo metaData = new SqlMetaDataBo(key.getAgentId(), key.getAgentStartTime(), key.getId());
+            Get get = new Get(getDistributedKey(metaData.toRowKey()));
+            get.addFamily(HBaseTables.SQL_METADATA_CF_SQL);
+            getList.add(get);
+        }
+
+        return hbaseOperations2.get(HBaseTables.SQL_METADATA, getList, sqlMetaDataMapper);
+    }
+
     private byte[] getDistributedKey(byte[] rowKey) {
         return rowKeyDistributorByHashPrefix.getDistributedKey(rowKey);
     }
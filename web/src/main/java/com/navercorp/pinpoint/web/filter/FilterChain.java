@@ -20,13 +20,14 @@ import java.util.ArrayList;
 import java.util.List;
 
 import com.navercorp.pinpoint.common.bo.SpanBo;
+import com.navercorp.pinpoint.common.hbase.filter.ApplicationTraceIndexColumnFilter;
 
 /**
  * 
  * @author netspider
  * 
  */
-public class FilterChain implements Filter {
+public class FilterChain implements Filter, TraceIndexFilterProvider {
 
     private final List<Filter> filterList;
 
@@ -49,6 +50,23 @@ public class FilterChain implements Filter {
         return true;
     }
 
+    /**
+     * every filter of the chain should pass, so the trace index filter of any one of them is enough.
+     * the trace index filters of the chain can not be combined because they may be satisfied by different spans.
+     */
+    @Override
+    public ApplicationTraceIndexColumnFilter createTraceIndexFilter(String applicationName) {
+        for (Filter f : filterList) {
+            if (f instanceof TraceIndexFilterProvider) {
+                ApplicationTraceIndexColumnFilter traceIndexFilter = ((TraceIndexFilterProvider) f).createTraceIndexFilter(applicationName);
+                if (traceIndexFilter != null) {
+                    return traceIndexFilter;
+                }
+            }
+        }
+        return null;
+    }
+
     public Filter get() {
         if (filterList.size() == 1) {
             return filterList.get(0);
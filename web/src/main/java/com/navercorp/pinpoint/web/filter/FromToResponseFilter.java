@@ -21,13 +21,15 @@ import java.util.List;
 import com.navercorp.pinpoint.common.ServiceType;
 import com.navercorp.pinpoint.common.bo.SpanBo;
 import com.navercorp.pinpoint.common.bo.SpanEventBo;
+import com.navercorp.pinpoint.common.hbase.filter.ApplicationTraceIndexColumnFilter;
+import com.navercorp.pinpoint.common.hbase.filter.ApplicationTraceIndexColumnFilter.ErrorState;
 
 /**
  * 
  * @author netspider
  * 
  */
-public class FromToResponseFilter implements Filter {
+public class FromToResponseFilter implements Filter, TraceIndexFilterProvider {
 
     private final List<ServiceType> fromServiceCode;
     private final String fromApplicationName;
@@ -222,6 +224,74 @@ public class FromToResponseFilter implements Filter {
         return false;
     }
 
+    /**
+     * the trace index of an application has a column per span of the application.
+     * only the conditions checked against a span of the scanned application in {@link #include(List)} are pushed down.
+     * conditions checked against span events (WAS -> UNKNOWN, WAS -> BACKEND response, hinted WAS -> WAS) are not.
+     */
+    @Override
+    public ApplicationTraceIndexColumnFilter createTraceIndexFilter(String applicationName) {
+        if (applicationName == null) {
+            throw new NullPointerException("applicationName must not be null");
+        }
+        if (includeServiceType(fromServiceCode, ServiceType.USER)) {
+            // USER -> WAS : root span of the to application
+            if (toApplicationName.equals(applicationName)) {
+                return createResponseTraceIndexFilter(toAgentName);
+            }
+            return null;
+        }
+        if (includeUnknown(toServiceCode)) {
+            return null;
+        }
+        if (includeWas(toServiceCode)) {
+            if (hint.containApplicationHint(toApplicationName)) {
+                return null;
+            }
+            // WAS -> WAS : dest span of the to application and src span of the from application
+            if (toApplicationName.equals(applicationName)) {
+                return createResponseTraceIndexFilter(toAgentName);
+            }
+            if (fromApplicationName.equals(applicationName)) {
+                return createAgentTraceIndexFilter(fromAgentName);
+            }
+            return null;
+        }
+        // WAS -> BACKEND : the response is checked on the span event. only the agent of the from span can be pushed down.
+        if (fromApplicationName.equals(applicationName)) {
+            return createAgentTraceIndexFilter(fromAgentName);
+        }
+        return null;
+    }
+
+    private ApplicationTraceIndexColumnFilter createResponseTraceIndexFilter(String agentName) {
+        long responseFrom = 0;
+        long responseTo = Long.MAX_VALUE;
+        if (fromResponseTime != null && toResponseTime != null) {
+            responseFrom = fromResponseTime;
+            responseTo = toResponseTime;
+        }
+        ErrorState errorState = ErrorState.ANY;
+        if (includeFailed != null) {
+            errorState = includeFailed ? ErrorState.ERROR : ErrorState.SUCCESS;
+        }
+        if (responseFrom == 0 && responseTo == Long.MAX_VALUE && errorState == ErrorState.ANY && agentName == null) {
+            return null;
+        }
+        if (responseFrom > responseTo) {
+            // nothing can match. leave it to the filter rather than scanning with an invalid range.
+            return null;
+        }
+        return new ApplicationTraceIndexColumnFilter(responseFrom, responseTo, errorState, agentName);
+    }
+
+    private ApplicationTraceIndexColumnFilter createAgentTraceIndexFilter(String agentName) {
+        if (agentName == null) {
+            return null;
+        }
+        return new ApplicationTraceIndexColumnFilter(0, Long.MAX_VALUE, ErrorState.ANY, agentName);
+    }
+
     @Deprecated
     private ServiceType getServiceType(short code) {
         return ServiceType.findServiceType(code);
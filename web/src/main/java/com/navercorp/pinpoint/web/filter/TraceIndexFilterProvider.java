@@ -0,0 +1,35 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.filter;
+
+import com.navercorp.pinpoint.common.hbase.filter.ApplicationTraceIndexColumnFilter;
+
+/**
+ * a {@link Filter} that can push a part of its condition down into the scan of the application trace index.
+ */
+public interface TraceIndexFilterProvider {
+
+    /**
+     * the returned filter must only drop the trace index columns of transactions which {@link Filter#include(java.util.List)} would drop anyway.
+     * the transactions passing the trace index filter are still checked by the filter itself.
+     *
+     * @param applicationName application of the scanned trace index
+     * @return null if nothing can be pushed down for the application
+     */
+    ApplicationTraceIndexColumnFilter createTraceIndexFilter(String applicationName);
+}
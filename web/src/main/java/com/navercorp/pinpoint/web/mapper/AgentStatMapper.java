@@ -23,13 +23,17 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
+import com.navercorp.pinpoint.common.bo.AgentStatBatchBo;
 import com.navercorp.pinpoint.common.bo.AgentStatCpuLoadBo;
 import com.navercorp.pinpoint.common.bo.AgentStatMemoryGcBo;
+import com.navercorp.pinpoint.common.bo.AgentStatRollupBo;
+import com.navercorp.pinpoint.common.hbase.AgentStatRollup;
 import com.navercorp.pinpoint.thrift.dto.TAgentStat;
 import com.navercorp.pinpoint.thrift.dto.TJvmGc;
 import com.navercorp.pinpoint.web.vo.AgentStat;
 
 import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.util.Bytes;
 import org.apache.thrift.TDeserializer;
 import org.apache.thrift.TException;
 import org.apache.thrift.protocol.TCompactProtocol;
@@ -57,6 +61,14 @@ public class AgentStatMapper implements RowMapper<List<AgentStat>> {
             return readAgentStatThriftDto(qualifierMap.get(AGENT_STAT_CF_STATISTICS_V1));
         }
 
+        if (qualifierMap.containsKey(AGENT_STAT_CF_STATISTICS_BATCH)) {
+            return readAgentStatBatch(qualifierMap.get(AGENT_STAT_CF_STATISTICS_BATCH));
+        }
+
+        if (isAgentStatRollup(qualifierMap)) {
+            return readAgentStatRollup(qualifierMap);
+        }
+
         AgentStat agentStat = new AgentStat();
         if (qualifierMap.containsKey(AGENT_STAT_CF_STATISTICS_MEMORY_GC)) {
             AgentStatMemoryGcBo.Builder builder = new AgentStatMemoryGcBo.Builder(qualifierMap.get(AGENT_STAT_CF_STATISTICS_MEMORY_GC));
@@ -71,6 +83,77 @@ public class AgentStatMapper implements RowMapper<List<AgentStat>> {
         return agentStats;
     }
 
+    private List<AgentStat> readAgentStatBatch(byte[] agentStatBatchByteArray) {
+        AgentStatBatchBo agentStatBatchBo = new AgentStatBatchBo.Builder(agentStatBatchByteArray).build();
+        List<AgentStatMemoryGcBo> memoryGcBoList = agentStatBatchBo.getMemoryGcBoList();
+        List<AgentStatCpuLoadBo> cpuLoadBoList = agentStatBatchBo.getCpuLoadBoList();
+
+        final int size = agentStatBatchBo.size();
+        List<AgentStat> agentStats = new ArrayList<AgentStat>(size);
+        // rows are scanned in reverse time order. the samples of a batch are returned the same way.
+        for (int i = size - 1; i >= 0; i--) {
+            AgentStat agentStat = new AgentStat();
+            agentStat.setMemoryGc(memoryGcBoList.get(i));
+            agentStat.setCpuLoad(cpuLoadBoList.get(i));
+            agentStats.add(agentStat);
+        }
+        return agentStats;
+    }
+
+    private boolean isAgentStatRollup(Map<byte[], byte[]> qualifierMap) {
+        if (qualifierMap.containsKey(AGENT_STAT_CF_STATISTICS_ROLLUP_COUNT)) {
+            return true;
+        }
+        for (byte[] qualifier : qualifierMap.keySet()) {
+            if (AgentStatRollup.isMinMaxQualifier(qualifier)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * count and sums are counters. the min/max columns written by each collector aggregate of the slot are merged.
+     */
+    private List<AgentStat> readAgentStatRollup(Map<byte[], byte[]> qualifierMap) {
+        AgentStatRollupBo.Builder builder = null;
+        for (Map.Entry<byte[], byte[]> entry : qualifierMap.entrySet()) {
+            if (!AgentStatRollup.isMinMaxQualifier(entry.getKey())) {
+                continue;
+            }
+            if (builder == null) {
+                builder = new AgentStatRollupBo.Builder(entry.getValue());
+            } else {
+                builder.mergeMinMax(entry.getValue());
+            }
+        }
+        final byte[] count = qualifierMap.get(AGENT_STAT_CF_STATISTICS_ROLLUP_COUNT);
+        if (builder == null || count == null) {
+            // the flush of the slot is in progress
+            return Collections.emptyList();
+        }
+        builder.count(Bytes.toLong(count));
+        for (int i = 0; i < AgentStatRollupBo.SUMMARY_SIZE; i++) {
+            final byte[] sum = qualifierMap.get(AgentStatRollup.getSumQualifier(i));
+            if (sum != null) {
+                builder.sum(i, Bytes.toLong(sum));
+            }
+        }
+        AgentStatRollupBo agentStatRollupBo = builder.build();
+
+        AgentStat agentStat = new AgentStat();
+        agentStat.setMemoryGc(agentStatRollupBo.toMemoryGcBo());
+        agentStat.setCpuLoad(agentStatRollupBo.toCpuLoadBo());
+        agentStat.setMinMemoryGc(agentStatRollupBo.toMinMemoryGcBo());
+        agentStat.setMaxMemoryGc(agentStatRollupBo.toMaxMemoryGcBo());
+        agentStat.setMinCpuLoad(agentStatRollupBo.toMinCpuLoadBo());
+        agentStat.setMaxCpuLoad(agentStatRollupBo.toMaxCpuLoadBo());
+
+        List<AgentStat> agentStats = new ArrayList<AgentStat>(1);
+        agentStats.add(agentStat);
+        return agentStats;
+    }
+
     // FIXME (2014.08) Legacy support for TAgentStat Thrift DTO stored directly into hbase.
     private List<AgentStat> readAgentStatThriftDto(byte[] tAgentStatByteArray) throws TException {
         // CompactProtocol used
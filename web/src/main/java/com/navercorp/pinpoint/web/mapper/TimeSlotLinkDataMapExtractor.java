@@ -0,0 +1,61 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.mapper;
+
+import com.navercorp.pinpoint.common.util.ApplicationMapStatisticsUtils;
+import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkDataMap;
+
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.springframework.data.hadoop.hbase.ResultsExtractor;
+import org.springframework.data.hadoop.hbase.RowMapper;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Maps the statistics rows without merging the time slots.
+ * key = time slot of the row
+ */
+public class TimeSlotLinkDataMapExtractor implements ResultsExtractor<Map<Long, LinkDataMap>> {
+
+    private final RowMapper<LinkDataMap> rowMapper;
+
+    public TimeSlotLinkDataMapExtractor(RowMapper<LinkDataMap> rowMapper) {
+        if (rowMapper == null) {
+            throw new NullPointerException("rowMapper must not be null");
+        }
+        this.rowMapper = rowMapper;
+    }
+
+    @Override
+    public Map<Long, LinkDataMap> extractData(ResultScanner results) throws Exception {
+        final Map<Long, LinkDataMap> timeSlotMap = new HashMap<Long, LinkDataMap>();
+        int rowNum = 0;
+        for (Result result : results) {
+            final LinkDataMap linkDataMap = rowMapper.mapRow(result, rowNum++);
+            final long timeSlot = ApplicationMapStatisticsUtils.getTimestampFromRowKey(result.getRow());
+            final LinkDataMap exist = timeSlotMap.get(timeSlot);
+            if (exist == null) {
+                timeSlotMap.put(timeSlot, linkDataMap);
+            } else {
+                exist.addLinkDataMap(linkDataMap);
+            }
+        }
+        return timeSlotMap;
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.mapper;
+
+import com.navercorp.pinpoint.web.vo.scatter.Dot;
+import com.navercorp.pinpoint.web.vo.scatter.DotHandler;
+
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.springframework.data.hadoop.hbase.ResultsExtractor;
+import org.springframework.data.hadoop.hbase.RowMapper;
+
+import java.util.List;
+
+/**
+ * Passes the dots of each scanned row to a {@link DotHandler} instead of collecting them.
+ * stops after the row that reaches the limit, same as {@link com.navercorp.pinpoint.common.hbase.LimitRowMapperResultsExtractor}.
+ */
+public class TraceIndexScatterHandlerExtractor implements ResultsExtractor<Integer> {
+
+    private final RowMapper<List<Dot>> rowMapper;
+    private final int limit;
+    private final DotHandler dotHandler;
+
+    public TraceIndexScatterHandlerExtractor(RowMapper<List<Dot>> rowMapper, int limit, DotHandler dotHandler) {
+        if (rowMapper == null) {
+            throw new NullPointerException("rowMapper must not be null");
+        }
+        if (dotHandler == null) {
+            throw new NullPointerException("dotHandler must not be null");
+        }
+        this.rowMapper = rowMapper;
+        this.limit = limit;
+        this.dotHandler = dotHandler;
+    }
+
+    /**
+     * @return number of the handled dots
+     */
+    @Override
+    public Integer extractData(ResultScanner results) throws Exception {
+        int dotCount = 0;
+        for (Result result : results) {
+            final List<Dot> dotList = rowMapper.mapRow(result, dotCount);
+            for (Dot dot : dotList) {
+                dotHandler.handleDot(dot);
+            }
+            dotCount += dotList.size();
+            if (dotCount >= limit) {
+                break;
+            }
+        }
+        return dotCount;
+    }
+}
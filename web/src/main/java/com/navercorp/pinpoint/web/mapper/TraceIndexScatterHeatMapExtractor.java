@@ -0,0 +1,80 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.mapper;
+
+import com.navercorp.pinpoint.common.buffer.Buffer;
+import com.navercorp.pinpoint.common.buffer.OffsetFixedBuffer;
+import com.navercorp.pinpoint.common.hbase.HBaseTables;
+import com.navercorp.pinpoint.common.util.BytesUtils;
+import com.navercorp.pinpoint.common.util.TimeUtils;
+import com.navercorp.pinpoint.web.vo.Range;
+import com.navercorp.pinpoint.web.vo.scatter.Dot;
+import com.navercorp.pinpoint.web.vo.scatter.ScatterHeatMap;
+
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.client.Result;
+import org.apache.hadoop.hbase.client.ResultScanner;
+import org.springframework.data.hadoop.hbase.ResultsExtractor;
+
+/**
+ * Counts the trace index rows into a {@link ScatterHeatMap} while scanning.
+ * unlike {@link TraceIndexScatterMapper}, neither the transactionId nor the agentId is decoded and no {@link Dot} is created.
+ */
+public class TraceIndexScatterHeatMapExtractor implements ResultsExtractor<ScatterHeatMap> {
+
+    private final Range range;
+    private final int xBinCount;
+    private final int yBinCount;
+    private final int yMax;
+
+    public TraceIndexScatterHeatMapExtractor(Range range, int xBinCount, int yBinCount, int yMax) {
+        if (range == null) {
+            throw new NullPointerException("range must not be null");
+        }
+        this.range = range;
+        this.xBinCount = xBinCount;
+        this.yBinCount = yBinCount;
+        this.yMax = yMax;
+    }
+
+    @Override
+    public ScatterHeatMap extractData(ResultScanner results) throws Exception {
+        final ScatterHeatMap heatMap = new ScatterHeatMap(range, xBinCount, yBinCount, yMax);
+        for (Result result : results) {
+            if (result.isEmpty()) {
+                continue;
+            }
+            final KeyValue[] raw = result.raw();
+            // every column of a row has the same accepted time
+            final long acceptedTime = getAcceptedTime(raw[0]);
+            for (KeyValue kv : raw) {
+                final Buffer valueBuffer = new OffsetFixedBuffer(kv.getBuffer(), kv.getValueOffset());
+                final int elapsed = valueBuffer.readVarInt();
+                final int exceptionCode = valueBuffer.readSVarInt();
+                heatMap.addDot(acceptedTime, elapsed, exceptionCode != Dot.EXCEPTION_NONE);
+            }
+        }
+        return heatMap;
+    }
+
+    private long getAcceptedTime(KeyValue kv) {
+        final int offset = kv.getRowOffset() + HBaseTables.APPLICATION_NAME_MAX_LEN + HBaseTables.APPLICATION_TRACE_INDEX_ROW_DISTRIBUTE_SIZE;
+        final long reverseAcceptedTime = BytesUtils.bytesToLong(kv.getBuffer(), offset);
+        return TimeUtils.recoveryTimeMillis(reverseAcceptedTime);
+    }
+}
@@ -18,6 +18,7 @@ package com.navercorp.pinpoint.web.service;
 
 import java.util.List;
 
+import com.navercorp.pinpoint.web.util.TimeWindow;
 import com.navercorp.pinpoint.web.vo.AgentStat;
 import com.navercorp.pinpoint.web.vo.Range;
 
@@ -28,4 +29,9 @@ public interface AgentStatService {
 
     List<AgentStat> selectAgentStatList(String agentId, Range range);
 
+    /**
+     * reads the coarsest rollup that still fills every slot of the time window, if rollups are enabled
+     */
+    List<AgentStat> selectAgentStatList(String agentId, Range range, TimeWindow timeWindow);
+
 }
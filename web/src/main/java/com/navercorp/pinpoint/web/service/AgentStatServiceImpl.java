@@ -18,10 +18,15 @@ package com.navercorp.pinpoint.web.service;
 
 import java.util.List;
 
+import com.navercorp.pinpoint.common.hbase.AgentStatRollup;
+import com.navercorp.pinpoint.web.config.WebConfig;
 import com.navercorp.pinpoint.web.dao.AgentStatDao;
+import com.navercorp.pinpoint.web.util.TimeWindow;
 import com.navercorp.pinpoint.web.vo.AgentStat;
 import com.navercorp.pinpoint.web.vo.Range;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -32,9 +37,14 @@ import org.springframework.stereotype.Service;
 @Service
 public class AgentStatServiceImpl implements AgentStatService {
 
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
     @Autowired
     private AgentStatDao agentStatDao;
 
+    @Autowired
+    private WebConfig webConfig;
+
     public List<AgentStat> selectAgentStatList(String agentId, Range range) {
         if (agentId == null) {
             throw new NullPointerException("agentId must not be null");
@@ -42,4 +52,22 @@ public class AgentStatServiceImpl implements AgentStatService {
         return agentStatDao.scanAgentStatList(agentId, range);
     }
 
+    @Override
+    public List<AgentStat> selectAgentStatList(String agentId, Range range, TimeWindow timeWindow) {
+        if (agentId == null) {
+            throw new NullPointerException("agentId must not be null");
+        }
+        if (timeWindow == null) {
+            throw new NullPointerException("timeWindow must not be null");
+        }
+        if (!webConfig.isAgentStatRollupEnable()) {
+            return agentStatDao.scanAgentStatList(agentId, range);
+        }
+        final AgentStatRollup rollup = AgentStatRollup.select(timeWindow.getWindowSlotSize());
+        if (logger.isDebugEnabled()) {
+            logger.debug("selectAgentStatList agentId:{} windowSlotSize:{} rollup:{}", agentId, timeWindow.getWindowSlotSize(), rollup);
+        }
+        return agentStatDao.scanAgentStatList(agentId, range, rollup);
+    }
+
 }
@@ -0,0 +1,258 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.service;
+
+import com.navercorp.pinpoint.common.HistogramSchema;
+import com.navercorp.pinpoint.common.HistogramSlot;
+import com.navercorp.pinpoint.common.ServiceType;
+import com.navercorp.pinpoint.common.bo.SpanBo;
+import com.navercorp.pinpoint.common.bo.SpanEventBo;
+import com.navercorp.pinpoint.web.applicationmap.ApplicationMap;
+import com.navercorp.pinpoint.web.applicationmap.ApplicationMapBuilder;
+import com.navercorp.pinpoint.web.applicationmap.link.MatcherGroup;
+import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkDataDuplexMap;
+import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkDataMap;
+import com.navercorp.pinpoint.web.util.TimeWindow;
+import com.navercorp.pinpoint.web.util.TimeWindowDownSampler;
+import com.navercorp.pinpoint.web.vo.Application;
+import com.navercorp.pinpoint.web.vo.Range;
+import com.navercorp.pinpoint.web.vo.ResponseHistogramBuilder;
+import com.navercorp.pinpoint.web.vo.scatter.ApplicationScatterScanResult;
+
+import org.apache.commons.collections.CollectionUtils;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Converts filtered transactions into the statistics of a filtered application map.
+ * Not thread-safe. each worker owns a builder and the partial builders are merged by {@link #addFilteredMapBuilder(FilteredMapBuilder)}.
+ */
+public class FilteredMapBuilder {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final Range range;
+    private final TimeWindow window;
+
+    private final LinkDataDuplexMap linkDataDuplexMap = new LinkDataDuplexMap();
+    private final ResponseHistogramBuilder mapHistogramSummary;
+    private final DotExtractor dotExtractor;
+
+    private int transactionCount = 0;
+
+    public FilteredMapBuilder(Range range, Range scanRange) {
+        if (range == null) {
+            throw new NullPointerException("range must not be null");
+        }
+        if (scanRange == null) {
+            throw new NullPointerException("scanRange must not be null");
+        }
+        this.range = range;
+        // TODO inject TimeWindow from elsewhere
+        this.window = new TimeWindow(range, TimeWindowDownSampler.SAMPLER);
+        this.mapHistogramSummary = new ResponseHistogramBuilder(range);
+        this.dotExtractor = new DotExtractor(scanRange);
+    }
+
+    public void addTransactions(List<List<SpanBo>> transactionList) {
+        if (transactionList == null) {
+            throw new NullPointerException("transactionList must not be null");
+        }
+        for (List<SpanBo> transaction : transactionList) {
+            addTransaction(transaction);
+        }
+    }
+
+    public void addTransaction(List<SpanBo> transaction) {
+        if (transaction == null) {
+            throw new NullPointerException("transaction must not be null");
+        }
+        transactionCount++;
+        final Map<Long, SpanBo> transactionSpanMap = checkDuplicatedSpanId(transaction);
+
+        for (SpanBo span : transaction) {
+            final Application parentApplication = createParentApplication(span, transactionSpanMap);
+            final Application spanApplication = new Application(span.getApplicationId(), span.getServiceType());
+
+            // records the Span's response time statistics
+            recordSpanResponseTime(spanApplication, span, mapHistogramSummary, span.getCollectorAcceptTime());
+
+            if (!spanApplication.getServiceType().isRecordStatistics() || spanApplication.getServiceType().isRpcClient()) {
+                // span's serviceType is probably not set correctly
+                logger.warn("invalid span application:{}", spanApplication);
+                continue;
+            }
+
+            final short slotTime = getHistogramSlotTime(span, spanApplication.getServiceType());
+            // might need to reconsider using collector's accept time for link statistics.
+            // we need to convert to time window's timestamp. If not, it may lead to OOM due to mismatch in timeslots.
+            long timestamp = window.refineTimestamp(span.getCollectorAcceptTime());
+
+            if (parentApplication.getServiceType() == ServiceType.USER) {
+                // Outbound data
+                if (logger.isTraceEnabled()) {
+                    logger.trace("span user:{} {} -> span:{} {}", parentApplication, span.getAgentId(), spanApplication, span.getAgentId());
+                }
+                final LinkDataMap sourceLinkData = linkDataDuplexMap.getSourceLinkDataMap();
+                sourceLinkData.addLinkData(parentApplication, span.getAgentId(), spanApplication,  span.getAgentId(), timestamp, slotTime, 1);
+
+                if (logger.isTraceEnabled()) {
+                    logger.trace("span target user:{} {} -> span:{} {}", parentApplication, span.getAgentId(), spanApplication, span.getAgentId());
+                }
+                // Inbound data
+                final LinkDataMap targetLinkDataMap = linkDataDuplexMap.getTargetLinkDataMap();
+                targetLinkDataMap.addLinkData(parentApplication, span.getAgentId(), spanApplication, span.getAgentId(), timestamp, slotTime, 1);
+            } else {
+                // Inbound data
+                if (logger.isTraceEnabled()) {
+                    logger.trace("span target parent:{} {} -> span:{} {}", parentApplication, span.getAgentId(), spanApplication, span.getAgentId());
+                }
+                final LinkDataMap targetLinkDataMap = linkDataDuplexMap.getTargetLinkDataMap();
+                targetLinkDataMap.addLinkData(parentApplication, span.getAgentId(), spanApplication, span.getAgentId(), timestamp, slotTime, 1);
+            }
+
+
+            addNodeFromSpanEvent(span, window, linkDataDuplexMap, transactionSpanMap);
+            dotExtractor.addDot(span);
+        }
+    }
+
+    /**
+     * merges the partial statistics of another worker
+     */
+    public void addFilteredMapBuilder(FilteredMapBuilder filteredMapBuilder) {
+        if (filteredMapBuilder == null) {
+            throw new NullPointerException("filteredMapBuilder must not be null");
+        }
+        this.transactionCount += filteredMapBuilder.transactionCount;
+        this.linkDataDuplexMap.addLinkDataDuplexMap(filteredMapBuilder.linkDataDuplexMap);
+        this.mapHistogramSummary.addResponseHistogramBuilder(filteredMapBuilder.mapHistogramSummary);
+        this.dotExtractor.addDotExtractor(filteredMapBuilder.dotExtractor);
+    }
+
+    public int getTransactionCount() {
+        return transactionCount;
+    }
+
+    public ApplicationMap build(AgentInfoService agentInfoService, MatcherGroup matcherGroup) {
+        List<ApplicationScatterScanResult> applicationScatterScanResult = dotExtractor.getApplicationScatterScanResult();
+
+        ApplicationMapBuilder applicationMapBuilder = new ApplicationMapBuilder(range, matcherGroup);
+        mapHistogramSummary.build();
+        ApplicationMap map = applicationMapBuilder.build(linkDataDuplexMap, agentInfoService, mapHistogramSummary);
+
+        map.setApplicationScatterScanResult(applicationScatterScanResult);
+
+        return map;
+    }
+
+    private Map<Long, SpanBo> checkDuplicatedSpanId(List<SpanBo> transaction) {
+        final Map<Long, SpanBo> transactionSpanMap = new HashMap<Long, SpanBo>();
+        for (SpanBo span : transaction) {
+            final SpanBo old = transactionSpanMap.put(span.getSpanId(), span);
+            if (old != null) {
+                logger.warn("duplicated span found:{}", old);
+            }
+        }
+        return transactionSpanMap;
+    }
+
+    private void recordSpanResponseTime(Application application, SpanBo span, ResponseHistogramBuilder responseHistogramBuilder, long timeStamp) {
+        responseHistogramBuilder.addHistogram(application, span, timeStamp);
+    }
+
+
+    private void addNodeFromSpanEvent(SpanBo span, TimeWindow window, LinkDataDuplexMap linkDataDuplexMap, Map<Long, SpanBo> transactionSpanMap) {
+        /**
+         * add span event statistics
+         */
+        final List<SpanEventBo> spanEventBoList = span.getSpanEventBoList();
+        if (CollectionUtils.isEmpty(spanEventBoList)) {
+            return;
+        }
+        final Application srcApplication = new Application(span.getApplicationId(), span.getServiceType());
+
+        LinkDataMap sourceLinkDataMap = linkDataDuplexMap.getSourceLinkDataMap();
+        for (SpanEventBo spanEvent : spanEventBoList) {
+
+            ServiceType destServiceType = ServiceType.findServiceType(spanEvent.getServiceType());
+            if (!destServiceType.isRecordStatistics()) {
+                // internal method
+                continue;
+            }
+            // convert to Unknown if destServiceType is a rpc client and there is no acceptor.
+            // acceptor exists if there is a span with spanId identical to the current spanEvent's next spanId.
+            // logic for checking acceptor
+            if (destServiceType.isRpcClient()) {
+                if (!transactionSpanMap.containsKey(spanEvent.getNextSpanId())) {
+                    destServiceType = ServiceType.UNKNOWN;
+                }
+            }
+
+            final String dest = spanEvent.getDestinationId();
+            final Application destApplication = new Application(dest, destServiceType);
+
+            final short slotTime = getHistogramSlotTime(spanEvent, destServiceType);
+
+            // FIXME
+            final long spanEventTimeStamp = window.refineTimestamp(span.getStartTime() + spanEvent.getStartElapsed());
+            if (logger.isTraceEnabled()) {
+                logger.trace("spanEvent  src:{} {} -> dest:{} {}", srcApplication, span.getAgentId(), destApplication, spanEvent.getEndPoint());
+            }
+            // endPoint may be null
+            final String destinationAgentId = StringUtils.defaultString(spanEvent.getEndPoint());
+            sourceLinkDataMap.addLinkData(srcApplication, span.getAgentId(), destApplication, destinationAgentId, spanEventTimeStamp, slotTime, 1);
+        }
+    }
+
+    private Application createParentApplication(SpanBo span, Map<Long, SpanBo> transactionSpanMap) {
+        final SpanBo parentSpan = transactionSpanMap.get(span.getParentSpanId());
+        if (span.isRoot() || parentSpan == null) {
+            String applicationName = span.getApplicationId();
+            ServiceType serviceType = ServiceType.USER;
+            return new Application(applicationName, serviceType);
+        } else {
+            String parentApplicationName = parentSpan.getApplicationId();
+            ServiceType serviceType = ServiceType.findServiceType(parentSpan.getServiceType());
+            return new Application(parentApplicationName, serviceType);
+        }
+    }
+
+    private short getHistogramSlotTime(SpanEventBo spanEvent, ServiceType serviceType) {
+        return getHistogramSlotTime(spanEvent.hasException(), spanEvent.getEndElapsed(), serviceType);
+    }
+
+    private short getHistogramSlotTime(SpanBo span, ServiceType serviceType) {
+        boolean allException = span.getErrCode() != 0;
+        return getHistogramSlotTime(allException, span.getElapsed(), serviceType);
+    }
+
+    private short getHistogramSlotTime(boolean hasException, int elapsedTime, ServiceType serviceType) {
+        if (hasException) {
+            return serviceType.getHistogramSchema().getErrorSlot().getSlotTime();
+        } else {
+            final HistogramSchema schema = serviceType.getHistogramSchema();
+            final HistogramSlot histogramSlot = schema.findHistogramSlot(elapsedTime);
+            return histogramSlot.getSlotTime();
+        }
+    }
+}
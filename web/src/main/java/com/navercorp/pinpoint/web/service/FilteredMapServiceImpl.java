@@ -18,31 +18,33 @@ package com.navercorp.pinpoint.web.service;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 
-import com.navercorp.pinpoint.common.HistogramSchema;
-import com.navercorp.pinpoint.common.HistogramSlot;
 import com.navercorp.pinpoint.common.ServiceType;
 import com.navercorp.pinpoint.common.bo.SpanBo;
 import com.navercorp.pinpoint.common.bo.SpanEventBo;
+import com.navercorp.pinpoint.common.hbase.filter.ApplicationTraceIndexColumnFilter;
+import com.navercorp.pinpoint.common.util.ExecutorFactory;
 import com.navercorp.pinpoint.web.applicationmap.ApplicationMap;
-import com.navercorp.pinpoint.web.applicationmap.ApplicationMapBuilder;
 import com.navercorp.pinpoint.web.applicationmap.link.MatcherGroup;
-import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkDataDuplexMap;
-import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkDataMap;
+import com.navercorp.pinpoint.web.config.WebConfig;
 import com.navercorp.pinpoint.web.dao.*;
 import com.navercorp.pinpoint.web.filter.Filter;
-import com.navercorp.pinpoint.web.util.TimeWindow;
-import com.navercorp.pinpoint.web.util.TimeWindowDownSampler;
+import com.navercorp.pinpoint.web.filter.TraceIndexFilterProvider;
 import com.navercorp.pinpoint.web.vo.*;
-import com.navercorp.pinpoint.web.vo.scatter.ApplicationScatterScanResult;
 
-import org.apache.commons.collections.CollectionUtils;
-import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -71,8 +73,32 @@ public class FilteredMapServiceImpl implements FilteredMapService {
     @Autowired(required=false)
     private MatcherGroup matcherGroup;
 
+    @Autowired
+    private WebConfig webConfig;
+
     private static final Object V = new Object();
 
+    private static final int DEFAULT_SELECT_SPAN_BATCH_SIZE = 500;
+
+    private ExecutorService selectSpanExecutor;
+
+    @PostConstruct
+    public void start() {
+        int threadSize = webConfig.getFilteredMapSelectSpanThreadSize();
+        if (threadSize <= 0) {
+            threadSize = Runtime.getRuntime().availableProcessors();
+        }
+        this.selectSpanExecutor = ExecutorFactory.newFixedThreadPool(threadSize, Integer.MAX_VALUE, "Pinpoint-FilteredMap", true);
+    }
+
+    @PreDestroy
+    public void stop() {
+        final ExecutorService selectSpanExecutor = this.selectSpanExecutor;
+        if (selectSpanExecutor != null) {
+            selectSpanExecutor.shutdownNow();
+        }
+    }
+
     @Override
     public LimitedScanResult<List<TransactionId>> selectTraceIdsFromApplicationTraceIndex(String applicationName, Range range, int limit) {
         if (applicationName == null) {
@@ -87,6 +113,29 @@ public class FilteredMapServiceImpl implements FilteredMapService {
 
         return this.applicationTraceIndexDao.scanTraceIndex(applicationName, range, limit);
     }
+
+    @Override
+    public LimitedScanResult<List<TransactionId>> selectTraceIdsFromApplicationTraceIndex(String applicationName, Range range, int limit, Filter filter) {
+        if (applicationName == null) {
+            throw new NullPointerException("applicationName must not be null");
+        }
+        if (range == null) {
+            throw new NullPointerException("range must not be null");
+        }
+        if (filter == null) {
+            throw new NullPointerException("filter must not be null");
+        }
+
+        ApplicationTraceIndexColumnFilter traceIndexFilter = null;
+        if (webConfig.isFilteredMapTraceIndexFilterEnable() && filter instanceof TraceIndexFilterProvider) {
+            traceIndexFilter = ((TraceIndexFilterProvider) filter).createTraceIndexFilter(applicationName);
+        }
+        if (logger.isTraceEnabled()) {
+            logger.trace("scan(selectTraceIdsFromApplicationTraceIndex) {}, {}, traceIndexFilter:{}", applicationName, range, traceIndexFilter);
+        }
+
+        return this.applicationTraceIndexDao.scanTraceIndex(applicationName, range, limit, traceIndexFilter);
+    }
     
     @Override
     public LimitedScanResult<List<TransactionId>> selectTraceIdsFromApplicationTraceIndex(String applicationName, SelectedScatterArea area, int limit) {
@@ -201,9 +250,9 @@ public class FilteredMapServiceImpl implements FilteredMapService {
         StopWatch watch = new StopWatch();
         watch.start();
 
-        final List<List<SpanBo>> filterList = selectFilteredSpan(transactionIdList, filter);
+        final FilteredMapBuilder filteredMapBuilder = selectFilteredMap(transactionIdList, originalRange, scanRange, filter);
 
-        ApplicationMap map = createMap(originalRange, scanRange, filterList);
+        ApplicationMap map = filteredMapBuilder.build(agentInfoService, matcherGroup);
 
         watch.stop();
         logger.debug("Select filtered application map elapsed. {}ms", watch.getTotalTimeMillis());
@@ -211,178 +260,100 @@ public class FilteredMapServiceImpl implements FilteredMapService {
         return map;
     }
 
-    private List<List<SpanBo>> selectFilteredSpan(List<TransactionId> transactionIdList, Filter filter) {
+    /**
+     * fetches spans by batches in parallel. each batch is filtered and converted to a partial map by the worker thread
+     * so that HBase I/O overlaps with the statistics work. partial maps are merged as they complete.
+     */
+    private FilteredMapBuilder selectFilteredMap(List<TransactionId> transactionIdList, final Range originalRange, final Range scanRange, final Filter filter) {
         // filters out recursive calls by looking at each objects
         // do not filter here if we change to a tree-based collision check in the future. 
         final Collection<TransactionId> recursiveFilterList = recursiveCallFilter(transactionIdList);
 
-        // FIXME might be better to simply traverse the List<Span> and create a process chain for execution
-        final List<List<SpanBo>> originalList = this.traceDao.selectAllSpans(recursiveFilterList);
-
-        return filterList2(originalList, filter);
-    }
-
-    private ApplicationMap createMap(Range range, Range scanRange, List<List<SpanBo>> filterList) {
-
-        // TODO inject TimeWindow from elsewhere 
-        final TimeWindow window = new TimeWindow(range, TimeWindowDownSampler.SAMPLER);
-
-
-        final LinkDataDuplexMap linkDataDuplexMap = new LinkDataDuplexMap();
-
-        final DotExtractor dotExtractor = new DotExtractor(scanRange);
-        final ResponseHistogramBuilder mapHistogramSummary = new ResponseHistogramBuilder(range);
-        /**
-         * Convert to statistical data
-         */
-        for (List<SpanBo> transaction : filterList) {
-            final Map<Long, SpanBo> transactionSpanMap = checkDuplicatedSpanId(transaction);
-
-            for (SpanBo span : transaction) {
-                final Application parentApplication = createParentApplication(span, transactionSpanMap);
-                final Application spanApplication = new Application(span.getApplicationId(), span.getServiceType());
-
-                // records the Span's response time statistics
-                recordSpanResponseTime(spanApplication, span, mapHistogramSummary, span.getCollectorAcceptTime());
-
-                if (!spanApplication.getServiceType().isRecordStatistics() || spanApplication.getServiceType().isRpcClient()) {
-                    // span's serviceType is probably not set correctly
-                    logger.warn("invalid span application:{}", spanApplication);
-                    continue;
-                }
-
-                final short slotTime = getHistogramSlotTime(span, spanApplication.getServiceType());
-                // might need to reconsider using collector's accept time for link statistics.
-                // we need to convert to time window's timestamp. If not, it may lead to OOM due to mismatch in timeslots. 
-                long timestamp = window.refineTimestamp(span.getCollectorAcceptTime());
-
-                if (parentApplication.getServiceType() == ServiceType.USER) {
-                    // Outbound data
-                    if (logger.isTraceEnabled()) {
-                        logger.trace("span user:{} {} -> span:{} {}", parentApplication, span.getAgentId(), spanApplication, span.getAgentId());
-                    }
-                    final LinkDataMap sourceLinkData = linkDataDuplexMap.getSourceLinkDataMap();
-                    sourceLinkData.addLinkData(parentApplication, span.getAgentId(), spanApplication,  span.getAgentId(), timestamp, slotTime, 1);
-
-                    if (logger.isTraceEnabled()) {
-                        logger.trace("span target user:{} {} -> span:{} {}", parentApplication, span.getAgentId(), spanApplication, span.getAgentId());
-                    }
-                    // Inbound data
-                    final LinkDataMap targetLinkDataMap = linkDataDuplexMap.getTargetLinkDataMap();
-                    targetLinkDataMap.addLinkData(parentApplication, span.getAgentId(), spanApplication, span.getAgentId(), timestamp, slotTime, 1);
-                } else {
-                    // Inbound data
-                    if (logger.isTraceEnabled()) {
-                        logger.trace("span target parent:{} {} -> span:{} {}", parentApplication, span.getAgentId(), spanApplication, span.getAgentId());
-                    }
-                    final LinkDataMap targetLinkDataMap = linkDataDuplexMap.getTargetLinkDataMap();
-                    targetLinkDataMap.addLinkData(parentApplication, span.getAgentId(), spanApplication, span.getAgentId(), timestamp, slotTime, 1);
-                }
-
-
-                addNodeFromSpanEvent(span, window, linkDataDuplexMap, transactionSpanMap);
-                dotExtractor.addDot(span);
-            }
-        }
-        List<ApplicationScatterScanResult> applicationScatterScanResult = dotExtractor.getApplicationScatterScanResult();
-
-        ApplicationMapBuilder applicationMapBuilder = new ApplicationMapBuilder(range, matcherGroup);
-        mapHistogramSummary.build();
-        ApplicationMap map = applicationMapBuilder.build(linkDataDuplexMap, agentInfoService, mapHistogramSummary);
-
-        map.setApplicationScatterScanResult(applicationScatterScanResult);
-
-        return map;
-    }
-
-    private Map<Long, SpanBo> checkDuplicatedSpanId(List<SpanBo> transaction) {
-        final Map<Long, SpanBo> transactionSpanMap = new HashMap<Long, SpanBo>();
-        for (SpanBo span : transaction) {
-            final SpanBo old = transactionSpanMap.put(span.getSpanId(), span);
-            if (old != null) {
-                logger.warn("duplicated span found:{}", old);
-            }
+        final List<List<TransactionId>> batchList = splitBatch(recursiveFilterList, getSelectSpanBatchSize());
+        if (batchList.size() <= 1) {
+            return new FilteredSpanWorker(recursiveFilterList, originalRange, scanRange, filter).call();
         }
-        return transactionSpanMap;
-    }
 
-    private void recordSpanResponseTime(Application application, SpanBo span, ResponseHistogramBuilder responseHistogramBuilder, long timeStamp) {
-        responseHistogramBuilder.addHistogram(application, span, timeStamp);
-    }
-
-
-    private void addNodeFromSpanEvent(SpanBo span, TimeWindow window, LinkDataDuplexMap linkDataDuplexMap, Map<Long, SpanBo> transactionSpanMap) {
-        /**
-         * add span event statistics
-         */
-        final List<SpanEventBo> spanEventBoList = span.getSpanEventBoList();
-        if (CollectionUtils.isEmpty(spanEventBoList)) {
-            return;
+        final CompletionService<FilteredMapBuilder> completionService = new ExecutorCompletionService<FilteredMapBuilder>(selectSpanExecutor);
+        final List<Future<FilteredMapBuilder>> futureList = new ArrayList<Future<FilteredMapBuilder>>(batchList.size());
+        for (List<TransactionId> batch : batchList) {
+            futureList.add(completionService.submit(new FilteredSpanWorker(batch, originalRange, scanRange, filter)));
         }
-        final Application srcApplication = new Application(span.getApplicationId(), span.getServiceType());
 
-        LinkDataMap sourceLinkDataMap = linkDataDuplexMap.getSourceLinkDataMap();
-        for (SpanEventBo spanEvent : spanEventBoList) {
-
-            ServiceType destServiceType = ServiceType.findServiceType(spanEvent.getServiceType());
-            if (!destServiceType.isRecordStatistics()) {
-                // internal method
-                continue;
+        final FilteredMapBuilder result = new FilteredMapBuilder(originalRange, scanRange);
+        boolean success = false;
+        try {
+            for (int i = 0; i < futureList.size(); i++) {
+                final FilteredMapBuilder partial = completionService.take().get();
+                result.addFilteredMapBuilder(partial);
+            }
+            success = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("selectFilteredMap interrupted", e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
             }
-            // convert to Unknown if destServiceType is a rpc client and there is no acceptor.
-            // acceptor exists if there is a span with spanId identical to the current spanEvent's next spanId.
-            // logic for checking acceptor
-            if (destServiceType.isRpcClient()) {
-                if (!transactionSpanMap.containsKey(spanEvent.getNextSpanId())) {
-                    destServiceType = ServiceType.UNKNOWN;
+            throw new IllegalStateException("selectFilteredMap error. Caused:" + cause.getMessage(), cause);
+        } finally {
+            if (!success) {
+                for (Future<FilteredMapBuilder> future : futureList) {
+                    future.cancel(true);
                 }
             }
+        }
+        logger.debug("selectFilteredMap batch:{} transaction:{}", batchList.size(), result.getTransactionCount());
+        return result;
+    }
 
-            final String dest = spanEvent.getDestinationId();
-            final Application destApplication = new Application(dest, destServiceType);
-
-            final short slotTime = getHistogramSlotTime(spanEvent, destServiceType);
-
-            // FIXME
-            final long spanEventTimeStamp = window.refineTimestamp(span.getStartTime() + spanEvent.getStartElapsed());
-            if (logger.isTraceEnabled()) {
-                logger.trace("spanEvent  src:{} {} -> dest:{} {}", srcApplication, span.getAgentId(), destApplication, spanEvent.getEndPoint());
+    private List<List<TransactionId>> splitBatch(Collection<TransactionId> transactionIdList, int batchSize) {
+        final List<List<TransactionId>> batchList = new ArrayList<List<TransactionId>>();
+        List<TransactionId> batch = new ArrayList<TransactionId>(batchSize);
+        for (TransactionId transactionId : transactionIdList) {
+            batch.add(transactionId);
+            if (batch.size() >= batchSize) {
+                batchList.add(batch);
+                batch = new ArrayList<TransactionId>(batchSize);
             }
-            // endPoint may be null
-            final String destinationAgentId = StringUtils.defaultString(spanEvent.getEndPoint());
-            sourceLinkDataMap.addLinkData(srcApplication, span.getAgentId(), destApplication, destinationAgentId, spanEventTimeStamp, slotTime, 1);
         }
+        if (!batch.isEmpty()) {
+            batchList.add(batch);
+        }
+        return batchList;
     }
 
-    private Application createParentApplication(SpanBo span, Map<Long, SpanBo> transactionSpanMap) {
-        final SpanBo parentSpan = transactionSpanMap.get(span.getParentSpanId());
-        if (span.isRoot() || parentSpan == null) {
-            String applicationName = span.getApplicationId();
-            ServiceType serviceType = ServiceType.USER;
-            return new Application(applicationName, serviceType);
-        } else {
-            String parentApplicationName = parentSpan.getApplicationId();
-            ServiceType serviceType = ServiceType.findServiceType(parentSpan.getServiceType());
-            return new Application(parentApplicationName, serviceType);
+    private int getSelectSpanBatchSize() {
+        final int batchSize = webConfig.getFilteredMapSelectSpanBatchSize();
+        if (batchSize <= 0) {
+            return DEFAULT_SELECT_SPAN_BATCH_SIZE;
         }
+        return batchSize;
     }
 
-    private short getHistogramSlotTime(SpanEventBo spanEvent, ServiceType serviceType) {
-        return getHistogramSlotTime(spanEvent.hasException(), spanEvent.getEndElapsed(), serviceType);
-    }
+    private class FilteredSpanWorker implements Callable<FilteredMapBuilder> {
+        private final Collection<TransactionId> transactionIdList;
+        private final Range originalRange;
+        private final Range scanRange;
+        private final Filter filter;
+
+        private FilteredSpanWorker(Collection<TransactionId> transactionIdList, Range originalRange, Range scanRange, Filter filter) {
+            this.transactionIdList = transactionIdList;
+            this.originalRange = originalRange;
+            this.scanRange = scanRange;
+            this.filter = filter;
+        }
 
-    private short getHistogramSlotTime(SpanBo span, ServiceType serviceType) {
-        boolean allException = span.getErrCode() != 0;
-        return getHistogramSlotTime(allException, span.getElapsed(), serviceType);
-    }
+        @Override
+        public FilteredMapBuilder call() {
+            // FIXME might be better to simply traverse the List<Span> and create a process chain for execution
+            final List<List<SpanBo>> originalList = traceDao.selectAllSpans(transactionIdList);
+            final List<List<SpanBo>> filterList = filterList2(originalList, filter);
 
-    private short getHistogramSlotTime(boolean hasException, int elapsedTime, ServiceType serviceType) {
-        if (hasException) {
-            return serviceType.getHistogramSchema().getErrorSlot().getSlotTime();
-        } else {
-            final HistogramSchema schema = serviceType.getHistogramSchema();
-            final HistogramSlot histogramSlot = schema.findHistogramSlot(elapsedTime);
-            return histogramSlot.getSlotTime();
+            final FilteredMapBuilder filteredMapBuilder = new FilteredMapBuilder(originalRange, scanRange);
+            filteredMapBuilder.addTransactions(filterList);
+            return filteredMapBuilder;
         }
     }
 
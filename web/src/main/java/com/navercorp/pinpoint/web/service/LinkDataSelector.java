@@ -25,6 +25,7 @@ import com.navercorp.pinpoint.web.dao.MapStatisticsCallerDao;
 import com.navercorp.pinpoint.web.service.map.AcceptApplication;
 import com.navercorp.pinpoint.web.service.map.AcceptApplicationLocalCache;
 import com.navercorp.pinpoint.web.service.map.AcceptApplicationLocalCacheV1;
+import com.navercorp.pinpoint.web.service.map.Memoizer;
 import com.navercorp.pinpoint.web.service.map.RpcApplication;
 import com.navercorp.pinpoint.web.vo.Application;
 import com.navercorp.pinpoint.web.vo.LinkKey;
@@ -36,8 +37,16 @@ import org.slf4j.LoggerFactory;
 import org.springframework.data.hadoop.hbase.HbaseSystemException;
 
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 /**
+ * Selects the links of the application map breadth-first.
+ * The caller/callee scans of a depth are issued in parallel on the executor and merged by the requesting thread.
+ * A selector is used for a single request. scans and accept application lookups are done only once per request.
+ *
  * @author emeroad
  */
 public class LinkDataSelector {
@@ -52,14 +61,21 @@ public class LinkDataSelector {
 
     private final HostApplicationMapDao hostApplicationMapDao;
 
+    private final ExecutorService executor;
+
     private final AcceptApplicationLocalCache acceptApplicationLocalCache = new AcceptApplicationLocalCache();
 
     @Deprecated
     private final AcceptApplicationLocalCacheV1 acceptApplicationLocalCacheV1 = new AcceptApplicationLocalCacheV1();
 
-    private final Set<LinkData> emulationLinkMarker = new HashSet<LinkData>();
+    // rpc host of the caller -> accept applications
+    private final Memoizer<RpcApplication, Set<AcceptApplication>> acceptApplicationMemoizer = new Memoizer<RpcApplication, Set<AcceptApplication>>();
+    // caller -> accept applications of every rpc host called by the caller
+    private final Memoizer<Application, Set<AcceptApplication>> hostApplicationMemoizer = new Memoizer<Application, Set<AcceptApplication>>();
+
+    private final Set<LinkData> emulationLinkMarker = Collections.synchronizedSet(new HashSet<LinkData>());
 
-    public LinkDataSelector(MapStatisticsCalleeDao mapStatisticsCalleeDao, MapStatisticsCallerDao mapStatisticsCallerDao, HostApplicationMapDao hostApplicationMapDao) {
+    public LinkDataSelector(MapStatisticsCalleeDao mapStatisticsCalleeDao, MapStatisticsCallerDao mapStatisticsCallerDao, HostApplicationMapDao hostApplicationMapDao, ExecutorService executor) {
         if (mapStatisticsCalleeDao == null) {
             throw new NullPointerException("mapStatisticsCalleeDao must not be null");
         }
@@ -69,9 +85,13 @@ public class LinkDataSelector {
         if (hostApplicationMapDao == null) {
             throw new NullPointerException("hostApplicationMapDao must not be null");
         }
+        if (executor == null) {
+            throw new NullPointerException("executor must not be null");
+        }
         this.mapStatisticsCalleeDao = mapStatisticsCalleeDao;
         this.mapStatisticsCallerDao = mapStatisticsCallerDao;
         this.hostApplicationMapDao = hostApplicationMapDao;
+        this.executor = executor;
     }
 
     /**
@@ -81,12 +101,7 @@ public class LinkDataSelector {
      * @param range
      * @return
      */
-    private LinkDataDuplexMap selectCaller(Application callerApplication, Range range) {
-        // skip if the callerApplication has already been checked
-        if (linkVisitChecker.visitCaller(callerApplication)) {
-            return new LinkDataDuplexMap();
-        }
-
+    private LinkDataMap selectCaller(Application callerApplication, Range range) {
         LinkDataMap caller = mapStatisticsCallerDao.selectCaller(callerApplication, range);
         if (logger.isDebugEnabled()) {
             logger.debug("Found Caller. count={}, caller={}", caller.size(), callerApplication);
@@ -99,33 +114,7 @@ public class LinkDataSelector {
                 replaceRpcCaller.addLinkData(linkData);
             }
         }
-
-
-        final LinkDataDuplexMap resultCaller = new LinkDataDuplexMap();
-        for (LinkData link : replaceRpcCaller.getLinkDataList()) {
-            resultCaller.addSourceLinkData(link);
-
-            final Application toApplication = link.getToApplication();
-            // skip if toApplication is a terminal or an unknown cloud
-            if (toApplication.getServiceType().isTerminal() || toApplication.getServiceType().isUnknown()) {
-                continue;
-            }
-
-            logger.debug("     Find subCaller of {}", toApplication);
-            LinkDataDuplexMap callerSub = selectCaller(toApplication, range);
-            logger.debug("     Found subCaller. count={}, caller={}", callerSub.size(), toApplication);
-
-            resultCaller.addLinkDataDuplexMap(callerSub);
-
-            // find all callers of queried subCallers as well
-            for (LinkData eachCaller : callerSub.getSourceLinkDataList()) {
-                logger.debug("     Find callee of {}", eachCaller.getFromApplication());
-                LinkDataDuplexMap calleeSub = selectCallee(eachCaller.getFromApplication(), range);
-                logger.debug("     Found subCallee. count={}, callee={}", calleeSub.size(), eachCaller.getFromApplication());
-                resultCaller.addLinkDataDuplexMap(calleeSub);
-            }
-        }
-        return resultCaller;
+        return replaceRpcCaller;
     }
 
     /**
@@ -135,38 +124,15 @@ public class LinkDataSelector {
      * @param range
      * @return
      */
-    private LinkDataDuplexMap selectCallee(Application calleeApplication, Range range) {
-        // skip if the calleeApplication has already been checked
-        if (linkVisitChecker.visitCallee(calleeApplication)) {
-            return new LinkDataDuplexMap();
-        }
-
+    private LinkDataMap selectCallee(Application calleeApplication, Range range) {
         final LinkDataMap callee = mapStatisticsCalleeDao.selectCallee(calleeApplication, range);
         logger.debug("Found Callee. count={}, callee={}", callee.size(), calleeApplication);
-
-        final LinkDataDuplexMap calleeSet = new LinkDataDuplexMap();
-        for (LinkData stat : callee.getLinkDataList()) {
-            calleeSet.addTargetLinkData(stat);
-
-            // need to find the applications that called me
-            LinkDataDuplexMap calleeSub = selectCallee(stat.getFromApplication(), range);
-            calleeSet.addLinkDataDuplexMap(calleeSub);
-
-            // find all callees of queried subCallees as well
-            for (LinkData eachCallee : calleeSub.getTargetLinkDataList()) {
-                // skip if terminal node
-                final Application eachCalleeToApplication = eachCallee.getToApplication();
-                if (eachCalleeToApplication.getServiceType().isTerminal() || eachCalleeToApplication.getServiceType().isUnknown()) {
-                    continue;
-                }
-                LinkDataDuplexMap callerSub = selectCaller(eachCalleeToApplication, range);
-                calleeSet.addLinkDataDuplexMap(callerSub);
-            }
-        }
-
-        return calleeSet;
+        return callee;
     }
 
+    private boolean isTerminalOrUnknown(Application application) {
+        return application.getServiceType().isTerminal() || application.getServiceType().isUnknown();
+    }
 
     private List<LinkData> checkRpcCallAccepted(LinkData linkData, Range range) {
         // replace if the rpc client's destination has an agent installed and thus has an application name
@@ -219,7 +185,17 @@ public class LinkDataSelector {
     }
 
 
-    private Set<AcceptApplication> findAcceptApplication(Application fromApplication, String host, Range range) {
+    private Set<AcceptApplication> findAcceptApplication(final Application fromApplication, final String host, final Range range) {
+        final RpcApplication rpcApplication = new RpcApplication(host, fromApplication);
+        return acceptApplicationMemoizer.get(rpcApplication, new Callable<Set<AcceptApplication>>() {
+            @Override
+            public Set<AcceptApplication> call() throws Exception {
+                return findAcceptApplication0(fromApplication, host, range);
+            }
+        });
+    }
+
+    private Set<AcceptApplication> findAcceptApplication0(Application fromApplication, String host, Range range) {
         logger.debug("findAcceptApplication {} {}", fromApplication, host);
         Set<AcceptApplication> acceptApplicationVer2;
         try {
@@ -254,7 +230,7 @@ public class LinkDataSelector {
         return acceptApplicationLocalCacheV1.get(host);
     }
 
-    private Set<AcceptApplication> findAcceptApplicationVer2(Application fromApplication, String host, Range range) {
+    private Set<AcceptApplication> findAcceptApplicationVer2(final Application fromApplication, String host, final Range range) {
 
         final RpcApplication rpcApplication = new RpcApplication(host, fromApplication);
         final Set<AcceptApplication> hit = this.acceptApplicationLocalCache.get(rpcApplication);
@@ -262,7 +238,13 @@ public class LinkDataSelector {
             logger.debug("acceptApplicationLocalCacheV2 hit");
             return hit;
         }
-        final Set<AcceptApplication> acceptApplicationSet= hostApplicationMapDao.findAcceptApplicationName(fromApplication, range);
+        // the accept applications of every host called by fromApplication are queried at once
+        final Set<AcceptApplication> acceptApplicationSet = hostApplicationMemoizer.get(fromApplication, new Callable<Set<AcceptApplication>>() {
+            @Override
+            public Set<AcceptApplication> call() throws Exception {
+                return hostApplicationMapDao.findAcceptApplicationName(fromApplication, range);
+            }
+        });
         this.acceptApplicationLocalCache.put(rpcApplication, acceptApplicationSet);
         return this.acceptApplicationLocalCache.get(rpcApplication);
     }
@@ -348,17 +330,145 @@ public class LinkDataSelector {
     }
 
     public LinkDataDuplexMap select(Application sourceApplication, Range range) {
-        LinkDataDuplexMap caller = selectCaller(sourceApplication, range);
-        logger.debug("Result of finding caller {}", caller);
+        final LinkDataDuplexMap linkDataDuplexMap = new LinkDataDuplexMap();
+
+        Set<Application> callerFrontier = new LinkedHashSet<Application>();
+        callerFrontier.add(sourceApplication);
+        Set<Application> calleeFrontier = new LinkedHashSet<Application>();
+        calleeFrontier.add(sourceApplication);
+
+        int depth = 0;
+        while (!callerFrontier.isEmpty() || !calleeFrontier.isEmpty()) {
+            final List<Application> callerList = visitCaller(callerFrontier);
+            final List<Application> calleeList = visitCallee(calleeFrontier);
+            if (logger.isDebugEnabled()) {
+                logger.debug("select depth:{} caller:{} callee:{}", depth, callerList, calleeList);
+            }
 
-        LinkDataDuplexMap callee = selectCallee(sourceApplication, range);
-        logger.debug("Result of finding callee {}", callee);
+            final List<Future<LinkDataMap>> futureList = new ArrayList<Future<LinkDataMap>>(callerList.size() + calleeList.size());
+            boolean success = false;
+            try {
+                for (Application caller : callerList) {
+                    futureList.add(executor.submit(new SelectCallerTask(caller, range)));
+                }
+                for (Application callee : calleeList) {
+                    futureList.add(executor.submit(new SelectCalleeTask(callee, range)));
+                }
+
+                final Set<Application> nextCallerFrontier = new LinkedHashSet<Application>();
+                final Set<Application> nextCalleeFrontier = new LinkedHashSet<Application>();
+                for (int i = 0; i < callerList.size(); i++) {
+                    final Application callerApplication = callerList.get(i);
+                    final LinkDataMap caller = await(futureList.get(i));
+                    for (LinkData link : caller.getLinkDataList()) {
+                        linkDataDuplexMap.addSourceLinkData(link);
+                        final Application toApplication = link.getToApplication();
+                        // skip if toApplication is a terminal or an unknown cloud
+                        if (!isTerminalOrUnknown(toApplication)) {
+                            nextCallerFrontier.add(toApplication);
+                        }
+                    }
+                    // find all callers of the caller as well
+                    if (caller.size() > 0) {
+                        nextCalleeFrontier.add(callerApplication);
+                    }
+                }
+                for (int i = 0; i < calleeList.size(); i++) {
+                    final Application calleeApplication = calleeList.get(i);
+                    final LinkDataMap callee = await(futureList.get(callerList.size() + i));
+                    for (LinkData link : callee.getLinkDataList()) {
+                        linkDataDuplexMap.addTargetLinkData(link);
+                        // need to find the applications that called me
+                        nextCalleeFrontier.add(link.getFromApplication());
+                    }
+                    // find all callees of the callee as well
+                    if (callee.size() > 0 && !isTerminalOrUnknown(calleeApplication)) {
+                        nextCallerFrontier.add(calleeApplication);
+                    }
+                }
+                callerFrontier = nextCallerFrontier;
+                calleeFrontier = nextCalleeFrontier;
+                success = true;
+            } finally {
+                if (!success) {
+                    for (Future<LinkDataMap> future : futureList) {
+                        future.cancel(true);
+                    }
+                }
+            }
+            depth++;
+        }
+        logger.debug("Result of finding link depth:{} {}", depth, linkDataDuplexMap);
 
-        LinkDataDuplexMap linkDataDuplexMap = new LinkDataDuplexMap();
-        linkDataDuplexMap.addLinkDataDuplexMap(caller);
-        linkDataDuplexMap.addLinkDataDuplexMap(callee);
         fillEmulationLink(linkDataDuplexMap);
 
         return linkDataDuplexMap;
     }
+
+    private List<Application> visitCaller(Set<Application> frontier) {
+        final List<Application> visitList = new ArrayList<Application>(frontier.size());
+        for (Application application : frontier) {
+            // skip if the application has already been checked
+            if (!linkVisitChecker.visitCaller(application)) {
+                visitList.add(application);
+            }
+        }
+        return visitList;
+    }
+
+    private List<Application> visitCallee(Set<Application> frontier) {
+        final List<Application> visitList = new ArrayList<Application>(frontier.size());
+        for (Application application : frontier) {
+            // skip if the application has already been checked
+            if (!linkVisitChecker.visitCallee(application)) {
+                visitList.add(application);
+            }
+        }
+        return visitList;
+    }
+
+    private LinkDataMap await(Future<LinkDataMap> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("select interrupted", e);
+        } catch (ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("select error. Caused:" + cause.getMessage(), cause);
+        }
+    }
+
+    private class SelectCallerTask implements Callable<LinkDataMap> {
+        private final Application callerApplication;
+        private final Range range;
+
+        private SelectCallerTask(Application callerApplication, Range range) {
+            this.callerApplication = callerApplication;
+            this.range = range;
+        }
+
+        @Override
+        public LinkDataMap call() throws Exception {
+            return selectCaller(callerApplication, range);
+        }
+    }
+
+    private class SelectCalleeTask implements Callable<LinkDataMap> {
+        private final Application calleeApplication;
+        private final Range range;
+
+        private SelectCalleeTask(Application calleeApplication, Range range) {
+            this.calleeApplication = calleeApplication;
+            this.range = range;
+        }
+
+        @Override
+        public LinkDataMap call() throws Exception {
+            return selectCallee(calleeApplication, range);
+        }
+    }
 }
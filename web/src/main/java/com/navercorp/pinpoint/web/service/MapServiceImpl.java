@@ -17,15 +17,23 @@
 package com.navercorp.pinpoint.web.service;
 
 import java.util.*;
+import java.util.concurrent.ExecutorService;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import com.google.common.cache.CacheStats;
 import com.navercorp.pinpoint.common.ServiceType;
+import com.navercorp.pinpoint.common.util.ExecutorFactory;
 import com.navercorp.pinpoint.web.applicationmap.ApplicationMap;
 import com.navercorp.pinpoint.web.applicationmap.ApplicationMapBuilder;
 import com.navercorp.pinpoint.web.applicationmap.histogram.NodeHistogram;
 import com.navercorp.pinpoint.web.applicationmap.histogram.TimeHistogram;
 import com.navercorp.pinpoint.web.applicationmap.link.MatcherGroup;
 import com.navercorp.pinpoint.web.applicationmap.rawdata.*;
+import com.navercorp.pinpoint.web.config.WebConfig;
 import com.navercorp.pinpoint.web.dao.*;
+import com.navercorp.pinpoint.web.service.map.TimeSlotLinkDataCache;
 import com.navercorp.pinpoint.web.vo.*;
 
 import org.slf4j.Logger;
@@ -62,6 +70,33 @@ public class MapServiceImpl implements MapService {
     @Autowired(required=false)
     private MatcherGroup matcherGroup;
 
+    @Autowired
+    private WebConfig webConfig;
+
+    private ExecutorService selectLinkExecutor;
+
+    private TimeSlotLinkDataCache linkDataCache;
+
+    @PostConstruct
+    public void start() {
+        int threadSize = webConfig.getApplicationMapSelectLinkThreadSize();
+        if (threadSize <= 0) {
+            threadSize = Runtime.getRuntime().availableProcessors();
+        }
+        this.selectLinkExecutor = ExecutorFactory.newFixedThreadPool(threadSize, Integer.MAX_VALUE, "Pinpoint-ApplicationMap", true);
+
+        if (webConfig.isApplicationMapCacheEnable()) {
+            this.linkDataCache = new TimeSlotLinkDataCache(mapStatisticsCallerDao, mapStatisticsCalleeDao, webConfig.getApplicationMapCacheMaxSize(), webConfig.getApplicationMapCacheCloseDelay());
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        final ExecutorService selectLinkExecutor = this.selectLinkExecutor;
+        if (selectLinkExecutor != null) {
+            selectLinkExecutor.shutdownNow();
+        }
+    }
 
     /**
      * Used in the main UI - draws the server map by querying the timeslot by time.
@@ -78,7 +113,7 @@ public class MapServiceImpl implements MapService {
 
         StopWatch watch = new StopWatch("applicationMapWatch");
         watch.start();
-        LinkDataSelector linkDataSelector = new LinkDataSelector(this.mapStatisticsCalleeDao, this.mapStatisticsCallerDao, hostApplicationMapDao);
+        LinkDataSelector linkDataSelector = createLinkDataSelector();
         LinkDataDuplexMap linkDataDuplexMap = linkDataSelector.select(sourceApplication, range);
 
         ApplicationMapBuilder builder = new ApplicationMapBuilder(range, matcherGroup);
@@ -86,10 +121,22 @@ public class MapServiceImpl implements MapService {
 
         watch.stop();
         logger.info("Fetch applicationmap elapsed. {}ms", watch.getLastTaskTimeMillis());
+        if (linkDataCache != null) {
+            final CacheStats stats = linkDataCache.getStats();
+            logger.info("linkDataCache size:{} hitRate:{} {}", linkDataCache.size(), stats.hitRate(), stats);
+        }
 
         return map;
     }
 
+    private LinkDataSelector createLinkDataSelector() {
+        final TimeSlotLinkDataCache linkDataCache = this.linkDataCache;
+        if (linkDataCache == null) {
+            return new LinkDataSelector(this.mapStatisticsCalleeDao, this.mapStatisticsCallerDao, hostApplicationMapDao, selectLinkExecutor);
+        }
+        return new LinkDataSelector(linkDataCache.getMapStatisticsCalleeDao(), linkDataCache.getMapStatisticsCallerDao(), hostApplicationMapDao, selectLinkExecutor);
+    }
+
 
     @Override
     @Deprecated
@@ -0,0 +1,222 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.service;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.navercorp.pinpoint.common.bo.ApiMetaDataBo;
+import com.navercorp.pinpoint.common.bo.SqlMetaDataBo;
+import com.navercorp.pinpoint.common.bo.StringMetaDataBo;
+import com.navercorp.pinpoint.web.dao.ApiMetaDataDao;
+import com.navercorp.pinpoint.web.dao.SqlMetaDataDao;
+import com.navercorp.pinpoint.web.dao.StringMetaDataDao;
+import com.navercorp.pinpoint.web.vo.MetaDataKey;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resolves the api/sql/string metadata of a call tree with one multi get per table.
+ * <p/>
+ * The keys of a whole call tree are added to a {@link Lookup} first. {@link Lookup#resolve()} reads the cache
+ * and fetches all the missing keys of a table at once. The metadata of a key never changes, so the found metadata
+ * is cached. maximumSize entries per table, the least recently used are evicted first. 0 maximumSize disables the cache.
+ * Not found keys are not cached. the agent may send the metadata late.
+ */
+public class MetaDataResolver {
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final MetaDataCache<ApiMetaDataBo> apiCache;
+    private final MetaDataCache<SqlMetaDataBo> sqlCache;
+    private final MetaDataCache<StringMetaDataBo> stringCache;
+
+    public MetaDataResolver(final ApiMetaDataDao apiMetaDataDao, final SqlMetaDataDao sqlMetaDataDao, final StringMetaDataDao stringMetaDataDao, long maximumSize) {
+        if (apiMetaDataDao == null) {
+            throw new NullPointerException("apiMetaDataDao must not be null");
+        }
+        if (sqlMetaDataDao == null) {
+            throw new NullPointerException("sqlMetaDataDao must not be null");
+        }
+        if (stringMetaDataDao == null) {
+            throw new NullPointerException("stringMetaDataDao must not be null");
+        }
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException("negative maximumSize:" + maximumSize);
+        }
+        this.apiCache = new MetaDataCache<ApiMetaDataBo>(maximumSize) {
+            @Override
+            protected List<List<ApiMetaDataBo>> load(List<MetaDataKey> keyList) {
+                return apiMetaDataDao.getApiMetaDataList(keyList);
+            }
+        };
+        this.sqlCache = new MetaDataCache<SqlMetaDataBo>(maximumSize) {
+            @Override
+            protected List<List<SqlMetaDataBo>> load(List<MetaDataKey> keyList) {
+                return sqlMetaDataDao.getSqlMetaDataList(keyList);
+            }
+        };
+        this.stringCache = new MetaDataCache<StringMetaDataBo>(maximumSize) {
+            @Override
+            protected List<List<StringMetaDataBo>> load(List<MetaDataKey> keyList) {
+                return stringMetaDataDao.getStringMetaDataList(keyList);
+            }
+        };
+    }
+
+    public Lookup newLookup() {
+        return new Lookup();
+    }
+
+    public CacheStats getApiCacheStats() {
+        return apiCache.stats();
+    }
+
+    public CacheStats getSqlCacheStats() {
+        return sqlCache.stats();
+    }
+
+    public CacheStats getStringCacheStats() {
+        return stringCache.stats();
+    }
+
+    /**
+     * Metadata of a single call tree. not thread-safe.
+     */
+    public class Lookup {
+
+        private final Set<MetaDataKey> apiKeySet = new LinkedHashSet<MetaDataKey>();
+        private final Set<MetaDataKey> sqlKeySet = new LinkedHashSet<MetaDataKey>();
+        private final Set<MetaDataKey> stringKeySet = new LinkedHashSet<MetaDataKey>();
+
+        private Map<MetaDataKey, List<ApiMetaDataBo>> apiMetaData = Collections.emptyMap();
+        private Map<MetaDataKey, List<SqlMetaDataBo>> sqlMetaData = Collections.emptyMap();
+        private Map<MetaDataKey, List<StringMetaDataBo>> stringMetaData = Collections.emptyMap();
+
+        private Lookup() {
+        }
+
+        public void addApi(String agentId, long agentStartTime, int apiId) {
+            apiKeySet.add(new MetaDataKey(agentId, agentStartTime, apiId));
+        }
+
+        public void addSql(String agentId, long agentStartTime, int hashCode) {
+            sqlKeySet.add(new MetaDataKey(agentId, agentStartTime, hashCode));
+        }
+
+        public void addString(String agentId, long agentStartTime, int stringId) {
+            stringKeySet.add(new MetaDataKey(agentId, agentStartTime, stringId));
+        }
+
+        /**
+         * fetches the keys added so far. at most one multi get per table.
+         */
+        public void resolve() {
+            this.apiMetaData = apiCache.get(apiKeySet);
+            this.sqlMetaData = sqlCache.get(sqlKeySet);
+            this.stringMetaData = stringCache.get(stringKeySet);
+            if (logger.isDebugEnabled()) {
+                logger.debug("resolve api:{} sql:{} string:{}", apiKeySet.size(), sqlKeySet.size(), stringKeySet.size());
+            }
+        }
+
+        /**
+         * @return an empty list if not found
+         */
+        public List<ApiMetaDataBo> getApiMetaData(String agentId, long agentStartTime, int apiId) {
+            return get(apiCache, apiMetaData, new MetaDataKey(agentId, agentStartTime, apiId));
+        }
+
+        public List<SqlMetaDataBo> getSqlMetaData(String agentId, long agentStartTime, int hashCode) {
+            return get(sqlCache, sqlMetaData, new MetaDataKey(agentId, agentStartTime, hashCode));
+        }
+
+        public List<StringMetaDataBo> getStringMetaData(String agentId, long agentStartTime, int stringId) {
+            return get(stringCache, stringMetaData, new MetaDataKey(agentId, agentStartTime, stringId));
+        }
+
+        private <T> List<T> get(MetaDataCache<T> cache, Map<MetaDataKey, List<T>> resolved, MetaDataKey key) {
+            final List<T> metaData = resolved.get(key);
+            if (metaData != null) {
+                return metaData;
+            }
+            // not added before resolve()
+            logger.debug("unresolved key:{}", key);
+            return cache.get(Collections.singleton(key)).get(key);
+        }
+    }
+
+    private abstract static class MetaDataCache<T> {
+
+        private final Cache<MetaDataKey, List<T>> cache;
+
+        private MetaDataCache(long maximumSize) {
+            this.cache = CacheBuilder.newBuilder()
+                    .maximumSize(maximumSize)
+                    .recordStats()
+                    .build();
+        }
+
+        private Map<MetaDataKey, List<T>> get(Set<MetaDataKey> keySet) {
+            if (keySet.isEmpty()) {
+                return Collections.emptyMap();
+            }
+            final Map<MetaDataKey, List<T>> result = new HashMap<MetaDataKey, List<T>>(keySet.size());
+            final List<MetaDataKey> missList = new ArrayList<MetaDataKey>();
+            for (MetaDataKey key : keySet) {
+                final List<T> cached = cache.getIfPresent(key);
+                if (cached == null) {
+                    missList.add(key);
+                } else {
+                    result.put(key, cached);
+                }
+            }
+            if (missList.isEmpty()) {
+                return result;
+            }
+
+            final List<List<T>> loaded = load(missList);
+            for (int i = 0; i < missList.size(); i++) {
+                final MetaDataKey key = missList.get(i);
+                final List<T> metaData = loaded.get(i);
+                if (metaData == null || metaData.isEmpty()) {
+                    result.put(key, Collections.<T>emptyList());
+                } else {
+                    final List<T> unmodifiable = Collections.unmodifiableList(metaData);
+                    cache.put(key, unmodifiable);
+                    result.put(key, unmodifiable);
+                }
+            }
+            return result;
+        }
+
+        protected abstract List<List<T>> load(List<MetaDataKey> keyList);
+
+        private CacheStats stats() {
+            return cache.stats();
+        }
+    }
+}
@@ -23,6 +23,8 @@ import com.navercorp.pinpoint.web.vo.SelectedScatterArea;
 import com.navercorp.pinpoint.web.vo.TransactionId;
 import com.navercorp.pinpoint.web.vo.TransactionMetadataQuery;
 import com.navercorp.pinpoint.web.vo.scatter.Dot;
+import com.navercorp.pinpoint.web.vo.scatter.DotHandler;
+import com.navercorp.pinpoint.web.vo.scatter.ScatterHeatMap;
 
 import java.util.Collection;
 import java.util.List;
@@ -49,6 +51,17 @@ public interface ScatterChartService {
      */
     List<Dot> selectScatterData(String applicationName, Range range, int limit);
 
+    /**
+     * Queries for data using time range. the dots are passed to the dotHandler as they are scanned.
+     *
+     * @param applicationName
+     * @param range
+     * @param limit
+     * @param dotHandler
+     * @return number of the handled dots
+     */
+    int selectScatterData(String applicationName, Range range, int limit, DotHandler dotHandler);
+
     /**
      * @param applicationName
      * @param area
@@ -59,6 +72,18 @@ public interface ScatterChartService {
      */
     List<Dot> selectScatterData(String applicationName, SelectedScatterArea area, TransactionId offsetTransactionId, int offsetTransactionElapsed, int limit);
 
+    /**
+     * Queries for the transaction counts of the time range binned into a time x response time grid.
+     *
+     * @param applicationName
+     * @param range
+     * @param xBinCount
+     * @param yBinCount
+     * @param yMax
+     * @return
+     */
+    ScatterHeatMap selectScatterHeatMap(String applicationName, Range range, int xBinCount, int yBinCount, int yMax);
+
     /**
      * Queries for scatter dots limited by the given limit.
      *
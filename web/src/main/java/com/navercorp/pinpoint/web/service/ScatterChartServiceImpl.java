@@ -34,6 +34,8 @@ import com.navercorp.pinpoint.web.vo.SelectedScatterArea;
 import com.navercorp.pinpoint.web.vo.TransactionId;
 import com.navercorp.pinpoint.web.vo.TransactionMetadataQuery;
 import com.navercorp.pinpoint.web.vo.scatter.Dot;
+import com.navercorp.pinpoint.web.vo.scatter.DotHandler;
+import com.navercorp.pinpoint.web.vo.scatter.ScatterHeatMap;
 
 /**
  * @author netspider
@@ -61,6 +63,31 @@ public class ScatterChartServiceImpl implements ScatterChartService {
         return applicationTraceIndexDao.scanTraceScatter(applicationName, range, limit);
     }
 
+    @Override
+    public int selectScatterData(String applicationName, Range range, int limit, DotHandler dotHandler) {
+        if (applicationName == null) {
+            throw new NullPointerException("applicationName must not be null");
+        }
+        if (range == null) {
+            throw new NullPointerException("range must not be null");
+        }
+        if (dotHandler == null) {
+            throw new NullPointerException("dotHandler must not be null");
+        }
+        return applicationTraceIndexDao.scanTraceScatter(applicationName, range, limit, dotHandler);
+    }
+
+    @Override
+    public ScatterHeatMap selectScatterHeatMap(String applicationName, Range range, int xBinCount, int yBinCount, int yMax) {
+        if (applicationName == null) {
+            throw new NullPointerException("applicationName must not be null");
+        }
+        if (range == null) {
+            throw new NullPointerException("range must not be null");
+        }
+        return applicationTraceIndexDao.scanTraceScatterHeatMap(applicationName, range, xBinCount, yBinCount, yMax);
+    }
+
     @Override
     public List<Dot> selectScatterData(String applicationName, SelectedScatterArea area, TransactionId offsetTransactionId, int offsetTransactionElapsed, int limit) {
         if (applicationName == null) {
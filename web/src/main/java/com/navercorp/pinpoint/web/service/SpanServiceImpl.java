@@ -20,12 +20,15 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
+import javax.annotation.PostConstruct;
+
 import com.navercorp.pinpoint.common.AnnotationKey;
 import com.navercorp.pinpoint.common.bo.*;
 import com.navercorp.pinpoint.common.util.OutputParameterParser;
 import com.navercorp.pinpoint.common.util.SqlParser;
 import com.navercorp.pinpoint.web.calltree.span.SpanAlign;
 import com.navercorp.pinpoint.web.calltree.span.SpanAligner2;
+import com.navercorp.pinpoint.web.config.WebConfig;
 import com.navercorp.pinpoint.web.dao.ApiMetaDataDao;
 import com.navercorp.pinpoint.web.dao.SqlMetaDataDao;
 import com.navercorp.pinpoint.web.dao.StringMetaDataDao;
@@ -58,9 +61,19 @@ public class SpanServiceImpl implements SpanService {
     @Autowired
     private StringMetaDataDao stringMetaDataDao;
 
+    @Autowired
+    private WebConfig webConfig;
+
+    private MetaDataResolver metaDataResolver;
+
     private final SqlParser sqlParser = new SqlParser();
     private final OutputParameterParser outputParameterParser = new OutputParameterParser();
 
+    @PostConstruct
+    public void start() {
+        this.metaDataResolver = new MetaDataResolver(apiMetaDataDao, sqlMetaDataDao, stringMetaDataDao, webConfig.getMetaDataCacheMaxSize());
+    }
+
     @Override
     public SpanResult selectSpan(TransactionId transactionId, long selectedSpanHint) {
         if (transactionId == null) {
@@ -74,17 +87,67 @@ public class SpanServiceImpl implements SpanService {
 
         SpanResult result = order(spans, selectedSpanHint);
         List<SpanAlign> order = result.getSpanAlignList();
+        final MetaDataResolver.Lookup lookup = resolveMetaData(order);
 //        transitionApiId(order);
-        transitionDynamicApiId(order);
-        transitionSqlId(order);
-        transitionCachedString(order);
-        transitionException(order);
+        transitionDynamicApiId(order, lookup);
+        transitionSqlId(order, lookup);
+        transitionCachedString(order, lookup);
+        transitionException(order, lookup);
         // TODO need to at least show the row data when root span is not found. 
         return result;
     }
 
 
 
+    /**
+     * collects the metadata keys of the whole call tree and fetches them at once
+     */
+    private MetaDataResolver.Lookup resolveMetaData(List<SpanAlign> spanAlignList) {
+        final MetaDataResolver.Lookup lookup = metaDataResolver.newLookup();
+        for (SpanAlign spanAlign : spanAlignList) {
+            final AgentKey key = getAgentKey(spanAlign);
+            lookup.addApi(key.getAgentId(), key.getAgentStartTime(), getApiId(spanAlign));
+
+            final List<AnnotationBo> annotationBoList = getAnnotationBoList(spanAlign);
+            if (annotationBoList != null) {
+                for (AnnotationBo annotationBo : annotationBoList) {
+                    if (annotationBo.getKey() == AnnotationKey.SQL_ID.getCode()) {
+                        final IntStringStringValue sqlValue = (IntStringStringValue) annotationBo.getValue();
+                        lookup.addSql(key.getAgentId(), key.getAgentStartTime(), sqlValue.getIntValue());
+                    } else if (AnnotationKey.isCachedArgsKey(annotationBo.getKey())) {
+                        lookup.addString(key.getAgentId(), key.getAgentStartTime(), (Integer) annotationBo.getValue());
+                    }
+                }
+            }
+
+            if (spanAlign.isSpan()) {
+                final SpanBo spanBo = spanAlign.getSpanBo();
+                if (spanBo.hasException()) {
+                    lookup.addString(spanBo.getAgentId(), spanBo.getAgentStartTime(), spanBo.getExceptionId());
+                }
+            } else {
+                final SpanEventBo spanEventBo = spanAlign.getSpanEventBo();
+                if (spanEventBo.hasException()) {
+                    lookup.addString(spanEventBo.getAgentId(), spanEventBo.getAgentStartTime(), spanEventBo.getExceptionId());
+                }
+            }
+        }
+        lookup.resolve();
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("metaDataCache api:{} sql:{} string:{}", metaDataResolver.getApiCacheStats(), metaDataResolver.getSqlCacheStats(), metaDataResolver.getStringCacheStats());
+        }
+        return lookup;
+    }
+
+    private List<AnnotationBo> getAnnotationBoList(SpanAlign spanAlign) {
+        if (spanAlign.isSpan()) {
+            return spanAlign.getSpanBo().getAnnotationBoList();
+        } else {
+            return spanAlign.getSpanEventBo().getAnnotationBoList();
+        }
+    }
+
     private void transitionAnnotation(List<SpanAlign> spans, AnnotationReplacementCallback annotationReplacementCallback) {
         for (SpanAlign spanAlign : spans) {
             List<AnnotationBo> annotationBoList;
@@ -106,7 +169,7 @@ public class SpanServiceImpl implements SpanService {
         }
     }
 
-    private void transitionSqlId(final List<SpanAlign> spans) {
+    private void transitionSqlId(final List<SpanAlign> spans, final MetaDataResolver.Lookup lookup) {
         this.transitionAnnotation(spans, new AnnotationReplacementCallback() {
             @Override
             public void replacement(SpanAlign spanAlign, List<AnnotationBo> annotationBoList) {
@@ -121,7 +184,7 @@ public class SpanServiceImpl implements SpanService {
                 final IntStringStringValue sqlValue = (IntStringStringValue) sqlIdAnnotation.getValue();
                 final int hashCode = sqlValue.getIntValue();
                 final String sqlParam = sqlValue.getStringValue1();
-                final List<SqlMetaDataBo> sqlMetaDataList = sqlMetaDataDao.getSqlMetaData(agentKey.getAgentId(), agentKey.getAgentStartTime(), hashCode);
+                final List<SqlMetaDataBo> sqlMetaDataList = lookup.getSqlMetaData(agentKey.getAgentId(), agentKey.getAgentStartTime(), hashCode);
                 final int size = sqlMetaDataList.size();
                 if (size == 0) {
                     AnnotationBo api = new AnnotationBo();
@@ -214,14 +277,14 @@ public class SpanServiceImpl implements SpanService {
     }
 
 
-    private void transitionDynamicApiId(List<SpanAlign> spans) {
+    private void transitionDynamicApiId(List<SpanAlign> spans, final MetaDataResolver.Lookup lookup) {
         this.transitionAnnotation(spans, new AnnotationReplacementCallback() {
             @Override
             public void replacement(SpanAlign spanAlign, List<AnnotationBo> annotationBoList) {
                 final AgentKey key = getAgentKey(spanAlign);
                 final int apiId = getApiId(spanAlign);
                 // may be able to get a more accurate data using agentIdentifier.
-                List<ApiMetaDataBo> apiMetaDataList = apiMetaDataDao.getApiMetaData(key.getAgentId(), key.getAgentStartTime(), apiId);
+                List<ApiMetaDataBo> apiMetaDataList = lookup.getApiMetaData(key.getAgentId(), key.getAgentStartTime(), apiId);
                 int size = apiMetaDataList.size();
                 if (size == 0) {
                     AnnotationBo api = new AnnotationBo();
@@ -253,7 +316,7 @@ public class SpanServiceImpl implements SpanService {
         });
     }
 
-    private void transitionCachedString(List<SpanAlign> spans) {
+    private void transitionCachedString(List<SpanAlign> spans, final MetaDataResolver.Lookup lookup) {
         this.transitionAnnotation(spans, new AnnotationReplacementCallback() {
             @Override
             public void replacement(SpanAlign spanAlign, List<AnnotationBo> annotationBoList) {
@@ -265,7 +328,7 @@ public class SpanServiceImpl implements SpanService {
                 for (AnnotationBo annotationBo : cachedStringAnnotation) {
                     final int cachedArgsKey = annotationBo.getKey();
                     int stringMetaDataId = (Integer) annotationBo.getValue();
-                    List<StringMetaDataBo> stringMetaList = stringMetaDataDao.getStringMetaData(key.getAgentId(), key.getAgentStartTime(), stringMetaDataId);
+                    List<StringMetaDataBo> stringMetaList = lookup.getStringMetaData(key.getAgentId(), key.getAgentStartTime(), stringMetaDataId);
                     int size = stringMetaList.size();
                     if (size == 0) {
                         logger.warn("StringMetaData not Found {}/{}/{}", key.getAgentId(), stringMetaDataId, key.getAgentStartTime());
@@ -301,18 +364,18 @@ public class SpanServiceImpl implements SpanService {
         return findAnnotationBoList;
     }
 
-    private void transitionException(List<SpanAlign> spanAlignList) {
+    private void transitionException(List<SpanAlign> spanAlignList, MetaDataResolver.Lookup lookup) {
         for (SpanAlign spanAlign : spanAlignList) {
             if (spanAlign.isSpan()) {
                 final SpanBo spanBo = spanAlign.getSpanBo();
                 if (spanBo.hasException()) {
-                    StringMetaDataBo stringMetaData = selectStringMetaData(spanBo.getAgentId(), spanBo.getExceptionId(), spanBo.getAgentStartTime());
+                    StringMetaDataBo stringMetaData = selectStringMetaData(lookup, spanBo.getAgentId(), spanBo.getExceptionId(), spanBo.getAgentStartTime());
                     spanBo.setExceptionClass(stringMetaData.getStringValue());
                 }
             } else {
                 final SpanEventBo spanEventBo = spanAlign.getSpanEventBo();
                 if (spanEventBo.hasException()) {
-                    StringMetaDataBo stringMetaData = selectStringMetaData(spanEventBo.getAgentId(), spanEventBo.getExceptionId(), spanEventBo.getAgentStartTime());
+                    StringMetaDataBo stringMetaData = selectStringMetaData(lookup, spanEventBo.getAgentId(), spanEventBo.getExceptionId(), spanEventBo.getAgentStartTime());
                     if (stringMetaData != null) {
                         spanEventBo.setExceptionClass(stringMetaData.getStringValue());
                     }
@@ -322,8 +385,8 @@ public class SpanServiceImpl implements SpanService {
 
     }
 
-    private StringMetaDataBo selectStringMetaData(String agentId, int cacheId, long agentStartTime) {
-        final List<StringMetaDataBo> metaDataList = stringMetaDataDao.getStringMetaData(agentId, agentStartTime, cacheId);
+    private StringMetaDataBo selectStringMetaData(MetaDataResolver.Lookup lookup, String agentId, int cacheId, long agentStartTime) {
+        final List<StringMetaDataBo> metaDataList = lookup.getStringMetaData(agentId, agentStartTime, cacheId);
         if (metaDataList == null || metaDataList.isEmpty()) {
             logger.warn("StringMetaData not Found agent:{}, cacheId{}, agentStartTime:{}", agentId, cacheId, agentStartTime);
             StringMetaDataBo stringMetaDataBo = new StringMetaDataBo(agentId, agentStartTime, cacheId);
@@ -59,6 +59,9 @@ public class TransactionInfoServiceImpl implements TransactionInfoService {
 
     @Autowired
     private AnnotationKeyMatcherService annotationKeyMatcherService;
+
+    // spans are selected and aggregated per batch so that only one batch of spans is held at a time
+    private static final int SELECT_SPAN_BATCH_SIZE = 500;
     
     @Override
     public BusinessTransactions selectBusinessTransactions(List<TransactionId> transactionIdList, String applicationName, Range range, Filter filter) {
@@ -77,24 +80,28 @@ public class TransactionInfoServiceImpl implements TransactionInfoService {
         }
 
 
-        List<List<SpanBo>> traceList;
-
-        if (filter == Filter.NONE) {
-            traceList = this.traceDao.selectSpans(transactionIdList);
-        } else {
-            traceList = this.traceDao.selectAllSpans(transactionIdList);
-        }
-
         BusinessTransactions businessTransactions = new BusinessTransactions();
-        for (List<SpanBo> trace : traceList) {
-            if (!filter.include(trace)) {
-                continue;
+        for (int from = 0; from < transactionIdList.size(); from += SELECT_SPAN_BATCH_SIZE) {
+            final int to = Math.min(from + SELECT_SPAN_BATCH_SIZE, transactionIdList.size());
+            final List<TransactionId> batch = transactionIdList.subList(from, to);
+
+            List<List<SpanBo>> traceList;
+            if (filter == Filter.NONE) {
+                traceList = this.traceDao.selectSpans(batch);
+            } else {
+                traceList = this.traceDao.selectAllSpans(batch);
             }
 
-            for (SpanBo spanBo : trace) {
-                // show application's incoming requests
-                if (applicationName.equals(spanBo.getApplicationId())) {
-                    businessTransactions.add(spanBo);
+            for (List<SpanBo> trace : traceList) {
+                if (!filter.include(trace)) {
+                    continue;
+                }
+
+                for (SpanBo spanBo : trace) {
+                    // show application's incoming requests
+                    if (applicationName.equals(spanBo.getApplicationId())) {
+                        businessTransactions.add(spanBo);
+                    }
                 }
             }
         }
@@ -32,13 +32,14 @@ public class AcceptApplicationLocalCache {
 
     private final Map<RpcApplication, Set<AcceptApplication>> acceptApplicationLocalCache = new HashMap<RpcApplication, Set<AcceptApplication>>();
 
-    public Set<AcceptApplication> get(RpcApplication findKey) {
+    public synchronized Set<AcceptApplication> get(RpcApplication findKey) {
         final Set<AcceptApplication> hit = this.acceptApplicationLocalCache.get(findKey);
         if (hit != null) {
             if (isDebug) {
                 logger.debug("acceptApplicationLocalCache hit {}:{}", findKey, hit);
             }
-            return hit;
+            // copy. the cached set is modified by put()
+            return new HashSet<AcceptApplication>(hit);
         }
         if (isDebug) {
             logger.debug("acceptApplicationLocalCache miss {}", findKey);
@@ -47,7 +48,7 @@ public class AcceptApplicationLocalCache {
     }
 
 
-    public void put(RpcApplication findKey, Set<AcceptApplication> acceptApplicationSet) {
+    public synchronized void put(RpcApplication findKey, Set<AcceptApplication> acceptApplicationSet) {
         if (CollectionUtils.isEmpty(acceptApplicationSet)) {
             // initialize for empty value
             this.acceptApplicationLocalCache.put(findKey, acceptApplicationSet);
@@ -33,17 +33,18 @@ public class AcceptApplicationLocalCacheV1 {
     private final Logger logger = LoggerFactory.getLogger(this.getClass());
 
 
-    public Set<AcceptApplication> get(String host) {
+    public synchronized Set<AcceptApplication> get(String host) {
         final Set<AcceptApplication> hit = acceptApplicationLocalCacheV1.get(host);
         if (CollectionUtils.isNotEmpty(hit)) {
             logger.debug("acceptApplicationLocalCacheV1 hit");
-            return hit;
+            // copy. the cached set is modified by put()
+            return new HashSet<AcceptApplication>(hit);
         }
 
         return Collections.emptySet();
     }
 
-    public void put(String host, Set<AcceptApplication> acceptApplicationSet) {
+    public synchronized void put(String host, Set<AcceptApplication> acceptApplicationSet) {
 
         if (CollectionUtils.isEmpty(acceptApplicationSet)) {
             // initialize for empty value
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.service.map;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Thread-safe memoization of the lookups of a single request.
+ * A value is loaded only once per key. concurrent lookups of the same key wait for the first one.
+ * A failed load is not cached. the next lookup loads the value again.
+ */
+public class Memoizer<K, V> {
+
+    private final ConcurrentMap<K, FutureTask<V>> cache = new ConcurrentHashMap<K, FutureTask<V>>();
+
+    public V get(K key, Callable<V> loader) {
+        if (key == null) {
+            throw new NullPointerException("key must not be null");
+        }
+        if (loader == null) {
+            throw new NullPointerException("loader must not be null");
+        }
+        FutureTask<V> future = cache.get(key);
+        if (future == null) {
+            final FutureTask<V> newFuture = new FutureTask<V>(loader);
+            future = cache.putIfAbsent(key, newFuture);
+            if (future == null) {
+                future = newFuture;
+                future.run();
+            }
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted while waiting " + key, e);
+        } catch (ExecutionException e) {
+            cache.remove(key, future);
+            final Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException("load error. key:" + key + " Caused:" + cause.getMessage(), cause);
+        }
+    }
+
+    public int size() {
+        return cache.size();
+    }
+}
@@ -0,0 +1,253 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.service.map;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.navercorp.pinpoint.common.util.DefaultTimeSlot;
+import com.navercorp.pinpoint.common.util.TimeSlot;
+import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkDataMap;
+import com.navercorp.pinpoint.web.dao.MapStatisticsCalleeDao;
+import com.navercorp.pinpoint.web.dao.MapStatisticsCallerDao;
+import com.navercorp.pinpoint.web.vo.Application;
+import com.navercorp.pinpoint.web.vo.Range;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches the one-minute link statistics of each application by time slot.
+ * <p/>
+ * A time slot older than closeDelay is closed and no longer changes. closed slots are read from HBase once and cached,
+ * the open slots are always read again. So an auto refresh of the server map reads only the newest minutes.
+ * The cached LinkDataMap is never modified. it is copied into the result of each selection.
+ */
+public class TimeSlotLinkDataCache {
+
+    // ranges longer than an hour are not cached. they are read at once(or from the rollup tables)
+    static final int MAX_TIME_SLOT_SIZE = 60;
+
+    private static final long TIME_SLOT_RESOLUTION = TimeUnit.MINUTES.toMillis(1);
+
+    private static final LinkDataMap EMPTY_LINK_DATA_MAP = new LinkDataMap();
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+
+    private final TimeSlot timeSlot = new DefaultTimeSlot(TIME_SLOT_RESOLUTION);
+
+    private final MapStatisticsCallerDao mapStatisticsCallerDao;
+    private final MapStatisticsCalleeDao mapStatisticsCalleeDao;
+    private final long closeDelay;
+
+    private final Cache<TimeSlotKey, LinkDataMap> cache;
+
+    private final MapStatisticsCallerDao cachedCallerDao = new CachedMapStatisticsCallerDao();
+    private final MapStatisticsCalleeDao cachedCalleeDao = new CachedMapStatisticsCalleeDao();
+
+    public TimeSlotLinkDataCache(MapStatisticsCallerDao mapStatisticsCallerDao, MapStatisticsCalleeDao mapStatisticsCalleeDao, long maximumSize, long closeDelay) {
+        if (mapStatisticsCallerDao == null) {
+            throw new NullPointerException("mapStatisticsCallerDao must not be null");
+        }
+        if (mapStatisticsCalleeDao == null) {
+            throw new NullPointerException("mapStatisticsCalleeDao must not be null");
+        }
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("negative maximumSize:" + maximumSize);
+        }
+        if (closeDelay < 0) {
+            throw new IllegalArgumentException("negative closeDelay:" + closeDelay);
+        }
+        this.mapStatisticsCallerDao = mapStatisticsCallerDao;
+        this.mapStatisticsCalleeDao = mapStatisticsCalleeDao;
+        this.closeDelay = closeDelay;
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * @return MapStatisticsCallerDao reading the closed time slots from the cache
+     */
+    public MapStatisticsCallerDao getMapStatisticsCallerDao() {
+        return cachedCallerDao;
+    }
+
+    /**
+     * @return MapStatisticsCalleeDao reading the closed time slots from the cache
+     */
+    public MapStatisticsCalleeDao getMapStatisticsCalleeDao() {
+        return cachedCalleeDao;
+    }
+
+    /**
+     * hit/miss counts of the time slots and the eviction count
+     */
+    public CacheStats getStats() {
+        return cache.stats();
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    private LinkDataMap select(LinkDirection direction, Application application, Range range) {
+        final long firstSlot = timeSlot.getTimeSlot(range.getFrom());
+        final long lastSlot = timeSlot.getTimeSlot(range.getTo());
+        if ((lastSlot - firstSlot) / TIME_SLOT_RESOLUTION + 1 > MAX_TIME_SLOT_SIZE) {
+            return selectRange(direction, application, range);
+        }
+        // late data may still be added to the slots after openSlot
+        final long openSlot = timeSlot.getTimeSlot(currentTimeMillis() - closeDelay);
+
+        final LinkDataMap result = new LinkDataMap();
+        final List<Long> missList = new ArrayList<Long>();
+        for (long slot = firstSlot; slot <= lastSlot && slot < openSlot; slot += TIME_SLOT_RESOLUTION) {
+            final LinkDataMap cached = cache.getIfPresent(new TimeSlotKey(direction, application, slot));
+            if (cached == null) {
+                missList.add(slot);
+            } else {
+                result.addLinkDataMap(cached);
+            }
+        }
+        if (!missList.isEmpty()) {
+            // the hit slots between the missed slots are read again, but it is still a single scan
+            final long missFrom = missList.get(0);
+            final long missTo = missList.get(missList.size() - 1);
+            final Map<Long, LinkDataMap> loaded = selectTimeSlot(direction, application, new Range(missFrom, missTo));
+            for (Long slot : missList) {
+                LinkDataMap linkDataMap = loaded.get(slot);
+                if (linkDataMap == null) {
+                    linkDataMap = EMPTY_LINK_DATA_MAP;
+                }
+                cache.put(new TimeSlotKey(direction, application, slot), linkDataMap);
+                result.addLinkDataMap(linkDataMap);
+            }
+        }
+
+        final long openFrom = Math.max(firstSlot, openSlot);
+        if (openFrom <= lastSlot) {
+            final LinkDataMap open = selectRange(direction, application, new Range(openFrom, range.getTo()));
+            result.addLinkDataMap(open);
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("select {} {} {} miss:{} openFrom:{}", direction, application, range, missList.size(), openFrom);
+        }
+        return result;
+    }
+
+    private LinkDataMap selectRange(LinkDirection direction, Application application, Range range) {
+        if (direction == LinkDirection.CALLER) {
+            return mapStatisticsCallerDao.selectCaller(application, range);
+        } else {
+            return mapStatisticsCalleeDao.selectCallee(application, range);
+        }
+    }
+
+    private Map<Long, LinkDataMap> selectTimeSlot(LinkDirection direction, Application application, Range range) {
+        if (direction == LinkDirection.CALLER) {
+            return mapStatisticsCallerDao.selectCallerTimeSlot(application, range);
+        } else {
+            return mapStatisticsCalleeDao.selectCalleeTimeSlot(application, range);
+        }
+    }
+
+    private enum LinkDirection {
+        CALLER, CALLEE
+    }
+
+    private static final class TimeSlotKey {
+        private final LinkDirection direction;
+        private final Application application;
+        private final long timeSlot;
+
+        private TimeSlotKey(LinkDirection direction, Application application, long timeSlot) {
+            if (application == null) {
+                throw new NullPointerException("application must not be null");
+            }
+            this.direction = direction;
+            this.application = application;
+            this.timeSlot = timeSlot;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+
+            TimeSlotKey that = (TimeSlotKey) o;
+
+            if (timeSlot != that.timeSlot) return false;
+            if (direction != that.direction) return false;
+            if (!application.equals(that.application)) return false;
+
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = direction.hashCode();
+            result = 31 * result + application.hashCode();
+            result = 31 * result + (int) (timeSlot ^ (timeSlot >>> 32));
+            return result;
+        }
+    }
+
+    private class CachedMapStatisticsCallerDao implements MapStatisticsCallerDao {
+        @Override
+        public LinkDataMap selectCaller(Application callerApplication, Range range) {
+            return select(LinkDirection.CALLER, callerApplication, range);
+        }
+
+        @Override
+        public Map<Long, LinkDataMap> selectCallerTimeSlot(Application callerApplication, Range range) {
+            return mapStatisticsCallerDao.selectCallerTimeSlot(callerApplication, range);
+        }
+
+        @Override
+        public List<LinkDataMap> selectCallerStatistics(Application callerApplication, Application calleeApplication, Range range) {
+            return mapStatisticsCallerDao.selectCallerStatistics(callerApplication, calleeApplication, range);
+        }
+    }
+
+    private class CachedMapStatisticsCalleeDao implements MapStatisticsCalleeDao {
+        @Override
+        public LinkDataMap selectCallee(Application calleeApplication, Range range) {
+            return select(LinkDirection.CALLEE, calleeApplication, range);
+        }
+
+        @Override
+        public Map<Long, LinkDataMap> selectCalleeTimeSlot(Application calleeApplication, Range range) {
+            return mapStatisticsCalleeDao.selectCalleeTimeSlot(calleeApplication, range);
+        }
+
+        @Override
+        public List<LinkDataMap> selectCalleeStatistics(Application callerApplication, Application calleeApplication, Range range) {
+            return mapStatisticsCalleeDao.selectCalleeStatistics(callerApplication, calleeApplication, range);
+        }
+    }
+}
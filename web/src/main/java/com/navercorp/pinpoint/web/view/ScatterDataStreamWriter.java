@@ -0,0 +1,124 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.view;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.navercorp.pinpoint.web.vo.Range;
+import com.navercorp.pinpoint.web.vo.scatter.Dot;
+import com.navercorp.pinpoint.web.vo.scatter.DotHandler;
+import com.navercorp.pinpoint.web.vo.scatter.ScatterIndex;
+
+import java.io.IOException;
+
+/**
+ * Writes the scatter data response while the dots are scanned, so that the dots of the response are never held in memory.
+ * same fields as the jsonView/jsonpView response of getScatterData except that resultFrom and resultTo come after the dots.
+ * <pre>
+ * callback({"scatterIndex":{...},"scatter":[[acceptedTime,elapsed,transactionId,type],...],"resultFrom":..,"resultTo":..});
+ * </pre>
+ * if the scan fails after the response is committed, writeError closes the response with an exception field.
+ * <pre>
+ * {"scatterIndex":{...},"scatter":[...],"resultFrom":-1,"resultTo":-1,"exception":{"message":..}}
+ * </pre>
+ * Not thread-safe.
+ */
+public class ScatterDataStreamWriter implements DotHandler {
+
+    private final JsonGenerator jgen;
+    private final String jsonpCallback;
+
+    private int dotCount = 0;
+    private long lastAcceptedTime = Long.MAX_VALUE;
+
+    /**
+     * @param jgen generator with an ObjectMapper as codec
+     * @param jsonpCallback null for json
+     */
+    public ScatterDataStreamWriter(JsonGenerator jgen, String jsonpCallback) {
+        if (jgen == null) {
+            throw new NullPointerException("jgen must not be null");
+        }
+        this.jgen = jgen;
+        this.jsonpCallback = jsonpCallback;
+    }
+
+    public void writeStart() throws IOException {
+        if (jsonpCallback != null) {
+            jgen.writeRaw(jsonpCallback);
+            jgen.writeRaw("(");
+        }
+        jgen.writeStartObject();
+        jgen.writeObjectField("scatterIndex", ScatterIndex.MATA_DATA);
+        jgen.writeArrayFieldStart("scatter");
+    }
+
+    @Override
+    public void handleDot(Dot dot) throws IOException {
+        jgen.writeObject(dot);
+        dotCount++;
+        // the oldest dot is where the next page starts
+        if (dot.getAcceptedTime() < lastAcceptedTime) {
+            lastAcceptedTime = dot.getAcceptedTime();
+        }
+    }
+
+    /**
+     * @param range requested range
+     */
+    public void writeEnd(Range range) throws IOException {
+        if (range == null) {
+            throw new NullPointerException("range must not be null");
+        }
+        jgen.writeEndArray();
+        if (dotCount == 0) {
+            jgen.writeNumberField("resultFrom", -1);
+            jgen.writeNumberField("resultTo", -1);
+        } else {
+            jgen.writeNumberField("resultFrom", lastAcceptedTime);
+            jgen.writeNumberField("resultTo", range.getTo());
+        }
+        writeEndObject();
+    }
+
+    /**
+     * ends a response whose scan failed part-way. the dots already written are kept.
+     * resultFrom/resultTo are -1 so that the client does not fetch the next page from a broken result.
+     * @param message cause of the failure
+     */
+    public void writeError(String message) throws IOException {
+        jgen.writeEndArray();
+        jgen.writeNumberField("resultFrom", -1);
+        jgen.writeNumberField("resultTo", -1);
+        jgen.writeObjectFieldStart("exception");
+        jgen.writeStringField("message", message);
+        jgen.writeEndObject();
+        writeEndObject();
+    }
+
+    private void writeEndObject() throws IOException {
+        jgen.writeEndObject();
+        if (jsonpCallback != null) {
+            jgen.writeRaw(");");
+        }
+        jgen.flush();
+    }
+
+    public int getDotCount() {
+        return dotCount;
+    }
+}
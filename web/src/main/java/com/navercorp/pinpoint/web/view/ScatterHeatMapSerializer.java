@@ -0,0 +1,62 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.view;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.navercorp.pinpoint.web.vo.scatter.ScatterHeatMap;
+
+import java.io.IOException;
+
+/**
+ * writes only the non-empty cells as [time, elapsedTime, successCount, errorCount]
+ */
+public class ScatterHeatMapSerializer extends JsonSerializer<ScatterHeatMap> {
+    @Override
+    public void serialize(ScatterHeatMap heatMap, JsonGenerator jgen, SerializerProvider provider) throws IOException, JsonProcessingException {
+        jgen.writeStartObject();
+        jgen.writeNumberField("from", heatMap.getRange().getFrom());
+        jgen.writeNumberField("to", heatMap.getRange().getTo());
+        jgen.writeNumberField("xBinSize", heatMap.getXBinSize());
+        jgen.writeNumberField("yBinSize", heatMap.getYBinSize());
+        jgen.writeNumberField("yMax", heatMap.getYMax());
+        jgen.writeNumberField("totalCount", heatMap.getTotalCount());
+
+        jgen.writeArrayFieldStart("cells");
+        for (int x = 0; x < heatMap.getXBinCount(); x++) {
+            for (int y = 0; y < heatMap.getYBinCount(); y++) {
+                final int successCount = heatMap.getSuccessCount(x, y);
+                final int errorCount = heatMap.getErrorCount(x, y);
+                if (successCount == 0 && errorCount == 0) {
+                    continue;
+                }
+                jgen.writeStartArray();
+                jgen.writeNumber(heatMap.getTime(x));
+                jgen.writeNumber(heatMap.getElapsedTime(y));
+                jgen.writeNumber(successCount);
+                jgen.writeNumber(errorCount);
+                jgen.writeEndArray();
+            }
+        }
+        jgen.writeEndArray();
+
+        jgen.writeEndObject();
+    }
+}
@@ -27,6 +27,12 @@ public class AgentStat {
     private AgentStatMemoryGcBo memoryGc;
     private AgentStatCpuLoadBo cpuLoad;
 
+    // min/max of the rollup time slot. null for raw statistics.
+    private AgentStatMemoryGcBo minMemoryGc;
+    private AgentStatMemoryGcBo maxMemoryGc;
+    private AgentStatCpuLoadBo minCpuLoad;
+    private AgentStatCpuLoadBo maxCpuLoad;
+
     public AgentStatMemoryGcBo getMemoryGc() {
         return memoryGc;
     }
@@ -42,4 +48,36 @@ public class AgentStat {
     public void setCpuLoad(AgentStatCpuLoadBo cpuLoad) {
         this.cpuLoad = cpuLoad;
     }
+
+    public AgentStatMemoryGcBo getMinMemoryGc() {
+        return minMemoryGc;
+    }
+
+    public void setMinMemoryGc(AgentStatMemoryGcBo minMemoryGc) {
+        this.minMemoryGc = minMemoryGc;
+    }
+
+    public AgentStatMemoryGcBo getMaxMemoryGc() {
+        return maxMemoryGc;
+    }
+
+    public void setMaxMemoryGc(AgentStatMemoryGcBo maxMemoryGc) {
+        this.maxMemoryGc = maxMemoryGc;
+    }
+
+    public AgentStatCpuLoadBo getMinCpuLoad() {
+        return minCpuLoad;
+    }
+
+    public void setMinCpuLoad(AgentStatCpuLoadBo minCpuLoad) {
+        this.minCpuLoad = minCpuLoad;
+    }
+
+    public AgentStatCpuLoadBo getMaxCpuLoad() {
+        return maxCpuLoad;
+    }
+
+    public void setMaxCpuLoad(AgentStatCpuLoadBo maxCpuLoad) {
+        this.maxCpuLoad = maxCpuLoad;
+    }
 }
@@ -16,17 +16,37 @@
 
 package com.navercorp.pinpoint.web.vo;
 
+import com.navercorp.pinpoint.common.hbase.MapStatisticsRollup;
 import com.navercorp.pinpoint.common.util.TimeSlot;
+import com.navercorp.pinpoint.web.config.WebConfig;
 
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 /**
  * @author emeroad
  */
 public class RangeFactory {
+
+    // a rollup is used only if the range has this many rows of it. so the link timeline of a short range is not too coarse.
+    private static final int MIN_ROLLUP_ROW_COUNT = 6;
+
     @Autowired
     private TimeSlot timeSlot;
 
+    @Autowired
+    private WebConfig webConfig;
+
+    public RangeFactory() {
+    }
+
+    RangeFactory(TimeSlot timeSlot) {
+        this.timeSlot = timeSlot;
+    }
+
     /**
      * Create minute-based reversed Range for statistics
      * 
@@ -44,4 +64,71 @@ public class RangeFactory {
         return Range.createUncheckedRange(startTime, endTime);
     }
 
+    /**
+     * Splits the range into the reversed statistics ranges of the coarsest granularity covering each part.
+     * e.g. 7 days from 10:27 are read from the minute rows until 11:00, the hour rows until 00:00, the day rows
+     * and the hour and minute rows of the last day.
+     */
+    public List<RollupRange> createRollupStatisticsRanges(Range range) {
+        return createRollupStatisticsRanges(range, webConfig.isMapStatisticsRollupEnable());
+    }
+
+    List<RollupRange> createRollupStatisticsRanges(Range range, boolean rollupEnable) {
+        if (range == null) {
+            throw new NullPointerException("range must not be null");
+        }
+        if (!rollupEnable) {
+            final RollupRange rollupRange = new RollupRange(MapStatisticsRollup.MINUTE, createStatisticsRange(range));
+            return Collections.singletonList(rollupRange);
+        }
+        // [from, to) of the minute slots
+        final long from = timeSlot.getTimeSlot(range.getFrom());
+        final long to = timeSlot.getTimeSlot(range.getTo()) + MapStatisticsRollup.MINUTE.getResolution();
+
+        final List<RollupRange> rollupRangeList = new ArrayList<RollupRange>();
+        split(from, to, selectRollup(range), rollupRangeList);
+        return rollupRangeList;
+    }
+
+    private MapStatisticsRollup selectRollup(Range range) {
+        MapStatisticsRollup selected = MapStatisticsRollup.MINUTE;
+        // from fine to coarse
+        for (MapStatisticsRollup rollup : MapStatisticsRollup.values()) {
+            if (range.getRange() >= rollup.getResolution() * MIN_ROLLUP_ROW_COUNT) {
+                selected = rollup;
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * the slots of the rollup fully inside [from, to) are read from the rollup rows. the rest is read from the finer rows.
+     */
+    private void split(long from, long to, MapStatisticsRollup rollup, List<RollupRange> rollupRangeList) {
+        if (from >= to) {
+            return;
+        }
+        if (!rollup.isRollup()) {
+            rollupRangeList.add(createRollupRange(rollup, from, to));
+            return;
+        }
+        final MapStatisticsRollup finer = MapStatisticsRollup.values()[rollup.ordinal() - 1];
+        final long resolution = rollup.getResolution();
+        final long rollupFrom = ((from + resolution - 1) / resolution) * resolution;
+        final long rollupTo = (to / resolution) * resolution;
+        if (rollupFrom >= rollupTo) {
+            split(from, to, finer, rollupRangeList);
+            return;
+        }
+        split(from, rollupFrom, finer, rollupRangeList);
+        rollupRangeList.add(createRollupRange(rollup, rollupFrom, rollupTo));
+        split(rollupTo, to, finer, rollupRangeList);
+    }
+
+    private RollupRange createRollupRange(MapStatisticsRollup rollup, long from, long to) {
+        // reversed like createStatisticsRange(). includes the rows of [from, to)
+        final Range range = Range.createUncheckedRange(from - 1, to - rollup.getResolution());
+        return new RollupRange(rollup, range);
+    }
+
 }
@@ -70,6 +70,27 @@ public class ResponseHistogramBuilder {
         responseTime.addResponseTime(agentId, timeHistogram);
     }
 
+    /**
+     * merges a partial builder. both builders must not be built yet.
+     */
+    public void addResponseHistogramBuilder(ResponseHistogramBuilder responseHistogramBuilder) {
+        if (responseHistogramBuilder == null) {
+            throw new NullPointerException("responseHistogramBuilder must not be null");
+        }
+        if (this.responseTimeApplicationMap == null || responseHistogramBuilder.responseTimeApplicationMap == null) {
+            throw new IllegalStateException("already built");
+        }
+        for (Map<Application, ResponseTime> responseTimeMap : responseHistogramBuilder.responseTimeApplicationMap.values()) {
+            for (Map.Entry<Application, ResponseTime> entry : responseTimeMap.entrySet()) {
+                final ResponseTime copyResponseTime = entry.getValue();
+                final ResponseTime responseTime = getResponseTime(entry.getKey(), copyResponseTime.getTimeStamp());
+                for (Map.Entry<String, TimeHistogram> agentHistogram : copyResponseTime.getAgentHistogram()) {
+                    responseTime.addResponseTime(agentHistogram.getKey(), agentHistogram.getValue());
+                }
+            }
+        }
+    }
+
     private ResponseTime getResponseTime(Application application, Long timeStamp) {
         Map<Application, ResponseTime> responseTimeMap = responseTimeApplicationMap.get(timeStamp);
         if (responseTimeMap == null) {
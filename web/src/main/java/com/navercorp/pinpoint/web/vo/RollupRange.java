@@ -0,0 +1,58 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.vo;
+
+import com.navercorp.pinpoint.common.hbase.MapStatisticsRollup;
+
+/**
+ * Statistics range read from the rows of one granularity.
+ */
+public class RollupRange {
+
+    private final MapStatisticsRollup rollup;
+    private final Range range;
+
+    /**
+     * @param range reversed statistics range. see {@link RangeFactory#createStatisticsRange(Range)}
+     */
+    public RollupRange(MapStatisticsRollup rollup, Range range) {
+        if (rollup == null) {
+            throw new NullPointerException("rollup must not be null");
+        }
+        if (range == null) {
+            throw new NullPointerException("range must not be null");
+        }
+        this.rollup = rollup;
+        this.range = range;
+    }
+
+    public MapStatisticsRollup getRollup() {
+        return rollup;
+    }
+
+    public Range getRange() {
+        return range;
+    }
+
+    @Override
+    public String toString() {
+        return "RollupRange{" +
+                "rollup=" + rollup +
+                ", range=" + range.prettyToString() +
+                '}';
+    }
+}
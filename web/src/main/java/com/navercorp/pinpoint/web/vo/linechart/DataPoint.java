@@ -23,10 +23,21 @@ public class DataPoint<X extends Number, Y extends Number> {
 
     private final X xVal;
     private final Y yVal;
+    private final Y yMin;
+    private final Y yMax;
 
     public DataPoint(X xVal, Y yVal) {
+        this(xVal, yVal, yVal, yVal);
+    }
+
+    /**
+     * data point summarizing several samples. ex) rollup statistics
+     */
+    public DataPoint(X xVal, Y yVal, Y yMin, Y yMax) {
         this.xVal = xVal;
         this.yVal = yVal;
+        this.yMin = yMin;
+        this.yMax = yMax;
     }
 
     public X getxVal() {
@@ -37,6 +48,14 @@ public class DataPoint<X extends Number, Y extends Number> {
         return yVal;
     }
 
+    public Y getyMin() {
+        return yMin;
+    }
+
+    public Y getyMax() {
+        return yMax;
+    }
+
     @Override
     public String toString() {
         return "(" + xVal + "," + yVal + ")";
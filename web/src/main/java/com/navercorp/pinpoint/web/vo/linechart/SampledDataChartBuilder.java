@@ -48,11 +48,15 @@ public abstract class SampledDataChartBuilder<X extends Number, Y extends Number
     private Point makePoint(List<DataPoint<X, Y>> sampleDataPoints) {
         X xVal = sampleDataPoints.get(sampleDataPoints.size()-1).getxVal();
         List<Y> sampleBuffer = new ArrayList<Y>(sampleDataPoints.size());
+        List<Y> minSampleBuffer = new ArrayList<Y>(sampleDataPoints.size());
+        List<Y> maxSampleBuffer = new ArrayList<Y>(sampleDataPoints.size());
         for (DataPoint<X, Y> sampleDataPoint : sampleDataPoints) {
             sampleBuffer.add(sampleDataPoint.getyVal());
+            minSampleBuffer.add(sampleDataPoint.getyMin());
+            maxSampleBuffer.add(sampleDataPoint.getyMax());
         }
-        Y minVal = sampleMin(sampleBuffer);
-        Y maxVal = sampleMax(sampleBuffer);
+        Y minVal = sampleMin(minSampleBuffer);
+        Y maxVal = sampleMax(maxSampleBuffer);
         Y avgVal = sampleAvg(sampleBuffer);
         return new Point(xVal, minVal, maxVal, avgVal);
     }
@@ -31,6 +31,8 @@ public abstract class SampledTimeSeriesChartBuilder<Y extends Number> extends Sa
     private final TimeWindow timeWindow;
     private final Y defaultValue;
     private final List<List<Y>> timeslots;
+    private final List<List<Y>> minTimeslots;
+    private final List<List<Y>> maxTimeslots;
     
     protected SampledTimeSeriesChartBuilder(TimeWindow timeWindow, Y defaultValue) {
         this.defaultValue = defaultValue;
@@ -39,14 +41,17 @@ public abstract class SampledTimeSeriesChartBuilder<Y extends Number> extends Sa
             throw new IllegalArgumentException("range yields too many timeslots");
         }
         int numTimeslots = (int)(long)this.timeWindow.getWindowRangeCount();
-        this.timeslots = new ArrayList<List<Y>>(numTimeslots);
-        initializeTimeslots(numTimeslots);
+        this.timeslots = initializeTimeslots(numTimeslots);
+        this.minTimeslots = initializeTimeslots(numTimeslots);
+        this.maxTimeslots = initializeTimeslots(numTimeslots);
     }
     
-    private void initializeTimeslots(int numTimeslots) {
+    private List<List<Y>> initializeTimeslots(int numTimeslots) {
+        List<List<Y>> timeslots = new ArrayList<List<Y>>(numTimeslots);
         for (int i = 0; i < numTimeslots; ++i) {
-            this.timeslots.add(new ArrayList<Y>());
+            timeslots.add(new ArrayList<Y>());
         }
+        return timeslots;
     }
     
     @Override
@@ -56,7 +61,9 @@ public abstract class SampledTimeSeriesChartBuilder<Y extends Number> extends Sa
         int timeSlotIndex = 0;
         for (Long timestamp : this.timeWindow) {
             List<Y> dataPointsToSample = this.timeslots.get(timeSlotIndex);
-            points.addPoint(makePoint(timestamp, dataPointsToSample));
+            List<Y> minDataPointsToSample = this.minTimeslots.get(timeSlotIndex);
+            List<Y> maxDataPointsToSample = this.maxTimeslots.get(timeSlotIndex);
+            points.addPoint(makePoint(timestamp, dataPointsToSample, minDataPointsToSample, maxDataPointsToSample));
             ++timeSlotIndex;
         }
         return points;
@@ -66,18 +73,19 @@ public abstract class SampledTimeSeriesChartBuilder<Y extends Number> extends Sa
         for (DataPoint<Long, Y> dataPoint : dataPoints) {
             int timeslotIndex = this.timeWindow.getWindowIndex(dataPoint.getxVal());
             if (isValidIndex(timeslotIndex)) {
-                List<Y> timeSlottedDataPoints = this.timeslots.get(timeslotIndex);
-                timeSlottedDataPoints.add(dataPoint.getyVal());
+                this.timeslots.get(timeslotIndex).add(dataPoint.getyVal());
+                this.minTimeslots.get(timeslotIndex).add(dataPoint.getyMin());
+                this.maxTimeslots.get(timeslotIndex).add(dataPoint.getyMax());
             }
         }
     }
     
-    private Point makePoint(Long xVal, List<Y> sampleBuffer) {
+    private Point makePoint(Long xVal, List<Y> sampleBuffer, List<Y> minSampleBuffer, List<Y> maxSampleBuffer) {
         if (sampleBuffer.isEmpty()) {
             return new Point(xVal, this.defaultValue, this.defaultValue, this.defaultValue);
         } else {
-            Y minVal = sampleMin(sampleBuffer);
-            Y maxVal = sampleMax(sampleBuffer);
+            Y minVal = sampleMin(minSampleBuffer);
+            Y maxVal = sampleMax(maxSampleBuffer);
             Y avgVal = sampleAvg(sampleBuffer);
             return new Point(xVal, minVal, maxVal, avgVal);
         }
@@ -70,8 +70,8 @@ public class AgentStatChartGroup {
 
     public void addAgentStats(List<AgentStat> agentStats) {
         for (AgentStat agentStat : agentStats) {
-            addMemoryGcData(agentStat.getMemoryGc());
-            addCpuLoadData(agentStat.getCpuLoad());
+            addMemoryGcData(agentStat.getMemoryGc(), agentStat.getMinMemoryGc(), agentStat.getMaxMemoryGc());
+            addCpuLoadData(agentStat.getCpuLoad(), agentStat.getMinCpuLoad(), agentStat.getMaxCpuLoad());
         }
     }
 
@@ -81,29 +81,42 @@ public class AgentStatChartGroup {
         }
     }
 
-    private void addMemoryGcData(AgentStatMemoryGcBo data) {
+    /**
+     * min and max are the extremes of a rollup time slot. raw statistics pass null.
+     */
+    private void addMemoryGcData(AgentStatMemoryGcBo data, AgentStatMemoryGcBo min, AgentStatMemoryGcBo max) {
         if (data == null) {
             return;
         }
+        if (min == null || max == null) {
+            min = data;
+            max = data;
+        }
         this.type = data.getGcType();
         long timestamp = data.getTimestamp();
-        ((SampledTimeSeriesLongChartBuilder)this.chartBuilders.get(ChartType.JVM_MEMORY_HEAP_USED)).addDataPoint(new DataPoint<Long, Long>(timestamp, data.getJvmMemoryHeapUsed()));
-        ((SampledTimeSeriesLongChartBuilder)this.chartBuilders.get(ChartType.JVM_MEMORY_HEAP_MAX)).addDataPoint(new DataPoint<Long, Long>(timestamp, data.getJvmMemoryHeapMax()));
-        ((SampledTimeSeriesLongChartBuilder)this.chartBuilders.get(ChartType.JVM_MEMORY_NON_HEAP_USED)).addDataPoint(new DataPoint<Long, Long>(timestamp, data.getJvmMemoryNonHeapUsed()));
-        ((SampledTimeSeriesLongChartBuilder)this.chartBuilders.get(ChartType.JVM_MEMORY_NON_HEAP_MAX)).addDataPoint(new DataPoint<Long, Long>(timestamp, data.getJvmMemoryNonHeapMax()));
-        ((SampledTimeSeriesLongChartBuilder)this.chartBuilders.get(ChartType.JVM_GC_OLD_COUNT)).addDataPoint(new DataPoint<Long, Long>(timestamp, data.getJvmGcOldCount()));
-        ((SampledTimeSeriesLongChartBuilder)this.chartBuilders.get(ChartType.JVM_GC_OLD_TIME)).addDataPoint(new DataPoint<Long, Long>(timestamp, data.getJvmGcOldTime()));
+        ((SampledTimeSeriesLongChartBuilder)this.chartBuilders.get(ChartType.JVM_MEMORY_HEAP_USED)).addDataPoint(new DataPoint<Long, Long>(timestamp, data.getJvmMemoryHeapUsed(), min.getJvmMemoryHeapUsed(), max.getJvmMemoryHeapUsed()));
+        ((SampledTimeSeriesLongChartBuilder)this.chartBuilders.get(ChartType.JVM_MEMORY_HEAP_MAX)).addDataPoint(new DataPoint<Long, Long>(timestamp, data.getJvmMemoryHeapMax(), min.getJvmMemoryHeapMax(), max.getJvmMemoryHeapMax()));
+        ((SampledTimeSeriesLongChartBuilder)this.chartBuilders.get(ChartType.JVM_MEMORY_NON_HEAP_USED)).addDataPoint(new DataPoint<Long, Long>(timestamp, data.getJvmMemoryNonHeapUsed(), min.getJvmMemoryNonHeapUsed(), max.getJvmMemoryNonHeapUsed()));
+        ((SampledTimeSeriesLongChartBuilder)this.chartBuilders.get(ChartType.JVM_MEMORY_NON_HEAP_MAX)).addDataPoint(new DataPoint<Long, Long>(timestamp, data.getJvmMemoryNonHeapMax(), min.getJvmMemoryNonHeapMax(), max.getJvmMemoryNonHeapMax()));
+        ((SampledTimeSeriesLongChartBuilder)this.chartBuilders.get(ChartType.JVM_GC_OLD_COUNT)).addDataPoint(new DataPoint<Long, Long>(timestamp, data.getJvmGcOldCount(), min.getJvmGcOldCount(), max.getJvmGcOldCount()));
+        ((SampledTimeSeriesLongChartBuilder)this.chartBuilders.get(ChartType.JVM_GC_OLD_TIME)).addDataPoint(new DataPoint<Long, Long>(timestamp, data.getJvmGcOldTime(), min.getJvmGcOldTime(), max.getJvmGcOldTime()));
     }
 
-    private void addCpuLoadData(AgentStatCpuLoadBo data) {
+    private void addCpuLoadData(AgentStatCpuLoadBo data, AgentStatCpuLoadBo min, AgentStatCpuLoadBo max) {
         if (data == null) {
             return;
         }
+        if (min == null || max == null) {
+            min = data;
+            max = data;
+        }
         long timestamp = data.getTimestamp();
-        double jvmCpuLoadPercentage = data.getJvmCpuLoad() * 100;
-        double systemCpuLoadPercentage = data.getSystemCpuLoad() * 100;
-        ((SampledTimeSeriesDoubleChartBuilder)this.chartBuilders.get(ChartType.CPU_LOAD_JVM)).addDataPoint(new DataPoint<Long, Double>(timestamp, jvmCpuLoadPercentage));
-        ((SampledTimeSeriesDoubleChartBuilder)this.chartBuilders.get(ChartType.CPU_LOAD_SYSTEM)).addDataPoint(new DataPoint<Long, Double>(timestamp, systemCpuLoadPercentage));
+        ((SampledTimeSeriesDoubleChartBuilder)this.chartBuilders.get(ChartType.CPU_LOAD_JVM)).addDataPoint(new DataPoint<Long, Double>(timestamp, toPercentage(data.getJvmCpuLoad()), toPercentage(min.getJvmCpuLoad()), toPercentage(max.getJvmCpuLoad())));
+        ((SampledTimeSeriesDoubleChartBuilder)this.chartBuilders.get(ChartType.CPU_LOAD_SYSTEM)).addDataPoint(new DataPoint<Long, Double>(timestamp, toPercentage(data.getSystemCpuLoad()), toPercentage(min.getSystemCpuLoad()), toPercentage(max.getSystemCpuLoad())));
+    }
+
+    private static double toPercentage(double cpuLoad) {
+        return cpuLoad * 100;
     }
 
     public String getType() {
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.vo.scatter;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.navercorp.pinpoint.web.view.ScatterHeatMapSerializer;
+import com.navercorp.pinpoint.web.vo.Range;
+
+/**
+ * Success/error transaction counts of the scatter chart binned into a time x response time grid.
+ * elapsed times of yMax or more are counted in the last row.
+ */
+@JsonSerialize(using = ScatterHeatMapSerializer.class)
+public class ScatterHeatMap {
+
+    public static final int MAX_BIN_COUNT = 1000;
+
+    private final Range range;
+    private final int xBinCount;
+    private final int yBinCount;
+    private final int yMax;
+
+    private final long xBinSize;
+    private final int yBinSize;
+
+    private final int[] successCount;
+    private final int[] errorCount;
+
+    private long totalCount = 0;
+
+    public ScatterHeatMap(Range range, int xBinCount, int yBinCount, int yMax) {
+        if (range == null) {
+            throw new NullPointerException("range must not be null");
+        }
+        checkBinCount("xBinCount", xBinCount);
+        checkBinCount("yBinCount", yBinCount);
+        if (yMax <= 0) {
+            throw new IllegalArgumentException("yMax must be positive. yMax:" + yMax);
+        }
+        this.range = range;
+        this.xBinCount = xBinCount;
+        this.yBinCount = yBinCount;
+        this.yMax = yMax;
+
+        // ceiling so that the last bin contains range.to
+        final long rangeSize = range.getTo() - range.getFrom() + 1;
+        this.xBinSize = Math.max(1, (rangeSize + xBinCount - 1) / xBinCount);
+        this.yBinSize = Math.max(1, (yMax + yBinCount - 1) / yBinCount);
+
+        this.successCount = new int[xBinCount * yBinCount];
+        this.errorCount = new int[xBinCount * yBinCount];
+    }
+
+    private static void checkBinCount(String name, int binCount) {
+        if (binCount <= 0 || binCount > MAX_BIN_COUNT) {
+            throw new IllegalArgumentException(name + " out of range (1~" + MAX_BIN_COUNT + ") " + binCount);
+        }
+    }
+
+    public void addDot(long acceptedTime, int elapsedTime, boolean error) {
+        final int index = getXIndex(acceptedTime) * yBinCount + getYIndex(elapsedTime);
+        if (error) {
+            errorCount[index]++;
+        } else {
+            successCount[index]++;
+        }
+        totalCount++;
+    }
+
+    private int getXIndex(long acceptedTime) {
+        final long x = (acceptedTime - range.getFrom()) / xBinSize;
+        if (x < 0) {
+            return 0;
+        }
+        if (x >= xBinCount) {
+            return xBinCount - 1;
+        }
+        return (int) x;
+    }
+
+    private int getYIndex(int elapsedTime) {
+        if (elapsedTime <= 0) {
+            return 0;
+        }
+        final int y = elapsedTime / yBinSize;
+        if (y >= yBinCount) {
+            return yBinCount - 1;
+        }
+        return y;
+    }
+
+    public Range getRange() {
+        return range;
+    }
+
+    public int getXBinCount() {
+        return xBinCount;
+    }
+
+    public int getYBinCount() {
+        return yBinCount;
+    }
+
+    public int getYMax() {
+        return yMax;
+    }
+
+    public long getXBinSize() {
+        return xBinSize;
+    }
+
+    public int getYBinSize() {
+        return yBinSize;
+    }
+
+    /**
+     * @return start time of the x'th column
+     */
+    public long getTime(int x) {
+        return range.getFrom() + x * xBinSize;
+    }
+
+    /**
+     * @return lower bound of the elapsed time of the y'th row
+     */
+    public int getElapsedTime(int y) {
+        return y * yBinSize;
+    }
+
+    public int getSuccessCount(int x, int y) {
+        return successCount[x * yBinCount + y];
+    }
+
+    public int getErrorCount(int x, int y) {
+        return errorCount[x * yBinCount + y];
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder(128);
+        sb.append("ScatterHeatMap{");
+        sb.append("range=").append(range);
+        sb.append(", xBinCount=").append(xBinCount);
+        sb.append(", yBinCount=").append(yBinCount);
+        sb.append(", yMax=").append(yMax);
+        sb.append(", xBinSize=").append(xBinSize);
+        sb.append(", yBinSize=").append(yBinSize);
+        sb.append(", totalCount=").append(totalCount);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -16,6 +16,7 @@
 
 package com.navercorp.pinpoint.web.alarm;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 
@@ -23,7 +24,9 @@ import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.springframework.batch.core.StepExecution;
@@ -47,6 +50,8 @@ public class ReaderTest {
     private static ApplicationIndexDao applicationIndexDao;
     private static AlarmResourceDao alarmResourceDao;
     private static DataCollectorFactory dataCollectorFactory;
+    private static DataCollectorPrefetcher dataCollectorPrefetcher;
+    private static final AtomicInteger collectCount = new AtomicInteger();
     private static final String APP_NAME = "app";
     
     @Test
@@ -56,7 +61,7 @@ public class ReaderTest {
         executionContext.put(AlarmPartitioner.PARTITION_NUMBER, 1);
         stepExecution.setExecutionContext(executionContext);
         
-        AlarmReader reader = new AlarmReader(dataCollectorFactory, applicationIndexDao, alarmResourceDao);
+        AlarmReader reader = new AlarmReader(dataCollectorFactory, applicationIndexDao, alarmResourceDao, dataCollectorPrefetcher);
 
         reader.beforeStep(stepExecution);
 
@@ -74,7 +79,7 @@ public class ReaderTest {
         executionContext.put(AlarmPartitioner.PARTITION_NUMBER, 2);
         stepExecution.setExecutionContext(executionContext);
         
-        AlarmReader reader = new AlarmReader(dataCollectorFactory, applicationIndexDao, alarmResourceDao);
+        AlarmReader reader = new AlarmReader(dataCollectorFactory, applicationIndexDao, alarmResourceDao, dataCollectorPrefetcher);
 
         reader.beforeStep(stepExecution);
 
@@ -99,13 +104,36 @@ public class ReaderTest {
             }
         };
         
-        AlarmReader reader = new AlarmReader(dataCollectorFactory, applicationIndexDao, alarmResourceDao);
+        AlarmReader reader = new AlarmReader(dataCollectorFactory, applicationIndexDao, alarmResourceDao, dataCollectorPrefetcher);
         reader.beforeStep(stepExecution);
         assertNull(reader.read());
     }
     
+    @Test
+    public void prefetchTest() {
+        StepExecution stepExecution = new StepExecution("alarmStep", null);
+        ExecutionContext executionContext = new ExecutionContext();
+        executionContext.put(AlarmPartitioner.PARTITION_NUMBER, 1);
+        stepExecution.setExecutionContext(executionContext);
+
+        AlarmReader reader = new AlarmReader(dataCollectorFactory, applicationIndexDao, alarmResourceDao, dataCollectorPrefetcher);
+        collectCount.set(0);
+        reader.beforeStep(stepExecution);
+
+        // every collector of the partition is collected before the first checker is read
+        assertEquals(5, collectCount.get());
+    }
+    
+    @AfterClass
+    public static void afterClass() {
+        dataCollectorPrefetcher.stop();
+    }
+    
     @BeforeClass
     public static void beforeClass() {
+        dataCollectorPrefetcher = new DataCollectorPrefetcher(2);
+        dataCollectorPrefetcher.start();
+        
         applicationIndexDao = new ApplicationIndexDao() {
 
             @Override
@@ -146,7 +174,12 @@ public class ReaderTest {
         dataCollectorFactory = new DataCollectorFactory() {
             @Override
             public DataCollector createDataCollector(CheckerCategory checker, Application application, long timeSlotEndTime) {
-                return new ResponseTimeDataCollector(DataCollectorCategory.RESPONSE_TIME, null, null, 0, 0);
+                return new ResponseTimeDataCollector(DataCollectorCategory.RESPONSE_TIME, null, null, 0, 0) {
+                    @Override
+                    public void collect() {
+                        collectCount.incrementAndGet();
+                    }
+                };
             }
         };
     }
@@ -18,8 +18,10 @@ package com.navercorp.pinpoint.web.alarm.checker;
 
 import static org.junit.Assert.*;
 
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -27,6 +29,7 @@ import org.junit.Test;
 import com.navercorp.pinpoint.common.ServiceType;
 import com.navercorp.pinpoint.common.bo.AgentStatCpuLoadBo;
 import com.navercorp.pinpoint.common.bo.AgentStatMemoryGcBo;
+import com.navercorp.pinpoint.common.hbase.AgentStatRollup;
 import com.navercorp.pinpoint.web.alarm.CheckerCategory;
 import com.navercorp.pinpoint.web.alarm.DataCollectorFactory;
 import com.navercorp.pinpoint.web.alarm.DataCollectorFactory.DataCollectorCategory;
@@ -73,6 +76,20 @@ public class GcCountCheckerTest {
                 
                 return AgentStatList;
             }
+
+            @Override
+            public Map<String, List<AgentStat>> scanAgentStatList(List<String> agentIdList, Range range) {
+                Map<String, List<AgentStat>> agentStatMap = new HashMap<String, List<AgentStat>>();
+                for (String agentId : agentIdList) {
+                    agentStatMap.put(agentId, scanAgentStatList(agentId, range));
+                }
+                return agentStatMap;
+            }
+
+            @Override
+            public List<AgentStat> scanAgentStatList(String agentId, Range range, AgentStatRollup rollup) {
+                throw new UnsupportedOperationException();
+            }
         };
         
         applicationIndexDao = new ApplicationIndexDao() {
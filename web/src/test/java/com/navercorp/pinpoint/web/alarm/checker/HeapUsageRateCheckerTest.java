@@ -19,8 +19,10 @@ package com.navercorp.pinpoint.web.alarm.checker;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -28,6 +30,7 @@ import org.junit.Test;
 import com.navercorp.pinpoint.common.ServiceType;
 import com.navercorp.pinpoint.common.bo.AgentStatCpuLoadBo;
 import com.navercorp.pinpoint.common.bo.AgentStatMemoryGcBo;
+import com.navercorp.pinpoint.common.hbase.AgentStatRollup;
 import com.navercorp.pinpoint.web.alarm.CheckerCategory;
 import com.navercorp.pinpoint.web.alarm.DataCollectorFactory;
 import com.navercorp.pinpoint.web.alarm.DataCollectorFactory.DataCollectorCategory;
@@ -74,6 +77,20 @@ public class HeapUsageRateCheckerTest {
                 
                 return AgentStatList;
             }
+
+            @Override
+            public Map<String, List<AgentStat>> scanAgentStatList(List<String> agentIdList, Range range) {
+                Map<String, List<AgentStat>> agentStatMap = new HashMap<String, List<AgentStat>>();
+                for (String agentId : agentIdList) {
+                    agentStatMap.put(agentId, scanAgentStatList(agentId, range));
+                }
+                return agentStatMap;
+            }
+
+            @Override
+            public List<AgentStat> scanAgentStatList(String agentId, Range range, AgentStatRollup rollup) {
+                throw new UnsupportedOperationException();
+            }
         };
         
         applicationIndexDao = new ApplicationIndexDao() {
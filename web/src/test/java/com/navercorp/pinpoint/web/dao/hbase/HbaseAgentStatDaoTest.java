@@ -0,0 +1,69 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.dao.hbase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.navercorp.pinpoint.common.bo.AgentStatCpuLoadBo;
+import com.navercorp.pinpoint.common.bo.AgentStatMemoryGcBo;
+import com.navercorp.pinpoint.web.vo.AgentStat;
+import com.navercorp.pinpoint.web.vo.Range;
+
+public class HbaseAgentStatDaoTest {
+
+    @Test
+    public void addInRange() {
+        // a batch starting before the range and a batch ending after the range
+        List<AgentStat> before = Arrays.asList(createAgentStat(1000), createAgentStat(5000), createAgentStat(10000));
+        List<AgentStat> after = Arrays.asList(createAgentStat(15000), createAgentStat(20000), createAgentStat(25000));
+
+        List<AgentStat> merged = new ArrayList<AgentStat>();
+        Range range = new Range(5000, 20000);
+        HbaseAgentStatDao.addInRange(merged, before, range);
+        HbaseAgentStatDao.addInRange(merged, after, range);
+
+        Assert.assertEquals(3, merged.size());
+        Assert.assertEquals(10000, merged.get(0).getMemoryGc().getTimestamp());
+        Assert.assertEquals(15000, merged.get(1).getMemoryGc().getTimestamp());
+        Assert.assertEquals(20000, merged.get(2).getMemoryGc().getTimestamp());
+    }
+
+    @Test
+    public void addInRangeCpuLoadOnly() {
+        AgentStat agentStat = new AgentStat();
+        agentStat.setCpuLoad(new AgentStatCpuLoadBo.Builder("agent", 0, 10000).build());
+
+        List<AgentStat> merged = new ArrayList<AgentStat>();
+        HbaseAgentStatDao.addInRange(merged, Arrays.asList(agentStat, new AgentStat()), new Range(5000, 20000));
+
+        Assert.assertEquals(1, merged.size());
+        Assert.assertSame(agentStat, merged.get(0));
+    }
+
+    private AgentStat createAgentStat(long timestamp) {
+        AgentStat agentStat = new AgentStat();
+        agentStat.setMemoryGc(new AgentStatMemoryGcBo.Builder("agent", 0, timestamp).build());
+        agentStat.setCpuLoad(new AgentStatCpuLoadBo.Builder("agent", 0, timestamp).build());
+        return agentStat;
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.filter;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.navercorp.pinpoint.common.hbase.filter.ApplicationTraceIndexColumnFilter;
+import com.navercorp.pinpoint.common.hbase.filter.ApplicationTraceIndexColumnFilter.ErrorState;
+
+public class FromToResponseFilterTest {
+
+    @Test
+    public void userToWasTraceIndexFilter() {
+        FilterDescriptor descriptor = createDescriptor("USER", "USER", "STAND_ALONE", "APP");
+        descriptor.setRf(100L);
+        descriptor.setRt("200");
+        descriptor.setIe(true);
+        descriptor.setTan("agent");
+        FromToResponseFilter filter = new FromToResponseFilter(descriptor, new FilterHint());
+
+        ApplicationTraceIndexColumnFilter traceIndexFilter = filter.createTraceIndexFilter("APP");
+        Assert.assertNotNull(traceIndexFilter);
+        Assert.assertEquals(100L, traceIndexFilter.getResponseTimeFrom());
+        Assert.assertEquals(200L, traceIndexFilter.getResponseTimeTo());
+        Assert.assertEquals(ErrorState.ERROR, traceIndexFilter.getErrorState());
+        Assert.assertEquals("agent", traceIndexFilter.getAgentId());
+
+        Assert.assertNull(filter.createTraceIndexFilter("OTHER"));
+    }
+
+    @Test
+    public void noConditionTraceIndexFilter() {
+        FilterDescriptor descriptor = createDescriptor("USER", "USER", "STAND_ALONE", "APP");
+        FromToResponseFilter filter = new FromToResponseFilter(descriptor, new FilterHint());
+
+        Assert.assertNull(filter.createTraceIndexFilter("APP"));
+    }
+
+    @Test
+    public void wasToWasTraceIndexFilter() {
+        FilterDescriptor descriptor = createDescriptor("STAND_ALONE", "FROM", "STAND_ALONE", "TO");
+        descriptor.setRf(0L);
+        descriptor.setRt("max");
+        descriptor.setIe(false);
+        descriptor.setFan("fromAgent");
+        FromToResponseFilter filter = new FromToResponseFilter(descriptor, new FilterHint());
+
+        ApplicationTraceIndexColumnFilter to = filter.createTraceIndexFilter("TO");
+        Assert.assertEquals(ErrorState.SUCCESS, to.getErrorState());
+        Assert.assertNull(to.getAgentId());
+
+        // only the agent is checked against the span of the from application
+        ApplicationTraceIndexColumnFilter from = filter.createTraceIndexFilter("FROM");
+        Assert.assertEquals(ErrorState.ANY, from.getErrorState());
+        Assert.assertEquals(0L, from.getResponseTimeFrom());
+        Assert.assertEquals(Long.MAX_VALUE, from.getResponseTimeTo());
+        Assert.assertEquals("fromAgent", from.getAgentId());
+    }
+
+    @Test
+    public void wasToBackendTraceIndexFilter() {
+        FilterDescriptor descriptor = createDescriptor("STAND_ALONE", "FROM", "MYSQL", "DB");
+        descriptor.setIe(true);
+        FromToResponseFilter filter = new FromToResponseFilter(descriptor, new FilterHint());
+
+        // the response of a backend is recorded in the span event
+        Assert.assertNull(filter.createTraceIndexFilter("FROM"));
+
+        descriptor.setFan("fromAgent");
+        filter = new FromToResponseFilter(descriptor, new FilterHint());
+        ApplicationTraceIndexColumnFilter from = filter.createTraceIndexFilter("FROM");
+        Assert.assertEquals(ErrorState.ANY, from.getErrorState());
+        Assert.assertEquals("fromAgent", from.getAgentId());
+    }
+
+    @Test
+    public void filterChainTraceIndexFilter() {
+        FilterDescriptor backend = createDescriptor("STAND_ALONE", "APP", "MYSQL", "DB");
+        backend.setIe(true);
+        FilterDescriptor user = createDescriptor("USER", "USER", "STAND_ALONE", "APP");
+        user.setIe(false);
+
+        FilterChain chain = new FilterChain();
+        chain.addFilter(new FromToResponseFilter(backend, new FilterHint()));
+        chain.addFilter(new FromToResponseFilter(user, new FilterHint()));
+
+        ApplicationTraceIndexColumnFilter traceIndexFilter = chain.createTraceIndexFilter("APP");
+        Assert.assertEquals(ErrorState.SUCCESS, traceIndexFilter.getErrorState());
+        Assert.assertNull(chain.createTraceIndexFilter("DB"));
+    }
+
+    private FilterDescriptor createDescriptor(String fromServiceType, String fromApplicationName, String toServiceType, String toApplicationName) {
+        FilterDescriptor descriptor = new FilterDescriptor();
+        descriptor.setFst(fromServiceType);
+        descriptor.setFa(fromApplicationName);
+        descriptor.setTst(toServiceType);
+        descriptor.setTa(toApplicationName);
+        return descriptor;
+    }
+}
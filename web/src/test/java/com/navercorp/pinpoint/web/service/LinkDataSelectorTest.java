@@ -0,0 +1,127 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.service;
+
+import com.navercorp.pinpoint.common.ServiceType;
+import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkDataDuplexMap;
+import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkDataMap;
+import com.navercorp.pinpoint.web.dao.HostApplicationMapDao;
+import com.navercorp.pinpoint.web.dao.MapStatisticsCalleeDao;
+import com.navercorp.pinpoint.web.dao.MapStatisticsCallerDao;
+import com.navercorp.pinpoint.web.service.map.AcceptApplication;
+import com.navercorp.pinpoint.web.vo.Application;
+import com.navercorp.pinpoint.web.vo.LinkKey;
+import com.navercorp.pinpoint.web.vo.Range;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+public class LinkDataSelectorTest {
+
+    private final Range range = new Range(0, 60 * 1000);
+
+    private final Application user = new Application("front", ServiceType.USER);
+    private final Application front = new Application("front", ServiceType.STAND_ALONE);
+    private final Application backend = new Application("backend", ServiceType.STAND_ALONE);
+    private final Application api = new Application("api", ServiceType.STAND_ALONE);
+    private final Application mysql = new Application("mysql", ServiceType.MYSQL);
+
+    private MapStatisticsCalleeDao calleeDao;
+    private MapStatisticsCallerDao callerDao;
+    private HostApplicationMapDao hostApplicationMapDao;
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() throws Exception {
+        calleeDao = mock(MapStatisticsCalleeDao.class);
+        callerDao = mock(MapStatisticsCallerDao.class);
+        hostApplicationMapDao = mock(HostApplicationMapDao.class);
+        when(calleeDao.selectCallee(any(Application.class), any(Range.class))).thenReturn(new LinkDataMap());
+        when(callerDao.selectCaller(any(Application.class), any(Range.class))).thenReturn(new LinkDataMap());
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void select() {
+        // user -> front -> backend -> mysql
+        when(callerDao.selectCaller(front, range)).thenReturn(linkDataMap(front, backend));
+        when(callerDao.selectCaller(backend, range)).thenReturn(linkDataMap(backend, mysql));
+        when(calleeDao.selectCallee(front, range)).thenReturn(linkDataMap(user, front));
+        when(calleeDao.selectCallee(backend, range)).thenReturn(linkDataMap(front, backend));
+
+        LinkDataSelector selector = new LinkDataSelector(calleeDao, callerDao, hostApplicationMapDao, executor);
+        LinkDataDuplexMap linkDataDuplexMap = selector.select(backend, range);
+
+        Assert.assertNotNull(linkDataDuplexMap.getSourceLinkData(new LinkKey(front, backend)));
+        Assert.assertNotNull(linkDataDuplexMap.getSourceLinkData(new LinkKey(backend, mysql)));
+        Assert.assertNotNull(linkDataDuplexMap.getTargetLinkData(new LinkKey(user, front)));
+        Assert.assertNotNull(linkDataDuplexMap.getTargetLinkData(new LinkKey(front, backend)));
+
+        // each application is scanned only once
+        verify(callerDao, times(1)).selectCaller(front, range);
+        verify(callerDao, times(1)).selectCaller(backend, range);
+        verify(calleeDao, times(1)).selectCallee(front, range);
+        verify(calleeDao, times(1)).selectCallee(backend, range);
+        // terminal
+        verify(callerDao, never()).selectCaller(mysql, range);
+    }
+
+    @Test
+    public void checkRpcCallAccepted() {
+        Application rpc1 = new Application("api1.host:8080", ServiceType.HTTP_CLIENT);
+        Application rpc2 = new Application("api2.host:8080", ServiceType.HTTP_CLIENT);
+        LinkDataMap caller = linkDataMap(front, rpc1);
+        caller.addLinkDataMap(linkDataMap(front, rpc2));
+        when(callerDao.selectCaller(front, range)).thenReturn(caller);
+
+        Set<AcceptApplication> acceptApplicationSet = new HashSet<AcceptApplication>();
+        acceptApplicationSet.add(new AcceptApplication("api1.host:8080", api));
+        acceptApplicationSet.add(new AcceptApplication("api2.host:8080", api));
+        when(hostApplicationMapDao.findAcceptApplicationName(front, range)).thenReturn(acceptApplicationSet);
+
+        LinkDataSelector selector = new LinkDataSelector(calleeDao, callerDao, hostApplicationMapDao, executor);
+        LinkDataDuplexMap linkDataDuplexMap = selector.select(front, range);
+
+        LinkDataMap sourceLinkDataMap = linkDataDuplexMap.getSourceLinkDataMap();
+        Assert.assertEquals(1, sourceLinkDataMap.size());
+        Assert.assertNotNull(sourceLinkDataMap.getLinkData(new LinkKey(front, api)));
+        // the accept applications of every host are queried at once
+        verify(hostApplicationMapDao, times(1)).findAcceptApplicationName(front, range);
+        verify(callerDao, times(1)).selectCaller(api, range);
+    }
+
+    private LinkDataMap linkDataMap(Application from, Application to) {
+        LinkDataMap linkDataMap = new LinkDataMap();
+        linkDataMap.addLinkData(from, from.getName(), to, to.getName(), range.getFrom(), (short) 100, 1);
+        return linkDataMap;
+    }
+}
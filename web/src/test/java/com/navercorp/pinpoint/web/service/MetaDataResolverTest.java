@@ -0,0 +1,204 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.service;
+
+import com.google.common.cache.CacheStats;
+import com.navercorp.pinpoint.common.bo.ApiMetaDataBo;
+import com.navercorp.pinpoint.common.bo.SqlMetaDataBo;
+import com.navercorp.pinpoint.common.bo.StringMetaDataBo;
+import com.navercorp.pinpoint.web.dao.ApiMetaDataDao;
+import com.navercorp.pinpoint.web.dao.SqlMetaDataDao;
+import com.navercorp.pinpoint.web.dao.StringMetaDataDao;
+import com.navercorp.pinpoint.web.vo.MetaDataKey;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class MetaDataResolverTest {
+
+    private static final long START_TIME = 1000;
+
+    private CountingApiMetaDataDao apiMetaDataDao;
+    private CountingSqlMetaDataDao sqlMetaDataDao;
+    private CountingStringMetaDataDao stringMetaDataDao;
+    private MetaDataResolver resolver;
+
+    @Before
+    public void setUp() throws Exception {
+        apiMetaDataDao = new CountingApiMetaDataDao();
+        sqlMetaDataDao = new CountingSqlMetaDataDao();
+        stringMetaDataDao = new CountingStringMetaDataDao();
+        resolver = new MetaDataResolver(apiMetaDataDao, sqlMetaDataDao, stringMetaDataDao, 1000);
+    }
+
+    @Test
+    public void multiGetPerTable() {
+        MetaDataResolver.Lookup lookup = resolver.newLookup();
+        for (int i = 0; i < 100; i++) {
+            lookup.addApi("agent", START_TIME, i % 10);
+            lookup.addSql("agent", START_TIME, i);
+        }
+        lookup.addString("agent", START_TIME, 1);
+        lookup.resolve();
+
+        Assert.assertEquals(1, apiMetaDataDao.multiGetCount);
+        Assert.assertEquals(10, apiMetaDataDao.keyCount);
+        Assert.assertEquals(1, sqlMetaDataDao.multiGetCount);
+        Assert.assertEquals(100, sqlMetaDataDao.keyCount);
+        Assert.assertEquals(1, stringMetaDataDao.multiGetCount);
+
+        Assert.assertEquals("api-3", lookup.getApiMetaData("agent", START_TIME, 3).get(0).getApiInfo());
+        Assert.assertEquals("sql-42", lookup.getSqlMetaData("agent", START_TIME, 42).get(0).getSql());
+        Assert.assertEquals(0, apiMetaDataDao.getCount + sqlMetaDataDao.getCount);
+    }
+
+    @Test
+    public void cached() {
+        MetaDataResolver.Lookup first = resolver.newLookup();
+        first.addSql("agent", START_TIME, 1);
+        first.addSql("agent", START_TIME, 2);
+        first.resolve();
+
+        MetaDataResolver.Lookup second = resolver.newLookup();
+        second.addSql("agent", START_TIME, 1);
+        second.addSql("agent", START_TIME, 2);
+        second.addSql("agent", START_TIME, 3);
+        second.resolve();
+
+        Assert.assertEquals(2, sqlMetaDataDao.multiGetCount);
+        Assert.assertEquals(3, sqlMetaDataDao.keyCount);
+        Assert.assertEquals("sql-2", second.getSqlMetaData("agent", START_TIME, 2).get(0).getSql());
+
+        CacheStats stats = resolver.getSqlCacheStats();
+        Assert.assertEquals(2, stats.hitCount());
+        Assert.assertEquals(3, stats.missCount());
+    }
+
+    @Test
+    public void notFoundNotCached() {
+        MetaDataResolver.Lookup first = resolver.newLookup();
+        first.addString("agent", START_TIME, CountingStringMetaDataDao.NOT_FOUND_ID);
+        first.resolve();
+        Assert.assertTrue(first.getStringMetaData("agent", START_TIME, CountingStringMetaDataDao.NOT_FOUND_ID).isEmpty());
+
+        MetaDataResolver.Lookup second = resolver.newLookup();
+        second.addString("agent", START_TIME, CountingStringMetaDataDao.NOT_FOUND_ID);
+        second.resolve();
+
+        Assert.assertEquals(2, stringMetaDataDao.multiGetCount);
+    }
+
+    @Test
+    public void unresolvedKey() {
+        MetaDataResolver.Lookup lookup = resolver.newLookup();
+        lookup.resolve();
+
+        List<ApiMetaDataBo> apiMetaData = lookup.getApiMetaData("agent", START_TIME, 7);
+        Assert.assertEquals("api-7", apiMetaData.get(0).getApiInfo());
+        Assert.assertEquals(1, apiMetaDataDao.multiGetCount);
+    }
+
+    private static class CountingApiMetaDataDao implements ApiMetaDataDao {
+        private int getCount;
+        private int multiGetCount;
+        private int keyCount;
+
+        @Override
+        public List<ApiMetaDataBo> getApiMetaData(String agentId, long time, int apiId) {
+            getCount++;
+            return Collections.singletonList(create(new MetaDataKey(agentId, time, apiId)));
+        }
+
+        @Override
+        public List<List<ApiMetaDataBo>> getApiMetaDataList(List<MetaDataKey> keyList) {
+            multiGetCount++;
+            keyCount += keyList.size();
+            List<List<ApiMetaDataBo>> result = new ArrayList<List<ApiMetaDataBo>>();
+            for (MetaDataKey key : keyList) {
+                result.add(Collections.singletonList(create(key)));
+            }
+            return result;
+        }
+
+        private ApiMetaDataBo create(MetaDataKey key) {
+            ApiMetaDataBo apiMetaDataBo = new ApiMetaDataBo(key.getAgentId(), key.getAgentStartTime(), key.getId());
+            apiMetaDataBo.setApiInfo("api-" + key.getId());
+            return apiMetaDataBo;
+        }
+    }
+
+    private static class CountingSqlMetaDataDao implements SqlMetaDataDao {
+        private int getCount;
+        private int multiGetCount;
+        private int keyCount;
+
+        @Override
+        public List<SqlMetaDataBo> getSqlMetaData(String agentId, long time, int hashCode) {
+            getCount++;
+            return Collections.singletonList(create(new MetaDataKey(agentId, time, hashCode)));
+        }
+
+        @Override
+        public List<List<SqlMetaDataBo>> getSqlMetaDataList(List<MetaDataKey> keyList) {
+            multiGetCount++;
+            keyCount += keyList.size();
+            List<List<SqlMetaDataBo>> result = new ArrayList<List<SqlMetaDataBo>>();
+            for (MetaDataKey key : keyList) {
+                result.add(Collections.singletonList(create(key)));
+            }
+            return result;
+        }
+
+        private SqlMetaDataBo create(MetaDataKey key) {
+            SqlMetaDataBo sqlMetaDataBo = new SqlMetaDataBo(key.getAgentId(), key.getAgentStartTime(), key.getId());
+            sqlMetaDataBo.setSql("sql-" + key.getId());
+            return sqlMetaDataBo;
+        }
+    }
+
+    private static class CountingStringMetaDataDao implements StringMetaDataDao {
+        private static final int NOT_FOUND_ID = -1;
+
+        private int multiGetCount;
+
+        @Override
+        public List<StringMetaDataBo> getStringMetaData(String agentId, long time, int stringId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<List<StringMetaDataBo>> getStringMetaDataList(List<MetaDataKey> keyList) {
+            multiGetCount++;
+            List<List<StringMetaDataBo>> result = new ArrayList<List<StringMetaDataBo>>();
+            for (MetaDataKey key : keyList) {
+                if (key.getId() == NOT_FOUND_ID) {
+                    result.add(Collections.<StringMetaDataBo>emptyList());
+                } else {
+                    StringMetaDataBo stringMetaDataBo = new StringMetaDataBo(key.getAgentId(), key.getAgentStartTime(), key.getId());
+                    stringMetaDataBo.setStringValue("string-" + key.getId());
+                    result.add(Collections.singletonList(stringMetaDataBo));
+                }
+            }
+            return result;
+        }
+    }
+}
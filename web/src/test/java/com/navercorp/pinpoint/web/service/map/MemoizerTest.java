@@ -0,0 +1,68 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.service.map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class MemoizerTest {
+
+    @Test
+    public void get() {
+        Memoizer<String, Integer> memoizer = new Memoizer<String, Integer>();
+        final AtomicInteger loadCount = new AtomicInteger();
+        Callable<Integer> loader = new Callable<Integer>() {
+            @Override
+            public Integer call() throws Exception {
+                return loadCount.incrementAndGet();
+            }
+        };
+
+        Assert.assertEquals(1, memoizer.get("a", loader).intValue());
+        Assert.assertEquals(1, memoizer.get("a", loader).intValue());
+        Assert.assertEquals(2, memoizer.get("b", loader).intValue());
+        Assert.assertEquals(2, loadCount.get());
+        Assert.assertEquals(2, memoizer.size());
+    }
+
+    @Test
+    public void getError() {
+        Memoizer<String, Integer> memoizer = new Memoizer<String, Integer>();
+        try {
+            memoizer.get("a", new Callable<Integer>() {
+                @Override
+                public Integer call() throws Exception {
+                    throw new IllegalArgumentException("test");
+                }
+            });
+            Assert.fail();
+        } catch (IllegalArgumentException expected) {
+        }
+        // failure is not cached
+        Assert.assertEquals(0, memoizer.size());
+        Integer value = memoizer.get("a", new Callable<Integer>() {
+            @Override
+            public Integer call() throws Exception {
+                return 1;
+            }
+        });
+        Assert.assertEquals(1, value.intValue());
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.service.map;
+
+import com.google.common.cache.CacheStats;
+import com.navercorp.pinpoint.common.ServiceType;
+import com.navercorp.pinpoint.web.applicationmap.histogram.TimeHistogram;
+import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkCallData;
+import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkData;
+import com.navercorp.pinpoint.web.applicationmap.rawdata.LinkDataMap;
+import com.navercorp.pinpoint.web.dao.MapStatisticsCalleeDao;
+import com.navercorp.pinpoint.web.dao.MapStatisticsCallerDao;
+import com.navercorp.pinpoint.web.vo.Application;
+import com.navercorp.pinpoint.web.vo.LinkKey;
+import com.navercorp.pinpoint.web.vo.Range;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+public class TimeSlotLinkDataCacheTest {
+
+    private static final long MINUTE = TimeUnit.MINUTES.toMillis(1);
+
+    private final Application caller = new Application("caller", ServiceType.STAND_ALONE);
+    private final Application callee = new Application("callee", ServiceType.STAND_ALONE);
+
+    private MapStatisticsCallerDao callerDao;
+    private MapStatisticsCalleeDao calleeDao;
+
+    private long currentTimeMillis;
+    private TimeSlotLinkDataCache cache;
+
+    @Before
+    public void setUp() throws Exception {
+        callerDao = mock(MapStatisticsCallerDao.class);
+        calleeDao = mock(MapStatisticsCalleeDao.class);
+        when(callerDao.selectCaller(any(Application.class), any(Range.class))).thenReturn(linkDataMap(30 * MINUTE));
+        when(callerDao.selectCallerTimeSlot(any(Application.class), any(Range.class))).thenReturn(timeSlotMap(10 * MINUTE));
+
+        cache = new TimeSlotLinkDataCache(callerDao, calleeDao, 1000, 2 * MINUTE) {
+            @Override
+            protected long currentTimeMillis() {
+                return TimeSlotLinkDataCacheTest.this.currentTimeMillis;
+            }
+        };
+    }
+
+    @Test
+    public void selectClosedTimeSlotOnce() {
+        currentTimeMillis = 30 * MINUTE + 10000;
+        MapStatisticsCallerDao cachedDao = cache.getMapStatisticsCallerDao();
+
+        LinkDataMap first = cachedDao.selectCaller(caller, new Range(10 * MINUTE, 30 * MINUTE + 10000));
+        // 10 ~ 27 closed, 28 ~ 30 open
+        verify(callerDao).selectCallerTimeSlot(caller, new Range(10 * MINUTE, 27 * MINUTE));
+        verify(callerDao).selectCaller(caller, new Range(28 * MINUTE, 30 * MINUTE + 10000));
+        Assert.assertNotNull(first.getLinkData(new LinkKey(caller, callee)));
+
+        // refresh a minute later
+        currentTimeMillis += MINUTE;
+        cachedDao.selectCaller(caller, new Range(11 * MINUTE, 31 * MINUTE + 10000));
+        verify(callerDao).selectCallerTimeSlot(caller, new Range(28 * MINUTE, 28 * MINUTE));
+        verify(callerDao).selectCaller(caller, new Range(29 * MINUTE, 31 * MINUTE + 10000));
+
+        CacheStats stats = cache.getStats();
+        Assert.assertEquals(17, stats.hitCount());
+        Assert.assertEquals(19, stats.missCount());
+        Assert.assertEquals(19, cache.size());
+    }
+
+    @Test
+    public void cachedLinkDataMapNotModified() {
+        currentTimeMillis = 30 * MINUTE;
+        MapStatisticsCallerDao cachedDao = cache.getMapStatisticsCallerDao();
+
+        LinkDataMap first = cachedDao.selectCaller(caller, new Range(10 * MINUTE, 10 * MINUTE));
+        first.addLinkDataMap(linkDataMap(10 * MINUTE));
+        LinkDataMap second = cachedDao.selectCaller(caller, new Range(10 * MINUTE, 10 * MINUTE));
+
+        Assert.assertEquals(1, getTotalCount(second.getLinkData(new LinkKey(caller, callee))));
+    }
+
+    @Test
+    public void longRangeNotCached() {
+        currentTimeMillis = 300 * MINUTE;
+        Range range = new Range(0, 2 * TimeSlotLinkDataCache.MAX_TIME_SLOT_SIZE * MINUTE);
+        cache.getMapStatisticsCallerDao().selectCaller(caller, range);
+
+        verify(callerDao).selectCaller(caller, range);
+        verify(callerDao, never()).selectCallerTimeSlot(any(Application.class), any(Range.class));
+        Assert.assertEquals(0, cache.size());
+    }
+
+    private long getTotalCount(LinkData linkData) {
+        long totalCount = 0;
+        for (LinkCallData linkCallData : linkData.getLinkCallDataMap().getLinkDataList()) {
+            for (TimeHistogram timeHistogram : linkCallData.getTimeHistogram()) {
+                totalCount += timeHistogram.getTotalCount();
+            }
+        }
+        return totalCount;
+    }
+
+    private Map<Long, LinkDataMap> timeSlotMap(long timeSlot) {
+        Map<Long, LinkDataMap> timeSlotMap = new HashMap<Long, LinkDataMap>();
+        timeSlotMap.put(timeSlot, linkDataMap(timeSlot));
+        return timeSlotMap;
+    }
+
+    private LinkDataMap linkDataMap(long timestamp) {
+        LinkDataMap linkDataMap = new LinkDataMap();
+        linkDataMap.addLinkData(caller, caller.getName(), callee, callee.getName(), timestamp, (short) 100, 1);
+        return linkDataMap;
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.view;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.navercorp.pinpoint.web.vo.Range;
+import com.navercorp.pinpoint.web.vo.TransactionId;
+import com.navercorp.pinpoint.web.vo.scatter.Dot;
+import com.navercorp.pinpoint.web.vo.scatter.ScatterIndex;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Map;
+
+public class ScatterDataStreamWriterTest {
+
+    private ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    public void writeDots() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ScatterDataStreamWriter writer = new ScatterDataStreamWriter(createGenerator(out), null);
+        writer.writeStart();
+        writer.handleDot(new Dot(new TransactionId("agent^1^1"), 300, 10, 0, "agent"));
+        writer.handleDot(new Dot(new TransactionId("agent^1^2"), 200, 20, 1, "agent"));
+        writer.writeEnd(new Range(100, 400));
+
+        String json = out.toString("UTF-8");
+        Assert.assertEquals("{" + scatterIndex() + ",\"scatter\":[[300,10,\"agent^1^1\",1],[200,20,\"agent^1^2\",0]],\"resultFrom\":200,\"resultTo\":400}", json);
+        Assert.assertEquals(2, writer.getDotCount());
+
+        // same fields as the jsonView response
+        Map<?, ?> response = mapper.readValue(json, Map.class);
+        Assert.assertEquals(4, response.size());
+    }
+
+    @Test
+    public void writeEmpty_jsonp() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ScatterDataStreamWriter writer = new ScatterDataStreamWriter(createGenerator(out), "callback");
+        writer.writeStart();
+        writer.writeEnd(new Range(100, 400));
+
+        Assert.assertEquals("callback({" + scatterIndex() + ",\"scatter\":[],\"resultFrom\":-1,\"resultTo\":-1});", out.toString("UTF-8"));
+    }
+
+    @Test
+    public void writeError_jsonp() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ScatterDataStreamWriter writer = new ScatterDataStreamWriter(createGenerator(out), "callback");
+        writer.writeStart();
+        writer.handleDot(new Dot(new TransactionId("agent^1^1"), 300, 10, 0, "agent"));
+        writer.writeError("scan failed");
+
+        Assert.assertEquals("callback({" + scatterIndex() + ",\"scatter\":[[300,10,\"agent^1^1\",1]],\"resultFrom\":-1,\"resultTo\":-1,\"exception\":{\"message\":\"scan failed\"}});", out.toString("UTF-8"));
+    }
+
+    private String scatterIndex() throws Exception {
+        return "\"scatterIndex\":" + mapper.writeValueAsString(ScatterIndex.MATA_DATA);
+    }
+
+    private JsonGenerator createGenerator(ByteArrayOutputStream out) throws Exception {
+        return mapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+    }
+}
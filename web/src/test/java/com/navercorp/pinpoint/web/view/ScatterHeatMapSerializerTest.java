@@ -0,0 +1,53 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.view;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.navercorp.pinpoint.web.vo.Range;
+import com.navercorp.pinpoint.web.vo.scatter.ScatterHeatMap;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ScatterHeatMapSerializerTest {
+
+    private ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    public void testSerialize() throws Exception {
+        ScatterHeatMap heatMap = new ScatterHeatMap(new Range(1000, 1999), 10, 5, 500);
+        Assert.assertEquals(100, heatMap.getXBinSize());
+        Assert.assertEquals(100, heatMap.getYBinSize());
+
+        heatMap.addDot(1000, 0, false);
+        heatMap.addDot(1099, 99, false);
+        heatMap.addDot(1050, 50, true);
+        heatMap.addDot(1999, 100, false);
+        // slower than yMax is counted in the top row
+        heatMap.addDot(1999, 30000, true);
+
+        String jsonValue = mapper.writeValueAsString(heatMap);
+        Assert.assertEquals("{\"from\":1000,\"to\":1999,\"xBinSize\":100,\"yBinSize\":100,\"yMax\":500,\"totalCount\":5," +
+                "\"cells\":[[1000,0,2,1],[1900,100,1,0],[1900,400,0,1]]}", jsonValue);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tooManyBins() {
+        new ScatterHeatMap(new Range(0, 1000), ScatterHeatMap.MAX_BIN_COUNT + 1, 10, 1000);
+    }
+}
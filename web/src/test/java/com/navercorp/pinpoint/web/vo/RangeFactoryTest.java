@@ -0,0 +1,88 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.vo;
+
+import com.navercorp.pinpoint.common.hbase.MapStatisticsRollup;
+import com.navercorp.pinpoint.common.util.DefaultTimeSlot;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class RangeFactoryTest {
+
+    private static final long MINUTE = TimeUnit.MINUTES.toMillis(1);
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+    private static final long DAY = TimeUnit.DAYS.toMillis(1);
+
+    private final RangeFactory rangeFactory = new RangeFactory(new DefaultTimeSlot());
+
+    @Test
+    public void rollupDisabled() {
+        Range range = new Range(DAY + 10 * MINUTE, 9 * DAY);
+        List<RollupRange> rollupRangeList = rangeFactory.createRollupStatisticsRanges(range, false);
+
+        Assert.assertEquals(1, rollupRangeList.size());
+        Assert.assertSame(MapStatisticsRollup.MINUTE, rollupRangeList.get(0).getRollup());
+        Assert.assertEquals(rangeFactory.createStatisticsRange(range), rollupRangeList.get(0).getRange());
+    }
+
+    @Test
+    public void shortRange() {
+        Range range = new Range(10 * MINUTE + 30000, 5 * HOUR);
+        List<RollupRange> rollupRangeList = rangeFactory.createRollupStatisticsRanges(range, true);
+
+        Assert.assertEquals(1, rollupRangeList.size());
+        assertRollupRange(rollupRangeList.get(0), MapStatisticsRollup.MINUTE, 10 * MINUTE, 5 * HOUR + MINUTE);
+    }
+
+    @Test
+    public void hourRollup() {
+        Range range = new Range(10 * MINUTE + 30000, 7 * HOUR + 20 * MINUTE);
+        List<RollupRange> rollupRangeList = rangeFactory.createRollupStatisticsRanges(range, true);
+
+        Assert.assertEquals(3, rollupRangeList.size());
+        assertRollupRange(rollupRangeList.get(0), MapStatisticsRollup.MINUTE, 10 * MINUTE, HOUR);
+        assertRollupRange(rollupRangeList.get(1), MapStatisticsRollup.HOUR, HOUR, 7 * HOUR);
+        assertRollupRange(rollupRangeList.get(2), MapStatisticsRollup.MINUTE, 7 * HOUR, 7 * HOUR + 21 * MINUTE);
+    }
+
+    @Test
+    public void dayRollup() {
+        Range range = new Range(DAY + 10 * HOUR + 10 * MINUTE, 8 * DAY + 2 * HOUR + 30 * MINUTE);
+        List<RollupRange> rollupRangeList = rangeFactory.createRollupStatisticsRanges(range, true);
+
+        Assert.assertEquals(5, rollupRangeList.size());
+        assertRollupRange(rollupRangeList.get(0), MapStatisticsRollup.MINUTE, DAY + 10 * HOUR + 10 * MINUTE, DAY + 11 * HOUR);
+        assertRollupRange(rollupRangeList.get(1), MapStatisticsRollup.HOUR, DAY + 11 * HOUR, 2 * DAY);
+        assertRollupRange(rollupRangeList.get(2), MapStatisticsRollup.DAY, 2 * DAY, 8 * DAY);
+        assertRollupRange(rollupRangeList.get(3), MapStatisticsRollup.HOUR, 8 * DAY, 8 * DAY + 2 * HOUR);
+        assertRollupRange(rollupRangeList.get(4), MapStatisticsRollup.MINUTE, 8 * DAY + 2 * HOUR, 8 * DAY + 2 * HOUR + 31 * MINUTE);
+    }
+
+    /**
+     * @param from first slot of the rows
+     * @param to exclusive end slot of the rows
+     */
+    private void assertRollupRange(RollupRange rollupRange, MapStatisticsRollup rollup, long from, long to) {
+        Assert.assertSame(rollup, rollupRange.getRollup());
+        Assert.assertEquals(from - 1, rollupRange.getRange().getFrom());
+        Assert.assertEquals(to - rollup.getResolution(), rollupRange.getRange().getTo());
+    }
+}
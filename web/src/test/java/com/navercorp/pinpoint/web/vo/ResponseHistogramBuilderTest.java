@@ -0,0 +1,69 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.navercorp.pinpoint.web.vo;
+
+import com.navercorp.pinpoint.common.ServiceType;
+import com.navercorp.pinpoint.common.bo.SpanBo;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+public class ResponseHistogramBuilderTest {
+
+    @Test
+    public void addResponseHistogramBuilder() {
+        final Range range = new Range(0, 60 * 1000);
+        final Application application = new Application("test", ServiceType.STAND_ALONE);
+
+        ResponseHistogramBuilder builder1 = new ResponseHistogramBuilder(range);
+        builder1.addHistogram(application, createSpan("agent1", 100, 0), 1000);
+
+        ResponseHistogramBuilder builder2 = new ResponseHistogramBuilder(range);
+        builder2.addHistogram(application, createSpan("agent1", 200, 0), 1000);
+        builder2.addHistogram(application, createSpan("agent2", 300, 1), 1000);
+
+        builder1.addResponseHistogramBuilder(builder2);
+        builder1.build();
+
+        List<ResponseTime> responseTimeList = builder1.getResponseTimeList(application);
+        Assert.assertEquals(1, responseTimeList.size());
+
+        ResponseTime responseTime = responseTimeList.get(0);
+        Assert.assertEquals(2, responseTime.findHistogram("agent1").getTotalCount());
+        Assert.assertEquals(1, responseTime.findHistogram("agent2").getErrorCount());
+        Assert.assertEquals(3, responseTime.getApplicationResponseHistogram().getTotalCount());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void addResponseHistogramBuilder_built() {
+        final Range range = new Range(0, 60 * 1000);
+        ResponseHistogramBuilder builder1 = new ResponseHistogramBuilder(range);
+        builder1.build();
+
+        builder1.addResponseHistogramBuilder(new ResponseHistogramBuilder(range));
+    }
+
+    private SpanBo createSpan(String agentId, int elapsed, int errorCode) {
+        SpanBo span = new SpanBo();
+        span.setAgentId(agentId);
+        span.setElapsed(elapsed);
+        span.setErrCode(errorCode);
+        return span;
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2014 NAVER Corp.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.navercorp.pinpoint.web.vo.linechart;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import com.navercorp.pinpoint.web.util.TimeWindow;
+import com.navercorp.pinpoint.web.util.TimeWindowOneMinuteSampler;
+import com.navercorp.pinpoint.web.vo.Range;
+import com.navercorp.pinpoint.web.vo.linechart.Chart.Point;
+
+public class SampledTimeSeriesChartBuilderTest {
+
+    private static final long MINUTE = 60 * 1000L;
+
+    @Test
+    public void testSampledTimeSeries() {
+        // Given
+        TimeWindow timeWindow = new TimeWindow(new Range(0, MINUTE), TimeWindowOneMinuteSampler.SAMPLER);
+        SampledTimeSeriesLongChartBuilder builder = new SampledTimeSeriesLongChartBuilder(timeWindow, -1);
+        // When
+        builder.addDataPoint(new DataPoint<Long, Long>(1000L, 10L));
+        builder.addDataPoint(new DataPoint<Long, Long>(2000L, 30L));
+        List<Point> points = builder.buildChart().getPoints();
+        // Then
+        assertEquals(2, points.size());
+        assertPoint(points.get(0), 10L, 30L, 20L);
+        assertPoint(points.get(1), -1L, -1L, -1L);
+    }
+
+    @Test
+    public void testSummarizedDataPoints() {
+        // Given
+        TimeWindow timeWindow = new TimeWindow(new Range(0, MINUTE), TimeWindowOneMinuteSampler.SAMPLER);
+        SampledTimeSeriesLongChartBuilder builder = new SampledTimeSeriesLongChartBuilder(timeWindow, -1);
+        // When
+        builder.addDataPoint(new DataPoint<Long, Long>(1000L, 20L, 5L, 100L));
+        builder.addDataPoint(new DataPoint<Long, Long>(2000L, 40L, 15L, 50L));
+        List<Point> points = builder.buildChart().getPoints();
+        // Then
+        assertPoint(points.get(0), 5L, 100L, 30L);
+    }
+
+    private void assertPoint(Point point, long min, long max, long avg) {
+        assertEquals(min, point.getMinVal());
+        assertEquals(max, point.getMaxVal());
+        assertEquals(avg, point.getAvgVal());
+    }
+}